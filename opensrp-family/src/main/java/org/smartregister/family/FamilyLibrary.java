@@ -5,6 +5,17 @@ import androidx.annotation.NonNull;
 import org.smartregister.Context;
 import org.smartregister.CoreLibrary;
 import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.family.helper.ProfileImageLoader;
+import org.smartregister.family.util.FamilyClientProcessor;
+import org.smartregister.family.util.FamilySearchIndex;
+import org.smartregister.family.util.FormTemplateCache;
+import org.smartregister.family.util.GlobalSearchCache;
+import org.smartregister.family.util.ImagePersistenceQueue;
+import org.smartregister.family.util.LocationTreeCache;
+import org.smartregister.family.util.PhotoPathCache;
+import org.smartregister.family.util.RegisterCounters;
+import org.smartregister.family.util.RegisterQueryCache;
+import org.smartregister.family.util.UniqueIdLeasePool;
 import org.smartregister.repository.UniqueIdRepository;
 import org.smartregister.sync.ClientProcessorForJava;
 import org.smartregister.sync.helper.ECSyncHelper;
@@ -25,10 +36,21 @@ public class FamilyLibrary {
     private int databaseVersion;
 
     private UniqueIdRepository uniqueIdRepository;
+    private UniqueIdLeasePool uniqueIdLeasePool;
     private ECSyncHelper syncHelper;
 
     private ClientProcessorForJava clientProcessorForJava;
+    private FamilyClientProcessor familyClientProcessor;
     private Compressor compressor;
+    private ImagePersistenceQueue imagePersistenceQueue;
+    private FormTemplateCache formTemplateCache;
+    private LocationTreeCache locationTreeCache;
+    private ProfileImageLoader profileImageLoader;
+    private PhotoPathCache photoPathCache;
+    private RegisterQueryCache registerQueryCache;
+    private RegisterCounters registerCounters;
+    private FamilySearchIndex familySearchIndex;
+    private GlobalSearchCache globalSearchCache;
 
     public static void init(Context context, FamilyMetadata familyMetadata, int applicationVersion, int databaseVersion) {
         if (instance == null) {
@@ -81,6 +103,13 @@ public class FamilyLibrary {
         return uniqueIdRepository;
     }
 
+    public synchronized UniqueIdLeasePool getUniqueIdLeasePool() {
+        if (uniqueIdLeasePool == null) {
+            uniqueIdLeasePool = new UniqueIdLeasePool(getUniqueIdRepository(), context().allSharedPreferences());
+        }
+        return uniqueIdLeasePool;
+    }
+
     public ECSyncHelper getEcSyncHelper() {
         if (syncHelper == null) {
             syncHelper = ECSyncHelper.getInstance(context().applicationContext());
@@ -100,6 +129,17 @@ public class FamilyLibrary {
         this.clientProcessorForJava = clientProcessorForJava;
     }
 
+    public synchronized FamilyClientProcessor getFamilyClientProcessor() {
+        if (familyClientProcessor == null) {
+            familyClientProcessor = new FamilyClientProcessor();
+        }
+        return familyClientProcessor;
+    }
+
+    public synchronized void setFamilyClientProcessor(FamilyClientProcessor familyClientProcessor) {
+        this.familyClientProcessor = familyClientProcessor;
+    }
+
     @NonNull
     public Compressor getCompressor() {
         if (compressor == null) {
@@ -108,6 +148,74 @@ public class FamilyLibrary {
         return compressor;
     }
 
+    public synchronized ImagePersistenceQueue getImagePersistenceQueue() {
+        if (imagePersistenceQueue == null) {
+            imagePersistenceQueue = new ImagePersistenceQueue(context().allSharedPreferences(), ImagePersistenceQueue.DEFAULT_CONCURRENCY);
+        }
+        return imagePersistenceQueue;
+    }
+
+    public synchronized void setImagePersistenceQueue(ImagePersistenceQueue imagePersistenceQueue) {
+        this.imagePersistenceQueue = imagePersistenceQueue;
+    }
+
+    public synchronized FormTemplateCache getFormTemplateCache() {
+        if (formTemplateCache == null) {
+            formTemplateCache = new FormTemplateCache(context().applicationContext());
+        }
+        return formTemplateCache;
+    }
+
+    public synchronized LocationTreeCache getLocationTreeCache() {
+        if (locationTreeCache == null) {
+            locationTreeCache = new LocationTreeCache();
+        }
+        return locationTreeCache;
+    }
+
+    public synchronized ProfileImageLoader getProfileImageLoader() {
+        if (profileImageLoader == null) {
+            profileImageLoader = new ProfileImageLoader();
+        }
+        return profileImageLoader;
+    }
+
+    public synchronized PhotoPathCache getPhotoPathCache() {
+        if (photoPathCache == null) {
+            photoPathCache = new PhotoPathCache();
+        }
+        return photoPathCache;
+    }
+
+    public synchronized RegisterQueryCache getRegisterQueryCache() {
+        if (registerQueryCache == null) {
+            registerQueryCache = new RegisterQueryCache();
+        }
+        return registerQueryCache;
+    }
+
+    public synchronized RegisterCounters getRegisterCounters() {
+        if (registerCounters == null) {
+            registerCounters = new RegisterCounters();
+        }
+        return registerCounters;
+    }
+
+    public synchronized FamilySearchIndex getFamilySearchIndex() {
+        if (familySearchIndex == null) {
+            familySearchIndex = new FamilySearchIndex();
+            getFamilyClientProcessor().addListener(familySearchIndex);
+        }
+        return familySearchIndex;
+    }
+
+    public synchronized GlobalSearchCache getGlobalSearchCache() {
+        if (globalSearchCache == null) {
+            globalSearchCache = new GlobalSearchCache();
+        }
+        return globalSearchCache;
+    }
+
     /**
      * Use this method when testing.
      * It should replace org.smartregister.Context#setInstance(org.smartregister.Context) which has been removed
@@ -11,8 +11,8 @@ import android.widget.TextView;
 import org.smartregister.family.R;
 import org.smartregister.family.adapter.ViewPagerAdapter;
 import org.smartregister.family.contract.FamilyOtherMemberContract;
+import org.smartregister.family.helper.ImageRenderHelper;
 import org.smartregister.family.util.Utils;
-import org.smartregister.helper.ImageRenderHelper;
 import org.smartregister.view.activity.BaseProfileActivity;
 
 import de.hdodenhof.circleimageview.CircleImageView;
@@ -16,15 +16,16 @@ import com.vijay.jsonwizard.domain.Form;
 import org.json.JSONObject;
 import org.smartregister.AllConstants;
 import org.smartregister.domain.FetchStatus;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.adapter.ViewPagerAdapter;
 import org.smartregister.family.contract.FamilyProfileContract;
 import org.smartregister.family.fragment.BaseFamilyProfileMemberFragment;
+import org.smartregister.family.helper.ImageRenderHelper;
 import org.smartregister.family.util.AppExecutors;
 import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.JsonFormUtils;
 import org.smartregister.family.util.Utils;
-import org.smartregister.helper.ImageRenderHelper;
 import org.smartregister.view.activity.BaseProfileActivity;
 
 import de.hdodenhof.circleimageview.CircleImageView;
@@ -159,11 +160,15 @@ public abstract class BaseFamilyProfileActivity extends BaseProfileActivity impl
             } catch (Exception e) {
                 Timber.e(e);
             }
+        } else if (requestCode == JsonFormUtils.REQUEST_CODE_GET_JSON && resultCode == RESULT_CANCELED) {
+            presenter().onFormCancelled();
         }
     }
 
     @Override
     public void refreshMemberList(final FetchStatus fetchStatus) {
+        // the members may have been written by the sync or the app
+        FamilyLibrary.getInstance().getRegisterCounters().onRegistersChanged();
         if (Looper.myLooper() == Looper.getMainLooper()) {
             BaseFamilyProfileMemberFragment memberFragment = getProfileMemberFragment();
             if (memberFragment != null && fetchStatus.equals(FetchStatus.fetched)) {
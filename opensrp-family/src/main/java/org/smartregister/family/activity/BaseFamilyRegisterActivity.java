@@ -74,6 +74,8 @@ public abstract class BaseFamilyRegisterActivity extends BaseRegisterActivity im
                 Timber.e(e);
             }
 
+        } else if (requestCode == JsonFormUtils.REQUEST_CODE_GET_JSON && resultCode == RESULT_CANCELED) {
+            presenter().onFormCancelled();
         }
     }
 
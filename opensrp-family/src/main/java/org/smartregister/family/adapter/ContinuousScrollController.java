@@ -0,0 +1,150 @@
+package org.smartregister.family.adapter;
+
+import android.database.Cursor;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.smartregister.family.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import timber.log.Timber;
+
+/**
+ * Loads the next page of a continuously scrolled register on a background thread once the list is scrolled to within
+ * {@code prefetchDistance} rows of the end of the window, and the previous page when scrolled back to its start.
+ * <p>
+ * The adapter keeps a bounded {@link PageWindow}, the pages that scrolled far away are dropped and loaded again
+ * when scrolled back to. The first visible row stays in place when rows are added or dropped before it.
+ */
+public class ContinuousScrollController extends RecyclerView.OnScrollListener {
+
+    public static final int DEFAULT_PREFETCH_DISTANCE = 10;
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    /**
+     * Loads the rows of a page of the register, called on a background thread
+     */
+    public interface PageSource {
+
+        @Nullable
+        Cursor loadPage(int page, int pageSize);
+    }
+
+    private final FamilyRecyclerViewCustomAdapter adapter;
+    private final PageSource pageSource;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final AppExecutors appExecutors;
+
+    private boolean loading;
+
+    public ContinuousScrollController(FamilyRecyclerViewCustomAdapter adapter, PageSource pageSource, int pageSize, int prefetchDistance) {
+        this(adapter, pageSource, pageSize, prefetchDistance, new AppExecutors());
+    }
+
+    @VisibleForTesting
+    ContinuousScrollController(FamilyRecyclerViewCustomAdapter adapter, PageSource pageSource, int pageSize, int prefetchDistance, AppExecutors appExecutors) {
+        this.adapter = adapter;
+        this.pageSource = pageSource;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.appExecutors = appExecutors;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        PageWindow pageWindow = adapter.getPageWindow();
+        if (loading || pageWindow == null || pageWindow.isEmpty() || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - 1 - prefetchDistance
+                && pageWindow.getLastPageCount() >= pageSize && !pageWindow.isEndReached()) {
+            load(recyclerView, pageWindow, pageWindow.getLastPage() + 1, true);
+        } else if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= prefetchDistance && pageWindow.getFirstPage() > 0) {
+            load(recyclerView, pageWindow, pageWindow.getFirstPage() - 1, false);
+        }
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    private void load(final RecyclerView recyclerView, final PageWindow pageWindow, final int page, final boolean next) {
+        loading = true;
+        final int generation = pageWindow.getGeneration();
+        // read on the main thread, the cursors of the window are bound from it
+        final List<String> windowIds = getBaseEntityIds(adapter.getCursor());
+
+        appExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                Cursor cursor = null;
+                try {
+                    cursor = pageSource.loadPage(page, pageSize);
+                    if (cursor != null) {
+                        List<String> pageIds = getBaseEntityIds(cursor);
+                        windowIds.addAll(pageIds);
+                        adapter.preparePage(windowIds, cursor);
+                    }
+                } catch (Exception e) {
+                    Timber.e(e);
+                }
+
+                final Cursor loadedPage = cursor;
+                appExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(recyclerView, pageWindow, generation, page, next, loadedPage);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageLoaded(RecyclerView recyclerView, PageWindow pageWindow, int generation, int page, boolean next, @Nullable Cursor cursor) {
+        loading = false;
+        if (cursor == null) {
+            return;
+        }
+        if (pageWindow != adapter.getPageWindow() || generation != pageWindow.getGeneration()) {
+            // the register was searched or sorted while the page loaded
+            cursor.close();
+            return;
+        }
+        if (next && cursor.getCount() < pageSize) {
+            // no rows after this page, or after the one before it when this one is empty
+            pageWindow.setEndPage(cursor.getCount() == 0 ? page - 1 : page);
+        }
+        if (cursor.getCount() == 0) {
+            cursor.close();
+            return;
+        }
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int firstPosition = layoutManager == null ? RecyclerView.NO_POSITION : layoutManager.findFirstVisibleItemPosition();
+        View firstView = firstPosition == RecyclerView.NO_POSITION ? null : layoutManager.findViewByPosition(firstPosition);
+        int firstOffset = firstView == null ? 0 : firstView.getTop() - recyclerView.getPaddingTop();
+
+        int shift = next ? -pageWindow.append(page, cursor) : pageWindow.prepend(page, cursor);
+        adapter.swapCursor(pageWindow.getCursor());
+        pageWindow.closeDroppedPages();
+
+        if (shift != 0 && firstView != null) {
+            layoutManager.scrollToPositionWithOffset(Math.max(0, firstPosition + shift), firstOffset);
+        }
+    }
+
+    private static List<String> getBaseEntityIds(@Nullable Cursor cursor) {
+        List<String> baseEntityIds = cursor == null ? null : FamilyRecyclerViewCustomAdapter.getBaseEntityIds(cursor);
+        return baseEntityIds == null ? new ArrayList<String>() : baseEntityIds;
+    }
+}
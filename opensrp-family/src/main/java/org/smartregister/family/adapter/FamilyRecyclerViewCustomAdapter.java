@@ -1,24 +1,233 @@
 package org.smartregister.family.adapter;
 
 import android.database.Cursor;
+
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
+import org.apache.commons.lang3.StringUtils;
 import org.smartregister.commonregistry.CommonRepository;
 import org.smartregister.cursoradapter.RecyclerViewPaginatedAdapter;
 import org.smartregister.cursoradapter.RecyclerViewProvider;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.util.DBConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 public class FamilyRecyclerViewCustomAdapter<V extends RecyclerView.ViewHolder> extends RecyclerViewPaginatedAdapter<V> {
 
     private boolean showPagination;
 
+    private final List<PageDataResolver> pageDataResolvers = new ArrayList<>();
+    private final List<PageRowsProcessor> pageRowsProcessors = new ArrayList<>();
+    private final Set<Cursor> preparedPages = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Cursor, Boolean>()));
+    private KeysetPagination keysetPagination;
+    private String keysetSelect;
+    private PageWindow pageWindow;
+    private boolean continuousScrollActive;
+
     public FamilyRecyclerViewCustomAdapter(Cursor cursor, RecyclerViewProvider<RecyclerView.ViewHolder> listItemProvider, CommonRepository commonRepository, boolean showPagination) {
         super(cursor, listItemProvider, commonRepository);
         this.showPagination = showPagination;
+        if (listItemProvider instanceof PageDataResolver) {
+            pageDataResolvers.add((PageDataResolver) listItemProvider);
+        }
+        if (listItemProvider instanceof PageRowsProcessor) {
+            pageRowsProcessors.add((PageRowsProcessor) listItemProvider);
+        }
+        resolvePage(cursor);
+    }
+
+    public void addPageDataResolver(PageDataResolver pageDataResolver) {
+        pageDataResolvers.add(pageDataResolver);
+    }
+
+    public void addPageRowsProcessor(PageRowsProcessor pageRowsProcessor) {
+        pageRowsProcessors.add(pageRowsProcessor);
+    }
+
+    /**
+     * @param args receives the arguments of the query, those of the main select included
+     * @return the query of the current page seeked on the sort columns, or null when the register is filtered or the
+     * sort is not on plain columns
+     */
+    @Nullable
+    public String getKeysetPageQuery(String mainSelect, @Nullable String[] selectionArgs, String sortQuery, String filters, List<String> args) {
+        if (StringUtils.isNotBlank(filters)) {
+            // the keys of the filtered pages are not kept
+            keysetPagination = null;
+            return null;
+        }
+        if (keysetPagination == null || !keysetPagination.isFor(sortQuery) || !mainSelect.equals(keysetSelect)) {
+            keysetPagination = KeysetPagination.forSortQuery(sortQuery);
+            keysetSelect = mainSelect;
+        }
+        return keysetPagination == null ? null : keysetPagination.getPageQuery(mainSelect, selectionArgs, getCurrentPage(), getCurrentlimit(), args);
+    }
+
+    @Nullable
+    public KeysetPagination getKeysetPagination() {
+        return keysetPagination;
+    }
+
+    /**
+     * Shows the rows of a window of pages without the pagination footer, see {@link ContinuousScrollController}
+     */
+    public void enableContinuousScroll(int maxPages) {
+        pageWindow = new PageWindow(maxPages);
+        continuousScrollActive = true;
+    }
+
+    /**
+     * Turns continuous scrolling off while the register is filtered, so that the filtered pages are paged with the footer
+     */
+    public void setContinuousScrollActive(boolean active) {
+        continuousScrollActive = pageWindow != null && active;
+    }
+
+    public boolean isContinuousScrollActive() {
+        return continuousScrollActive;
+    }
+
+    @Nullable
+    public PageWindow getPageWindow() {
+        return continuousScrollActive ? pageWindow : null;
+    }
+
+    private int getCurrentPage() {
+        return getCurrentlimit() > 0 ? getCurrentoffset() / getCurrentlimit() : 0;
+    }
+
+    @Override
+    public Cursor swapCursor(Cursor newCursor) {
+        if (newCursor instanceof PageWindow.WindowCursor) {
+            // the pages of the window were prepared when they were loaded
+            return super.swapCursor(newCursor);
+        }
+        if (keysetPagination != null) {
+            keysetPagination.onPageLoaded(getCurrentPage(), newCursor);
+        }
+        boolean prepared = newCursor != null && preparedPages.remove(newCursor);
+        if (continuousScrollActive && newCursor != null) {
+            pageWindow.reset(newCursor);
+            if (!prepared) {
+                resolvePage(newCursor);
+                processPageRows(newCursor);
+            }
+            Cursor oldCursor = super.swapCursor(pageWindow.getCursor());
+            pageWindow.closeDroppedPages();
+            return oldCursor;
+        }
+        if (!prepared) {
+            resolvePage(newCursor);
+            processPageRows(newCursor);
+        }
+        return super.swapCursor(newCursor);
+    }
+
+    /**
+     * Hands the base entity ids of the page to the resolvers before its rows are bound
+     */
+    protected void resolvePage(Cursor cursor) {
+        // pageDataResolvers is not set yet if the super constructor swaps in its cursor
+        if (cursor == null || pageDataResolvers == null || pageDataResolvers.isEmpty()) {
+            return;
+        }
+        List<String> baseEntityIds = getBaseEntityIds(cursor);
+        if (baseEntityIds != null) {
+            resolve(baseEntityIds);
+        }
+    }
+
+    /**
+     * Resolves and processes a page on the loader thread before it is delivered, so that swapping it in only binds
+     * the rows. A page swapped in without being prepared is resolved and processed on the main thread.
+     */
+    public void preparePage(Cursor page) {
+        if (page == null) {
+            return;
+        }
+        resolvePage(page);
+        processPageRows(page);
+        preparedPages.add(page);
+    }
+
+    /**
+     * Resolves and processes a page loaded into the window off the main thread, before the window is swapped in
+     *
+     * @param windowIds the base entity ids of the rows of the window with the page
+     */
+    public void preparePage(List<String> windowIds, Cursor page) {
+        resolve(windowIds);
+        processPageRows(page);
+    }
+
+    /**
+     * @return the base entity ids of the rows, or null when the cursor has no base entity id column
+     */
+    @Nullable
+    public static List<String> getBaseEntityIds(Cursor cursor) {
+        int columnIndex = cursor.getColumnIndex(DBConstants.KEY.BASE_ENTITY_ID);
+        if (columnIndex < 0) {
+            return null;
+        }
+
+        List<String> baseEntityIds = new ArrayList<>(cursor.getCount());
+        int position = cursor.getPosition();
+        cursor.moveToPosition(-1);
+        while (cursor.moveToNext()) {
+            baseEntityIds.add(cursor.getString(columnIndex));
+        }
+        cursor.moveToPosition(position);
+        return baseEntityIds;
+    }
+
+    private void resolve(List<String> baseEntityIds) {
+        for (PageDataResolver pageDataResolver : pageDataResolvers) {
+            pageDataResolver.resolve(baseEntityIds);
+        }
+    }
+
+    /**
+     * Hands the column values of the page rows to the processors before the rows are bound
+     */
+    protected void processPageRows(Cursor cursor) {
+        if (cursor == null || pageRowsProcessors == null || pageRowsProcessors.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, String>> rows = new ArrayList<>(cursor.getCount());
+        int position = cursor.getPosition();
+        cursor.moveToPosition(-1);
+        while (cursor.moveToNext()) {
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < cursor.getColumnCount(); i++) {
+                row.put(cursor.getColumnName(i), cursor.getString(i));
+            }
+            rows.add(row);
+        }
+        cursor.moveToPosition(position);
+
+        for (PageRowsProcessor pageRowsProcessor : pageRowsProcessors) {
+            pageRowsProcessor.onPageLoaded(rows);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(RecyclerView.ViewHolder holder) {
+        super.onViewRecycled(holder);
+        FamilyLibrary.getInstance().getProfileImageLoader().cancel(holder.itemView);
     }
 
     @Override
     public boolean isFooter(int position) {
-        if (showPagination) {
+        if (showPagination && !continuousScrollActive) {
             return super.isFooter(position);
         }
         return false;
@@ -28,7 +237,7 @@ public class FamilyRecyclerViewCustomAdapter<V extends RecyclerView.ViewHolder>
     @Override
     public int getItemCount() {
         int count = super.getItemCount();
-        if (showPagination || count <= 0) {
+        if ((showPagination && !continuousScrollActive) || count <= 0) {
             return count;
         }
         return count - 1;
@@ -0,0 +1,233 @@
+package org.smartregister.family.adapter;
+
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.family.util.DBConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pages a register by seeking past the sort key and base entity id of the last row of the previous page, instead
+ * of skipping the rows of all the previous pages with an OFFSET.
+ * <p>
+ * The sort key of each visited page is kept when the page is loaded, so moving to the next or previous page costs
+ * the same at any depth. Only sorts on plain columns are supported, see {@link #forSortQuery(String)}, and every
+ * sort column must be selected by the main select, as the page query sorts the rows of the select.
+ * <p>
+ * A page is seeked with a row value comparison, which SQLite answers from the index of the sort columns, so the
+ * columns must all be sorted the same way. Pages of mixed sorts, of keys with no value and of descending sorts on
+ * more than one column are loaded with an offset.
+ */
+public class KeysetPagination {
+
+    private static final Pattern SORT_COLUMN = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*\\.)?([A-Za-z_][A-Za-z0-9_]*)(\\s+(ASC|DESC))?", Pattern.CASE_INSENSITIVE);
+
+    private final String sortQuery;
+    private final List<String> columns;
+    private final List<Boolean> descending;
+    private final Map<Integer, Object[]> pageStartKeys = new HashMap<>();
+
+    private KeysetPagination(String sortQuery, List<String> columns, List<Boolean> descending) {
+        this.sortQuery = sortQuery;
+        this.columns = columns;
+        this.descending = descending;
+    }
+
+    /**
+     * @return the pagination for a sort on plain columns, e.g. "dod, dob ASC", with the base entity id added as the
+     * last sort column in the direction of the one before it, or null for sorts on expressions or with collations
+     */
+    @Nullable
+    public static KeysetPagination forSortQuery(String sortQuery) {
+        if (StringUtils.isBlank(sortQuery)) {
+            return null;
+        }
+
+        List<String> columns = new ArrayList<>();
+        List<Boolean> descending = new ArrayList<>();
+        for (String sortColumn : sortQuery.split(",")) {
+            Matcher matcher = SORT_COLUMN.matcher(sortColumn.trim());
+            if (!matcher.matches()) {
+                return null;
+            }
+            columns.add(matcher.group(2));
+            descending.add("DESC".equalsIgnoreCase(matcher.group(4)));
+        }
+        if (!columns.contains(DBConstants.KEY.BASE_ENTITY_ID)) {
+            columns.add(DBConstants.KEY.BASE_ENTITY_ID);
+            descending.add(descending.get(descending.size() - 1));
+        }
+        return new KeysetPagination(sortQuery, columns, descending);
+    }
+
+    public boolean isFor(String sortQuery) {
+        return this.sortQuery.equals(sortQuery);
+    }
+
+    /**
+     * @param mainSelect    the select of the register with its conditions, the sort columns and the base entity id
+     * @param selectionArgs the arguments of the main select, if any
+     * @param args          receives the arguments of the page query, those of the main select included
+     * @return the query of the page, seeked past the previous page when its last row is known and can be seeked past,
+     * otherwise with an offset in the same order
+     */
+    public synchronized String getPageQuery(String mainSelect, @Nullable String[] selectionArgs, int page, int limit, List<String> args) {
+        Object[] key = page > 0 ? pageStartKeys.get(page) : null;
+        if (key == null || !isSeekable(key)) {
+            addAll(args, selectionArgs);
+            return getSortedQuery(mainSelect, null, limit) + (page > 0 ? " OFFSET " + page * limit : "");
+        }
+
+        addAll(args, selectionArgs);
+        if (!descending.get(0)) {
+            addKeyArgs(args, key);
+            return getSortedQuery(mainSelect, getRowValue(columns) + " > " + getRowValue(key), limit);
+        }
+
+        String column = columns.get(0);
+        if (key[0] == null) {
+            args.add(key[1].toString());
+            return getSortedQuery(mainSelect, column + " IS NULL AND " + columns.get(1) + " < ?", limit);
+        }
+
+        // the rows with no value sort after the others when descending and are not matched by the row value
+        addKeyArgs(args, key);
+        addAll(args, selectionArgs);
+        return "SELECT * FROM (" + getSortedQuery(mainSelect, getRowValue(columns) + " < " + getRowValue(key), limit)
+                + ") UNION ALL SELECT * FROM (" + getSortedQuery(mainSelect, column + " IS NULL", limit)
+                + ") ORDER BY " + getOrderBy() + " LIMIT " + limit;
+    }
+
+    /**
+     * Keeps the sort key of the last row of a loaded page as the start of the next page
+     */
+    public synchronized void onPageLoaded(int page, Cursor cursor) {
+        if (cursor == null || cursor.getCount() == 0) {
+            return;
+        }
+
+        int position = cursor.getPosition();
+        try {
+            Object[] key = new Object[columns.size()];
+            cursor.moveToLast();
+            for (int i = 0; i < columns.size(); i++) {
+                int columnIndex = cursor.getColumnIndex(columns.get(i));
+                if (columnIndex < 0) {
+                    // the page cannot be seeked past, the next page is loaded with an offset
+                    pageStartKeys.remove(page + 1);
+                    return;
+                }
+                key[i] = getValue(cursor, columnIndex);
+            }
+            pageStartKeys.put(page + 1, key);
+        } finally {
+            cursor.moveToPosition(position);
+        }
+    }
+
+    public synchronized void reset() {
+        pageStartKeys.clear();
+    }
+
+    /**
+     * @return a statement creating an index on the sort columns so that pages are seeked in the index
+     */
+    public String getIndexStatement(String tableName) {
+        String indexName = tableName + "_" + StringUtils.join(columns, "_") + "_index";
+        return "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + tableName + "(" + StringUtils.join(columns, ", ") + ")";
+    }
+
+    /**
+     * Creates the index of the sort columns. Run it from the repository of the app when the register table is created
+     * or upgraded, e.g. {@code KeysetPagination.forSortQuery(sortQuery).createIndex(database, tableName)}, not from
+     * the register
+     */
+    public void createIndex(SQLiteDatabase database, String tableName) {
+        database.execSQL(getIndexStatement(tableName));
+    }
+
+    private String getOrderBy() {
+        StringBuilder orderBy = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                orderBy.append(", ");
+            }
+            orderBy.append(columns.get(i)).append(descending.get(i) ? " DESC" : " ASC");
+        }
+        return orderBy.toString();
+    }
+
+    private String getSortedQuery(String mainSelect, @Nullable String condition, int limit) {
+        StringBuilder query = new StringBuilder("SELECT * FROM (").append(mainSelect).append(") ");
+        if (condition != null) {
+            query.append("WHERE ").append(condition).append(' ');
+        }
+        return query.append("ORDER BY ").append(getOrderBy()).append(" LIMIT ").append(limit).toString();
+    }
+
+    /**
+     * @return whether the rows after the key are matched by a row value seek, a key with no value in a descending
+     * sort on one column is seeked among the rows with no value, which sort last
+     */
+    private boolean isSeekable(Object[] key) {
+        boolean descendingSort = descending.get(0);
+        for (int i = 0; i < columns.size(); i++) {
+            if (descending.get(i) != descendingSort) {
+                return false;
+            }
+        }
+        if (descendingSort && (columns.size() > 2 || (columns.size() == 1 && key[0] == null))) {
+            return false;
+        }
+        for (int i = descendingSort ? 1 : 0; i < key.length; i++) {
+            if (key[i] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getRowValue(List<String> columns) {
+        return "(" + StringUtils.join(columns, ", ") + ")";
+    }
+
+    private static String getRowValue(Object[] key) {
+        return "(" + StringUtils.repeat("?", ", ", key.length) + ")";
+    }
+
+    private static void addKeyArgs(List<String> args, Object[] key) {
+        for (Object value : key) {
+            args.add(value.toString());
+        }
+    }
+
+    private static void addAll(List<String> args, @Nullable String[] values) {
+        if (values != null) {
+            Collections.addAll(args, values);
+        }
+    }
+
+    private static Object getValue(Cursor cursor, int columnIndex) {
+        switch (cursor.getType(columnIndex)) {
+            case Cursor.FIELD_TYPE_NULL:
+                return null;
+            case Cursor.FIELD_TYPE_INTEGER:
+                return cursor.getLong(columnIndex);
+            case Cursor.FIELD_TYPE_FLOAT:
+                return cursor.getDouble(columnIndex);
+            default:
+                return cursor.getString(columnIndex);
+        }
+    }
+}
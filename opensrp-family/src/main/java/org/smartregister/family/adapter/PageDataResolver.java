@@ -0,0 +1,18 @@
+package org.smartregister.family.adapter;
+
+import java.util.List;
+
+/**
+ * Loads the secondary data a provider needs for the rows of a page in one go, when the page is loaded,
+ * so that binding a row only reads what was resolved.
+ * <p>
+ * A provider implementing this interface is registered with {@link FamilyRecyclerViewCustomAdapter} automatically,
+ * other resolvers are added with {@link FamilyRecyclerViewCustomAdapter#addPageDataResolver(PageDataResolver)}.
+ */
+public interface PageDataResolver {
+
+    /**
+     * @param baseEntityIds the base entity ids of the rows on the loaded page
+     */
+    void resolve(List<String> baseEntityIds);
+}
@@ -0,0 +1,21 @@
+package org.smartregister.family.adapter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives the column values of the rows of a page when the page is loaded, before its rows are bound,
+ * e.g. to format the rows before they are bound.
+ * <p>
+ * A provider implementing this interface is registered with {@link FamilyRecyclerViewCustomAdapter} automatically.
+ */
+public interface PageRowsProcessor {
+
+    /**
+     * Called on the loader thread for the pages prepared by the loader, see
+     * {@link FamilyRecyclerViewCustomAdapter#preparePage(android.database.Cursor)}, on the main thread otherwise
+     *
+     * @param rows the column values of each row on the page
+     */
+    void onPageLoaded(List<Map<String, String>> rows);
+}
@@ -0,0 +1,138 @@
+package org.smartregister.family.adapter;
+
+import android.database.Cursor;
+import android.database.MergeCursor;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The consecutive pages of a continuously scrolled register that are kept in memory, at most {@code maxPages}.
+ * <p>
+ * Adding a page at one end drops the pages at the other end beyond the limit. The first page handed over by the
+ * register loader stays owned by the loader and is never closed here.
+ */
+public class PageWindow {
+
+    private final int maxPages;
+    private final LinkedList<Integer> pageNumbers = new LinkedList<>();
+    private final LinkedList<Cursor> pages = new LinkedList<>();
+    private final List<Cursor> droppedPages = new ArrayList<>();
+    private Cursor loaderPage;
+    private int generation;
+    private int endPage = -1;
+
+    public PageWindow(int maxPages) {
+        this.maxPages = Math.max(2, maxPages);
+    }
+
+    /**
+     * Starts again from the first page, e.g. after the register is searched or sorted
+     */
+    public void reset(Cursor firstPage) {
+        droppedPages.addAll(pages);
+        pages.clear();
+        pageNumbers.clear();
+        loaderPage = firstPage;
+        if (firstPage != null) {
+            pages.add(firstPage);
+            pageNumbers.add(0);
+        }
+        endPage = -1;
+        generation++;
+    }
+
+    /**
+     * @return the number of rows dropped from the start of the window
+     */
+    public int append(int page, Cursor cursor) {
+        pages.addLast(cursor);
+        pageNumbers.addLast(page);
+        int droppedRows = 0;
+        while (pages.size() > maxPages) {
+            Cursor dropped = pages.removeFirst();
+            pageNumbers.removeFirst();
+            droppedRows += dropped.getCount();
+            droppedPages.add(dropped);
+        }
+        return droppedRows;
+    }
+
+    /**
+     * @return the number of rows added at the start of the window
+     */
+    public int prepend(int page, Cursor cursor) {
+        pages.addFirst(cursor);
+        pageNumbers.addFirst(page);
+        while (pages.size() > maxPages) {
+            droppedPages.add(pages.removeLast());
+            pageNumbers.removeLast();
+        }
+        return cursor.getCount();
+    }
+
+    /**
+     * Closes the dropped pages, once the adapter no longer reads them
+     */
+    public void closeDroppedPages() {
+        for (Cursor cursor : droppedPages) {
+            if (cursor != loaderPage && !cursor.isClosed()) {
+                cursor.close();
+            }
+        }
+        droppedPages.clear();
+    }
+
+    public Cursor getCursor() {
+        return new WindowCursor(pages.toArray(new Cursor[0]));
+    }
+
+    public boolean isEmpty() {
+        return pages.isEmpty();
+    }
+
+    public int getFirstPage() {
+        return pageNumbers.getFirst();
+    }
+
+    public int getLastPage() {
+        return pageNumbers.getLast();
+    }
+
+    public int getLastPageCount() {
+        return pages.getLast().getCount();
+    }
+
+    /**
+     * Records the last page of the register, found when a page after it came back short or empty, until the next
+     * {@link #reset(Cursor)}
+     */
+    public void setEndPage(int page) {
+        endPage = page;
+    }
+
+    /**
+     * @return whether the last page of the window is the last page of the register
+     */
+    public boolean isEndReached() {
+        return endPage >= 0 && !pageNumbers.isEmpty() && pageNumbers.getLast() >= endPage;
+    }
+
+    /**
+     * @return a number that changes on every {@link #reset(Cursor)}, so that pages loaded for an earlier window are dropped
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * The rows of the pages of the window, one after the other
+     */
+    public static class WindowCursor extends MergeCursor {
+
+        WindowCursor(Cursor[] cursors) {
+            super(cursors);
+        }
+    }
+}
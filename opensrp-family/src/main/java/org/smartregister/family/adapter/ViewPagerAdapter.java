@@ -5,6 +5,9 @@ import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentPagerAdapter;
 import android.util.Pair;
 
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.util.RegisterCounters;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,4 +53,19 @@ public class ViewPagerAdapter extends FragmentPagerAdapter {
             notifyDataSetChanged();
         }
     }
+
+    /**
+     * Shows the count kept by {@link RegisterCounters} for the register of the family on the tab at the position,
+     * if the register has been counted
+     */
+    public void updateCount(int position, String tableName, String familyId) {
+        Integer count = getRegisterCounters().getCount(tableName, familyId);
+        if (count != null) {
+            updateCount(Pair.create(position, count));
+        }
+    }
+
+    protected RegisterCounters getRegisterCounters() {
+        return FamilyLibrary.getInstance().getRegisterCounters();
+    }
 }
@@ -0,0 +1,29 @@
+package org.smartregister.family.contract;
+
+import org.smartregister.family.domain.FamilyImportReport;
+
+import java.io.File;
+
+/**
+ * Bulk import of completed family register forms from an NDJSON file, one form per line.
+ */
+public interface FamilyImportContract {
+
+    interface Interactor {
+
+        void importHouseholds(File file, int batchSize, FamilyImportContract.InteractorCallBack callBack);
+
+        void cancelImport();
+
+        void resetCheckpoint(File file);
+
+    }
+
+    interface InteractorCallBack {
+
+        void onImportProgress(FamilyImportReport report);
+
+        void onImportComplete(FamilyImportReport report);
+
+    }
+}
@@ -8,6 +8,7 @@ import org.json.JSONObject;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.domain.FetchStatus;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.repository.AllSharedPreferences;
 import org.smartregister.view.contract.BaseProfileContract;
 
@@ -57,6 +58,8 @@ public interface FamilyProfileContract {
 
         String familyBaseEntityId();
 
+        void onFormCancelled();
+
     }
 
     interface Interactor {
@@ -69,6 +72,10 @@ public interface FamilyProfileContract {
 
         void saveRegistration(final FamilyEventClient familyEventClient, final String jsonString, final boolean isEditMode, final FamilyProfileContract.InteractorCallBack callBack);
 
+        void saveRegistration(final FamilyEventClient familyEventClient, final ParsedForm parsedForm, final boolean isEditMode, final FamilyProfileContract.InteractorCallBack callBack);
+
+        void releaseUniqueId(String uniqueId);
+
     }
 
     interface InteractorCallBack {
@@ -91,10 +98,16 @@ public interface FamilyProfileContract {
 
         FamilyEventClient processMemberRegistration(String jsonString, String familyBaseEntityId);
 
+        FamilyEventClient processMemberRegistration(ParsedForm parsedForm, String familyBaseEntityId);
+
         FamilyEventClient processFamilyRegistrationForm(String jsonString, String familyBaseEntityId);
 
+        FamilyEventClient processFamilyRegistrationForm(ParsedForm parsedForm, String familyBaseEntityId);
+
         FamilyEventClient processUpdateMemberRegistration(String jsonString, String familyBaseEntityId);
 
+        FamilyEventClient processUpdateMemberRegistration(ParsedForm parsedForm, String familyBaseEntityId);
+
     }
 
 }
@@ -2,6 +2,7 @@ package org.smartregister.family.contract;
 
 import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.ViewConfiguration;
+import org.smartregister.family.util.QueryCondition;
 import org.smartregister.view.contract.BaseRegisterFragmentContract;
 
 import java.util.Set;
@@ -13,12 +14,16 @@ public interface FamilyProfileDueContract {
         void initializeAdapter(Set<org.smartregister.configurableviews.model.View> visibleColumns);
 
         FamilyProfileDueContract.Presenter presenter();
+
+        void initializeBoundQueryParams(String countSelect, String mainSelect, String[] selectionArgs);
     }
 
     interface Presenter extends BaseRegisterFragmentContract.Presenter {
 
         String getMainCondition();
 
+        QueryCondition getQueryCondition();
+
         String getDefaultSortQuery();
 
         String getQueryTable();
@@ -1,9 +1,12 @@
 package org.smartregister.family.contract;
 
+import org.json.JSONObject;
 import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.ViewConfiguration;
+import org.smartregister.family.util.QueryCondition;
 import org.smartregister.view.contract.BaseRegisterFragmentContract;
 
+import java.util.List;
 import java.util.Set;
 
 public interface FamilyProfileMemberContract {
@@ -14,15 +17,21 @@ public interface FamilyProfileMemberContract {
 
         FamilyProfileMemberContract.Presenter presenter();
 
+        void initializeBoundQueryParams(String countSelect, String mainSelect, String[] selectionArgs);
+
         void setFamilyHead(String familyHead);
 
         void setPrimaryCaregiver(String primaryCaregiver);
+
+        void showGlobalSearchResults(String query, List<JSONObject> clients);
     }
 
     interface Presenter extends BaseRegisterFragmentContract.Presenter {
 
         String getMainCondition();
 
+        QueryCondition getQueryCondition();
+
         String getDefaultSortQuery();
 
         void setFamilyHead(String familyHead);
@@ -3,6 +3,7 @@ package org.smartregister.family.contract;
 import org.apache.commons.lang3.tuple.Triple;
 import org.json.JSONObject;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.view.contract.BaseRegisterContract;
 
 import java.util.List;
@@ -26,6 +27,8 @@ public interface FamilyRegisterContract {
 
         void closeFamilyRecord(String jsonString);
 
+        void onFormCancelled();
+
     }
 
     interface Model {
@@ -40,6 +43,8 @@ public interface FamilyRegisterContract {
 
         List<FamilyEventClient> processRegistration(String jsonString);
 
+        List<FamilyEventClient> processRegistration(ParsedForm parsedForm);
+
         JSONObject getFormAsJson(String formName, String entityId,
                                  String currentLocationId) throws Exception;
 
@@ -55,8 +60,12 @@ public interface FamilyRegisterContract {
 
         void saveRegistration(final List<FamilyEventClient> familyEventClientList, final String jsonString, final boolean isEditMode, final FamilyRegisterContract.InteractorCallBack callBack);
 
+        void saveRegistration(final List<FamilyEventClient> familyEventClientList, final ParsedForm parsedForm, final boolean isEditMode, final FamilyRegisterContract.InteractorCallBack callBack);
+
         void removeFamilyFromRegister(String closeFormJsonString, String providerId);
 
+        void releaseUniqueId(String uniqueId);
+
     }
 
     interface InteractorCallBack {
@@ -1,10 +1,12 @@
 package org.smartregister.family.contract;
 
 import org.json.JSONArray;
+import org.json.JSONObject;
 import org.smartregister.configurableviews.model.Field;
 import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.ViewConfiguration;
 import org.smartregister.domain.Response;
+import org.smartregister.family.util.QueryCondition;
 import org.smartregister.view.contract.BaseRegisterFragmentContract;
 
 import java.util.List;
@@ -19,6 +21,10 @@ public interface FamilyRegisterFragmentContract {
 
         FamilyRegisterFragmentContract.Presenter presenter();
 
+        void initializeBoundQueryParams(String countSelect, String mainSelect, String[] selectionArgs);
+
+        void showGlobalSearchResults(String query, List<JSONObject> clients);
+
     }
 
     interface Presenter extends BaseRegisterFragmentContract.Presenter {
@@ -27,6 +33,8 @@ public interface FamilyRegisterFragmentContract {
 
         String getMainCondition();
 
+        QueryCondition getQueryCondition();
+
         String getDefaultSortQuery();
 
         String getQueryTable();
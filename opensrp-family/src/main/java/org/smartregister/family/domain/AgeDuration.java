@@ -0,0 +1,88 @@
+package org.smartregister.family.domain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The duration between two dates in the form shown on the registers: days up to 13 days, weeks and days up to
+ * 97 days, months up to 363 days and years and months beyond.
+ * <p>
+ * {@link #toString()} gives the same text as {@code DateUtil.getDuration(long)}, e.g. "5d", "3w 2d", "4m" or "41y 2m".
+ */
+public class AgeDuration {
+
+    public enum Unit {
+        DAYS, WEEKS, MONTHS, YEARS
+    }
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final Unit unit;
+    private final int value;
+    private final int remainder;
+
+    public AgeDuration(Unit unit, int value, int remainder) {
+        this.unit = unit;
+        this.value = value;
+        this.remainder = remainder;
+    }
+
+    /**
+     * Splits a duration the same way as {@code DateUtil.getDuration(long)}, including its float rounding
+     */
+    public static AgeDuration fromMillis(long timeDiff) {
+        if (timeDiff >= 0 && timeDiff <= 13 * DAY) {
+            return new AgeDuration(Unit.DAYS, (int) (timeDiff / DAY), 0);
+        } else if (timeDiff > 13 * DAY && timeDiff <= 97 * DAY) {
+            int weeks = (int) Math.floor((float) timeDiff / (7 * DAY));
+            int days = (int) Math.floor((float) (timeDiff - weeks * 7 * DAY) / DAY);
+            if (days >= 7) {
+                days = 0;
+                weeks++;
+            }
+            return new AgeDuration(Unit.WEEKS, weeks, days);
+        } else if (timeDiff > 97 * DAY && timeDiff <= 363 * DAY) {
+            return new AgeDuration(Unit.MONTHS, (int) Math.floor((float) timeDiff / (30 * DAY)), 0);
+        } else {
+            int years = (int) Math.floor((float) timeDiff / (365 * DAY));
+            long remainingTime = Math.abs(timeDiff - years * 365 * DAY);
+            int months = (int) Math.floor((float) remainingTime / (30 * DAY));
+            if (months >= 12) {
+                months = 0;
+                years++;
+            }
+            return new AgeDuration(Unit.YEARS, years, months);
+        }
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return the days, weeks, months or years of the duration
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return the days after the weeks or the months after the years, 0 for the other units
+     */
+    public int getRemainder() {
+        return remainder;
+    }
+
+    @Override
+    public String toString() {
+        switch (unit) {
+            case DAYS:
+                return value + "d";
+            case WEEKS:
+                return remainder > 0 ? value + "w " + remainder + "d" : value + "w";
+            case MONTHS:
+                return value + "m";
+            default:
+                return remainder > 0 ? value + "y " + remainder + "m" : value + "y";
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.smartregister.family.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Progress and throughput of a bulk household import.
+ * <p>
+ * Line numbers are 1-based and count every line of the file, including the lines skipped when resuming.
+ */
+public class FamilyImportReport {
+
+    private static final int MAX_SKIPPED_LINES = 100;
+
+    private final String fileName;
+    private final long resumedFromLine;
+    private final long startedAt;
+
+    private long linesRead;
+    private long householdsImported;
+    private long skippedCount;
+    private final List<Long> skippedLines = new ArrayList<>();
+    private long batchesCommitted;
+    private long finishedAt;
+    private boolean completed;
+    private boolean cancelled;
+    private String error;
+
+    public FamilyImportReport(String fileName, long resumedFromLine, long startedAt) {
+        this.fileName = fileName;
+        this.resumedFromLine = resumedFromLine;
+        this.startedAt = startedAt;
+        this.linesRead = resumedFromLine;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getResumedFromLine() {
+        return resumedFromLine;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getHouseholdsImported() {
+        return householdsImported;
+    }
+
+    public void addHouseholdsImported(long count) {
+        householdsImported += count;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @return the first skipped line numbers, at most {@value #MAX_SKIPPED_LINES}
+     */
+    public List<Long> getSkippedLines() {
+        return Collections.unmodifiableList(skippedLines);
+    }
+
+    public void addSkippedLine(long line) {
+        skippedCount++;
+        if (skippedLines.size() < MAX_SKIPPED_LINES) {
+            skippedLines.add(line);
+        }
+    }
+
+    public long getBatchesCommitted() {
+        return batchesCommitted;
+    }
+
+    public void incrementBatchesCommitted() {
+        batchesCommitted++;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void finish(long finishedAt, boolean completed, boolean cancelled, String error) {
+        this.finishedAt = finishedAt;
+        this.completed = completed;
+        this.cancelled = cancelled;
+        this.error = error;
+    }
+
+    /**
+     * @return the time spent so far, or in total once the import has finished
+     */
+    public long getElapsedMillis(long now) {
+        return (finishedAt > 0 ? finishedAt : now) - startedAt;
+    }
+
+    public double getHouseholdsPerSecond(long now) {
+        long elapsed = getElapsedMillis(now);
+        return elapsed <= 0 ? 0 : householdsImported * 1000d / elapsed;
+    }
+
+    /**
+     * @return a copy that can be handed to the main thread while the import carries on
+     */
+    public FamilyImportReport snapshot() {
+        FamilyImportReport report = new FamilyImportReport(fileName, resumedFromLine, startedAt);
+        report.linesRead = linesRead;
+        report.householdsImported = householdsImported;
+        report.skippedCount = skippedCount;
+        report.skippedLines.addAll(skippedLines);
+        report.batchesCommitted = batchesCommitted;
+        report.finishedAt = finishedAt;
+        report.completed = completed;
+        report.cancelled = cancelled;
+        report.error = error;
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        long now = System.currentTimeMillis();
+        return String.format("%s: %d households from %d lines in %d ms (%.1f/s), %d skipped, %d batches",
+                fileName, householdsImported, linesRead - resumedFromLine, getElapsedMillis(now),
+                getHouseholdsPerSecond(now), skippedCount, batchesCommitted);
+    }
+}
@@ -6,6 +6,7 @@ import com.vijay.jsonwizard.activities.FormConfigurationJsonWizardFormActivity;
 import com.vijay.jsonwizard.activities.JsonWizardFormActivity;
 
 import org.jetbrains.annotations.Nullable;
+import org.smartregister.job.SyncServiceJob;
 import org.smartregister.view.activity.BaseProfileActivity;
 
 import java.util.ArrayList;
@@ -33,6 +34,7 @@ public class FamilyMetadata {
     private List<Pair<String, String>> locationFields = new ArrayList<>();
     private String defaultLocation = "";
     private ArrayList<String> locationHierarchy = new ArrayList<>();
+    private String syncJobTag = SyncServiceJob.TAG;
 
     public FamilyMetadata(Class<? extends JsonWizardFormActivity> familyFormActivity,
                           Class<? extends JsonWizardFormActivity> familyMemberFormActivity,
@@ -206,6 +208,18 @@ public class FamilyMetadata {
         this.locationHierarchy = locationHierarchy;
     }
 
+    public String getSyncJobTag() {
+        return syncJobTag;
+    }
+
+    /**
+     * @param syncJobTag the tag that the job creator of the app maps its sync job to, the sync job of the framework
+     *                   is run otherwise
+     */
+    public void setSyncJobTag(String syncJobTag) {
+        this.syncJobTag = syncJobTag;
+    }
+
     @Nullable
     public Map<String, String> getCustomConfigs() {
         return customConfigs == null ? null : Collections.unmodifiableMap(customConfigs);
@@ -0,0 +1,61 @@
+package org.smartregister.family.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A family found by the register search, with the members whose rows matched.
+ * <p>
+ * The score of the family is the score of its best matching row.
+ */
+public class FamilySearchResult {
+
+    private final String familyId;
+    private final List<String> memberIds = new ArrayList<>();
+    private int score;
+    private int matchCount;
+
+    public FamilySearchResult(String familyId) {
+        this.familyId = familyId;
+    }
+
+    /**
+     * @param memberIds  the members whose rows matched
+     * @param score      the score of the best matching row
+     * @param matchCount the number of rows matched, the row of the family included
+     */
+    public FamilySearchResult(String familyId, List<String> memberIds, int score, int matchCount) {
+        this.familyId = familyId;
+        this.memberIds.addAll(memberIds);
+        this.score = score;
+        this.matchCount = matchCount;
+    }
+
+    /**
+     * @param memberId the member of the matching row, null if the row of the family matched
+     */
+    public void addMatch(String memberId, int score) {
+        if (memberId != null) {
+            memberIds.add(memberId);
+        }
+        this.score = Math.max(this.score, score);
+        matchCount++;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public List<String> getMemberIds() {
+        return Collections.unmodifiableList(memberIds);
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+}
@@ -0,0 +1,101 @@
+package org.smartregister.family.domain;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.smartregister.family.util.JsonFormUtils;
+
+/**
+ * A submitted json form parsed once, with field lookups going through {@link org.smartregister.family.util.FormFieldIndex}.
+ * <p>
+ * Created by the presenter when a form is returned and passed through the model and interactor
+ * so that the same form string is not parsed again for every step, field or attribute lookup.
+ */
+public class ParsedForm {
+
+    private final JSONObject form;
+    private String jsonString;
+    private JSONArray allFields;
+
+    private ParsedForm(JSONObject form, String jsonString) {
+        this.form = form;
+        this.jsonString = jsonString;
+    }
+
+    /**
+     * @return the parsed form or null if jsonString is not a valid json object
+     */
+    @Nullable
+    public static ParsedForm parse(@Nullable String jsonString) {
+        JSONObject form = JsonFormUtils.toJSONObject(jsonString);
+        if (form == null) {
+            return null;
+        }
+        return new ParsedForm(form, jsonString);
+    }
+
+    @Nullable
+    public static ParsedForm of(@Nullable JSONObject form) {
+        if (form == null) {
+            return null;
+        }
+        return new ParsedForm(form, null);
+    }
+
+    public JSONObject getForm() {
+        return form;
+    }
+
+    public String getJsonString() {
+        if (jsonString == null) {
+            jsonString = form.toString();
+        }
+        return jsonString;
+    }
+
+    /**
+     * @return the top level string value for key or null when absent
+     */
+    @Nullable
+    public String getString(String key) {
+        return JsonFormUtils.getString(form, key);
+    }
+
+    /**
+     * @return the fields array of the step, this is the array backing the form and not a copy
+     */
+    @Nullable
+    public JSONArray fields(String step) {
+        return JsonFormUtils.fields(form, step);
+    }
+
+    /**
+     * @return the fields of all the steps
+     */
+    @Nullable
+    public JSONArray fields() {
+        return JsonFormUtils.fields(form);
+    }
+
+    @Nullable
+    public JSONObject getField(String step, String key) {
+        return JsonFormUtils.getFieldJSONObject(fields(step), key);
+    }
+
+    @Nullable
+    public String getFieldValue(String step, String key) {
+        return JsonFormUtils.getFieldValue(fields(step), key);
+    }
+
+    /**
+     * Looks up a field by key across all the steps of the form, the steps are collected on first use
+     */
+    @Nullable
+    public String getFieldValue(String key) {
+        if (allFields == null) {
+            allFields = fields();
+        }
+        return JsonFormUtils.getFieldValue(allFields, key);
+    }
+}
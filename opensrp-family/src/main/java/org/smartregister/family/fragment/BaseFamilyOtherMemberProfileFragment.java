@@ -1,16 +1,20 @@
 package org.smartregister.family.fragment;
 
+import android.database.Cursor;
 import android.os.Bundle;
 import androidx.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.loader.content.Loader;
+
 import org.smartregister.family.R;
 import org.smartregister.family.activity.BaseFamilyProfileActivity;
 import org.smartregister.family.adapter.FamilyRecyclerViewCustomAdapter;
 import org.smartregister.family.contract.FamilyOtherMemberProfileFragmentContract;
 import org.smartregister.family.provider.FamilyOtherMemberRegisterProvider;
+import org.smartregister.family.util.BoundRegisterQueries;
 import org.smartregister.family.util.Utils;
 import org.smartregister.view.activity.BaseRegisterActivity;
 import org.smartregister.view.fragment.BaseRegisterFragment;
@@ -24,6 +28,9 @@ public abstract class BaseFamilyOtherMemberProfileFragment extends BaseRegisterF
 
     public static final String CLICK_VIEW_NORMAL = "click_view_normal";
     public static final String CLICK_VIEW_NEXT_ARROW = "click_next_arrow";
+    private static final String COUNT_EXECUTE = "count_execute";
+
+    protected final BoundRegisterQueries boundRegisterQueries = new BoundRegisterQueries(false);
 
     @Nullable
     @Override
@@ -50,6 +57,33 @@ public abstract class BaseFamilyOtherMemberProfileFragment extends BaseRegisterF
         }
     }
 
+    @Override
+    public void initializeBoundQueryParams(String countSelect, String mainSelect, String[] selectionArgs) {
+        boundRegisterQueries.set(tablename, countSelect, mainSelect, selectionArgs);
+    }
+
+    @Override
+    public void countExecute() {
+        int count = boundRegisterQueries.isAvailable(filters) ? boundRegisterQueries.count() : -1;
+        if (count < 0) {
+            super.countExecute();
+            return;
+        }
+        clientAdapter.setTotalcount(count);
+        clientAdapter.setCurrentoffset(0);
+    }
+
+    /**
+     * Loads the unfiltered pages with the condition bound, see {@link BoundRegisterQueries}
+     */
+    @Override
+    public Loader<Cursor> onCreateLoader(int id, Bundle args) {
+        if (id == LOADER_ID && boundRegisterQueries.isAvailable(filters)) {
+            return boundRegisterQueries.newPageLoader(getActivity(), this, args != null && args.getBoolean(COUNT_EXECUTE), clientAdapter, Sortqueries);
+        }
+        return super.onCreateLoader(id, args);
+    }
+
     @Override
     protected String getMainCondition() {
         return presenter().getMainCondition();
@@ -1,20 +1,35 @@
 package org.smartregister.family.fragment;
 
+import android.database.Cursor;
 import android.os.Bundle;
 import androidx.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
-import org.smartregister.cursoradapter.RecyclerViewPaginatedAdapter;
+import androidx.loader.content.CursorLoader;
+import androidx.loader.content.Loader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+import org.smartregister.commonregistry.CommonPersonObjectClient;
+import org.smartregister.domain.FetchStatus;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.activity.BaseFamilyProfileActivity;
+import org.smartregister.family.adapter.FamilyRecyclerViewCustomAdapter;
+import org.smartregister.family.adapter.KeysetPagination;
 import org.smartregister.family.contract.FamilyProfileMemberContract;
 import org.smartregister.family.provider.FamilyMemberRegisterProvider;
+import org.smartregister.family.util.BoundRegisterQueries;
+import org.smartregister.family.util.Constants;
+import org.smartregister.family.util.GlobalSearchCursor;
 import org.smartregister.family.util.Utils;
 import org.smartregister.view.activity.BaseRegisterActivity;
 import org.smartregister.view.fragment.BaseRegisterFragment;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -24,6 +39,9 @@ public abstract class BaseFamilyProfileMemberFragment extends BaseRegisterFragme
 
     public static final String CLICK_VIEW_NORMAL = "click_view_normal";
     public static final String CLICK_VIEW_NEXT_ARROW = "click_next_arrow";
+    private static final String COUNT_EXECUTE = "count_execute";
+
+    protected final BoundRegisterQueries boundRegisterQueries = new BoundRegisterQueries();
 
     @Nullable
     @Override
@@ -38,11 +56,79 @@ public abstract class BaseFamilyProfileMemberFragment extends BaseRegisterFragme
     @Override
     public void initializeAdapter(Set<org.smartregister.configurableviews.model.View> visibleColumns, String familyHead, String primaryCaregiver) {
         FamilyMemberRegisterProvider familyMemberRegisterProvider = new FamilyMemberRegisterProvider(getActivity(), commonRepository(), visibleColumns, registerActionHandler, paginationViewHandler, familyHead, primaryCaregiver);
-        clientAdapter = new RecyclerViewPaginatedAdapter(null, familyMemberRegisterProvider, context().commonrepository(this.tablename));
+        clientAdapter = new FamilyRecyclerViewCustomAdapter(null, familyMemberRegisterProvider, context().commonrepository(this.tablename), true);
         clientAdapter.setCurrentlimit(20);
         clientsView.setAdapter(clientAdapter);
     }
 
+    @Override
+    public void initializeBoundQueryParams(String countSelect, String mainSelect, String[] selectionArgs) {
+        boundRegisterQueries.set(tablename, countSelect, mainSelect, selectionArgs);
+    }
+
+    @Override
+    public void countExecute() {
+        int count = boundRegisterQueries.isAvailable(filters) ? boundRegisterQueries.count() : -1;
+        if (count < 0) {
+            super.countExecute();
+            return;
+        }
+        clientAdapter.setTotalcount(count);
+        clientAdapter.setCurrentoffset(0);
+    }
+
+    /**
+     * Loads the unfiltered pages seeked past the previous page, see {@link KeysetPagination}, with the condition
+     * bound, see {@link BoundRegisterQueries}
+     */
+    @Override
+    public Loader<Cursor> onCreateLoader(int id, final Bundle args) {
+        final boolean bound = boundRegisterQueries.isAvailable(filters);
+        final List<String> queryArgs = new ArrayList<>();
+        final String query = id == LOADER_ID && isKeysetPaginationEnabled() && clientAdapter instanceof FamilyRecyclerViewCustomAdapter
+                ? ((FamilyRecyclerViewCustomAdapter) clientAdapter).getKeysetPageQuery(bound ? boundRegisterQueries.getMainSelect() : mainSelect,
+                bound ? boundRegisterQueries.getSelectionArgs() : null, Sortqueries, filters, queryArgs) : null;
+        if (query == null && id == LOADER_ID && bound) {
+            return boundRegisterQueries.newPageLoader(getActivity(), this, args != null && args.getBoolean(COUNT_EXECUTE), clientAdapter, Sortqueries);
+        }
+        if (query == null) {
+            return super.onCreateLoader(id, args);
+        }
+
+        return new CursorLoader(getActivity()) {
+            @Override
+            public Cursor loadInBackground() {
+                if (args != null && args.getBoolean(COUNT_EXECUTE)) {
+                    countExecute();
+                }
+                Cursor cursor = boundRegisterQueries.query(query, queryArgs);
+                ((FamilyRecyclerViewCustomAdapter) clientAdapter).preparePage(cursor);
+                return cursor;
+            }
+        };
+    }
+
+    @Override
+    public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
+        super.onLoadFinished(loader, cursor);
+        if (loader.getId() == LOADER_ID && isGlobalSearchEnabled()) {
+            boolean notFound = StringUtils.isNotBlank(filters) && clientAdapter.getTotalcount() == 0;
+            presenter().searchGlobally(notFound ? filters : null);
+        }
+    }
+
+    protected boolean isGlobalSearchEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.GLOBAL_SEARCH_ENABLED);
+    }
+
+    /**
+     * @return whether pages are seeked on the sort columns instead of skipped with an offset, which needs every sort
+     * column selected by the main select, see {@link KeysetPagination}
+     */
+    protected boolean isKeysetPaginationEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.KEYSET_PAGINATION_ENABLED);
+    }
+
     @Override
     protected String getMainCondition() {
         return presenter().getMainCondition();
@@ -63,6 +149,18 @@ public abstract class BaseFamilyProfileMemberFragment extends BaseRegisterFragme
         if (getActivity() == null) {
             return;
         }
+        if (view.getTag() instanceof CommonPersonObjectClient
+                && GlobalSearchCursor.isGlobalSearchResult(((CommonPersonObjectClient) view.getTag()).getColumnmaps())) {
+            onUnsyncedMemberClicked((CommonPersonObjectClient) view.getTag());
+        }
+    }
+
+    /**
+     * A member found by the global search has not been synced to the device yet, it is synced instead of opened
+     */
+    protected void onUnsyncedMemberClicked(CommonPersonObjectClient member) {
+        Utils.showShortToast(getActivity(), getString(R.string.member_not_synced));
+        presenter().startSync();
     }
 
     @Override
@@ -90,6 +188,28 @@ public abstract class BaseFamilyProfileMemberFragment extends BaseRegisterFragme
         presenter().setPrimaryCaregiver(primaryCaregiver);
     }
 
+    /**
+     * Counts the registers again, the sync wrote rows the kept counts do not include
+     */
+    @Override
+    public void onSyncComplete(FetchStatus fetchStatus) {
+        FamilyLibrary.getInstance().getRegisterCounters().onRegistersChanged();
+        super.onSyncComplete(fetchStatus);
+    }
+
+    @Override
+    public void showGlobalSearchResults(String query, List<JSONObject> clients) {
+        if (clientAdapter == null || clients.isEmpty() || StringUtils.isNotBlank(filters) && !filters.equals(query)) {
+            return;
+        }
+        clientAdapter.setTotalcount(clients.size());
+        clientAdapter.setCurrentoffset(0);
+        Cursor oldCursor = clientAdapter.swapCursor(new GlobalSearchCursor(clients));
+        if (oldCursor instanceof GlobalSearchCursor) {
+            oldCursor.close();
+        }
+    }
+
     @Override
     public FamilyProfileMemberContract.Presenter presenter() {
         return (FamilyProfileMemberContract.Presenter) presenter;
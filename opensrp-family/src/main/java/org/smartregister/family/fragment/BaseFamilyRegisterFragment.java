@@ -1,36 +1,296 @@
 package org.smartregister.family.fragment;
 
 import android.content.Intent;
+import android.database.Cursor;
+import android.os.Bundle;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.loader.content.CursorLoader;
+import androidx.loader.content.Loader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
-import org.smartregister.cursoradapter.RecyclerViewPaginatedAdapter;
+import org.smartregister.domain.FetchStatus;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.activity.BaseFamilyRegisterActivity;
+import org.smartregister.family.adapter.ContinuousScrollController;
+import org.smartregister.family.adapter.FamilyRecyclerViewCustomAdapter;
+import org.smartregister.family.adapter.KeysetPagination;
 import org.smartregister.family.contract.FamilyRegisterFragmentContract;
+import org.smartregister.family.domain.FamilySearchResult;
 import org.smartregister.family.provider.FamilyRegisterProvider;
+import org.smartregister.family.util.AppExecutors;
+import org.smartregister.family.util.BoundRegisterQueries;
 import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.FamilySearchIndex;
+import org.smartregister.family.util.GlobalSearchCursor;
 import org.smartregister.family.util.Utils;
 import org.smartregister.view.activity.BaseRegisterActivity;
 import org.smartregister.view.customcontrols.CustomFontTextView;
 import org.smartregister.view.customcontrols.FontVariant;
 import org.smartregister.view.fragment.BaseRegisterFragment;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public abstract class BaseFamilyRegisterFragment extends BaseRegisterFragment implements FamilyRegisterFragmentContract.View {
     public static final String CLICK_VIEW_NORMAL = "click_view_normal";
     public static final String CLICK_VIEW_DOSAGE_STATUS = "click_view_dosage_status";
+    private static final String COUNT_EXECUTE = "count_execute";
+    private static final int PAGE_SIZE = 20;
+
+    protected final BoundRegisterQueries boundRegisterQueries = new BoundRegisterQueries();
+
+    private final AppExecutors appExecutors = new AppExecutors();
+
+    private ContinuousScrollController continuousScrollController;
+
+    private String searchedText;
+    private List<FamilySearchResult> searchResults;
 
     @Override
     public void initializeAdapter(Set<org.smartregister.configurableviews.model.View> visibleColumns) {
         FamilyRegisterProvider familyRegisterProvider = new FamilyRegisterProvider(getActivity(), commonRepository(), visibleColumns, registerActionHandler, paginationViewHandler);
-        clientAdapter = new RecyclerViewPaginatedAdapter(null, familyRegisterProvider, context().commonrepository(this.tablename));
-        clientAdapter.setCurrentlimit(20);
+        FamilyRecyclerViewCustomAdapter familyAdapter = new FamilyRecyclerViewCustomAdapter(null, familyRegisterProvider, context().commonrepository(this.tablename), true);
+        clientAdapter = familyAdapter;
+        clientAdapter.setCurrentlimit(PAGE_SIZE);
         clientsView.setAdapter(clientAdapter);
+
+        if (continuousScrollController != null) {
+            clientsView.removeOnScrollListener(continuousScrollController);
+            continuousScrollController = null;
+        }
+        if (isContinuousScrollEnabled()) {
+            familyAdapter.enableContinuousScroll(ContinuousScrollController.DEFAULT_MAX_PAGES);
+            continuousScrollController = new ContinuousScrollController(familyAdapter, new ContinuousScrollController.PageSource() {
+                @Override
+                public Cursor loadPage(int page, int pageSize) {
+                    return BaseFamilyRegisterFragment.this.loadPage(page, pageSize);
+                }
+            }, PAGE_SIZE, ContinuousScrollController.DEFAULT_PREFETCH_DISTANCE);
+            clientsView.addOnScrollListener(continuousScrollController);
+        }
+
+        if (isSearchIndexEnabled()) {
+            // builds or catches up the index before the first search
+            appExecutors.diskIO().execute(new Runnable() {
+                @Override
+                public void run() {
+                    FamilyLibrary.getInstance().getFamilySearchIndex().prepare();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void initializeBoundQueryParams(String countSelect, String mainSelect, String[] selectionArgs) {
+        boundRegisterQueries.set(tablename, countSelect, mainSelect, selectionArgs);
+        synchronized (this) {
+            searchedText = null;
+            searchResults = null;
+        }
+    }
+
+    @Override
+    public void countExecute() {
+        if (isIndexSearch()) {
+            clientAdapter.setTotalcount(getSearchResults(filters).size());
+            clientAdapter.setCurrentoffset(0);
+            return;
+        }
+        int count = boundRegisterQueries.isAvailable(filters) ? boundRegisterQueries.count() : -1;
+        if (count < 0) {
+            super.countExecute();
+            return;
+        }
+        clientAdapter.setTotalcount(count);
+        clientAdapter.setCurrentoffset(0);
+    }
+
+    /**
+     * Loads the unfiltered pages seeked past the previous page, see {@link KeysetPagination}, with the condition
+     * bound, see {@link BoundRegisterQueries}
+     */
+    @Override
+    public Loader<Cursor> onCreateLoader(int id, final Bundle args) {
+        if (id == LOADER_ID && continuousScrollController != null) {
+            // filtered registers are paged with the footer, the window starts again from the first page
+            FamilyRecyclerViewCustomAdapter familyAdapter = (FamilyRecyclerViewCustomAdapter) clientAdapter;
+            familyAdapter.setContinuousScrollActive(StringUtils.isBlank(filters));
+            if (familyAdapter.isContinuousScrollActive()) {
+                familyAdapter.setCurrentoffset(0);
+            }
+        }
+
+        if (id == LOADER_ID && isIndexSearch()) {
+            final String text = filters;
+            return new CursorLoader(getActivity()) {
+                @Override
+                public Cursor loadInBackground() {
+                    if (args != null && args.getBoolean(COUNT_EXECUTE)) {
+                        countExecute();
+                    }
+                    Cursor cursor = loadSearchPage(getSearchResults(text), clientAdapter.getCurrentoffset(), clientAdapter.getCurrentlimit());
+                    if (clientAdapter instanceof FamilyRecyclerViewCustomAdapter) {
+                        ((FamilyRecyclerViewCustomAdapter) clientAdapter).preparePage(cursor);
+                    }
+                    return cursor;
+                }
+            };
+        }
+
+        final boolean bound = boundRegisterQueries.isAvailable(filters);
+        final List<String> queryArgs = new ArrayList<>();
+        final String query = id == LOADER_ID && isKeysetPaginationEnabled() && clientAdapter instanceof FamilyRecyclerViewCustomAdapter
+                ? ((FamilyRecyclerViewCustomAdapter) clientAdapter).getKeysetPageQuery(bound ? boundRegisterQueries.getMainSelect() : mainSelect,
+                bound ? boundRegisterQueries.getSelectionArgs() : null, Sortqueries, filters, queryArgs) : null;
+        if (query == null && id == LOADER_ID && bound) {
+            return boundRegisterQueries.newPageLoader(getActivity(), this, args != null && args.getBoolean(COUNT_EXECUTE), clientAdapter, Sortqueries);
+        }
+        if (query == null) {
+            return super.onCreateLoader(id, args);
+        }
+
+        return new CursorLoader(getActivity()) {
+            @Override
+            public Cursor loadInBackground() {
+                if (args != null && args.getBoolean(COUNT_EXECUTE)) {
+                    countExecute();
+                }
+                Cursor cursor = boundRegisterQueries.query(query, queryArgs);
+                ((FamilyRecyclerViewCustomAdapter) clientAdapter).preparePage(cursor);
+                return cursor;
+            }
+        };
+    }
+
+    /**
+     * Searches the server for the text typed when the register has nothing for it, see
+     * {@link org.smartregister.family.interactor.FamilyGlobalSearchInteractor}
+     */
+    @Override
+    public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
+        super.onLoadFinished(loader, cursor);
+        if (loader.getId() == LOADER_ID && isGlobalSearchEnabled()) {
+            boolean notFound = StringUtils.isNotBlank(filters) && clientAdapter.getTotalcount() == 0;
+            // a blank text cancels the search in flight
+            presenter().searchGlobally(notFound ? filters : null);
+        }
+    }
+
+    /**
+     * Counts the registers again, the sync wrote rows the kept counts do not include
+     */
+    @Override
+    public void onSyncComplete(FetchStatus fetchStatus) {
+        FamilyLibrary.getInstance().getRegisterCounters().onRegistersChanged();
+        super.onSyncComplete(fetchStatus);
+    }
+
+    @Override
+    public void showGlobalSearchResults(String query, List<JSONObject> clients) {
+        if (clientAdapter == null || clients.isEmpty() || StringUtils.isNotBlank(filters) && !filters.equals(query)) {
+            return;
+        }
+        clientAdapter.setTotalcount(clients.size());
+        clientAdapter.setCurrentoffset(0);
+        Cursor oldCursor = clientAdapter.swapCursor(new GlobalSearchCursor(clients));
+        if (oldCursor instanceof GlobalSearchCursor) {
+            oldCursor.close();
+        }
+    }
+
+    protected boolean isGlobalSearchEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.GLOBAL_SEARCH_ENABLED);
+    }
+
+    /**
+     * @return whether the register is searched with the {@link FamilySearchIndex} instead of the search tables of the
+     * framework
+     */
+    protected boolean isSearchIndexEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.SEARCH_INDEX_ENABLED);
+    }
+
+    /**
+     * @return whether the text is searched in the index, a single character is searched by the framework as before
+     */
+    private boolean isIndexSearch() {
+        return StringUtils.isNotBlank(filters) && boundRegisterQueries.isSet() && isSearchIndexEnabled()
+                && FamilySearchIndex.isSearchable(filters);
+    }
+
+    /**
+     * @return the families found for the text that the register shows, so that the count matches the pages loaded,
+     * kept until the text or the register queries change
+     */
+    protected synchronized List<FamilySearchResult> getSearchResults(String text) {
+        if (searchResults == null || !text.equals(searchedText)) {
+            List<FamilySearchResult> results = FamilyLibrary.getInstance().getFamilySearchIndex().search(text);
+            List<String> familyIds = new ArrayList<>();
+            for (FamilySearchResult result : results) {
+                familyIds.add(result.getFamilyId());
+            }
+            Set<String> registerIds = boundRegisterQueries.queryIds(DBConstants.KEY.BASE_ENTITY_ID, familyIds);
+            searchResults = new ArrayList<>();
+            for (FamilySearchResult result : results) {
+                if (registerIds.contains(result.getFamilyId())) {
+                    searchResults.add(result);
+                }
+            }
+            searchedText = text;
+        }
+        return searchResults;
+    }
+
+    /**
+     * Loads a page of the families found, in the order of the search results
+     */
+    protected Cursor loadSearchPage(List<FamilySearchResult> results, int offset, int limit) {
+        List<String> familyIds = new ArrayList<>();
+        for (int i = offset; i < Math.min(offset + limit, results.size()); i++) {
+            familyIds.add(results.get(i).getFamilyId());
+        }
+        return boundRegisterQueries.queryByIds(DBConstants.KEY.BASE_ENTITY_ID, familyIds);
+    }
+
+    /**
+     * @return whether pages are seeked on the sort columns instead of skipped with an offset, which needs every sort
+     * column selected by the main select, see {@link KeysetPagination}
+     */
+    protected boolean isKeysetPaginationEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.KEYSET_PAGINATION_ENABLED);
+    }
+
+    /**
+     * @return whether the unfiltered register is scrolled continuously instead of paged with the footer
+     */
+    protected boolean isContinuousScrollEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.CONTINUOUS_SCROLL_ENABLED);
+    }
+
+    /**
+     * Loads a page of the unfiltered register for continuous scrolling, on a background thread
+     */
+    protected Cursor loadPage(int page, int pageSize) {
+        KeysetPagination keysetPagination = ((FamilyRecyclerViewCustomAdapter) clientAdapter).getKeysetPagination();
+        boolean bound = boundRegisterQueries.isAvailable(filters);
+        if (keysetPagination == null) {
+            return bound ? boundRegisterQueries.queryPage(Sortqueries, pageSize, page * pageSize)
+                    : commonRepository().rawCustomQueryForAdapter(mainSelect + " ORDER BY " + Sortqueries + " LIMIT " + pageSize + " OFFSET " + page * pageSize);
+        }
+        List<String> queryArgs = new ArrayList<>();
+        String query = bound ? keysetPagination.getPageQuery(boundRegisterQueries.getMainSelect(), boundRegisterQueries.getSelectionArgs(), page, pageSize, queryArgs)
+                : keysetPagination.getPageQuery(mainSelect, null, page, pageSize, queryArgs);
+        Cursor cursor = boundRegisterQueries.query(query, queryArgs);
+        keysetPagination.onPageLoaded(page, cursor);
+        return cursor;
     }
 
     @Override
@@ -108,13 +368,25 @@ public abstract class BaseFamilyRegisterFragment extends BaseRegisterFragment im
             return;
         }
 
-        if (view.getTag() != null && view.getTag(R.id.VIEW_ID) == CLICK_VIEW_NORMAL) {
+        if (view.getTag() instanceof CommonPersonObjectClient
+                && GlobalSearchCursor.isGlobalSearchResult(((CommonPersonObjectClient) view.getTag()).getColumnmaps())) {
+            onUnsyncedFamilyClicked((CommonPersonObjectClient) view.getTag());
+        } else if (view.getTag() != null && view.getTag(R.id.VIEW_ID) == CLICK_VIEW_NORMAL) {
             goToPatientDetailActivity((CommonPersonObjectClient) view.getTag(), false);
         } else if (view.getTag() != null && view.getTag(R.id.VIEW_ID) == CLICK_VIEW_DOSAGE_STATUS) {
             goToPatientDetailActivity((CommonPersonObjectClient) view.getTag(), true);
         }
     }
 
+    /**
+     * A family found by the global search has no local rows to show a profile for, the register is synced instead
+     * and the family can be opened once it shows up in the register
+     */
+    protected void onUnsyncedFamilyClicked(CommonPersonObjectClient family) {
+        Utils.showShortToast(getActivity(), getString(R.string.family_not_synced));
+        presenter().startSync();
+    }
+
     protected void goToPatientDetailActivity(CommonPersonObjectClient patient,
                                            boolean goToDuePage) {
 
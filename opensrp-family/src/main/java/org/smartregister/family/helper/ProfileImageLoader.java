@@ -0,0 +1,177 @@
+package org.smartregister.family.helper;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.LruCache;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.R;
+import org.smartregister.family.util.AppExecutors;
+import org.smartregister.family.util.PhotoPathCache;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import timber.log.Timber;
+
+/**
+ * Loads profile photos off the main thread, decoded to the size of the target view.
+ * <p>
+ * Decoded photos are kept in an LRU memory cache sized to an eighth of the heap. The default image is shown while a
+ * photo loads. A view only gets a photo if its entity id tag still matches the entity it was loaded for, and the
+ * pending request of a view is cancelled when the view is given another entity or recycled.
+ */
+public class ProfileImageLoader {
+
+    public static final int DEFAULT_POOL_SIZE = 2;
+    private static final int DEFAULT_TARGET_SIZE = 512;
+
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ExecutorService executor;
+    private final Executor mainThread;
+
+    public ProfileImageLoader() {
+        this(Executors.newFixedThreadPool(DEFAULT_POOL_SIZE), new AppExecutors().mainThread(), (int) (Runtime.getRuntime().maxMemory() / 1024 / 8));
+    }
+
+    @VisibleForTesting
+    ProfileImageLoader(ExecutorService executor, Executor mainThread, int cacheSizeKb) {
+        this.executor = executor;
+        this.mainThread = mainThread;
+        this.memoryCache = new LruCache<String, Bitmap>(cacheSizeKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return Math.max(1, bitmap.getByteCount() / 1024);
+            }
+        };
+    }
+
+    public void load(final String entityId, final ImageView imageView, final int defaultImage) {
+        cancel(imageView);
+        imageView.setTag(org.smartregister.R.id.entity_id, entityId);
+
+        final int targetWidth = getTargetSize(imageView.getWidth(), imageView.getLayoutParams() == null ? 0 : imageView.getLayoutParams().width);
+        final int targetHeight = getTargetSize(imageView.getHeight(), imageView.getLayoutParams() == null ? 0 : imageView.getLayoutParams().height);
+        final String key = cacheKey(entityId, targetWidth, targetHeight);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            imageView.setImageBitmap(cached);
+            return;
+        }
+
+        imageView.setImageResource(defaultImage);
+        if (StringUtils.isBlank(entityId) || "".equals(getPhotoPathCache().peek(entityId))) {
+            // no photo to load
+            return;
+        }
+
+        Future<?> request = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                String filePath = getPhotoFilePath(entityId);
+                final Bitmap bitmap = StringUtils.isBlank(filePath) || Thread.currentThread().isInterrupted() ? null : decode(filePath, targetWidth, targetHeight);
+                if (bitmap == null) {
+                    return;
+                }
+                memoryCache.put(key, bitmap);
+                mainThread.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (entityId.equals(imageView.getTag(org.smartregister.R.id.entity_id))) {
+                            imageView.setImageBitmap(bitmap);
+                            imageView.setTag(R.id.profile_image_request, null);
+                        }
+                    }
+                });
+            }
+        });
+        imageView.setTag(R.id.profile_image_request, request);
+    }
+
+    /**
+     * Cancels the pending requests of the image views in the view hierarchy, e.g. when a row is recycled
+     */
+    public void cancel(View view) {
+        if (view instanceof ImageView) {
+            Object request = view.getTag(R.id.profile_image_request);
+            if (request instanceof Future) {
+                ((Future<?>) request).cancel(true);
+                view.setTag(R.id.profile_image_request, null);
+            }
+        } else if (view instanceof ViewGroup) {
+            ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                cancel(viewGroup.getChildAt(i));
+            }
+        }
+    }
+
+    /**
+     * Drops the cached photos of an entity, e.g. after a new photo is saved
+     */
+    public void invalidate(String entityId) {
+        String prefix = entityId + "|";
+        for (String key : memoryCache.snapshot().keySet()) {
+            if (key.startsWith(prefix)) {
+                memoryCache.remove(key);
+            }
+        }
+    }
+
+    @Nullable
+    protected String getPhotoFilePath(String entityId) {
+        return getPhotoPathCache().getPhotoPath(entityId);
+    }
+
+    protected PhotoPathCache getPhotoPathCache() {
+        return FamilyLibrary.getInstance().getPhotoPathCache();
+    }
+
+    @Nullable
+    protected Bitmap decode(String filePath, int targetWidth, int targetHeight) {
+        try {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(filePath, options);
+
+            options.inSampleSize = getSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+            options.inJustDecodeBounds = false;
+            return BitmapFactory.decodeFile(filePath, options);
+        } catch (Exception e) {
+            Timber.e(e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the largest power of two that keeps the decoded image at least as large as the target
+     */
+    static int getSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static int getTargetSize(int measuredSize, int layoutSize) {
+        if (measuredSize > 0) {
+            return measuredSize;
+        }
+        return layoutSize > 0 ? layoutSize : DEFAULT_TARGET_SIZE;
+    }
+
+    private static String cacheKey(String entityId, int targetWidth, int targetHeight) {
+        return entityId + "|" + targetWidth + "x" + targetHeight;
+    }
+}
@@ -0,0 +1,213 @@
+package org.smartregister.family.interactor;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+import org.smartregister.domain.Response;
+import org.smartregister.domain.ResponseStatus;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.util.AppExecutors;
+import org.smartregister.family.util.GlobalSearchCache;
+import org.smartregister.family.util.Utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+
+import timber.log.Timber;
+
+/**
+ * Searches the clients of the server by unique id or name, for the families and members that have not been synced
+ * to the device yet.
+ * <p>
+ * Searching the text of the request in flight attaches to it, searching another text cancels it, so the register can
+ * search while the user types. The clients are read one by one and handed over in batches as they are read, and the
+ * clients found are kept in the {@link GlobalSearchCache}.
+ */
+public class FamilyGlobalSearchInteractor {
+
+    public static final String SEARCH_URL = "/rest/search/search";
+
+    @VisibleForTesting
+    static final int BATCH_SIZE = 20;
+
+    public interface Callback {
+        /**
+         * Called on the main thread for each batch read
+         *
+         * @param clients the clients found so far
+         */
+        void onClientsFound(String query, List<JSONObject> clients);
+    }
+
+    private static class SearchRequest {
+        private final String query;
+        private volatile Callback callback;
+        private volatile boolean cancelled;
+        private volatile Reader reader;
+
+        private SearchRequest(String query, Callback callback) {
+            this.query = query;
+            this.callback = callback;
+        }
+    }
+
+    private final Gson gson = new Gson();
+
+    protected AppExecutors appExecutors;
+
+    private SearchRequest request;
+
+    @VisibleForTesting
+    FamilyGlobalSearchInteractor(AppExecutors appExecutors) {
+        this.appExecutors = appExecutors;
+    }
+
+    public FamilyGlobalSearchInteractor() {
+        this(new AppExecutors());
+    }
+
+    /**
+     * Searches the server for the text, the request in flight is cancelled if it searches another text and a blank
+     * text only cancels it
+     */
+    public synchronized void search(final String query, Callback callback) {
+        String key = GlobalSearchCache.getKey(query);
+        if (request != null && key.equals(GlobalSearchCache.getKey(request.query))) {
+            request.callback = callback;
+            return;
+        }
+        cancel();
+        if (StringUtils.isBlank(key)) {
+            return;
+        }
+
+        List<JSONObject> clients = getGlobalSearchCache().get(query);
+        if (clients != null) {
+            publish(new SearchRequest(query, callback), clients);
+            return;
+        }
+
+        final SearchRequest searchRequest = new SearchRequest(query, callback);
+        request = searchRequest;
+        appExecutors.networkIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                fetch(searchRequest);
+            }
+        });
+    }
+
+    /**
+     * Cancels the request in flight, the clients read are not handed over
+     */
+    public synchronized void cancel() {
+        if (request == null) {
+            return;
+        }
+        request.cancelled = true;
+        closeReader(request);
+        request = null;
+    }
+
+    private void fetch(SearchRequest searchRequest) {
+        try {
+            Reader reader = openReader(getSearchUrl(searchRequest.query));
+            searchRequest.reader = reader;
+            if (searchRequest.cancelled) {
+                return;
+            }
+
+            List<JSONObject> clients = new ArrayList<>();
+            JsonReader jsonReader = new JsonReader(reader);
+            jsonReader.beginArray();
+            while (jsonReader.hasNext() && !searchRequest.cancelled) {
+                JsonObject client = gson.fromJson(jsonReader, JsonObject.class);
+                clients.add(new JSONObject(client.toString()));
+                if (clients.size() % BATCH_SIZE == 0) {
+                    publish(searchRequest, new ArrayList<>(clients));
+                }
+            }
+            if (searchRequest.cancelled) {
+                return;
+            }
+            jsonReader.endArray();
+
+            getGlobalSearchCache().put(searchRequest.query, clients);
+            publish(searchRequest, clients);
+        } catch (Exception e) {
+            if (!searchRequest.cancelled) {
+                Timber.e(e);
+            }
+        } finally {
+            closeReader(searchRequest);
+            synchronized (this) {
+                if (request == searchRequest) {
+                    request = null;
+                }
+            }
+        }
+    }
+
+    private void publish(final SearchRequest searchRequest, final List<JSONObject> clients) {
+        appExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!searchRequest.cancelled) {
+                    searchRequest.callback.onClientsFound(searchRequest.query, clients);
+                }
+            }
+        });
+    }
+
+    private void closeReader(SearchRequest searchRequest) {
+        Reader reader = searchRequest.reader;
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            Timber.e(e);
+        }
+    }
+
+    /**
+     * @return the search url of the text, searched by identifier if it reads as a unique id, by name otherwise
+     */
+    protected String getSearchUrl(String query) throws UnsupportedEncodingException {
+        String text = StringUtils.normalizeSpace(query);
+        String param = text.matches("[\\w-]*\\d[\\w-]*") ? "identifier" : "name";
+        return StringUtils.removeEnd(getBaseUrl(), "/") + SEARCH_URL + "?" + param + "=" + URLEncoder.encode(text, "UTF-8");
+    }
+
+    protected String getBaseUrl() {
+        return Utils.context().configuration().dristhiBaseURL();
+    }
+
+    /**
+     * Opens the response of the search url, read as the clients come in.
+     * <p>
+     * The http agent of the app buffers the whole response, override to read the response from the connection
+     */
+    protected Reader openReader(String url) throws IOException {
+        Response<String> response = Utils.context().getHttpAgent().fetch(url);
+        if (response == null || !ResponseStatus.success.equals(response.status()) || response.payload() == null) {
+            throw new IOException("Global search failed " + url);
+        }
+        return new StringReader(response.payload());
+    }
+
+    protected GlobalSearchCache getGlobalSearchCache() {
+        return FamilyLibrary.getInstance().getGlobalSearchCache();
+    }
+}
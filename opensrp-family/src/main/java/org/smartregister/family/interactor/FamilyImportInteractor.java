@@ -0,0 +1,261 @@
+package org.smartregister.family.interactor;
+
+import androidx.annotation.VisibleForTesting;
+
+import net.sqlcipher.Cursor;
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.domain.db.EventClient;
+import org.smartregister.family.contract.FamilyImportContract;
+import org.smartregister.family.contract.FamilyRegisterContract;
+import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.FamilyImportReport;
+import org.smartregister.family.domain.ParsedForm;
+import org.smartregister.family.model.BaseFamilyRegisterModel;
+import org.smartregister.family.util.AppExecutors;
+import org.smartregister.family.util.ImagePersistenceQueue;
+import org.smartregister.repository.AllSharedPreferences;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import timber.log.Timber;
+
+/**
+ * Imports completed family register forms from an NDJSON file, one form json per line.
+ * <p>
+ * Each line goes through the same processing as a form saved from the register ({@link FamilyRegisterContract.Model#processRegistration(ParsedForm)})
+ * and households are committed in batches of one transaction each. The number of lines committed is
+ * checkpointed in the transaction of every batch so an interrupted or cancelled import resumes from the next batch
+ * without saving a committed batch twice.
+ * Lines that are not valid forms are skipped and reported.
+ */
+public class FamilyImportInteractor implements FamilyImportContract.Interactor {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final String CHECKPOINT_PREFIX = "family_import_checkpoint:";
+
+    private static final String CHECKPOINT_TABLE = "family_import_checkpoint";
+    private static final String FILE_KEY = "file_key";
+    private static final String LINE_NUMBER = "line_number";
+
+    @VisibleForTesting
+    static final String CREATE_CHECKPOINT_TABLE = "CREATE TABLE IF NOT EXISTS " + CHECKPOINT_TABLE + " ("
+            + FILE_KEY + " VARCHAR PRIMARY KEY, " + LINE_NUMBER + " INTEGER NOT NULL)";
+
+    @VisibleForTesting
+    static final String SAVE_CHECKPOINT = "INSERT OR REPLACE INTO " + CHECKPOINT_TABLE + " (" + FILE_KEY + ", " + LINE_NUMBER + ") VALUES (?, ?)";
+
+    protected AppExecutors appExecutors;
+    private final FamilyRegisterContract.Model model;
+    private final FamilyRegisterInteractor registerInteractor;
+
+    private volatile boolean cancelled;
+
+    @VisibleForTesting
+    FamilyImportInteractor(AppExecutors appExecutors, FamilyRegisterContract.Model model, FamilyRegisterInteractor registerInteractor) {
+        this.appExecutors = appExecutors;
+        this.model = model;
+        this.registerInteractor = registerInteractor;
+    }
+
+    public FamilyImportInteractor() {
+        this(new AppExecutors(), new BaseFamilyRegisterModel(), new FamilyRegisterInteractor());
+    }
+
+    @Override
+    public void importHouseholds(final File file, final int batchSize, final FamilyImportContract.InteractorCallBack callBack) {
+        cancelled = false;
+        Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                final FamilyImportReport report = importHouseholds(file, batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE, callBack);
+                Timber.i("Family import %s", report);
+                appExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        callBack.onImportComplete(report);
+                    }
+                });
+            }
+        };
+
+        appExecutors.diskIO().execute(runnable);
+    }
+
+    @Override
+    public void cancelImport() {
+        cancelled = true;
+    }
+
+    @Override
+    public void resetCheckpoint(File file) {
+        SQLiteDatabase database = registerInteractor.getWritableDatabase();
+        database.execSQL(CREATE_CHECKPOINT_TABLE);
+        saveCheckpoint(database, file, 0);
+    }
+
+    private FamilyImportReport importHouseholds(File file, int batchSize, FamilyImportContract.InteractorCallBack callBack) {
+        long checkpoint;
+        try {
+            checkpoint = getCheckpoint(file);
+        } catch (Exception e) {
+            Timber.e(e);
+            FamilyImportReport report = new FamilyImportReport(file.getName(), 0, System.currentTimeMillis());
+            report.finish(System.currentTimeMillis(), false, cancelled, e.getMessage());
+            return report;
+        }
+        FamilyImportReport report = new FamilyImportReport(file.getName(), checkpoint, System.currentTimeMillis());
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")));
+
+            long lineNumber = 0;
+            String line;
+            while (lineNumber < checkpoint && reader.readLine() != null) {
+                lineNumber++;
+            }
+
+            List<ParsedForm> batchForms = new ArrayList<>(batchSize);
+            List<List<FamilyEventClient>> batchHouseholds = new ArrayList<>(batchSize);
+            while (!cancelled && (line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (StringUtils.isNotBlank(line)) {
+                    ParsedForm parsedForm = ParsedForm.parse(line);
+                    List<FamilyEventClient> household = parsedForm == null ? null : model.processRegistration(parsedForm);
+                    if (household == null || household.isEmpty()) {
+                        report.addSkippedLine(lineNumber);
+                    } else {
+                        batchForms.add(parsedForm);
+                        batchHouseholds.add(household);
+                    }
+                }
+
+                if (batchHouseholds.size() >= batchSize) {
+                    commitBatch(file, batchForms, batchHouseholds, lineNumber, report);
+                    publishProgress(report, callBack);
+                }
+                report.setLinesRead(lineNumber);
+            }
+
+            if (!batchHouseholds.isEmpty()) {
+                commitBatch(file, batchForms, batchHouseholds, lineNumber, report);
+                publishProgress(report, callBack);
+            } else {
+                // trailing blank or skipped lines
+                saveCheckpoint(registerInteractor.getWritableDatabase(), file, lineNumber);
+            }
+            report.finish(System.currentTimeMillis(), !cancelled, cancelled, null);
+        } catch (Exception e) {
+            Timber.e(e);
+            report.finish(System.currentTimeMillis(), false, cancelled, e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    Timber.e(e);
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Saves the households of the batch and moves the checkpoint past the batch in one transaction, then clears it.
+     * On failure nothing of the batch is kept and the import stops at the previous checkpoint.
+     */
+    private void commitBatch(File file, List<ParsedForm> batchForms, List<List<FamilyEventClient>> batchHouseholds,
+                             long lineNumber, FamilyImportReport report) throws Exception {
+        SQLiteDatabase database = registerInteractor.getWritableDatabase();
+        AllSharedPreferences allSharedPreferences = registerInteractor.getAllSharedPreferences();
+        long lastSyncTimeStamp = allSharedPreferences.fetchLastUpdatedAtDate(0);
+
+        List<ImagePersistenceQueue.PendingImage> pendingImages = new ArrayList<>();
+        List<String> usedUniqueIds = new ArrayList<>();
+        database.beginTransaction();
+        try {
+            List<EventClient> eventClientList = new ArrayList<>();
+            for (int i = 0; i < batchHouseholds.size(); i++) {
+                eventClientList.addAll(registerInteractor.saveEventClients(batchHouseholds.get(i), batchForms.get(i), false, pendingImages, usedUniqueIds));
+            }
+            registerInteractor.processClient(eventClientList);
+            saveCheckpoint(database, file, lineNumber);
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+        registerInteractor.completeUniqueIds(usedUniqueIds);
+        registerInteractor.getRegisterCounters().onFamilyChanged(null);
+
+        if (!pendingImages.isEmpty()) {
+            registerInteractor.getImagePersistenceQueue().enqueue(pendingImages);
+        }
+        allSharedPreferences.saveLastUpdatedAtDate(lastSyncTimeStamp);
+
+        report.addHouseholdsImported(batchHouseholds.size());
+        report.incrementBatchesCommitted();
+        report.setLinesRead(lineNumber);
+        batchForms.clear();
+        batchHouseholds.clear();
+    }
+
+    private void publishProgress(FamilyImportReport report, final FamilyImportContract.InteractorCallBack callBack) {
+        final FamilyImportReport snapshot = report.snapshot();
+        appExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                callBack.onImportProgress(snapshot);
+            }
+        });
+    }
+
+    private String checkpointKey(File file) {
+        return CHECKPOINT_PREFIX + file.getName() + ":" + file.length();
+    }
+
+    protected long getCheckpoint(File file) {
+        SQLiteDatabase database = registerInteractor.getWritableDatabase();
+        database.execSQL(CREATE_CHECKPOINT_TABLE);
+        Cursor cursor = null;
+        try {
+            cursor = database.rawQuery("SELECT " + LINE_NUMBER + " FROM " + CHECKPOINT_TABLE + " WHERE " + FILE_KEY + " = ?",
+                    new String[]{checkpointKey(file)});
+            if (cursor.moveToFirst()) {
+                return cursor.getLong(0);
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return getPreferenceCheckpoint(file);
+    }
+
+    /**
+     * @return the checkpoint of an import started before checkpoints were kept in the database
+     */
+    private long getPreferenceCheckpoint(File file) {
+        String checkpoint = registerInteractor.getAllSharedPreferences().getPreference(checkpointKey(file));
+        try {
+            return StringUtils.isBlank(checkpoint) ? 0 : Long.parseLong(checkpoint);
+        } catch (NumberFormatException e) {
+            Timber.e(e);
+            return 0;
+        }
+    }
+
+    protected void saveCheckpoint(SQLiteDatabase database, File file, long lineNumber) {
+        database.execSQL(SAVE_CHECKPOINT, new Object[]{checkpointKey(file), lineNumber});
+    }
+}
@@ -2,6 +2,10 @@ package org.smartregister.family.interactor;
 
 import androidx.annotation.VisibleForTesting;
 
+import com.google.gson.JsonObject;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Triple;
 import org.json.JSONObject;
@@ -10,20 +14,27 @@ import org.smartregister.clientandeventmodel.Event;
 import org.smartregister.commonregistry.CommonPersonObject;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.commonregistry.CommonRepository;
-import org.smartregister.domain.UniqueId;
 import org.smartregister.domain.db.EventClient;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyProfileContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.family.util.AppExecutors;
 import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.EventClientConverter;
+import org.smartregister.family.util.FamilyClientProcessor;
+import org.smartregister.family.util.ImagePersistenceQueue;
 import org.smartregister.family.util.JsonFormUtils;
+import org.smartregister.family.util.RegisterCounters;
+import org.smartregister.family.util.UniqueIdLeasePool;
 import org.smartregister.family.util.Utils;
 import org.smartregister.repository.AllSharedPreferences;
 import org.smartregister.repository.UniqueIdRepository;
 import org.smartregister.sync.ClientProcessorForJava;
 import org.smartregister.sync.helper.ECSyncHelper;
+import org.smartregister.view.activity.DrishtiApplication;
 
 import java.util.Collections;
 import java.util.Date;
@@ -88,11 +99,22 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
     @Override
     public void getNextUniqueId(final Triple<String, String, String> triple, final FamilyProfileContract.InteractorCallBack callBack) {
 
+        final String leasedId = getUniqueIdLeasePool().lease();
+        if (StringUtils.isNotBlank(leasedId)) {
+            appExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callBack.onUniqueIdFetched(triple, leasedId);
+                }
+            });
+            return;
+        }
+
         Runnable runnable = new Runnable() {
             @Override
             public void run() {
-                UniqueId uniqueId = getUniqueIdRepository().getNextUniqueId();
-                final String entityId = uniqueId != null ? uniqueId.getOpenmrsId() : "";
+                String uniqueId = getUniqueIdLeasePool().leaseOrReserve();
+                final String entityId = uniqueId != null ? uniqueId : "";
                 appExecutors.mainThread().execute(new Runnable() {
                     @Override
                     public void run() {
@@ -110,13 +132,23 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
     }
 
 
+    @Override
+    public void releaseUniqueId(String uniqueId) {
+        getUniqueIdLeasePool().release(uniqueId);
+    }
+
     @Override
     public void saveRegistration(final FamilyEventClient familyEventClient, final String jsonString, final boolean isEditMode, final FamilyProfileContract.InteractorCallBack callBack) {
+        saveRegistration(familyEventClient, ParsedForm.parse(jsonString), isEditMode, callBack);
+    }
+
+    @Override
+    public void saveRegistration(final FamilyEventClient familyEventClient, final ParsedForm parsedForm, final boolean isEditMode, final FamilyProfileContract.InteractorCallBack callBack) {
 
         Runnable runnable = new Runnable() {
             @Override
             public void run() {
-                final boolean isSaved = saveRegistration(familyEventClient, jsonString, isEditMode);
+                final boolean isSaved = saveRegistration(familyEventClient, parsedForm, isEditMode);
                 appExecutors.mainThread().execute(new Runnable() {
                     @Override
                     public void run() {
@@ -129,28 +161,35 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
         appExecutors.diskIO().execute(runnable);
     }
 
-    private boolean saveRegistration(FamilyEventClient familyEventClient, String jsonString, boolean isEditMode) {
-
+    /**
+     * Saves the member client, event, unique id state and client processing in a single database transaction.
+     * The image is queued for saving once the transaction is committed.
+     */
+    private boolean saveRegistration(FamilyEventClient familyEventClient, ParsedForm parsedForm, boolean isEditMode) {
+
+        ImagePersistenceQueue.PendingImage pendingImage = null;
+        String usedUniqueId = null;
+        boolean isSaved = false;
+        SQLiteDatabase database = getWritableDatabase();
+        database.beginTransaction();
         try {
 
             Client baseClient = familyEventClient.getClient();
             Event baseEvent = familyEventClient.getEvent();
-            JSONObject eventJson = null;
-            JSONObject clientJson = null;
-
+            JsonObject clientTree = EventClientConverter.toJsonTree(baseClient);
+            JsonObject eventTree = EventClientConverter.toJsonTree(baseEvent);
 
             if (baseClient != null) {
-                clientJson = new JSONObject(JsonFormUtils.gson.toJson(baseClient));
+                JSONObject clientJson = EventClientConverter.toJSONObject(clientTree);
                 if (isEditMode) {
-                    JsonFormUtils.mergeAndSaveClient(getSyncHelper(), baseClient);
+                    JsonFormUtils.mergeAndSaveClient(getSyncHelper(), baseClient, clientJson);
                 } else {
                     getSyncHelper().addClient(baseClient.getBaseEntityId(), clientJson);
                 }
             }
 
             if (baseEvent != null) {
-                eventJson = new JSONObject(JsonFormUtils.gson.toJson(baseEvent));
-                getSyncHelper().addEvent(baseEvent.getBaseEntityId(), eventJson);
+                getSyncHelper().addEvent(baseEvent.getBaseEntityId(), EventClientConverter.toJSONObject(eventTree));
             }
 
             if (isEditMode) {
@@ -159,7 +198,7 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
                     String newOpenSRPId = baseClient.getIdentifier(Utils.metadata().uniqueIdentifierKey);
                     if (newOpenSRPId != null) {
                         newOpenSRPId.replace("-", "");
-                        String currentOpenSRPId = JsonFormUtils.getString(jsonString, JsonFormUtils.CURRENT_OPENSRP_ID).replace("-", "");
+                        String currentOpenSRPId = parsedForm.getString(JsonFormUtils.CURRENT_OPENSRP_ID).replace("-", "");
                         if (!newOpenSRPId.equals(currentOpenSRPId)) {
                             //OPENSRP ID was changed
                             getUniqueIdRepository().open(currentOpenSRPId);
@@ -173,33 +212,60 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
 
                     //mark OPENSRP ID as used
                     getUniqueIdRepository().close(opensrpId);
+                    usedUniqueId = opensrpId;
                 }
             }
 
             if (baseClient != null || baseEvent != null) {
-                String imageLocation = JsonFormUtils.getFieldValue(jsonString, Constants.KEY.PHOTO);
-                JsonFormUtils.saveImage(baseEvent.getProviderId(), baseClient.getBaseEntityId(), imageLocation);
+                String imageLocation = parsedForm.getFieldValue(Constants.KEY.PHOTO);
+                if (StringUtils.isNotBlank(imageLocation)) {
+                    pendingImage = new ImagePersistenceQueue.PendingImage(baseEvent.getProviderId(), baseClient.getBaseEntityId(), imageLocation);
+                }
             }
 
             long lastSyncTimeStamp = getAllSharedPreferences().fetchLastUpdatedAtDate(0);
             Date lastSyncDate = new Date(lastSyncTimeStamp);
-            org.smartregister.domain.Event domainEvent = JsonFormUtils.gson.fromJson(eventJson.toString(), org.smartregister.domain.Event.class);
-            org.smartregister.domain.Client domainClient = JsonFormUtils.gson.fromJson(clientJson.toString(), org.smartregister.domain.Client.class);
-            processClient(Collections.singletonList(new EventClient(domainEvent, domainClient)));
+            processClient(Collections.singletonList(EventClientConverter.toEventClient(eventTree, clientTree)));
+            database.setTransactionSuccessful();
             getAllSharedPreferences().saveLastUpdatedAtDate(lastSyncDate.getTime());
-            return true;
+            isSaved = true;
         } catch (Exception e) {
             Timber.e(e);
-            return false;
+        } finally {
+            database.endTransaction();
+        }
+
+        if (isSaved && usedUniqueId != null) {
+            // a rolled back save keeps the id tracked for reopening
+            getUniqueIdLeasePool().complete(usedUniqueId);
+        }
+        if (isSaved) {
+            getRegisterCounters().onFamilyChanged(getFamilyId(familyEventClient.getClient()));
         }
+        if (isSaved && pendingImage != null) {
+            getImagePersistenceQueue().enqueue(Collections.singletonList(pendingImage));
+        }
+        return isSaved;
     }
 
-    protected void processClient(List<EventClient> eventClientList) {
-        try {
-            getClientProcessorForJava().processClient(eventClientList);
-        } catch (Exception e) {
-            Timber.e(e);
+    /**
+     * @return the family of a member client, or the base entity id of a family client
+     */
+    private String getFamilyId(Client client) {
+        if (client == null) {
+            return null;
         }
+        FamilyMetadata.FamilyMemberRegister familyMemberRegister = Utils.metadata().familyMemberRegister;
+        List<String> families = familyMemberRegister == null || client.getRelationships() == null ? null
+                : client.getRelationships().get(familyMemberRegister.familyRelationKey);
+        return families == null || families.isEmpty() ? client.getBaseEntityId() : families.get(0);
+    }
+
+    /**
+     * Processes the saved clients into the register tables, a failure is thrown to roll back the save
+     */
+    protected void processClient(List<EventClient> eventClientList) throws Exception {
+        getFamilyClientProcessor().processClient(eventClientList);
     }
 
     public UniqueIdRepository getUniqueIdRepository() {
@@ -207,6 +273,10 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
     }
 
 
+    public UniqueIdLeasePool getUniqueIdLeasePool() {
+        return FamilyLibrary.getInstance().getUniqueIdLeasePool();
+    }
+
     public AllSharedPreferences getAllSharedPreferences() {
         return Utils.context().allSharedPreferences();
     }
@@ -219,7 +289,23 @@ public class FamilyProfileInteractor implements FamilyProfileContract.Interactor
         return FamilyLibrary.getInstance().getClientProcessorForJava();
     }
 
+    public FamilyClientProcessor getFamilyClientProcessor() {
+        return FamilyLibrary.getInstance().getFamilyClientProcessor();
+    }
+
     public CommonRepository getCommonRepository(String tableName) {
         return Utils.context().commonrepository(tableName);
     }
+
+    public ImagePersistenceQueue getImagePersistenceQueue() {
+        return FamilyLibrary.getInstance().getImagePersistenceQueue();
+    }
+
+    public RegisterCounters getRegisterCounters() {
+        return FamilyLibrary.getInstance().getRegisterCounters();
+    }
+
+    public SQLiteDatabase getWritableDatabase() {
+        return DrishtiApplication.getInstance().getRepository().getWritableDatabase();
+    }
 }
@@ -2,24 +2,34 @@ package org.smartregister.family.interactor;
 
 import androidx.annotation.VisibleForTesting;
 
+import com.google.gson.JsonObject;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Triple;
 import org.json.JSONObject;
 import org.smartregister.clientandeventmodel.Client;
 import org.smartregister.clientandeventmodel.Event;
-import org.smartregister.domain.UniqueId;
 import org.smartregister.domain.db.EventClient;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyRegisterContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.family.util.AppExecutors;
 import org.smartregister.family.util.Constants;
+import org.smartregister.family.util.EventClientConverter;
+import org.smartregister.family.util.FamilyClientProcessor;
+import org.smartregister.family.util.ImagePersistenceQueue;
 import org.smartregister.family.util.JsonFormUtils;
+import org.smartregister.family.util.RegisterCounters;
+import org.smartregister.family.util.UniqueIdLeasePool;
 import org.smartregister.family.util.Utils;
 import org.smartregister.repository.AllSharedPreferences;
 import org.smartregister.repository.UniqueIdRepository;
 import org.smartregister.sync.ClientProcessorForJava;
 import org.smartregister.sync.helper.ECSyncHelper;
+import org.smartregister.view.activity.DrishtiApplication;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -49,11 +59,22 @@ public class FamilyRegisterInteractor implements FamilyRegisterContract.Interact
     @Override
     public void getNextUniqueId(final Triple<String, String, String> triple, final FamilyRegisterContract.InteractorCallBack callBack) {
 
+        final String leasedId = getUniqueIdLeasePool().lease();
+        if (StringUtils.isNotBlank(leasedId)) {
+            appExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callBack.onUniqueIdFetched(triple, leasedId);
+                }
+            });
+            return;
+        }
+
         Runnable runnable = new Runnable() {
             @Override
             public void run() {
-                UniqueId uniqueId = getUniqueIdRepository().getNextUniqueId();
-                final String entityId = uniqueId != null ? uniqueId.getOpenmrsId() : "";
+                String uniqueId = getUniqueIdLeasePool().leaseOrReserve();
+                final String entityId = uniqueId != null ? uniqueId : "";
                 appExecutors.mainThread().execute(new Runnable() {
                     @Override
                     public void run() {
@@ -72,11 +93,16 @@ public class FamilyRegisterInteractor implements FamilyRegisterContract.Interact
 
     @Override
     public void saveRegistration(final List<FamilyEventClient> familyEventClientList, final String jsonString, final boolean isEditMode, final FamilyRegisterContract.InteractorCallBack callBack) {
+        saveRegistration(familyEventClientList, ParsedForm.parse(jsonString), isEditMode, callBack);
+    }
+
+    @Override
+    public void saveRegistration(final List<FamilyEventClient> familyEventClientList, final ParsedForm parsedForm, final boolean isEditMode, final FamilyRegisterContract.InteractorCallBack callBack) {
 
         Runnable runnable = new Runnable() {
             @Override
             public void run() {
-                final boolean isSaved = saveRegistration(familyEventClientList, jsonString, isEditMode);
+                final boolean isSaved = saveRegistration(familyEventClientList, parsedForm, isEditMode);
                 appExecutors.mainThread().execute(new Runnable() {
                     @Override
                     public void run() {
@@ -89,6 +115,11 @@ public class FamilyRegisterInteractor implements FamilyRegisterContract.Interact
         appExecutors.diskIO().execute(runnable);
     }
 
+    @Override
+    public void releaseUniqueId(String uniqueId) {
+        getUniqueIdLeasePool().release(uniqueId);
+    }
+
     @Override
     public void removeFamilyFromRegister(final String closeFormJsonString, final String providerId) {
         Runnable runnable = new Runnable() {
@@ -101,97 +132,150 @@ public class FamilyRegisterInteractor implements FamilyRegisterContract.Interact
         appExecutors.diskIO().execute(runnable);
     }
 
-    private boolean saveRegistration(List<FamilyEventClient> familyEventClientList, String jsonString, boolean isEditMode) {
-
+    /**
+     * Saves the household (family and head clients, their events, unique id state and client processing)
+     * in a single database transaction, so that either the whole household is registered or nothing is.
+     * The images are queued for saving once the transaction is committed.
+     */
+    private boolean saveRegistration(List<FamilyEventClient> familyEventClientList, ParsedForm parsedForm, boolean isEditMode) {
+
+        List<ImagePersistenceQueue.PendingImage> pendingImages = new ArrayList<>();
+        List<String> usedUniqueIds = new ArrayList<>();
+        boolean isSaved = false;
+        SQLiteDatabase database = getWritableDatabase();
+        database.beginTransaction();
         try {
 
-            List<EventClient> eventClientList = new ArrayList<>();
-            for (int i = 0; i < familyEventClientList.size(); i++) {
-                FamilyEventClient familyEventClient = familyEventClientList.get(i);
-                Client baseClient = familyEventClient.getClient();
-                Event baseEvent = familyEventClient.getEvent();
-                JSONObject eventJson = null;
-                JSONObject clientJson = null;
+            List<EventClient> eventClientList = saveEventClients(familyEventClientList, parsedForm, isEditMode, pendingImages, usedUniqueIds);
 
-                if (baseClient != null) {
-                    clientJson = new JSONObject(JsonFormUtils.gson.toJson(baseClient));
-                    if (isEditMode) {
-                        JsonFormUtils.mergeAndSaveClient(getSyncHelper(), baseClient);
-                    } else {
-                        getSyncHelper().addClient(baseClient.getBaseEntityId(), clientJson);
-                    }
-                }
+            long lastSyncTimeStamp = getAllSharedPreferences().fetchLastUpdatedAtDate(0);
+            Date lastSyncDate = new Date(lastSyncTimeStamp);
 
-                if (baseEvent != null) {
-                    eventJson = new JSONObject(JsonFormUtils.gson.toJson(baseEvent));
-                    getSyncHelper().addEvent(baseEvent.getBaseEntityId(), eventJson);
-                }
+            processClient(eventClientList);
+            database.setTransactionSuccessful();
+            getAllSharedPreferences().saveLastUpdatedAtDate(lastSyncDate.getTime());
+            isSaved = true;
+        } catch (Exception e) {
+            Timber.e(e);
+        } finally {
+            database.endTransaction();
+        }
 
-                if (isEditMode) {
-                    // Unassign current OPENSRP ID
-                    if (baseClient != null) {
-                        String newOpenSRPId = baseClient.getIdentifier(Utils.metadata().uniqueIdentifierKey).replace("-", "");
-                        String currentOpenSRPId = JsonFormUtils.getString(jsonString, JsonFormUtils.CURRENT_OPENSRP_ID).replace("-", "");
-                        if (!newOpenSRPId.equals(currentOpenSRPId)) {
-                            //OPENSRP ID was changed
-                            getUniqueIdRepository().open(currentOpenSRPId);
-                        }
-                    }
+        if (isSaved) {
+            completeUniqueIds(usedUniqueIds);
+            getRegisterCounters().onFamilyChanged(getFamilyId(familyEventClientList));
+        }
+        if (isSaved && !pendingImages.isEmpty()) {
+            getImagePersistenceQueue().enqueue(pendingImages);
+        }
+        return isSaved;
+    }
 
-                } else {
-                    if (baseClient != null) {
-                        String opensrpId = baseClient.getIdentifier(Utils.metadata().uniqueIdentifierKey);
-                        if (StringUtils.isNotBlank(opensrpId) && !opensrpId.contains(Constants.IDENTIFIER.FAMILY_SUFFIX)) {
-                            //mark OPENSRP ID as used
-                            getUniqueIdRepository().close(opensrpId);
-                        }
-                    }
-                }
+    /**
+     * Stops tracking the leased ids used by a committed save, a rolled back save keeps them tracked for reopening
+     */
+    protected void completeUniqueIds(List<String> usedUniqueIds) {
+        for (String uniqueId : usedUniqueIds) {
+            getUniqueIdLeasePool().complete(uniqueId);
+        }
+    }
 
-                if (baseClient != null || baseEvent != null) {
-                    String imageLocation = null;
-                    if (i == 0) {
-                        String familyStep = Utils.getCustomConfigs(Constants.CustomConfig.FAMILY_FORM_IMAGE_STEP);
+    /**
+     * @return the base entity id of the family client of a household, the first client saved
+     */
+    private String getFamilyId(List<FamilyEventClient> familyEventClientList) {
+        for (FamilyEventClient familyEventClient : familyEventClientList) {
+            if (familyEventClient.getClient() != null) {
+                return familyEventClient.getClient().getBaseEntityId();
+            }
+        }
+        return null;
+    }
 
-                        imageLocation = (StringUtils.isBlank(familyStep)) ?
-                                JsonFormUtils.getFieldValue(jsonString, Constants.KEY.PHOTO) :
-                                JsonFormUtils.getFieldValue(jsonString, familyStep, Constants.KEY.PHOTO);
+    /**
+     * Saves the clients and events of a household and updates the unique id state.
+     * Runs within the caller's transaction and leaves client processing and image saving to the caller.
+     *
+     * @param pendingImages the images of the household are added here, to be queued once committed
+     * @param usedUniqueIds the unique ids closed for the household are added here, to be completed once committed
+     * @return the saved event clients to be processed
+     */
+    protected List<EventClient> saveEventClients(List<FamilyEventClient> familyEventClientList, ParsedForm parsedForm, boolean isEditMode,
+                                                 List<ImagePersistenceQueue.PendingImage> pendingImages, List<String> usedUniqueIds) throws Exception {
+        List<EventClient> eventClientList = new ArrayList<>();
+        for (int i = 0; i < familyEventClientList.size(); i++) {
+            FamilyEventClient familyEventClient = familyEventClientList.get(i);
+            Client baseClient = familyEventClient.getClient();
+            Event baseEvent = familyEventClient.getEvent();
+            JsonObject clientTree = EventClientConverter.toJsonTree(baseClient);
+            JsonObject eventTree = EventClientConverter.toJsonTree(baseEvent);
+
+            if (baseClient != null) {
+                JSONObject clientJson = EventClientConverter.toJSONObject(clientTree);
+                if (isEditMode) {
+                    JsonFormUtils.mergeAndSaveClient(getSyncHelper(), baseClient, clientJson);
+                } else {
+                    getSyncHelper().addClient(baseClient.getBaseEntityId(), clientJson);
+                }
+            }
 
-                    } else if (i == 1) {
-                        String familyMemberStep = Utils.getCustomConfigs(Constants.CustomConfig.FAMILY_MEMBER_FORM_IMAGE_STEP);
+            if (baseEvent != null) {
+                getSyncHelper().addEvent(baseEvent.getBaseEntityId(), EventClientConverter.toJSONObject(eventTree));
+            }
 
-                        imageLocation = (StringUtils.isBlank(familyMemberStep)) ?
-                                JsonFormUtils.getFieldValue(jsonString, JsonFormUtils.STEP2, Constants.KEY.PHOTO) :
-                                JsonFormUtils.getFieldValue(jsonString, familyMemberStep, Constants.KEY.PHOTO);
+            if (isEditMode) {
+                // Unassign current OPENSRP ID
+                if (baseClient != null) {
+                    String newOpenSRPId = baseClient.getIdentifier(Utils.metadata().uniqueIdentifierKey).replace("-", "");
+                    String currentOpenSRPId = parsedForm.getString(JsonFormUtils.CURRENT_OPENSRP_ID).replace("-", "");
+                    if (!newOpenSRPId.equals(currentOpenSRPId)) {
+                        //OPENSRP ID was changed
+                        getUniqueIdRepository().open(currentOpenSRPId);
                     }
+                }
 
-                    if (StringUtils.isNotBlank(imageLocation)) {
-                        JsonFormUtils.saveImage(baseEvent.getProviderId(), baseClient.getBaseEntityId(), imageLocation);
+            } else {
+                if (baseClient != null) {
+                    String opensrpId = baseClient.getIdentifier(Utils.metadata().uniqueIdentifierKey);
+                    if (StringUtils.isNotBlank(opensrpId) && !opensrpId.contains(Constants.IDENTIFIER.FAMILY_SUFFIX)) {
+                        //mark OPENSRP ID as used
+                        getUniqueIdRepository().close(opensrpId);
+                        usedUniqueIds.add(opensrpId);
                     }
                 }
-                org.smartregister.domain.Event domainEvent = JsonFormUtils.gson.fromJson(eventJson.toString(), org.smartregister.domain.Event.class);
-                org.smartregister.domain.Client domainClient = JsonFormUtils.gson.fromJson(clientJson.toString(), org.smartregister.domain.Client.class);
-                eventClientList.add(new EventClient(domainEvent, domainClient));
             }
 
-            long lastSyncTimeStamp = getAllSharedPreferences().fetchLastUpdatedAtDate(0);
-            Date lastSyncDate = new Date(lastSyncTimeStamp);
+            if (baseClient != null || baseEvent != null) {
+                String imageLocation = null;
+                if (i == 0) {
+                    String familyStep = Utils.getCustomConfigs(Constants.CustomConfig.FAMILY_FORM_IMAGE_STEP);
 
-            processClient(eventClientList);
-            getAllSharedPreferences().saveLastUpdatedAtDate(lastSyncDate.getTime());
-            return true;
-        } catch (Exception e) {
-            Timber.e(e);
-            return false;
+                    imageLocation = (StringUtils.isBlank(familyStep)) ?
+                            parsedForm.getFieldValue(Constants.KEY.PHOTO) :
+                            parsedForm.getFieldValue(familyStep, Constants.KEY.PHOTO);
+
+                } else if (i == 1) {
+                    String familyMemberStep = Utils.getCustomConfigs(Constants.CustomConfig.FAMILY_MEMBER_FORM_IMAGE_STEP);
+
+                    imageLocation = (StringUtils.isBlank(familyMemberStep)) ?
+                            parsedForm.getFieldValue(JsonFormUtils.STEP2, Constants.KEY.PHOTO) :
+                            parsedForm.getFieldValue(familyMemberStep, Constants.KEY.PHOTO);
+                }
+
+                if (StringUtils.isNotBlank(imageLocation)) {
+                    pendingImages.add(new ImagePersistenceQueue.PendingImage(baseEvent.getProviderId(), baseClient.getBaseEntityId(), imageLocation));
+                }
+            }
+            eventClientList.add(EventClientConverter.toEventClient(eventTree, clientTree));
         }
+        return eventClientList;
     }
 
-    protected void processClient(List<EventClient> eventClientList) {
-        try {
-            getClientProcessorForJava().processClient(eventClientList);
-        } catch (Exception e) {
-            Timber.e(e);
-        }
+    /**
+     * Processes the saved clients into the register tables, a failure is thrown to roll back the save
+     */
+    protected void processClient(List<EventClient> eventClientList) throws Exception {
+        getFamilyClientProcessor().processClient(eventClientList);
     }
 
     @Override
@@ -208,6 +292,10 @@ public class FamilyRegisterInteractor implements FamilyRegisterContract.Interact
     }
 
 
+    public UniqueIdLeasePool getUniqueIdLeasePool() {
+        return FamilyLibrary.getInstance().getUniqueIdLeasePool();
+    }
+
     public ECSyncHelper getSyncHelper() {
         return FamilyLibrary.getInstance().getEcSyncHelper();
     }
@@ -215,4 +303,20 @@ public class FamilyRegisterInteractor implements FamilyRegisterContract.Interact
     public ClientProcessorForJava getClientProcessorForJava() {
         return FamilyLibrary.getInstance().getClientProcessorForJava();
     }
+
+    public FamilyClientProcessor getFamilyClientProcessor() {
+        return FamilyLibrary.getInstance().getFamilyClientProcessor();
+    }
+
+    public ImagePersistenceQueue getImagePersistenceQueue() {
+        return FamilyLibrary.getInstance().getImagePersistenceQueue();
+    }
+
+    public RegisterCounters getRegisterCounters() {
+        return FamilyLibrary.getInstance().getRegisterCounters();
+    }
+
+    public SQLiteDatabase getWritableDatabase() {
+        return DrishtiApplication.getInstance().getRepository().getWritableDatabase();
+    }
 }
@@ -5,9 +5,11 @@ import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.View;
 import org.smartregister.configurableviews.model.ViewConfiguration;
 import org.smartregister.cursoradapter.SmartRegisterQueryBuilder;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyProfileMemberContract;
 import org.smartregister.family.util.ConfigHelper;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.RegisterQueryCache;
 import org.smartregister.family.util.Utils;
 
 import java.util.Set;
@@ -30,17 +32,32 @@ public class BaseFamilyProfileMemberModel implements FamilyProfileMemberContract
     }
 
     @Override
-    public String countSelect(String tableName, String mainCondition) {
-        SmartRegisterQueryBuilder countQueryBuilder = new SmartRegisterQueryBuilder();
-        countQueryBuilder.selectInitiateMainTableCounts(tableName);
-        return countQueryBuilder.mainCondition(mainCondition);
+    public String countSelect(final String tableName, final String mainCondition) {
+        return getRegisterQueryCache().getQuery(RegisterQueryCache.countKey(tableName, mainCondition), new RegisterQueryCache.QueryBuilder() {
+            @Override
+            public String build() {
+                SmartRegisterQueryBuilder countQueryBuilder = new SmartRegisterQueryBuilder();
+                countQueryBuilder.selectInitiateMainTableCounts(tableName);
+                return countQueryBuilder.mainCondition(mainCondition);
+            }
+        });
     }
 
     @Override
-    public String mainSelect(String tableName, String mainCondition) {
-        SmartRegisterQueryBuilder queryBUilder = new SmartRegisterQueryBuilder();
-        queryBUilder.selectInitiateMainTable(tableName, mainColumns(tableName));
-        return queryBUilder.mainCondition(mainCondition);
+    public String mainSelect(final String tableName, final String mainCondition) {
+        final String[] mainColumns = mainColumns(tableName);
+        return getRegisterQueryCache().getQuery(RegisterQueryCache.mainKey(tableName, mainCondition, mainColumns), new RegisterQueryCache.QueryBuilder() {
+            @Override
+            public String build() {
+                SmartRegisterQueryBuilder queryBUilder = new SmartRegisterQueryBuilder();
+                queryBUilder.selectInitiateMainTable(tableName, mainColumns);
+                return queryBUilder.mainCondition(mainCondition);
+            }
+        });
+    }
+
+    protected RegisterQueryCache getRegisterQueryCache() {
+        return FamilyLibrary.getInstance().getRegisterQueryCache();
     }
 
     protected String[] mainColumns(String tableName) {
@@ -12,6 +12,8 @@ import org.smartregister.clientandeventmodel.Obs;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyProfileContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
+import org.smartregister.family.util.FormTemplateCache;
 import org.smartregister.family.util.JsonFormUtils;
 import org.smartregister.family.util.Utils;
 import org.smartregister.util.FormUtils;
@@ -35,7 +37,7 @@ public class BaseFamilyProfileModel implements FamilyProfileContract.Model {
 
     @Override
     public JSONObject getFormAsJson(String formName, String entityId, String currentLocationId) throws Exception {
-        JSONObject form = getFormUtils().getFormJson(formName);
+        JSONObject form = getFormTemplateCache().getFormJson(getFormUtils(), formName);
         if (form == null) {
             return null;
         }
@@ -50,7 +52,12 @@ public class BaseFamilyProfileModel implements FamilyProfileContract.Model {
 
     @Override
     public FamilyEventClient processMemberRegistration(String jsonString, String familyBaseEntityId) {
-        FamilyEventClient familyEventClient = JsonFormUtils.processFamilyMemberRegistrationForm(FamilyLibrary.getInstance().context().allSharedPreferences(), jsonString, familyBaseEntityId);
+        return processMemberRegistration(ParsedForm.parse(jsonString), familyBaseEntityId);
+    }
+
+    @Override
+    public FamilyEventClient processMemberRegistration(ParsedForm parsedForm, String familyBaseEntityId) {
+        FamilyEventClient familyEventClient = JsonFormUtils.processFamilyMemberRegistrationForm(FamilyLibrary.getInstance().context().allSharedPreferences(), parsedForm, familyBaseEntityId);
         if (familyEventClient == null) {
             return null;
         }
@@ -61,7 +68,12 @@ public class BaseFamilyProfileModel implements FamilyProfileContract.Model {
 
     @Override
     public FamilyEventClient processUpdateMemberRegistration(String jsonString, String familyBaseEntityId) {
-        FamilyEventClient familyEventClient = JsonFormUtils.processFamilyMemberUpdateRegistrationForm(FamilyLibrary.getInstance().context().allSharedPreferences(), jsonString, familyBaseEntityId);
+        return processUpdateMemberRegistration(ParsedForm.parse(jsonString), familyBaseEntityId);
+    }
+
+    @Override
+    public FamilyEventClient processUpdateMemberRegistration(ParsedForm parsedForm, String familyBaseEntityId) {
+        FamilyEventClient familyEventClient = JsonFormUtils.processFamilyMemberUpdateRegistrationForm(FamilyLibrary.getInstance().context().allSharedPreferences(), parsedForm, familyBaseEntityId);
         if (familyEventClient == null) {
             return null;
         }
@@ -91,7 +103,12 @@ public class BaseFamilyProfileModel implements FamilyProfileContract.Model {
 
     @Override
     public FamilyEventClient processFamilyRegistrationForm(String jsonString, String familyBaseEntityId) {
-        return JsonFormUtils.processFamilyUpdateForm(FamilyLibrary.getInstance().context().allSharedPreferences(), jsonString, familyBaseEntityId);
+        return processFamilyRegistrationForm(ParsedForm.parse(jsonString), familyBaseEntityId);
+    }
+
+    @Override
+    public FamilyEventClient processFamilyRegistrationForm(ParsedForm parsedForm, String familyBaseEntityId) {
+        return JsonFormUtils.processFamilyUpdateForm(FamilyLibrary.getInstance().context().allSharedPreferences(), parsedForm, familyBaseEntityId);
     }
 
 
@@ -108,6 +125,12 @@ public class BaseFamilyProfileModel implements FamilyProfileContract.Model {
 
     public void setFormUtils(FormUtils formUtils) {
         this.formUtils = formUtils;
+        // templates loaded through the previous form utils no longer apply
+        getFormTemplateCache().invalidate();
+    }
+
+    protected FormTemplateCache getFormTemplateCache() {
+        return FamilyLibrary.getInstance().getFormTemplateCache();
     }
 
     public void setFamilyName(String familyName) {
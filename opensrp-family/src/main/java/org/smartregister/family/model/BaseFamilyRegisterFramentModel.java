@@ -2,6 +2,7 @@ package org.smartregister.family.model;
 
 import android.util.Log;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.smartregister.configurableviews.ConfigurableViewsLibrary;
@@ -12,9 +13,12 @@ import org.smartregister.configurableviews.model.ViewConfiguration;
 import org.smartregister.cursoradapter.SmartRegisterQueryBuilder;
 import org.smartregister.domain.Response;
 import org.smartregister.domain.ResponseStatus;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyRegisterFragmentContract;
 import org.smartregister.family.util.ConfigHelper;
+import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.RegisterQueryCache;
 import org.smartregister.family.util.Utils;
 
 import java.util.ArrayList;
@@ -28,6 +32,9 @@ import timber.log.Timber;
  */
 public class BaseFamilyRegisterFramentModel implements FamilyRegisterFragmentContract.Model {
 
+    private static final String FAMILY_HEAD_TABLE = "family_head_member";
+    private static final String FAMILY_HEAD_ID = "family_head_base_entity_id";
+
     @Override
     public RegisterConfiguration defaultRegisterConfiguration() {
         return ConfigHelper.defaultRegisterConfiguration(Utils.context().applicationContext());
@@ -44,20 +51,60 @@ public class BaseFamilyRegisterFramentModel implements FamilyRegisterFragmentCon
     }
 
     @Override
-    public String countSelect(String tableName, String mainCondition) {
-        SmartRegisterQueryBuilder countQueryBuilder = new SmartRegisterQueryBuilder();
-        countQueryBuilder.selectInitiateMainTableCounts(tableName);
-        return countQueryBuilder.mainCondition(mainCondition);
+    public String countSelect(final String tableName, final String mainCondition) {
+        return getRegisterQueryCache().getQuery(RegisterQueryCache.countKey(tableName, mainCondition), new RegisterQueryCache.QueryBuilder() {
+            @Override
+            public String build() {
+                SmartRegisterQueryBuilder countQueryBuilder = new SmartRegisterQueryBuilder();
+                countQueryBuilder.selectInitiateMainTableCounts(tableName);
+                return countQueryBuilder.mainCondition(mainCondition);
+            }
+        });
     }
 
     @Override
-    public String mainSelect(String tableName, String mainCondition) {
-        SmartRegisterQueryBuilder queryBUilder = new SmartRegisterQueryBuilder();
-        queryBUilder.selectInitiateMainTable(tableName, mainColumns(tableName));
-        return queryBUilder.mainCondition(mainCondition);
+    public String mainSelect(final String tableName, final String mainCondition) {
+        final String[] mainColumns = mainColumns(tableName);
+        return getRegisterQueryCache().getQuery(RegisterQueryCache.mainKey(tableName, mainCondition, mainColumns), new RegisterQueryCache.QueryBuilder() {
+            @Override
+            public String build() {
+                SmartRegisterQueryBuilder queryBUilder = new SmartRegisterQueryBuilder();
+                queryBUilder.selectInitiateMainTable(tableName, mainColumns);
+                if (isFamilyHeadFirstNameEnabled()) {
+                    queryBUilder.customJoin(familyHeadJoin(tableName));
+                }
+                return queryBUilder.mainCondition(mainCondition);
+            }
+        });
+    }
+
+    /**
+     * Joins the first name of the family head so the register rows are bound without a lookup per row.
+     * The member columns are aliased in a sub query so that unqualified columns in the conditions stay unambiguous.
+     */
+    protected String familyHeadJoin(String tableName) {
+        return "LEFT JOIN (SELECT " + DBConstants.KEY.BASE_ENTITY_ID + " AS " + FAMILY_HEAD_ID + ", "
+                + DBConstants.KEY.FIRST_NAME + " AS " + Constants.KEY.FAMILY_HEAD_NAME
+                + " FROM " + Utils.metadata().familyMemberRegister.tableName + ") " + FAMILY_HEAD_TABLE
+                + " ON " + FAMILY_HEAD_TABLE + "." + FAMILY_HEAD_ID + " = " + tableName + "." + DBConstants.KEY.FAMILY_HEAD;
+    }
+
+    protected boolean isFamilyHeadFirstNameEnabled() {
+        return Utils.getBooleanProperty(Constants.Properties.FAMILY_HEAD_FIRSTNAME_ENABLED);
+    }
+
+    protected RegisterQueryCache getRegisterQueryCache() {
+        return FamilyLibrary.getInstance().getRegisterQueryCache();
     }
 
     protected String[] mainColumns(String tableName) {
+        if (isFamilyHeadFirstNameEnabled()) {
+            return ArrayUtils.add(defaultColumns(tableName), FAMILY_HEAD_TABLE + "." + Constants.KEY.FAMILY_HEAD_NAME);
+        }
+        return defaultColumns(tableName);
+    }
+
+    private String[] defaultColumns(String tableName) {
         String[] columns = new String[]{
                 tableName + ".relationalid",
                 tableName + "." + DBConstants.KEY.LAST_INTERACTED_WITH,
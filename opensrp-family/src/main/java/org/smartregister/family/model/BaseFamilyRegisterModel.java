@@ -4,9 +4,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 import org.smartregister.clientandeventmodel.Client;
 import org.smartregister.configurableviews.ConfigurableViewsLibrary;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyRegisterContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.family.util.Constants;
+import org.smartregister.family.util.FormTemplateCache;
 import org.smartregister.family.util.JsonFormUtils;
 import org.smartregister.family.util.Utils;
 import org.smartregister.location.helper.LocationHelper;
@@ -49,13 +52,18 @@ public class BaseFamilyRegisterModel implements FamilyRegisterContract.Model {
 
     @Override
     public List<FamilyEventClient> processRegistration(String jsonString) {
+        return processRegistration(ParsedForm.parse(jsonString));
+    }
+
+    @Override
+    public List<FamilyEventClient> processRegistration(ParsedForm parsedForm) {
         List<FamilyEventClient> familyEventClientList = new ArrayList<>();
-        FamilyEventClient familyEventClient = JsonFormUtils.processFamilyUpdateForm(Utils.context().allSharedPreferences(), jsonString);
+        FamilyEventClient familyEventClient = JsonFormUtils.processFamilyUpdateForm(Utils.context().allSharedPreferences(), parsedForm);
         if (familyEventClient == null) {
             return familyEventClientList;
         }
 
-        FamilyEventClient headEventClient = JsonFormUtils.processFamilyHeadRegistrationForm(Utils.context().allSharedPreferences(), jsonString, familyEventClient.getClient().getBaseEntityId());
+        FamilyEventClient headEventClient = JsonFormUtils.processFamilyHeadRegistrationForm(Utils.context().allSharedPreferences(), parsedForm, familyEventClient.getClient().getBaseEntityId());
         if (headEventClient == null) {
             return familyEventClientList;
         }
@@ -80,7 +88,7 @@ public class BaseFamilyRegisterModel implements FamilyRegisterContract.Model {
 
     @Override
     public JSONObject getFormAsJson(String formName, String entityId, String currentLocationId) throws Exception {
-        JSONObject form = getFormUtils().getFormJson(formName);
+        JSONObject form = getFormTemplateCache().getFormJson(getFormUtils(), formName);
         if (form == null) {
             return null;
         }
@@ -100,6 +108,12 @@ public class BaseFamilyRegisterModel implements FamilyRegisterContract.Model {
 
     public void setFormUtils(FormUtils formUtils) {
         this.formUtils = formUtils;
+        // templates loaded through the previous form utils no longer apply
+        getFormTemplateCache().invalidate();
+    }
+
+    protected FormTemplateCache getFormTemplateCache() {
+        return FamilyLibrary.getInstance().getFormTemplateCache();
     }
 
 
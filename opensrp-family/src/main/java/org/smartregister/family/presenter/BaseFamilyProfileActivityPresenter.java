@@ -5,6 +5,7 @@ import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.ViewConfiguration;
 import org.smartregister.family.contract.FamilyProfileActivityContract;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.QueryCondition;
 import org.smartregister.family.util.Utils;
 
 import java.lang.ref.WeakReference;
@@ -58,6 +59,16 @@ public class BaseFamilyProfileActivityPresenter implements FamilyProfileActivity
         String mainSelect = model.mainSelect(tableName, mainCondition);
 
         getView().initializeQueryParams(tableName, countSelect, mainSelect);
+
+        QueryCondition queryCondition = getQueryCondition();
+        if (queryCondition.toLiteral().equals(mainCondition)) {
+            String condition = queryCondition.getCondition();
+            getView().initializeBoundQueryParams(model.countSelect(tableName, condition), model.mainSelect(tableName, condition), queryCondition.getArgs());
+        } else {
+            // the fragment queries its own condition, it is run as is
+            getView().initializeBoundQueryParams(null, null, null);
+        }
+
         getView().initializeAdapter(visibleColumns);
 
         getView().countExecute();
@@ -81,7 +92,16 @@ public class BaseFamilyProfileActivityPresenter implements FamilyProfileActivity
 
     @Override
     public String getMainCondition() {
-        return String.format(" %s = '%s' and %s is null ", DBConstants.KEY.OBJECT_RELATIONAL_ID, familyBaseEntityId, DBConstants.KEY.DATE_REMOVED);
+        return getQueryCondition().toLiteral();
+    }
+
+    @Override
+    public QueryCondition getQueryCondition() {
+        if (familyBaseEntityId == null) {
+            // a null value cannot be bound, the inlined condition finds no rows
+            return new QueryCondition(String.format(" %s = '%s' and %s is null ", DBConstants.KEY.OBJECT_RELATIONAL_ID, familyBaseEntityId, DBConstants.KEY.DATE_REMOVED));
+        }
+        return new QueryCondition(String.format(" %s = ? and %s is null ", DBConstants.KEY.OBJECT_RELATIONAL_ID, DBConstants.KEY.DATE_REMOVED), familyBaseEntityId);
     }
 
     @Override
@@ -1,17 +1,24 @@
 package org.smartregister.family.presenter;
 
 import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.ViewConfiguration;
 import org.smartregister.family.contract.FamilyProfileMemberContract;
+import org.smartregister.family.interactor.FamilyGlobalSearchInteractor;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.QueryCondition;
 import org.smartregister.family.util.Utils;
+import org.smartregister.job.SyncServiceJob;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
-public class BaseFamilyProfileMemberPresenter implements FamilyProfileMemberContract.Presenter {
+public class BaseFamilyProfileMemberPresenter implements FamilyProfileMemberContract.Presenter, FamilyGlobalSearchInteractor.Callback {
 
     protected WeakReference<FamilyProfileMemberContract.View> viewReference;
 
@@ -23,6 +30,7 @@ public class BaseFamilyProfileMemberPresenter implements FamilyProfileMemberCont
     protected String familyHead;
     protected String primaryCaregiver;
 
+    protected FamilyGlobalSearchInteractor globalSearchInteractor;
 
     protected Set<org.smartregister.configurableviews.model.View> visibleColumns = new TreeSet<>();
 
@@ -63,6 +71,16 @@ public class BaseFamilyProfileMemberPresenter implements FamilyProfileMemberCont
         String mainSelect = model.mainSelect(tableName, mainCondition);
 
         getView().initializeQueryParams(tableName, countSelect, mainSelect);
+
+        QueryCondition queryCondition = getQueryCondition();
+        if (queryCondition.toLiteral().equals(mainCondition)) {
+            String condition = queryCondition.getCondition();
+            getView().initializeBoundQueryParams(model.countSelect(tableName, condition), model.mainSelect(tableName, condition), queryCondition.getArgs());
+        } else {
+            // the fragment queries its own condition, it is run as is
+            getView().initializeBoundQueryParams(null, null, null);
+        }
+
         getView().initializeAdapter(visibleColumns, familyHead, primaryCaregiver);
 
         getView().countExecute();
@@ -76,17 +94,49 @@ public class BaseFamilyProfileMemberPresenter implements FamilyProfileMemberCont
 
     @Override
     public void startSync() {
-        // TODO implement start sync
+        SyncServiceJob.scheduleJobImmediately(getSyncJobTag());
+    }
+
+    protected String getSyncJobTag() {
+        return Utils.metadata().getSyncJobTag();
     }
 
     @Override
     public void searchGlobally(String uniqueId) {
-        // TODO implement Global search
+        getGlobalSearchInteractor().search(uniqueId, this);
+    }
+
+    /**
+     * Shows the members of the family found, the clients of other families are left out
+     */
+    @Override
+    public void onClientsFound(String query, List<JSONObject> clients) {
+        if (getView() == null) {
+            return;
+        }
+        List<JSONObject> members = new ArrayList<>();
+        for (JSONObject client : clients) {
+            JSONObject relationships = client.optJSONObject("relationships");
+            JSONArray familyIds = relationships == null ? null : relationships.optJSONArray(Utils.metadata().familyMemberRegister.familyRelationKey);
+            if (familyIds != null && familyBaseEntityId.equals(familyIds.optString(0))) {
+                members.add(client);
+            }
+        }
+        getView().showGlobalSearchResults(query, members);
     }
 
     @Override
     public String getMainCondition() {
-        return String.format(" %s = '%s' and %s is null ", DBConstants.KEY.OBJECT_RELATIONAL_ID, familyBaseEntityId, DBConstants.KEY.DATE_REMOVED);
+        return getQueryCondition().toLiteral();
+    }
+
+    @Override
+    public QueryCondition getQueryCondition() {
+        if (familyBaseEntityId == null) {
+            // a null value cannot be bound, the inlined condition finds no rows
+            return new QueryCondition(String.format(" %s = '%s' and %s is null ", DBConstants.KEY.OBJECT_RELATIONAL_ID, familyBaseEntityId, DBConstants.KEY.DATE_REMOVED));
+        }
+        return new QueryCondition(String.format(" %s = ? and %s is null ", DBConstants.KEY.OBJECT_RELATIONAL_ID, DBConstants.KEY.DATE_REMOVED), familyBaseEntityId);
     }
 
     @Override
@@ -109,6 +159,17 @@ public class BaseFamilyProfileMemberPresenter implements FamilyProfileMemberCont
         this.model = model;
     }
 
+    protected FamilyGlobalSearchInteractor getGlobalSearchInteractor() {
+        if (globalSearchInteractor == null) {
+            globalSearchInteractor = new FamilyGlobalSearchInteractor();
+        }
+        return globalSearchInteractor;
+    }
+
+    public void setGlobalSearchInteractor(FamilyGlobalSearchInteractor globalSearchInteractor) {
+        this.globalSearchInteractor = globalSearchInteractor;
+    }
+
     public String getFamilyBaseEntityId() {
         return familyBaseEntityId;
     }
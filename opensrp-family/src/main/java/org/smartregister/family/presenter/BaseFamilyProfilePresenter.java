@@ -11,6 +11,7 @@ import org.smartregister.family.R;
 import org.smartregister.family.activity.BaseFamilyProfileActivity;
 import org.smartregister.family.contract.FamilyProfileContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.family.interactor.FamilyProfileInteractor;
 import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.DBConstants;
@@ -35,6 +36,7 @@ public class BaseFamilyProfilePresenter implements FamilyProfileContract.Present
     protected String familyHead;
     protected String primaryCaregiver;
     protected String familyName;
+    protected String leasedUniqueId;
 
     public BaseFamilyProfilePresenter(FamilyProfileContract.View loginView, FamilyProfileContract.Model model, String familyBaseEntityId, String familyHead, String primaryCaregiver, String familyName) {
         this.view = new WeakReference<>(loginView);
@@ -169,6 +171,14 @@ public class BaseFamilyProfilePresenter implements FamilyProfileContract.Present
 
     }
 
+    @Override
+    public void onFormCancelled() {
+        if (leasedUniqueId != null) {
+            interactor.releaseUniqueId(leasedUniqueId);
+            leasedUniqueId = null;
+        }
+    }
+
     @Override
     public void onNoUniqueId() {
         getView().displayShortToast(R.string.no_unique_id);
@@ -177,9 +187,11 @@ public class BaseFamilyProfilePresenter implements FamilyProfileContract.Present
     @Override
     public void onUniqueIdFetched(Triple<String, String, String> triple, String entityId) {
         try {
+            leasedUniqueId = entityId;
             startForm(triple.getLeft(), entityId, triple.getMiddle(), triple.getRight());
         } catch (Exception e) {
             Timber.e(e);
+            onFormCancelled();
             getView().displayToast(R.string.error_unable_to_start_form);
         }
     }
@@ -190,12 +202,14 @@ public class BaseFamilyProfilePresenter implements FamilyProfileContract.Present
         try {
             getView().showProgressDialog(R.string.saving_dialog_title);
 
-            FamilyEventClient familyEventClient = model.processMemberRegistration(jsonString, familyBaseEntityId);
+            leasedUniqueId = null;
+            ParsedForm parsedForm = ParsedForm.parse(jsonString);
+            FamilyEventClient familyEventClient = model.processMemberRegistration(parsedForm, familyBaseEntityId);
             if (familyEventClient == null) {
                 return;
             }
 
-            interactor.saveRegistration(familyEventClient, jsonString, false, this);
+            interactor.saveRegistration(familyEventClient, parsedForm, false, this);
 
         } catch (Exception e) {
             Timber.e(e);
@@ -208,12 +222,13 @@ public class BaseFamilyProfilePresenter implements FamilyProfileContract.Present
         try {
             getView().showProgressDialog(R.string.saving_dialog_title);
 
-            FamilyEventClient familyEventClient = model.processFamilyRegistrationForm(jsonString, familyBaseEntityId);
+            ParsedForm parsedForm = ParsedForm.parse(jsonString);
+            FamilyEventClient familyEventClient = model.processFamilyRegistrationForm(parsedForm, familyBaseEntityId);
             if (familyEventClient == null) {
                 return;
             }
 
-            interactor.saveRegistration(familyEventClient, jsonString, true, this);
+            interactor.saveRegistration(familyEventClient, parsedForm, true, this);
 
         } catch (Exception e) {
             Timber.e(e);
@@ -1,19 +1,25 @@
 package org.smartregister.family.presenter;
 
 import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.smartregister.configurableviews.model.Field;
 import org.smartregister.configurableviews.model.RegisterConfiguration;
 import org.smartregister.configurableviews.model.ViewConfiguration;
 import org.smartregister.family.contract.FamilyRegisterFragmentContract;
+import org.smartregister.family.interactor.FamilyGlobalSearchInteractor;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.QueryCondition;
 import org.smartregister.family.util.Utils;
+import org.smartregister.job.SyncServiceJob;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
-public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegisterFragmentContract.Presenter {
+public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegisterFragmentContract.Presenter, FamilyGlobalSearchInteractor.Callback {
 
     protected WeakReference<FamilyRegisterFragmentContract.View> viewReference;
 
@@ -24,6 +30,8 @@ public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegis
     protected Set<org.smartregister.configurableviews.model.View> visibleColumns = new TreeSet<>();
     protected String viewConfigurationIdentifier;
 
+    protected FamilyGlobalSearchInteractor globalSearchInteractor;
+
     public BaseFamilyRegisterFragmentPresenter(FamilyRegisterFragmentContract.View view, FamilyRegisterFragmentContract.Model model, String viewConfigurationIdentifier) {
         this.viewReference = new WeakReference<>(view);
         this.model = model;
@@ -56,6 +64,16 @@ public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegis
         String mainSelect = model.mainSelect(tableName, mainCondition);
 
         getView().initializeQueryParams(tableName, countSelect, mainSelect);
+
+        QueryCondition queryCondition = getQueryCondition();
+        if (queryCondition.toLiteral().equals(mainCondition)) {
+            String condition = queryCondition.getCondition();
+            getView().initializeBoundQueryParams(model.countSelect(tableName, condition), model.mainSelect(tableName, condition), queryCondition.getArgs());
+        } else {
+            // the fragment queries its own condition, it is run as is
+            getView().initializeBoundQueryParams(null, null, null);
+        }
+
         getView().initializeAdapter(visibleColumns);
 
         getView().countExecute();
@@ -69,7 +87,14 @@ public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegis
 
     @Override
     public void startSync() {
-        //ServiceTools.startSyncService(getActivity());
+        SyncServiceJob.scheduleJobImmediately(getSyncJobTag());
+    }
+
+    /**
+     * @return the tag of the sync job of the app, see {@link org.smartregister.family.domain.FamilyMetadata#setSyncJobTag(String)}
+     */
+    protected String getSyncJobTag() {
+        return Utils.metadata().getSyncJobTag();
     }
 
     @Override
@@ -82,7 +107,26 @@ public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegis
 
     @Override
     public void searchGlobally(String uniqueId) {
-        // TODO implement search global
+        getGlobalSearchInteractor().search(uniqueId, this);
+    }
+
+    /**
+     * Shows the family clients found, the members found by name are left out since they are not families
+     */
+    @Override
+    public void onClientsFound(String query, List<JSONObject> clients) {
+        if (getView() == null) {
+            return;
+        }
+        List<JSONObject> families = new ArrayList<>();
+        for (JSONObject client : clients) {
+            JSONObject relationships = client.optJSONObject("relationships");
+            JSONArray familyHeads = relationships == null ? null : relationships.optJSONArray(Utils.metadata().familyRegister.familyHeadRelationKey);
+            if (familyHeads != null && familyHeads.length() > 0) {
+                families.add(client);
+            }
+        }
+        getView().showGlobalSearchResults(query, families);
     }
 
     protected FamilyRegisterFragmentContract.View getView() {
@@ -100,8 +144,24 @@ public abstract class BaseFamilyRegisterFragmentPresenter implements FamilyRegis
         this.model = model;
     }
 
+    protected FamilyGlobalSearchInteractor getGlobalSearchInteractor() {
+        if (globalSearchInteractor == null) {
+            globalSearchInteractor = new FamilyGlobalSearchInteractor();
+        }
+        return globalSearchInteractor;
+    }
+
+    public void setGlobalSearchInteractor(FamilyGlobalSearchInteractor globalSearchInteractor) {
+        this.globalSearchInteractor = globalSearchInteractor;
+    }
+
     @Override
     public String getMainCondition() {
-        return String.format(" %s is null ", DBConstants.KEY.DATE_REMOVED);
+        return getQueryCondition().toLiteral();
+    }
+
+    @Override
+    public QueryCondition getQueryCondition() {
+        return new QueryCondition(String.format(" %s is null ", DBConstants.KEY.DATE_REMOVED));
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import org.smartregister.domain.FetchStatus;
 import org.smartregister.family.R;
 import org.smartregister.family.contract.FamilyRegisterContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.family.interactor.FamilyRegisterInteractor;
 import org.smartregister.repository.AllSharedPreferences;
 
@@ -27,6 +28,7 @@ public class BaseFamilyRegisterPresenter implements FamilyRegisterContract.Prese
     protected WeakReference<FamilyRegisterContract.View> viewReference;
     protected FamilyRegisterContract.Interactor interactor;
     protected FamilyRegisterContract.Model model;
+    protected String leasedUniqueId;
 
     public BaseFamilyRegisterPresenter(FamilyRegisterContract.View view, FamilyRegisterContract.Model model) {
         viewReference = new WeakReference<>(view);
@@ -101,18 +103,28 @@ public class BaseFamilyRegisterPresenter implements FamilyRegisterContract.Prese
             if (getView() != null)
                 getView().showProgressDialog(R.string.saving_dialog_title);
 
-            List<FamilyEventClient> familyEventClientList = model.processRegistration(jsonString);
+            leasedUniqueId = null;
+            ParsedForm parsedForm = ParsedForm.parse(jsonString);
+            List<FamilyEventClient> familyEventClientList = model.processRegistration(parsedForm);
             if (familyEventClientList == null || familyEventClientList.isEmpty()) {
                 return;
             }
 
-            interactor.saveRegistration(familyEventClientList, jsonString, isEditMode, this);
+            interactor.saveRegistration(familyEventClientList, parsedForm, isEditMode, this);
 
         } catch (Exception e) {
             Timber.e(e);
         }
     }
 
+    @Override
+    public void onFormCancelled() {
+        if (leasedUniqueId != null) {
+            interactor.releaseUniqueId(leasedUniqueId);
+            leasedUniqueId = null;
+        }
+    }
+
     @Override
     public void onNoUniqueId() {
         if (getView() != null)
@@ -122,9 +134,11 @@ public class BaseFamilyRegisterPresenter implements FamilyRegisterContract.Prese
     @Override
     public void onUniqueIdFetched(Triple<String, String, String> triple, String entityId) {
         try {
+            leasedUniqueId = entityId;
             startForm(triple.getLeft(), entityId, triple.getMiddle(), triple.getRight());
         } catch (Exception e) {
             Timber.e(Log.getStackTraceString(e));
+            onFormCancelled();
             if (getView() != null)
                 getView().displayToast(R.string.error_unable_to_start_form);
         }
@@ -0,0 +1,204 @@
+package org.smartregister.family.provider;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.smartregister.commonregistry.CommonRepository;
+import org.smartregister.cursoradapter.RecyclerViewProvider;
+import org.smartregister.family.R;
+import org.smartregister.view.contract.SmartRegisterClient;
+import org.smartregister.view.contract.SmartRegisterClients;
+import org.smartregister.view.dialog.FilterOption;
+import org.smartregister.view.dialog.ServiceModeOption;
+import org.smartregister.view.dialog.SortOption;
+import org.smartregister.view.viewholder.OnClickFormLauncher;
+
+import java.text.MessageFormat;
+import java.util.Set;
+
+/**
+ * The parts shared by the family register providers.
+ * <p>
+ * The row view holders create the listeners forwarding clicks between their views once, when the holder is created,
+ * so binding a row records the bound client instead of creating listeners. The page info of the footer is formatted
+ * once per page.
+ */
+public abstract class BaseFamilyRegisterProvider<VH extends BaseFamilyRegisterProvider.BaseRegisterViewHolder> implements RecyclerViewProvider<VH> {
+
+    protected final LayoutInflater inflater;
+    protected Set<org.smartregister.configurableviews.model.View> visibleColumns;
+
+    protected View.OnClickListener onClickListener;
+    protected View.OnClickListener paginationClickListener;
+
+    protected Context context;
+    protected CommonRepository commonRepository;
+
+    private String pageInfoFormat;
+    private String pageInfo;
+    private int pageInfoCurrentPage = -1;
+    private int pageInfoTotalPages = -1;
+
+    public BaseFamilyRegisterProvider(Context context, CommonRepository commonRepository, Set visibleColumns, View.OnClickListener onClickListener, View.OnClickListener paginationClickListener) {
+
+        inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+        this.visibleColumns = visibleColumns;
+
+        this.onClickListener = onClickListener;
+        this.paginationClickListener = paginationClickListener;
+
+        this.context = context;
+        this.commonRepository = commonRepository;
+    }
+
+    @Override
+    public void getFooterView(RecyclerView.ViewHolder viewHolder, int currentPageCount, int totalPageCount, boolean hasNext, boolean hasPrevious) {
+        FooterViewHolder footerViewHolder = (FooterViewHolder) viewHolder;
+        footerViewHolder.setPageInfo(getPageInfo(currentPageCount, totalPageCount));
+
+        footerViewHolder.nextPageView.setVisibility(hasNext ? View.VISIBLE : View.INVISIBLE);
+        footerViewHolder.previousPageView.setVisibility(hasPrevious ? View.VISIBLE : View.INVISIBLE);
+
+        footerViewHolder.nextPageView.setOnClickListener(paginationClickListener);
+        footerViewHolder.previousPageView.setOnClickListener(paginationClickListener);
+    }
+
+    /**
+     * @return the page info of the footer, formatted again only when the page or the number of pages changed
+     */
+    @VisibleForTesting
+    String getPageInfo(int currentPageCount, int totalPageCount) {
+        if (pageInfo == null || currentPageCount != pageInfoCurrentPage || totalPageCount != pageInfoTotalPages) {
+            if (pageInfoFormat == null) {
+                pageInfoFormat = context.getString(org.smartregister.R.string.str_page_info);
+            }
+            pageInfo = MessageFormat.format(pageInfoFormat, currentPageCount, totalPageCount);
+            pageInfoCurrentPage = currentPageCount;
+            pageInfoTotalPages = totalPageCount;
+        }
+        return pageInfo;
+    }
+
+    /**
+     * Sets the register click listener on a view of a row, tagged with the client bound to the row
+     */
+    protected void attachOnClickListener(View view, BaseRegisterViewHolder viewHolder, String clickView) {
+        view.setOnClickListener(onClickListener);
+        view.setTag(viewHolder.getClient());
+        view.setTag(R.id.VIEW_ID, clickView);
+    }
+
+    @Override
+    public SmartRegisterClients updateClients(FilterOption villageFilter, ServiceModeOption serviceModeOption, FilterOption searchFilter, SortOption sortOption) {
+        return null;
+    }
+
+    @Override
+    public void onServiceModeSelected(ServiceModeOption serviceModeOption) {//Implement Abstract Method
+    }
+
+    @Override
+    public OnClickFormLauncher newFormLauncher(String formName, String entityId, String metaData) {
+        return null;
+    }
+
+    @Override
+    public LayoutInflater inflater() {
+        return inflater;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder createFooterHolder(ViewGroup parent) {
+        View view = inflater.inflate(R.layout.smart_register_pagination, parent, false);
+        return new FooterViewHolder(view);
+    }
+
+    @Override
+    public boolean isFooterViewHolder(RecyclerView.ViewHolder viewHolder) {
+        return FooterViewHolder.class.isInstance(viewHolder);
+    }
+
+
+    public static void fillValue(TextView v, String value) {
+        if (v != null)
+            v.setText(value);
+
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // Inner classes
+    ////////////////////////////////////////////////////////////////
+
+    /**
+     * A register row that keeps the client it is bound to
+     */
+    public static class BaseRegisterViewHolder extends RecyclerView.ViewHolder {
+
+        private SmartRegisterClient client;
+
+        public BaseRegisterViewHolder(View itemView) {
+            super(itemView);
+        }
+
+        public SmartRegisterClient getClient() {
+            return client;
+        }
+
+        public void bind(SmartRegisterClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Forwards the clicks on a view to another view of the row, set up once when the view holder is created
+         */
+        protected static void forwardClicks(View view, View target) {
+            if (view != null && target != null) {
+                view.setOnClickListener(new ForwardingClickListener(target));
+            }
+        }
+    }
+
+    private static class ForwardingClickListener implements View.OnClickListener {
+
+        private final View target;
+
+        ForwardingClickListener(View target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onClick(View v) {
+            target.performClick();
+        }
+    }
+
+    public static class FooterViewHolder extends RecyclerView.ViewHolder {
+        public TextView pageInfoView;
+        public Button nextPageView;
+        public Button previousPageView;
+
+        private String pageInfo;
+
+        public FooterViewHolder(View view) {
+            super(view);
+
+            nextPageView = view.findViewById(org.smartregister.R.id.btn_next_page);
+            previousPageView = view.findViewById(org.smartregister.R.id.btn_previous_page);
+            pageInfoView = view.findViewById(org.smartregister.R.id.txt_page_info);
+        }
+
+        void setPageInfo(String pageInfo) {
+            if (pageInfoView != null && pageInfo != this.pageInfo) {
+                pageInfoView.setText(pageInfo);
+                this.pageInfo = pageInfo;
+            }
+        }
+    }
+}
@@ -5,175 +5,76 @@ import android.database.Cursor;
 import android.graphics.Color;
 import android.graphics.Typeface;
 import androidx.recyclerview.widget.RecyclerView;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import org.apache.commons.lang3.StringUtils;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.commonregistry.CommonRepository;
-import org.smartregister.cursoradapter.RecyclerViewProvider;
 import org.smartregister.family.R;
+import org.smartregister.family.adapter.PageRowsProcessor;
 import org.smartregister.family.fragment.BaseFamilyProfileMemberFragment;
-import org.smartregister.family.util.DBConstants;
 import org.smartregister.family.util.Utils;
 import org.smartregister.view.contract.SmartRegisterClient;
-import org.smartregister.view.contract.SmartRegisterClients;
 import org.smartregister.view.customcontrols.CustomFontTextView;
 import org.smartregister.view.customcontrols.FontVariant;
-import org.smartregister.view.dialog.FilterOption;
-import org.smartregister.view.dialog.ServiceModeOption;
-import org.smartregister.view.dialog.SortOption;
-import org.smartregister.view.viewholder.OnClickFormLauncher;
 
-import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import static org.smartregister.family.util.Utils.getName;
-
 /**
  * Created by keyman on 14/01/2019.
  */
 
-public class FamilyDueRegisterProvider implements RecyclerViewProvider<FamilyDueRegisterProvider.RegisterViewHolder> {
-
-    private final LayoutInflater inflater;
-    private Set<org.smartregister.configurableviews.model.View> visibleColumns;
-
-    private View.OnClickListener onClickListener;
-    private View.OnClickListener paginationClickListener;
+public class FamilyDueRegisterProvider extends BaseFamilyRegisterProvider<FamilyDueRegisterProvider.RegisterViewHolder> implements PageRowsProcessor {
 
-    private Context context;
-    private CommonRepository commonRepository;
+    private RowViewModelCache rowViewModelCache;
 
     public FamilyDueRegisterProvider(Context context, CommonRepository commonRepository, Set visibleColumns, View.OnClickListener onClickListener, View.OnClickListener paginationClickListener) {
-
-        inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        this.visibleColumns = visibleColumns;
-
-        this.onClickListener = onClickListener;
-        this.paginationClickListener = paginationClickListener;
-
-        this.context = context;
-        this.commonRepository = commonRepository;
+        super(context, commonRepository, visibleColumns, onClickListener, paginationClickListener);
+        this.rowViewModelCache = new RowViewModelCache(context);
     }
 
     @Override
     public void getView(Cursor cursor, SmartRegisterClient client, RegisterViewHolder viewHolder) {
         CommonPersonObjectClient pc = (CommonPersonObjectClient) client;
         if (visibleColumns.isEmpty()) {
-            populatePatientColumn(pc, client, viewHolder);
+            viewHolder.bind(client);
+            populatePatientColumn(pc, viewHolder);
             return;
         }
     }
 
     @Override
-    public void getFooterView(RecyclerView.ViewHolder viewHolder, int currentPageCount, int totalPageCount, boolean hasNext, boolean hasPrevious) {
-        FooterViewHolder footerViewHolder = (FooterViewHolder) viewHolder;
-        footerViewHolder.pageInfoView.setText(
-                MessageFormat.format(context.getString(org.smartregister.R.string.str_page_info), currentPageCount,
-                        totalPageCount));
-
-        footerViewHolder.nextPageView.setVisibility(hasNext ? View.VISIBLE : View.INVISIBLE);
-        footerViewHolder.previousPageView.setVisibility(hasPrevious ? View.VISIBLE : View.INVISIBLE);
-
-        footerViewHolder.nextPageView.setOnClickListener(paginationClickListener);
-        footerViewHolder.previousPageView.setOnClickListener(paginationClickListener);
+    public void onPageLoaded(List<Map<String, String>> rows) {
+        rowViewModelCache.onPageLoaded(rows);
     }
 
-    private void populatePatientColumn(CommonPersonObjectClient pc, SmartRegisterClient client, final RegisterViewHolder viewHolder) {
-
-        String firstName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.FIRST_NAME, true);
-        String middleName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.MIDDLE_NAME, true);
-        String lastName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.LAST_NAME, true);
-
-        String patientName = getName(firstName, middleName, lastName);
+    private void populatePatientColumn(CommonPersonObjectClient pc, RegisterViewHolder viewHolder) {
 
-        String dob = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.DOB, false);
-        String dobString = Utils.getDuration(dob);
-        dobString = dobString.contains("y") ? dobString.substring(0, dobString.indexOf("y")) : dobString;
+        MemberRowViewModel row = rowViewModelCache.get(pc.getColumnmaps());
 
-        String dod = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.DOD, false);
-        if (StringUtils.isNotBlank(dod)) {
-
-            dobString = Utils.getDuration(dod, dob);
-            dobString = dobString.contains("y") ? dobString.substring(0, dobString.indexOf("y")) : dobString;
-
-            patientName = patientName + ", " + Utils.getTranslatedDate(dobString, context) + " " + context.getString(R.string.deceased_brackets);
+        if (row.isDeceased()) {
             viewHolder.patientNameAge.setFontVariant(FontVariant.REGULAR);
             viewHolder.patientNameAge.setTextColor(Color.GRAY);
             viewHolder.patientNameAge.setTypeface(viewHolder.patientNameAge.getTypeface(), Typeface.ITALIC);
             viewHolder.nextArrow.setVisibility(View.GONE);
         } else {
-            patientName = patientName + ", " + Utils.getTranslatedDate(dobString, context);
             viewHolder.patientNameAge.setFontVariant(FontVariant.REGULAR);
             viewHolder.patientNameAge.setTextColor(Color.BLACK);
             viewHolder.patientNameAge.setTypeface(viewHolder.patientNameAge.getTypeface(), Typeface.NORMAL);
             viewHolder.nextArrow.setVisibility(View.VISIBLE);
         }
 
-        viewHolder.patientNameAge.setText(patientName);
+        viewHolder.patientNameAge.setText(row.getNameAge());
 
         viewHolder.status.setImageResource(Utils.getDueProfileImageResourceIDentifier());
 
-        attachPatientOnclickListener(viewHolder.patientColumn, client);
-
-        attachNextArrowOnclickListener(viewHolder.nextArrow, client);
-
-        viewHolder.nextArrowColumn.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.nextArrow.performClick();
-            }
-        });
-
-        viewHolder.statusColumn.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.patientColumn.performClick();
-            }
-        });
-
-        viewHolder.registerColumns.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.patientColumn.performClick();
-            }
-        });
-    }
-
-    private void attachPatientOnclickListener(View view, SmartRegisterClient client) {
-        view.setOnClickListener(onClickListener);
-        view.setTag(client);
-        view.setTag(R.id.VIEW_ID, BaseFamilyProfileMemberFragment.CLICK_VIEW_NORMAL);
-    }
-
-    private void attachNextArrowOnclickListener(View view, SmartRegisterClient client) {
-        view.setOnClickListener(onClickListener);
-        view.setTag(client);
-        view.setTag(R.id.VIEW_ID, BaseFamilyProfileMemberFragment.CLICK_VIEW_NEXT_ARROW);
-    }
-
-    @Override
-    public SmartRegisterClients updateClients(FilterOption villageFilter, ServiceModeOption serviceModeOption, FilterOption searchFilter, SortOption sortOption) {
-        return null;
-    }
-
-    @Override
-    public void onServiceModeSelected(ServiceModeOption serviceModeOption) {//Implement Abstract Method
-    }
-
-    @Override
-    public OnClickFormLauncher newFormLauncher(String formName, String entityId, String metaData) {
-        return null;
-    }
+        attachOnClickListener(viewHolder.patientColumn, viewHolder, BaseFamilyProfileMemberFragment.CLICK_VIEW_NORMAL);
 
-    @Override
-    public LayoutInflater inflater() {
-        return inflater;
+        attachOnClickListener(viewHolder.nextArrow, viewHolder, BaseFamilyProfileMemberFragment.CLICK_VIEW_NEXT_ARROW);
     }
 
     @Override
@@ -194,23 +95,11 @@ public class FamilyDueRegisterProvider implements RecyclerViewProvider<FamilyDue
         return new FooterViewHolder(view);
     }
 
-    @Override
-    public boolean isFooterViewHolder(RecyclerView.ViewHolder viewHolder) {
-        return FooterViewHolder.class.isInstance(viewHolder);
-    }
-
-
-    public static void fillValue(TextView v, String value) {
-        if (v != null)
-            v.setText(value);
-
-    }
-
     ////////////////////////////////////////////////////////////////
     // Inner classes
     ////////////////////////////////////////////////////////////////
 
-    public static class RegisterViewHolder extends RecyclerView.ViewHolder {
+    public static class RegisterViewHolder extends BaseRegisterViewHolder {
         public ImageView status;
         public CustomFontTextView patientNameAge;
         public TextView lastVisit;
@@ -235,20 +124,10 @@ public class FamilyDueRegisterProvider implements RecyclerViewProvider<FamilyDue
             nextArrowColumn = itemView.findViewById(R.id.next_arrow_column);
             statusColumn = itemView.findViewById(R.id.status_layout);
             registerColumns = itemView.findViewById(R.id.register_columns);
-        }
-    }
-
-    public class FooterViewHolder extends RecyclerView.ViewHolder {
-        public TextView pageInfoView;
-        public Button nextPageView;
-        public Button previousPageView;
-
-        public FooterViewHolder(View view) {
-            super(view);
 
-            nextPageView = view.findViewById(org.smartregister.R.id.btn_next_page);
-            previousPageView = view.findViewById(org.smartregister.R.id.btn_previous_page);
-            pageInfoView = view.findViewById(org.smartregister.R.id.txt_page_info);
+            forwardClicks(nextArrowColumn, nextArrow);
+            forwardClicks(statusColumn, patientColumn);
+            forwardClicks(registerColumns, patientColumn);
         }
     }
 
@@ -4,68 +4,44 @@ import android.content.Context;
 import android.database.Cursor;
 import android.graphics.Color;
 import android.graphics.Typeface;
-
-import androidx.recyclerview.widget.RecyclerView;
-
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import org.apache.commons.lang3.StringUtils;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.commonregistry.CommonRepository;
-import org.smartregister.cursoradapter.RecyclerViewProvider;
+import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
+import org.smartregister.family.adapter.PageDataResolver;
+import org.smartregister.family.adapter.PageRowsProcessor;
 import org.smartregister.family.fragment.BaseFamilyProfileMemberFragment;
-import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.helper.ImageRenderHelper;
 import org.smartregister.family.util.Utils;
-import org.smartregister.helper.ImageRenderHelper;
 import org.smartregister.view.contract.SmartRegisterClient;
-import org.smartregister.view.contract.SmartRegisterClients;
 import org.smartregister.view.customcontrols.CustomFontTextView;
 import org.smartregister.view.customcontrols.FontVariant;
-import org.smartregister.view.dialog.FilterOption;
-import org.smartregister.view.dialog.ServiceModeOption;
-import org.smartregister.view.dialog.SortOption;
-import org.smartregister.view.viewholder.OnClickFormLauncher;
 
-import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import static org.smartregister.family.util.Utils.getName;
-
 /**
  * Created by keyman on 14/01/2019.
  */
 
-public class FamilyMemberRegisterProvider implements RecyclerViewProvider<FamilyMemberRegisterProvider.RegisterViewHolder> {
-
-    private final LayoutInflater inflater;
-    private Set<org.smartregister.configurableviews.model.View> visibleColumns;
+public class FamilyMemberRegisterProvider extends BaseFamilyRegisterProvider<FamilyMemberRegisterProvider.RegisterViewHolder> implements PageRowsProcessor, PageDataResolver {
 
-    private View.OnClickListener onClickListener;
-    private View.OnClickListener paginationClickListener;
-
-    private Context context;
-    private CommonRepository commonRepository;
+    private RowViewModelCache rowViewModelCache;
     private ImageRenderHelper imageRenderHelper;
 
     private String familyHead;
     private String primaryCaregiver;
 
     public FamilyMemberRegisterProvider(Context context, CommonRepository commonRepository, Set visibleColumns, View.OnClickListener onClickListener, View.OnClickListener paginationClickListener, String familyHead, String primaryCaregiver) {
-
-        inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        this.visibleColumns = visibleColumns;
-
-        this.onClickListener = onClickListener;
-        this.paginationClickListener = paginationClickListener;
-
-        this.context = context;
-        this.commonRepository = commonRepository;
+        super(context, commonRepository, visibleColumns, onClickListener, paginationClickListener);
+        this.rowViewModelCache = new RowViewModelCache(context);
         this.imageRenderHelper = new ImageRenderHelper(context);
 
         this.familyHead = familyHead;
@@ -76,7 +52,8 @@ public class FamilyMemberRegisterProvider implements RecyclerViewProvider<Family
     public void getView(Cursor cursor, SmartRegisterClient client, RegisterViewHolder viewHolder) {
         CommonPersonObjectClient pc = (CommonPersonObjectClient) client;
         if (visibleColumns.isEmpty()) {
-            populatePatientColumn(pc, client, viewHolder);
+            viewHolder.bind(client);
+            populatePatientColumn(pc, viewHolder);
             populateIdentifierColumn(pc, viewHolder);
 
             return;
@@ -84,91 +61,41 @@ public class FamilyMemberRegisterProvider implements RecyclerViewProvider<Family
     }
 
     @Override
-    public void getFooterView(RecyclerView.ViewHolder viewHolder, int currentPageCount, int totalPageCount, boolean hasNext, boolean hasPrevious) {
-        FooterViewHolder footerViewHolder = (FooterViewHolder) viewHolder;
-        footerViewHolder.pageInfoView.setText(
-                MessageFormat.format(context.getString(org.smartregister.R.string.str_page_info), currentPageCount,
-                        totalPageCount));
-
-        footerViewHolder.nextPageView.setVisibility(hasNext ? View.VISIBLE : View.INVISIBLE);
-        footerViewHolder.previousPageView.setVisibility(hasPrevious ? View.VISIBLE : View.INVISIBLE);
-
-        footerViewHolder.nextPageView.setOnClickListener(paginationClickListener);
-        footerViewHolder.previousPageView.setOnClickListener(paginationClickListener);
+    public void onPageLoaded(List<Map<String, String>> rows) {
+        rowViewModelCache.onPageLoaded(rows);
     }
 
-    private void populatePatientColumn(CommonPersonObjectClient pc, SmartRegisterClient client, final RegisterViewHolder viewHolder) {
-
-        String firstName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.FIRST_NAME, true);
-        String middleName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.MIDDLE_NAME, true);
-        String lastName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.LAST_NAME, true);
-
-        String patientName = getName(firstName, middleName, lastName);
-
-        String entityType = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.ENTITY_TYPE, false);
-
-        String dob = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.DOB, false);
-        String dobString = Utils.getDuration(dob);
-        dobString = dobString.contains("y") ? dobString.substring(0, dobString.indexOf("y")) : dobString;
+    @Override
+    public void resolve(List<String> baseEntityIds) {
+        FamilyLibrary.getInstance().getPhotoPathCache().resolve(baseEntityIds);
+    }
 
-        String dod = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.DOD, false);
-        if (StringUtils.isNotBlank(dod)) {
+    private void populatePatientColumn(CommonPersonObjectClient pc, RegisterViewHolder viewHolder) {
 
-            dobString = Utils.getDuration(dod, dob);
-            dobString = dobString.contains("y") ? dobString.substring(0, dobString.indexOf("y")) : dobString;
+        MemberRowViewModel row = rowViewModelCache.get(pc.getColumnmaps());
 
-            patientName = patientName + ", " + Utils.getTranslatedDate(dobString, context) + " " + context.getString(R.string.deceased_brackets);
+        if (row.isDeceased()) {
             viewHolder.patientNameAge.setFontVariant(FontVariant.REGULAR);
             viewHolder.patientNameAge.setTextColor(Color.GRAY);
             viewHolder.patientNameAge.setTypeface(viewHolder.patientNameAge.getTypeface(), Typeface.ITALIC);
-            viewHolder.profile.setImageResource(Utils.getMemberProfileImageResourceIDentifier(entityType));
+            viewHolder.profile.setImageResource(Utils.getMemberProfileImageResourceIDentifier(row.getEntityType()));
             viewHolder.nextArrow.setVisibility(View.GONE);
         } else {
-            patientName = patientName + ", " + Utils.getTranslatedDate(dobString, context);
             viewHolder.patientNameAge.setFontVariant(FontVariant.REGULAR);
             viewHolder.patientNameAge.setTextColor(Color.BLACK);
             viewHolder.patientNameAge.setTypeface(viewHolder.patientNameAge.getTypeface(), Typeface.NORMAL);
-            imageRenderHelper.refreshProfileImage(pc.getCaseId(), viewHolder.profile, Utils.getMemberProfileImageResourceIDentifier(entityType));
+            imageRenderHelper.refreshProfileImage(pc.getCaseId(), viewHolder.profile, Utils.getMemberProfileImageResourceIDentifier(row.getEntityType()));
             viewHolder.nextArrow.setVisibility(View.VISIBLE);
         }
 
-        fillValue(viewHolder.patientNameAge, patientName);
+        fillValue(viewHolder.patientNameAge, row.getNameAge());
 
-        String gender_key = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.GENDER, true);
-        String gender = "";
-        if (gender_key.equalsIgnoreCase("Male")) {
-            gender = context.getString(R.string.male);
-        } else if (gender_key.equalsIgnoreCase("Female")) {
-            gender = context.getString(R.string.female);
-        }
-        fillValue(viewHolder.gender, gender);
+        fillValue(viewHolder.gender, row.getTranslatedGender());
 
-        viewHolder.nextArrowColumn.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.nextArrow.performClick();
-            }
-        });
-
-        viewHolder.profile.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.patientColumn.performClick();
-            }
-        });
+        if (!row.isDeceased()) {
+            attachOnClickListener(viewHolder.patientColumn, viewHolder, BaseFamilyProfileMemberFragment.CLICK_VIEW_NORMAL);
 
-        viewHolder.registerColumns.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.patientColumn.performClick();
-            }
-        });
-        if (StringUtils.isBlank(dod)) {
-            View patient = viewHolder.patientColumn;
-            attachPatientOnclickListener(patient, client);
-
-            View nextArrow = viewHolder.nextArrow;
-            attachNextArrowOnclickListener(nextArrow, client);
+            attachOnClickListener(viewHolder.nextArrow, viewHolder, BaseFamilyProfileMemberFragment.CLICK_VIEW_NEXT_ARROW);
         }
 
     }
@@ -189,37 +116,6 @@ public class FamilyMemberRegisterProvider implements RecyclerViewProvider<Family
         }
     }
 
-    private void attachPatientOnclickListener(View view, SmartRegisterClient client) {
-        view.setOnClickListener(onClickListener);
-        view.setTag(client);
-        view.setTag(R.id.VIEW_ID, BaseFamilyProfileMemberFragment.CLICK_VIEW_NORMAL);
-    }
-
-    private void attachNextArrowOnclickListener(View view, SmartRegisterClient client) {
-        view.setOnClickListener(onClickListener);
-        view.setTag(client);
-        view.setTag(R.id.VIEW_ID, BaseFamilyProfileMemberFragment.CLICK_VIEW_NEXT_ARROW);
-    }
-
-    @Override
-    public SmartRegisterClients updateClients(FilterOption villageFilter, ServiceModeOption serviceModeOption, FilterOption searchFilter, SortOption sortOption) {
-        return null;
-    }
-
-    @Override
-    public void onServiceModeSelected(ServiceModeOption serviceModeOption) {//Implement Abstract Method
-    }
-
-    @Override
-    public OnClickFormLauncher newFormLauncher(String formName, String entityId, String metaData) {
-        return null;
-    }
-
-    @Override
-    public LayoutInflater inflater() {
-        return inflater;
-    }
-
     @Override
     public RegisterViewHolder createViewHolder(ViewGroup parent) {
         View view = inflater.inflate(R.layout.family_member_register_list_row, parent, false);
@@ -227,29 +123,11 @@ public class FamilyMemberRegisterProvider implements RecyclerViewProvider<Family
         return new RegisterViewHolder(view);
     }
 
-    @Override
-    public RecyclerView.ViewHolder createFooterHolder(ViewGroup parent) {
-        View view = inflater.inflate(R.layout.smart_register_pagination, parent, false);
-        return new FooterViewHolder(view);
-    }
-
-    @Override
-    public boolean isFooterViewHolder(RecyclerView.ViewHolder viewHolder) {
-        return FooterViewHolder.class.isInstance(viewHolder);
-    }
-
-
-    public static void fillValue(TextView v, String value) {
-        if (v != null)
-            v.setText(value);
-
-    }
-
     ////////////////////////////////////////////////////////////////
     // Inner classes
     ////////////////////////////////////////////////////////////////
 
-    public static class RegisterViewHolder extends RecyclerView.ViewHolder {
+    public static class RegisterViewHolder extends BaseRegisterViewHolder {
         public ImageView status;
         public ImageView profile;
         public CustomFontTextView patientNameAge;
@@ -281,20 +159,10 @@ public class FamilyMemberRegisterProvider implements RecyclerViewProvider<Family
             patientColumn = itemView.findViewById(R.id.patient_column);
             nextArrowColumn = itemView.findViewById(R.id.next_arrow_column);
             registerColumns = itemView.findViewById(R.id.register_columns);
-        }
-    }
-
-    public class FooterViewHolder extends RecyclerView.ViewHolder {
-        public TextView pageInfoView;
-        public Button nextPageView;
-        public Button previousPageView;
-
-        public FooterViewHolder(View view) {
-            super(view);
 
-            nextPageView = view.findViewById(org.smartregister.R.id.btn_next_page);
-            previousPageView = view.findViewById(org.smartregister.R.id.btn_previous_page);
-            pageInfoView = view.findViewById(org.smartregister.R.id.txt_page_info);
+            forwardClicks(nextArrowColumn, nextArrow);
+            forwardClicks(profile, patientColumn);
+            forwardClicks(registerColumns, patientColumn);
         }
     }
 
@@ -2,8 +2,6 @@ package org.smartregister.family.provider;
 
 import android.content.Context;
 import android.database.Cursor;
-import androidx.recyclerview.widget.RecyclerView;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
@@ -12,59 +10,51 @@ import android.widget.TextView;
 import org.smartregister.commonregistry.CommonPersonObject;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.commonregistry.CommonRepository;
-import org.smartregister.cursoradapter.RecyclerViewProvider;
 import org.smartregister.family.R;
+import org.smartregister.family.adapter.PageDataResolver;
 import org.smartregister.family.fragment.BaseFamilyRegisterFragment;
 import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.ExistingRowsResolver;
 import org.smartregister.family.util.Utils;
 import org.smartregister.view.contract.SmartRegisterClient;
-import org.smartregister.view.contract.SmartRegisterClients;
-import org.smartregister.view.dialog.FilterOption;
-import org.smartregister.view.dialog.ServiceModeOption;
-import org.smartregister.view.dialog.SortOption;
-import org.smartregister.view.viewholder.OnClickFormLauncher;
 
-import java.text.MessageFormat;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Created by keyman on 13/11/2018.
  */
 
-public class FamilyRegisterProvider implements RecyclerViewProvider<FamilyRegisterProvider.RegisterViewHolder> {
-
-    private final LayoutInflater inflater;
-    private Set<org.smartregister.configurableviews.model.View> visibleColumns;
-
-    private View.OnClickListener onClickListener;
-    private View.OnClickListener paginationClickListener;
-
-    private Context context;
-    private CommonRepository commonRepository;
+public class FamilyRegisterProvider extends BaseFamilyRegisterProvider<FamilyRegisterProvider.RegisterViewHolder> implements PageDataResolver {
 
     boolean familyHeadFirstNameEnabled = Utils.getBooleanProperty(Constants.Properties.FAMILY_HEAD_FIRSTNAME_ENABLED);
 
     protected CommonRepository familyMemberRegisterRepository;
 
-    public FamilyRegisterProvider(Context context, CommonRepository commonRepository, Set visibleColumns, View.OnClickListener onClickListener, View.OnClickListener paginationClickListener) {
+    protected ExistingRowsResolver homeVisitResolver;
 
-        inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        this.visibleColumns = visibleColumns;
-
-        this.onClickListener = onClickListener;
-        this.paginationClickListener = paginationClickListener;
-
-        this.context = context;
-        this.commonRepository = commonRepository;
+    public FamilyRegisterProvider(Context context, CommonRepository commonRepository, Set visibleColumns, View.OnClickListener onClickListener, View.OnClickListener paginationClickListener) {
+        super(context, commonRepository, visibleColumns, onClickListener, paginationClickListener);
         familyMemberRegisterRepository = Utils.context().commonrepository(Utils.metadata().familyMemberRegister.tableName);
+        if (commonRepository != null) {
+            homeVisitResolver = new ExistingRowsResolver(commonRepository.TABLE_NAME);
+        }
+    }
+
+    @Override
+    public void resolve(List<String> baseEntityIds) {
+        if (homeVisitResolver != null) {
+            homeVisitResolver.resolve(baseEntityIds);
+        }
     }
 
     @Override
     public void getView(Cursor cursor, SmartRegisterClient client, RegisterViewHolder viewHolder) {
         CommonPersonObjectClient pc = (CommonPersonObjectClient) client;
         if (visibleColumns.isEmpty()) {
-            if (familyHeadFirstNameEnabled) {
+            if (familyHeadFirstNameEnabled && !pc.getColumnmaps().containsKey(Constants.KEY.FAMILY_HEAD_NAME)) {
+                // the register query joins the head's name, look it up only for queries that do not select it
                 String familyHeadId = pc.getColumnmaps().get(DBConstants.KEY.FAMILY_HEAD);
 
                 final CommonPersonObject familyHeadObject = familyMemberRegisterRepository.findByBaseEntityId(familyHeadId);
@@ -75,28 +65,15 @@ public class FamilyRegisterProvider implements RecyclerViewProvider<FamilyRegist
 
                 pc.getColumnmaps().put(Constants.KEY.FAMILY_HEAD_NAME, familyHeadName);
             }
-            populatePatientColumn(pc, client, viewHolder);
+            viewHolder.bind(client);
+            populatePatientColumn(pc, viewHolder);
             populateLastColumn(pc, viewHolder);
 
             return;
         }
     }
 
-    @Override
-    public void getFooterView(RecyclerView.ViewHolder viewHolder, int currentPageCount, int totalPageCount, boolean hasNext, boolean hasPrevious) {
-        FooterViewHolder footerViewHolder = (FooterViewHolder) viewHolder;
-        footerViewHolder.pageInfoView.setText(
-                MessageFormat.format(context.getString(org.smartregister.R.string.str_page_info), currentPageCount,
-                        totalPageCount));
-
-        footerViewHolder.nextPageView.setVisibility(hasNext ? View.VISIBLE : View.INVISIBLE);
-        footerViewHolder.previousPageView.setVisibility(hasPrevious ? View.VISIBLE : View.INVISIBLE);
-
-        footerViewHolder.nextPageView.setOnClickListener(paginationClickListener);
-        footerViewHolder.previousPageView.setOnClickListener(paginationClickListener);
-    }
-
-    private void populatePatientColumn(CommonPersonObjectClient pc, SmartRegisterClient client, final RegisterViewHolder viewHolder) {
+    private void populatePatientColumn(CommonPersonObjectClient pc, RegisterViewHolder viewHolder) {
 
         String firstName = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.FIRST_NAME, true);
         String famName;
@@ -116,71 +93,27 @@ public class FamilyRegisterProvider implements RecyclerViewProvider<FamilyRegist
         String villageTown = Utils.getValue(pc.getColumnmaps(), DBConstants.KEY.VILLAGE_TOWN, true);
         fillValue((viewHolder.villageTown), villageTown);
 
-        View patient = viewHolder.patientColumn;
-        attachPatientOnclickListener(patient, client);
-
-        View dueButton = viewHolder.dueButton;
-        attachDosageOnclickListener(dueButton, client);
-
-        viewHolder.registerColumns.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.patientColumn.performClick();
-            }
-        });
+        attachOnClickListener(viewHolder.patientColumn, viewHolder, BaseFamilyRegisterFragment.CLICK_VIEW_NORMAL);
 
-        viewHolder.dueWrapper.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                viewHolder.dueButton.performClick();
-            }
-        });
+        attachOnClickListener(viewHolder.dueButton, viewHolder, BaseFamilyRegisterFragment.CLICK_VIEW_DOSAGE_STATUS);
     }
 
     private void populateLastColumn(CommonPersonObjectClient pc, RegisterViewHolder viewHolder) {
         if (commonRepository != null) {
-            CommonPersonObject commonPersonObject = commonRepository.findByBaseEntityId(pc.entityId());
-            if (commonPersonObject != null) {
+            Boolean exists = homeVisitResolver.exists(pc.entityId());
+            if (exists == null) {
+                // not on a page loaded through the adapter
+                exists = commonRepository.findByBaseEntityId(pc.entityId()) != null;
+            }
+            if (exists) {
                 viewHolder.dueButton.setVisibility(View.VISIBLE);
                 viewHolder.dueButton.setText("Home Visit");
-                viewHolder.dueButton.setAllCaps(true);
             } else {
                 viewHolder.dueButton.setVisibility(View.GONE);
             }
         }
     }
 
-    private void attachPatientOnclickListener(View view, SmartRegisterClient client) {
-        view.setOnClickListener(onClickListener);
-        view.setTag(client);
-        view.setTag(R.id.VIEW_ID, BaseFamilyRegisterFragment.CLICK_VIEW_NORMAL);
-    }
-
-    private void attachDosageOnclickListener(View view, SmartRegisterClient client) {
-        view.setOnClickListener(onClickListener);
-        view.setTag(client);
-        view.setTag(R.id.VIEW_ID, BaseFamilyRegisterFragment.CLICK_VIEW_DOSAGE_STATUS);
-    }
-
-    @Override
-    public SmartRegisterClients updateClients(FilterOption villageFilter, ServiceModeOption serviceModeOption, FilterOption searchFilter, SortOption sortOption) {
-        return null;
-    }
-
-    @Override
-    public void onServiceModeSelected(ServiceModeOption serviceModeOption) {//Implement Abstract Method
-    }
-
-    @Override
-    public OnClickFormLauncher newFormLauncher(String formName, String entityId, String metaData) {
-        return null;
-    }
-
-    @Override
-    public LayoutInflater inflater() {
-        return inflater;
-    }
-
     @Override
     public RegisterViewHolder createViewHolder(ViewGroup parent) {
         View view = inflater.inflate(R.layout.family_register_list_row, parent, false);
@@ -188,29 +121,11 @@ public class FamilyRegisterProvider implements RecyclerViewProvider<FamilyRegist
         return new RegisterViewHolder(view);
     }
 
-    @Override
-    public RecyclerView.ViewHolder createFooterHolder(ViewGroup parent) {
-        View view = inflater.inflate(R.layout.smart_register_pagination, parent, false);
-        return new FooterViewHolder(view);
-    }
-
-    @Override
-    public boolean isFooterViewHolder(RecyclerView.ViewHolder viewHolder) {
-        return FooterViewHolder.class.isInstance(viewHolder);
-    }
-
-
-    public static void fillValue(TextView v, String value) {
-        if (v != null)
-            v.setText(value);
-
-    }
-
     ////////////////////////////////////////////////////////////////
     // Inner classes
     ////////////////////////////////////////////////////////////////
 
-    public static class RegisterViewHolder extends RecyclerView.ViewHolder {
+    public static class RegisterViewHolder extends BaseRegisterViewHolder {
         public TextView patientName;
         public TextView villageTown;
         public Button dueButton;
@@ -227,6 +142,8 @@ public class FamilyRegisterProvider implements RecyclerViewProvider<FamilyRegist
 
             villageTown = itemView.findViewById(R.id.village_town);
             dueButton = itemView.findViewById(R.id.due_button);
+            // set once, each call creates a new transformation
+            dueButton.setAllCaps(true);
 
             patientColumn = itemView.findViewById(R.id.patient_column);
 
@@ -234,20 +151,9 @@ public class FamilyRegisterProvider implements RecyclerViewProvider<FamilyRegist
 
             registerColumns = itemView.findViewById(R.id.register_columns);
             dueWrapper = itemView.findViewById(R.id.due_button_wrapper);
-        }
-    }
-
-    public class FooterViewHolder extends RecyclerView.ViewHolder {
-        public TextView pageInfoView;
-        public Button nextPageView;
-        public Button previousPageView;
-
-        public FooterViewHolder(View view) {
-            super(view);
 
-            nextPageView = view.findViewById(org.smartregister.R.id.btn_next_page);
-            previousPageView = view.findViewById(org.smartregister.R.id.btn_previous_page);
-            pageInfoView = view.findViewById(org.smartregister.R.id.txt_page_info);
+            forwardClicks(registerColumns, patientColumn);
+            forwardClicks(dueWrapper, dueButton);
         }
     }
 
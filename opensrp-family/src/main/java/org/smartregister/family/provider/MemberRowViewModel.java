@@ -0,0 +1,95 @@
+package org.smartregister.family.provider;
+
+import android.content.Context;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.family.R;
+import org.smartregister.family.domain.AgeDuration;
+import org.smartregister.family.util.AgeFormatter;
+import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.Utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.smartregister.family.util.Utils.getName;
+
+/**
+ * The display values of a family member row, formatted once from the row's columns so that binding only sets them.
+ */
+public class MemberRowViewModel {
+
+    private final Map<String, String> columns;
+    private final String nameAge;
+    private final boolean deceased;
+    private final String gender;
+    private final String translatedGender;
+    private final String entityType;
+
+    private MemberRowViewModel(Map<String, String> columns, String nameAge, boolean deceased, String gender, String translatedGender, String entityType) {
+        this.columns = columns;
+        this.nameAge = nameAge;
+        this.deceased = deceased;
+        this.gender = gender;
+        this.translatedGender = translatedGender;
+        this.entityType = entityType;
+    }
+
+    public static MemberRowViewModel create(Map<String, String> columnMaps, Context context) {
+        String firstName = Utils.getValue(columnMaps, DBConstants.KEY.FIRST_NAME, true);
+        String middleName = Utils.getValue(columnMaps, DBConstants.KEY.MIDDLE_NAME, true);
+        String lastName = Utils.getValue(columnMaps, DBConstants.KEY.LAST_NAME, true);
+
+        String patientName = getName(firstName, middleName, lastName);
+
+        String dob = Utils.getValue(columnMaps, DBConstants.KEY.DOB, false);
+        String dod = Utils.getValue(columnMaps, DBConstants.KEY.DOD, false);
+        boolean deceased = StringUtils.isNotBlank(dod);
+
+        AgeDuration age = deceased ? Utils.getAgeCalculator().getDuration(dod, dob) : Utils.getAgeCalculator().getAge(dob);
+
+        String nameAge = patientName + ", " + AgeFormatter.getInstance(context).formatAge(age);
+        if (deceased) {
+            nameAge = nameAge + " " + context.getString(R.string.deceased_brackets);
+        }
+
+        String gender = Utils.getValue(columnMaps, DBConstants.KEY.GENDER, true);
+        String translatedGender = "";
+        if (gender.equalsIgnoreCase("Male")) {
+            translatedGender = context.getString(R.string.male);
+        } else if (gender.equalsIgnoreCase("Female")) {
+            translatedGender = context.getString(R.string.female);
+        }
+
+        String entityType = Utils.getValue(columnMaps, DBConstants.KEY.ENTITY_TYPE, false);
+
+        return new MemberRowViewModel(new HashMap<>(columnMaps), nameAge, deceased, gender, translatedGender, entityType);
+    }
+
+    /**
+     * @return whether this was formatted from the same column values
+     */
+    public boolean isFor(Map<String, String> columnMaps) {
+        return columns.equals(columnMaps);
+    }
+
+    public String getNameAge() {
+        return nameAge;
+    }
+
+    public boolean isDeceased() {
+        return deceased;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getTranslatedGender() {
+        return translatedGender;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+}
@@ -0,0 +1,69 @@
+package org.smartregister.family.provider;
+
+import android.content.Context;
+
+import org.smartregister.family.adapter.PageRowsProcessor;
+import org.smartregister.family.util.DBConstants;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Formats the member rows of a loaded page and keeps the most recently used ones, so that binding a row only sets the
+ * precomputed values. The pages prepared by the loaders are formatted on the loader thread, see
+ * {@link org.smartregister.family.adapter.FamilyRecyclerViewCustomAdapter#preparePage(android.database.Cursor)}.
+ * <p>
+ * A row whose columns changed since its page was formatted is formatted on the spot.
+ */
+public class RowViewModelCache implements PageRowsProcessor {
+
+    private static final int MAX_ROWS = 200;
+
+    private final Context context;
+    private final Map<String, MemberRowViewModel> viewModels = new LinkedHashMap<String, MemberRowViewModel>(MAX_ROWS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, MemberRowViewModel> eldest) {
+            return size() > MAX_ROWS;
+        }
+    };
+
+    public RowViewModelCache(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public void onPageLoaded(List<Map<String, String>> rows) {
+        for (Map<String, String> row : rows) {
+            try {
+                put(row, MemberRowViewModel.create(row, context));
+            } catch (Exception e) {
+                Timber.e(e);
+            }
+        }
+    }
+
+    public MemberRowViewModel get(Map<String, String> columnMaps) {
+        String key = columnMaps.get(DBConstants.KEY.BASE_ENTITY_ID);
+        MemberRowViewModel viewModel;
+        synchronized (viewModels) {
+            viewModel = key == null ? null : viewModels.get(key);
+        }
+        if (viewModel == null || !viewModel.isFor(columnMaps)) {
+            viewModel = MemberRowViewModel.create(columnMaps, context);
+            put(columnMaps, viewModel);
+        }
+        return viewModel;
+    }
+
+    private void put(Map<String, String> columnMaps, MemberRowViewModel viewModel) {
+        String key = columnMaps.get(DBConstants.KEY.BASE_ENTITY_ID);
+        if (key != null) {
+            synchronized (viewModels) {
+                viewModels.put(key, viewModel);
+            }
+        }
+    }
+}
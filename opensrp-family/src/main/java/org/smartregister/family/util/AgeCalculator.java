@@ -0,0 +1,258 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.smartregister.family.domain.AgeDuration;
+
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes the durations shown as ages on the registers, memoized per date pair for the current day.
+ * <p>
+ * ISO dates with a time and an offset, the form stored for dob and dod, are read without building Joda date times.
+ * Like {@link Utils#getDuration(String, String)}, both dates are moved to the start of their day in the default
+ * time zone before the days between them are counted, so the durations are the same as the ones computed before.
+ */
+public class AgeCalculator {
+
+    private static final int MAX_ENTRIES = 1000;
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    private static final long DAY = 86400000L;
+
+    private final Calendar calendar;
+    private final Map<String, AgeDuration> durations = new LinkedHashMap<String, AgeDuration>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, AgeDuration> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private long today = NOT_PARSED;
+
+    public AgeCalculator() {
+        this(Calendar.getInstance());
+    }
+
+    @VisibleForTesting
+    AgeCalculator(Calendar calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * @return the duration from the date to today, or null when the date is blank or not a valid ISO date
+     */
+    @Nullable
+    public AgeDuration getAge(String date) {
+        return getDuration(date, null);
+    }
+
+    /**
+     * @return the duration between the dates, to today when the second date is null, or null when a date is blank or
+     * not a valid ISO date
+     */
+    @Nullable
+    public synchronized AgeDuration getDuration(String date1, @Nullable String date2) {
+        if (StringUtils.isBlank(date1) || (date2 != null && StringUtils.isBlank(date2))) {
+            return null;
+        }
+
+        long todayStart = startOfDay(currentTimeMillis());
+        if (todayStart != today) {
+            durations.clear();
+            today = todayStart;
+        }
+
+        String key = date2 == null ? date1 : date1 + "|" + date2;
+        AgeDuration duration = durations.get(key);
+        if (duration == null) {
+            long start1 = startOfDay(toMillis(date1));
+            long start2 = date2 == null ? todayStart : startOfDay(toMillis(date2));
+            if (start1 == NOT_PARSED || start2 == NOT_PARSED) {
+                return null;
+            }
+            duration = AgeDuration.fromMillis(Math.abs(start1 - start2));
+            durations.put(key, duration);
+        }
+        return duration;
+    }
+
+    public synchronized void clear() {
+        durations.clear();
+        today = NOT_PARSED;
+    }
+
+    @VisibleForTesting
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private long startOfDay(long millis) {
+        if (millis == NOT_PARSED) {
+            return NOT_PARSED;
+        }
+        calendar.setTimeInMillis(millis);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private static long toMillis(String date) {
+        long millis = parseOffsetDateTime(date);
+        if (millis != NOT_PARSED) {
+            return millis;
+        }
+
+        // dates without an offset are in the default time zone, left to joda like before
+        DateTime dateTime = Utils.toDateTime(date);
+        return dateTime == null ? NOT_PARSED : dateTime.getMillis();
+    }
+
+    /**
+     * Reads yyyy-MM-ddTHH:mm[:ss[.SSS]] followed by Z or an offset (+HH, +HHmm or +HH:mm) without allocating.
+     *
+     * @return the epoch millis of the date, or {@link #NOT_PARSED} when it is in any other form or out of range
+     */
+    @VisibleForTesting
+    static long parseOffsetDateTime(String date) {
+        int length = date.length();
+        if (length < 17 || date.charAt(4) != '-' || date.charAt(7) != '-' || date.charAt(10) != 'T' || date.charAt(13) != ':') {
+            return NOT_PARSED;
+        }
+
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 2);
+        int day = digits(date, 8, 2);
+        int hour = digits(date, 11, 2);
+        int minute = digits(date, 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return NOT_PARSED;
+        }
+
+        int index = 16;
+        int second = 0;
+        int millisOfSecond = 0;
+        if (date.charAt(index) == ':') {
+            second = digits(date, index + 1, 2);
+            if (second < 0 || second > 59) {
+                return NOT_PARSED;
+            }
+            index += 3;
+
+            if (index < length && date.charAt(index) == '.') {
+                index++;
+                int fractionDigits = 0;
+                while (index < length && date.charAt(index) >= '0' && date.charAt(index) <= '9') {
+                    if (fractionDigits < 3) {
+                        millisOfSecond = millisOfSecond * 10 + (date.charAt(index) - '0');
+                    }
+                    fractionDigits++;
+                    index++;
+                }
+                if (fractionDigits == 0) {
+                    return NOT_PARSED;
+                }
+                for (int i = fractionDigits; i < 3; i++) {
+                    millisOfSecond *= 10;
+                }
+            }
+        }
+
+        long offsetMillis = parseOffset(date, index);
+        if (offsetMillis == NOT_PARSED) {
+            return NOT_PARSED;
+        }
+
+        return toEpochDay(year, month, day) * DAY + hour * 3600000L + minute * 60000L + second * 1000L + millisOfSecond - offsetMillis;
+    }
+
+    private static long parseOffset(String date, int index) {
+        int length = date.length();
+        if (index >= length) {
+            return NOT_PARSED;
+        }
+
+        char sign = date.charAt(index);
+        if (sign == 'Z') {
+            return index + 1 == length ? 0 : NOT_PARSED;
+        } else if (sign != '+' && sign != '-') {
+            return NOT_PARSED;
+        }
+
+        int hours = digits(date, index + 1, 2);
+        int minutes = 0;
+        int remaining = length - index - 3;
+        if (remaining == 2) {
+            minutes = digits(date, index + 3, 2);
+        } else if (remaining == 3 && date.charAt(index + 3) == ':') {
+            minutes = digits(date, index + 4, 2);
+        } else if (remaining != 0) {
+            return NOT_PARSED;
+        }
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            return NOT_PARSED;
+        }
+
+        long offset = hours * 3600000L + minutes * 60000L;
+        return sign == '-' ? -offset : offset;
+    }
+
+    /**
+     * @return the number read from the digits, or -1 when a character is not a digit
+     */
+    private static int digits(String date, int start, int count) {
+        if (start + count > date.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return the days from 1970-01-01 in the proleptic gregorian calendar used by joda
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
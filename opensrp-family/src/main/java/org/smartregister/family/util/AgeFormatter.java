@@ -0,0 +1,86 @@
+package org.smartregister.family.util;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import org.smartregister.family.R;
+import org.smartregister.family.domain.AgeDuration;
+
+import java.util.Locale;
+
+/**
+ * Writes durations as localized labels, with the unit abbreviations read once per locale.
+ * <p>
+ * Gives the same labels as {@link Utils#getTranslatedDate(String, Context)} applied to {@link AgeDuration#toString()},
+ * without the intermediate strings.
+ */
+public class AgeFormatter {
+
+    private static volatile AgeFormatter instance;
+
+    private final Locale locale;
+    private final String days;
+    private final String weeks;
+    private final String months;
+    private final String years;
+
+    AgeFormatter(Context context, Locale locale) {
+        this.locale = locale;
+        this.days = context.getString(R.string.abbrv_days);
+        this.weeks = context.getString(R.string.abbrv_weeks);
+        this.months = context.getString(R.string.abbrv_months);
+        this.years = context.getString(R.string.abbrv_years);
+    }
+
+    /**
+     * @return the formatter of the current locale of the context, built again after the locale changes
+     */
+    public static AgeFormatter getInstance(Context context) {
+        Locale locale = context.getResources().getConfiguration().locale;
+        AgeFormatter formatter = instance;
+        if (formatter == null || !formatter.locale.equals(locale)) {
+            formatter = new AgeFormatter(context, locale);
+            instance = formatter;
+        }
+        return formatter;
+    }
+
+    /**
+     * @return the full label, e.g. "3w 2d" or "41y 2m", or an empty string when there is no duration
+     */
+    public String format(@Nullable AgeDuration duration) {
+        if (duration == null) {
+            return "";
+        }
+        StringBuilder label = new StringBuilder(8).append(duration.getValue()).append(getUnit(duration.getUnit()));
+        if (duration.getRemainder() > 0 && (duration.getUnit() == AgeDuration.Unit.WEEKS || duration.getUnit() == AgeDuration.Unit.YEARS)) {
+            label.append(' ').append(duration.getRemainder()).append(duration.getUnit() == AgeDuration.Unit.WEEKS ? days : months);
+        }
+        return label.toString();
+    }
+
+    /**
+     * @return the age shown on the registers and profiles: the years alone from a year old, e.g. "41", otherwise
+     * the full label, e.g. "3w 2d"
+     */
+    public String formatAge(@Nullable AgeDuration duration) {
+        if (duration == null) {
+            return "";
+        }
+        return duration.getUnit() == AgeDuration.Unit.YEARS ? String.valueOf(duration.getValue()) : format(duration);
+    }
+
+    private String getUnit(AgeDuration.Unit unit) {
+        switch (unit) {
+            case DAYS:
+                return days;
+            case WEEKS:
+                return weeks;
+            case MONTHS:
+                return months;
+            default:
+                return years;
+        }
+    }
+}
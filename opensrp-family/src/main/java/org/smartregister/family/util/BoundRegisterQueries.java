@@ -0,0 +1,196 @@
+package org.smartregister.family.util;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.loader.content.CursorLoader;
+import androidx.loader.content.Loader;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.cursoradapter.RecyclerViewPaginatedAdapter;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.adapter.FamilyRecyclerViewCustomAdapter;
+import org.smartregister.view.activity.DrishtiApplication;
+import org.smartregister.view.contract.BaseRegisterFragmentContract;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import timber.log.Timber;
+
+/**
+ * The count and main selects of a register with the values of the condition left as bind arguments, see
+ * {@link QueryCondition}.
+ * <p>
+ * The framework keeps running the selects with the inlined condition for the filtered registers, the unfiltered
+ * count and pages are queried with these so the statements compiled by SQLite are reused between households.
+ */
+public class BoundRegisterQueries {
+
+    private final boolean countKept;
+
+    private String tableName;
+    private String countSelect;
+    private String mainSelect;
+    private String[] selectionArgs;
+
+    public BoundRegisterQueries() {
+        this(true);
+    }
+
+    /**
+     * @param countKept whether the count is kept by {@link RegisterCounters}, which is only told about the rows the
+     *                  library writes. The registers of visits, tasks and the like written by the app are counted
+     *                  every time
+     */
+    public BoundRegisterQueries(boolean countKept) {
+        this.countKept = countKept;
+    }
+
+    public void set(String tableName, @Nullable String countSelect, @Nullable String mainSelect, @Nullable String[] selectionArgs) {
+        this.tableName = tableName;
+        this.countSelect = countSelect;
+        this.mainSelect = mainSelect;
+        this.selectionArgs = selectionArgs;
+    }
+
+    /**
+     * @return whether the register with these filters is queried with the bound selects
+     */
+    public boolean isAvailable(String filters) {
+        return countSelect != null && mainSelect != null && selectionArgs != null && StringUtils.isBlank(filters);
+    }
+
+    /**
+     * @return whether the bound selects are set, whatever the filters
+     */
+    public boolean isSet() {
+        return countSelect != null && mainSelect != null && selectionArgs != null;
+    }
+
+    public String getMainSelect() {
+        return mainSelect;
+    }
+
+    public String[] getSelectionArgs() {
+        return selectionArgs;
+    }
+
+    /**
+     * @return the number of rows of the register, kept by {@link RegisterCounters} if the count is kept, or -1 if it
+     * could not be counted
+     */
+    public int count() {
+        final String countSelect = this.countSelect;
+        final String[] selectionArgs = this.selectionArgs;
+        try {
+            RegisterCounters.Counting counting = new RegisterCounters.Counting() {
+                @Override
+                public long count() {
+                    return getRegisterQueryCache().simpleQueryForLong(getDatabase(), countSelect, selectionArgs);
+                }
+            };
+            if (!countKept) {
+                return (int) Math.max(counting.count(), -1);
+            }
+            return getRegisterCounters().getCount(tableName, selectionArgs, countSelect, counting);
+        } catch (Exception e) {
+            Timber.e(e);
+            return -1;
+        }
+    }
+
+    /**
+     * @return a page of the register, the limit and offset are bound too
+     */
+    public Cursor queryPage(final String sortQuery, int limit, int offset) {
+        final String mainSelect = this.mainSelect;
+        String query = getRegisterQueryCache().getQuery(RegisterQueryCache.pageKey(mainSelect, sortQuery), new RegisterQueryCache.QueryBuilder() {
+            @Override
+            public String build() {
+                return mainSelect + " ORDER BY " + sortQuery + " LIMIT ? OFFSET ?";
+            }
+        });
+        return getDatabase().rawQuery(query, ArrayUtils.addAll(selectionArgs, String.valueOf(limit), String.valueOf(offset)));
+    }
+
+    /**
+     * @return the rows of the register with the ids, in the order of the ids
+     */
+    public Cursor queryByIds(String idColumn, List<String> ids) {
+        String query = "SELECT * FROM (" + mainSelect + ") WHERE " + idColumn + " IN (" + StringUtils.repeat("?", ",", ids.size())
+                + ") ORDER BY instr(?, ',' || " + idColumn + " || ',')";
+        String[] args = ArrayUtils.addAll(selectionArgs, ids.toArray(new String[0]));
+        return getDatabase().rawQuery(query, ArrayUtils.add(args, "," + StringUtils.join(ids, ',') + ","));
+    }
+
+    /**
+     * @return the ids of the rows the register shows, of the ids given
+     */
+    public Set<String> queryIds(String idColumn, List<String> ids) {
+        Set<String> registerIds = new HashSet<>();
+        if (ids.isEmpty()) {
+            return registerIds;
+        }
+        String query = "SELECT " + idColumn + " FROM (" + mainSelect + ") WHERE " + idColumn + " IN (" + StringUtils.repeat("?", ",", ids.size()) + ")";
+        Cursor cursor = getDatabase().rawQuery(query, ArrayUtils.addAll(selectionArgs, ids.toArray(new String[0])));
+        try {
+            while (cursor.moveToNext()) {
+                registerIds.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return registerIds;
+    }
+
+    /**
+     * @param query a query wrapping the main select, e.g. a keyset page query
+     * @param args  the arguments of the query, those of the main select included
+     */
+    public Cursor query(String query, List<String> args) {
+        return getDatabase().rawQuery(query, args.toArray(new String[0]));
+    }
+
+    /**
+     * @return a loader of the current page of the adapter, counted first when {@code countFirst} and prepared before it
+     * is delivered
+     */
+    public Loader<Cursor> newPageLoader(Context context, final BaseRegisterFragmentContract.View view, final boolean countFirst,
+                                        final RecyclerViewPaginatedAdapter adapter, final String sortQuery) {
+        return new CursorLoader(context) {
+            @Override
+            public Cursor loadInBackground() {
+                if (countFirst) {
+                    view.countExecute();
+                }
+                Cursor cursor = queryPage(sortQuery, adapter.getCurrentlimit(), adapter.getCurrentoffset());
+                if (adapter instanceof FamilyRecyclerViewCustomAdapter) {
+                    ((FamilyRecyclerViewCustomAdapter) adapter).preparePage(cursor);
+                }
+                return cursor;
+            }
+        };
+    }
+
+    @VisibleForTesting
+    protected RegisterCounters getRegisterCounters() {
+        return FamilyLibrary.getInstance().getRegisterCounters();
+    }
+
+    @VisibleForTesting
+    protected RegisterQueryCache getRegisterQueryCache() {
+        return FamilyLibrary.getInstance().getRegisterQueryCache();
+    }
+
+    @VisibleForTesting
+    protected SQLiteDatabase getDatabase() {
+        return DrishtiApplication.getInstance().getRepository().getReadableDatabase();
+    }
+}
@@ -79,6 +79,11 @@ public abstract class Constants {
 
     public static class Properties {
         public static final String FAMILY_HEAD_FIRSTNAME_ENABLED = "family.head.first.name.enabled";
+        public static final String KEYSET_PAGINATION_ENABLED = "family.register.keyset.pagination.enabled";
+        public static final String CONTINUOUS_SCROLL_ENABLED = "family.register.continuous.scroll.enabled";
+        public static final String SEARCH_INDEX_ENABLED = "family.register.search.index.enabled";
+        public static final String GLOBAL_SEARCH_ENABLED = "family.register.global.search.enabled";
+        public static final String FAST_CLIENT_PROCESSING_ENABLED = "family.client.processing.fast.enabled";
     }
 
     public interface EntityType{
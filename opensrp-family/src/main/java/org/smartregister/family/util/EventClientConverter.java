@@ -0,0 +1,102 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.smartregister.clientandeventmodel.Client;
+import org.smartregister.clientandeventmodel.Event;
+import org.smartregister.domain.db.EventClient;
+
+import java.util.Map;
+
+/**
+ * Converts the form side {@link Client} and {@link Event} models into the representations needed when saving
+ * a registration: the {@link JSONObject} persisted by {@link org.smartregister.sync.helper.ECSyncHelper} and the
+ * {@link org.smartregister.domain} types handed to the client processor.
+ * <p>
+ * Each model is serialized once into a gson tree which then backs both outputs, instead of going
+ * model -> String -> JSONObject -> String -> domain model. The {@link JSONObject} is copied from the tree node by
+ * node, the tree is not written out as text.
+ */
+public class EventClientConverter {
+
+    private EventClientConverter() {
+    }
+
+    @Nullable
+    public static JsonObject toJsonTree(@Nullable Object model) {
+        if (model == null) {
+            return null;
+        }
+        return JsonFormUtils.gson.toJsonTree(model).getAsJsonObject();
+    }
+
+    @Nullable
+    public static JSONObject toJSONObject(@Nullable JsonObject tree) throws JSONException {
+        if (tree == null) {
+            return null;
+        }
+        JSONObject jsonObject = new JSONObject();
+        for (Map.Entry<String, JsonElement> entry : tree.entrySet()) {
+            jsonObject.put(entry.getKey(), toJSONValue(entry.getValue()));
+        }
+        return jsonObject;
+    }
+
+    private static JSONArray toJSONArray(JsonArray tree) throws JSONException {
+        JSONArray jsonArray = new JSONArray();
+        for (JsonElement element : tree) {
+            jsonArray.put(toJSONValue(element));
+        }
+        return jsonArray;
+    }
+
+    /**
+     * @return the value as parsed from the text of the element: {@link JSONObject#NULL} for null, the number, boolean
+     * or string of a primitive and a {@link JSONObject} or {@link JSONArray} otherwise
+     */
+    private static Object toJSONValue(@Nullable JsonElement element) throws JSONException {
+        if (element == null || element.isJsonNull()) {
+            return JSONObject.NULL;
+        } else if (element.isJsonObject()) {
+            return toJSONObject(element.getAsJsonObject());
+        } else if (element.isJsonArray()) {
+            return toJSONArray(element.getAsJsonArray());
+        }
+
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        } else if (primitive.isNumber()) {
+            return primitive.getAsNumber();
+        }
+        return primitive.getAsString();
+    }
+
+    @Nullable
+    public static org.smartregister.domain.Client toDomainClient(@Nullable JsonObject clientTree) {
+        if (clientTree == null) {
+            return null;
+        }
+        return JsonFormUtils.gson.fromJson(clientTree, org.smartregister.domain.Client.class);
+    }
+
+    @Nullable
+    public static org.smartregister.domain.Event toDomainEvent(@Nullable JsonObject eventTree) {
+        if (eventTree == null) {
+            return null;
+        }
+        return JsonFormUtils.gson.fromJson(eventTree, org.smartregister.domain.Event.class);
+    }
+
+    public static EventClient toEventClient(@Nullable JsonObject eventTree, @Nullable JsonObject clientTree) {
+        return new EventClient(toDomainEvent(eventTree), toDomainClient(clientTree));
+    }
+}
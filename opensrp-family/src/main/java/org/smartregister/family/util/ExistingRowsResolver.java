@@ -0,0 +1,86 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+
+import net.sqlcipher.Cursor;
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.family.adapter.PageDataResolver;
+import org.smartregister.view.activity.DrishtiApplication;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import timber.log.Timber;
+
+/**
+ * Resolves which rows of a page have a record in a table, with one IN query per page instead of a lookup per row.
+ */
+public class ExistingRowsResolver implements PageDataResolver {
+
+    // stays below the default limit of bound variables in a statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final String tableName;
+    private volatile Set<String> requestedIds = Collections.emptySet();
+    private volatile Set<String> existingIds = Collections.emptySet();
+
+    public ExistingRowsResolver(String tableName) {
+        this.tableName = tableName;
+    }
+
+    @Override
+    public void resolve(List<String> baseEntityIds) {
+        Set<String> requested = new HashSet<>(baseEntityIds);
+        Set<String> existing = new HashSet<>();
+        if (StringUtils.isNotBlank(tableName)) {
+            try {
+                for (int start = 0; start < baseEntityIds.size(); start += MAX_IDS_PER_QUERY) {
+                    List<String> ids = baseEntityIds.subList(start, Math.min(start + MAX_IDS_PER_QUERY, baseEntityIds.size()));
+                    existing.addAll(queryExistingIds(ids));
+                }
+            } catch (Exception e) {
+                Timber.e(e);
+                requested.clear();
+            }
+        }
+        existingIds = existing;
+        requestedIds = requested;
+    }
+
+    /**
+     * @return whether the row exists, or null when the id was not on the resolved page
+     */
+    @Nullable
+    public Boolean exists(String baseEntityId) {
+        if (!requestedIds.contains(baseEntityId)) {
+            return null;
+        }
+        return existingIds.contains(baseEntityId);
+    }
+
+    protected Set<String> queryExistingIds(List<String> baseEntityIds) {
+        Set<String> ids = new HashSet<>();
+        String query = "SELECT " + DBConstants.KEY.BASE_ENTITY_ID + " FROM " + tableName + " WHERE " + DBConstants.KEY.BASE_ENTITY_ID
+                + " IN (" + StringUtils.repeat("?", ",", baseEntityIds.size()) + ")";
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().rawQuery(query, baseEntityIds.toArray(new String[0]));
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(0));
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return ids;
+    }
+
+    protected SQLiteDatabase getReadableDatabase() {
+        return DrishtiApplication.getInstance().getRepository().getReadableDatabase();
+    }
+}
@@ -0,0 +1,120 @@
+package org.smartregister.family.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.domain.db.Event;
+import org.smartregister.domain.db.EventClient;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.sync.ClientProcessorForJava;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Processes the event clients saved locally by this library.
+ * <p>
+ * The events go through {@link ClientProcessorForJava#processClient(List)} of the app. With
+ * {@link Constants.Properties#FAST_CLIENT_PROCESSING_ENABLED} set, family and family member registration and update
+ * events go straight to the case model of their register table instead, which writes the register row and its search
+ * entry without running every classification rule, nor the overrides of the app's client processor. The rows of the
+ * family registers written are returned and passed to the listeners, keyed by table, so the views can refresh just
+ * those. Apps that classify the family events into further tables should override {@link #getTable(Event)}.
+ */
+public class FamilyClientProcessor {
+
+    public interface Listener {
+        /**
+         * Called on the processing thread with the base entity ids written per table
+         */
+        void onRowsProcessed(Map<String, Set<String>> processedRows);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return the base entity ids of the rows of the family registers written, keyed by table
+     */
+    public Map<String, Set<String>> processClient(List<EventClient> eventClients) throws Exception {
+        Map<String, Set<String>> processedRows = new HashMap<>();
+        List<EventClient> otherEventClients = new ArrayList<>();
+        ClientProcessorForJava clientProcessor = getClientProcessorForJava();
+        boolean fastProcessing = isFastProcessingEnabled();
+
+        for (EventClient eventClient : eventClients) {
+            String table = eventClient.getClient() == null ? null : getTable(eventClient.getEvent());
+            if (table == null || !fastProcessing) {
+                otherEventClients.add(eventClient);
+            } else {
+                clientProcessor.updateClientDetailsTable(eventClient.getEvent(), eventClient.getClient());
+                clientProcessor.processCaseModel(eventClient.getEvent(), eventClient.getClient(), Collections.singletonList(table));
+            }
+            if (table == null) {
+                continue;
+            }
+
+            Set<String> baseEntityIds = processedRows.get(table);
+            if (baseEntityIds == null) {
+                baseEntityIds = new LinkedHashSet<>();
+                processedRows.put(table, baseEntityIds);
+            }
+            baseEntityIds.add(eventClient.getClient().getBaseEntityId());
+        }
+
+        if (!otherEventClients.isEmpty()) {
+            clientProcessor.processClient(otherEventClients);
+        }
+
+        if (!processedRows.isEmpty()) {
+            for (Listener listener : listeners) {
+                listener.onRowsProcessed(processedRows);
+            }
+        }
+        return processedRows;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the register table an event raised by this library is written to, or null to use the generic processing
+     */
+    protected String getTable(Event event) {
+        if (event == null || StringUtils.isBlank(event.getEventType())) {
+            return null;
+        }
+
+        String eventType = event.getEventType();
+        FamilyMetadata metadata = FamilyLibrary.getInstance().metadata();
+        FamilyMetadata.FamilyRegister familyRegister = metadata.familyRegister;
+        if (familyRegister != null && (eventType.equals(familyRegister.registerEventType) || eventType.equals(familyRegister.updateEventType))) {
+            return familyRegister.tableName;
+        }
+        FamilyMetadata.FamilyMemberRegister familyMemberRegister = metadata.familyMemberRegister;
+        if (familyMemberRegister != null && (eventType.equals(familyMemberRegister.registerEventType) || eventType.equals(familyMemberRegister.updateEventType))) {
+            return familyMemberRegister.tableName;
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the family events skip the app's client processor, see {@link Constants.Properties#FAST_CLIENT_PROCESSING_ENABLED}
+     */
+    protected boolean isFastProcessingEnabled() {
+        return FamilyLibrary.getInstance().getProperties() != null && Utils.getBooleanProperty(Constants.Properties.FAST_CLIENT_PROCESSING_ENABLED);
+    }
+
+    protected ClientProcessorForJava getClientProcessorForJava() {
+        return FamilyLibrary.getInstance().getClientProcessorForJava();
+    }
+}
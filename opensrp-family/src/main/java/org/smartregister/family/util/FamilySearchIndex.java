@@ -0,0 +1,486 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.VisibleForTesting;
+
+import net.sqlcipher.Cursor;
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.family.domain.FamilySearchResult;
+import org.smartregister.repository.AllSharedPreferences;
+import org.smartregister.view.activity.DrishtiApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import timber.log.Timber;
+
+/**
+ * A full text index of the families and their members for the register search, with one row per family (its name,
+ * unique id, village and phone) and one row per member (their names, unique id and phone).
+ * <p>
+ * The index is built from the register tables on the first search and the rows written by
+ * {@link FamilyClientProcessor} are indexed again on the next search. The rows written by the sync or in an earlier
+ * session are caught up on a later search through their {@code last_interacted_with}. The prefixes of up to three characters are indexed
+ * too, so searching as the user types does not scan the terms of the index.
+ * <p>
+ * Each row also keeps its words split on the separators of the tokenizer, so that the score of a matching row is a
+ * few LIKEs over stored text. Texts without a term of {@link #MIN_TERM_LENGTH} characters are not searched, a single
+ * character prefix matches too many rows to be ranked as the user types.
+ */
+public class FamilySearchIndex implements FamilyClientProcessor.Listener {
+
+    public static final String TABLE = "family_search_index";
+
+    public static final int MAX_FAMILIES = 200;
+
+    public static final int MIN_TERM_LENGTH = 2;
+
+    // stays below the default limit of bound variables in a statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final long CATCH_UP_INTERVAL_MILLIS = 30 * 1000;
+    private static final String LAST_INTERACTED_WITH_PREFERENCE = TABLE + "_last_interacted_with";
+
+    private static final String FAMILY_ID = "family_id";
+    private static final String MEMBER_ID = "member_id";
+    private static final String NAME = "name";
+    private static final String UNIQUE_ID = "unique_id";
+    private static final String VILLAGE_TOWN = "village_town";
+    private static final String PHONE = "phone";
+    private static final String NAME_WORDS = "name_words";
+    private static final String OTHER_WORDS = "other_words";
+    private static final String[] WORD_SEPARATORS = {"-", "_", ".", ",", "''", "/", "(", ")", "+", "&", ":"};
+
+    @VisibleForTesting
+    static final String CREATE_TABLE = "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE + " USING fts4("
+            + FAMILY_ID + ", " + MEMBER_ID + ", " + NAME + ", " + UNIQUE_ID + ", " + VILLAGE_TOWN + ", " + PHONE + ", "
+            + NAME_WORDS + ", " + OTHER_WORDS + ", notindexed=" + FAMILY_ID + ", notindexed=" + MEMBER_ID + ", notindexed=" + NAME_WORDS
+            + ", notindexed=" + OTHER_WORDS + ", prefix=\"1,2,3\", tokenize=unicode61)";
+
+    private final Map<String, Set<String>> pendingRows = new HashMap<>();
+
+    private List<IndexedTable> indexedTables;
+    private boolean ready;
+    private long lastInteractedWith;
+    private long caughtUpAt;
+
+    /**
+     * @return the families with rows matching every term of the text, best matches first, the terms matched as
+     * prefixes of the words of the rows
+     */
+    public List<FamilySearchResult> search(String text) {
+        List<String> terms = getTerms(text);
+        if (!isSearchable(terms)) {
+            return Collections.emptyList();
+        }
+
+        try {
+            SQLiteDatabase database = getWritableDatabase();
+            prepare(database);
+            return rank(database, terms);
+        } catch (Exception e) {
+            Timber.e(e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return whether the text has a term long enough to be searched in the index
+     */
+    public static boolean isSearchable(String text) {
+        return isSearchable(getTerms(text));
+    }
+
+    private static boolean isSearchable(List<String> terms) {
+        for (String term : terms) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the index, or indexes the rows changed since it was last used, on the calling thread
+     */
+    public void prepare() {
+        try {
+            prepare(getWritableDatabase());
+        } catch (Exception e) {
+            Timber.e(e);
+        }
+    }
+
+    /**
+     * Keeps the processed rows to be indexed on the next search, once their transaction is committed
+     */
+    @Override
+    public void onRowsProcessed(Map<String, Set<String>> processedRows) {
+        synchronized (pendingRows) {
+            for (Map.Entry<String, Set<String>> rows : processedRows.entrySet()) {
+                Set<String> ids = pendingRows.get(rows.getKey());
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    pendingRows.put(rows.getKey(), ids);
+                }
+                ids.addAll(rows.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drops the index, to be built again on the next search
+     */
+    public synchronized void clear() {
+        ready = false;
+        indexedTables = null;
+        try {
+            getWritableDatabase().execSQL("DROP TABLE IF EXISTS " + TABLE);
+        } catch (Exception e) {
+            Timber.e(e);
+        }
+    }
+
+    private synchronized void prepare(SQLiteDatabase database) {
+        Map<String, Set<String>> processedRows;
+        synchronized (pendingRows) {
+            processedRows = new HashMap<>(pendingRows);
+            pendingRows.clear();
+        }
+
+        if (!ready) {
+            Set<String> columns = getColumns(database, TABLE);
+            if (!columns.isEmpty() && !columns.contains(NAME_WORDS)) {
+                // built without the words of the rows, built again
+                database.execSQL("DROP TABLE " + TABLE);
+            }
+            database.execSQL(CREATE_TABLE);
+            if (isEmpty(database)) {
+                rebuild(database);
+                caughtUpAt = now();
+                ready = true;
+                return;
+            }
+            // built in an earlier session
+            lastInteractedWith = NumberUtils.toLong(getAllSharedPreferences().getPreference(LAST_INTERACTED_WITH_PREFERENCE));
+            catchUp(database);
+            caughtUpAt = now();
+            ready = true;
+        } else if (now() - caughtUpAt >= CATCH_UP_INTERVAL_MILLIS) {
+            catchUp(database);
+            caughtUpAt = now();
+        }
+
+        for (Map.Entry<String, Set<String>> rows : processedRows.entrySet()) {
+            index(database, rows.getKey(), rows.getValue());
+        }
+    }
+
+    private void rebuild(SQLiteDatabase database) {
+        long rebuiltFrom = getLastInteractedWith(database);
+        database.beginTransaction();
+        try {
+            database.execSQL("DELETE FROM " + TABLE);
+            for (IndexedTable indexedTable : getIndexedTables(database)) {
+                database.execSQL(indexedTable.insert(null));
+            }
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+        setLastInteractedWith(rebuiltFrom);
+    }
+
+    /**
+     * Indexes again the rows changed since the last catch up, e.g. by the sync
+     */
+    private void catchUp(SQLiteDatabase database) {
+        long caughtUpTo = getLastInteractedWith(database);
+        if (caughtUpTo <= lastInteractedWith) {
+            return;
+        }
+        for (IndexedTable indexedTable : getIndexedTables(database)) {
+            List<String> ids = new ArrayList<>();
+            Cursor cursor = database.rawQuery("SELECT " + DBConstants.KEY.BASE_ENTITY_ID + " FROM " + indexedTable.tableName
+                    + " WHERE " + DBConstants.KEY.LAST_INTERACTED_WITH + " > ?", new String[]{String.valueOf(lastInteractedWith)});
+            try {
+                while (cursor.moveToNext()) {
+                    ids.add(cursor.getString(0));
+                }
+            } finally {
+                cursor.close();
+            }
+            index(database, indexedTable.tableName, ids);
+        }
+        setLastInteractedWith(caughtUpTo);
+    }
+
+    private void setLastInteractedWith(long lastInteractedWith) {
+        this.lastInteractedWith = lastInteractedWith;
+        getAllSharedPreferences().savePreference(LAST_INTERACTED_WITH_PREFERENCE, String.valueOf(lastInteractedWith));
+    }
+
+    private void index(SQLiteDatabase database, String tableName, Collection<String> baseEntityIds) {
+        IndexedTable indexedTable = null;
+        for (IndexedTable table : getIndexedTables(database)) {
+            if (table.tableName.equals(tableName)) {
+                indexedTable = table;
+            }
+        }
+        if (indexedTable == null || baseEntityIds.isEmpty()) {
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(baseEntityIds);
+        database.beginTransaction();
+        try {
+            for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+                String[] args = ids.subList(start, Math.min(start + MAX_IDS_PER_QUERY, ids.size())).toArray(new String[0]);
+                String inIds = " IN (" + StringUtils.repeat("?", ",", args.length) + ")";
+                // removed rows are only deleted
+                database.execSQL("DELETE FROM " + TABLE + " WHERE " + indexedTable.indexedRows + inIds, args);
+                database.execSQL(indexedTable.insert(DBConstants.KEY.BASE_ENTITY_ID + inIds), args);
+            }
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    /**
+     * Ranks the families in SQL over every matching row, so that the best matches are kept whatever the number of
+     * rows matching a short prefix
+     */
+    private List<FamilySearchResult> rank(SQLiteDatabase database, List<String> terms) {
+        List<FamilySearchResult> ranked = new ArrayList<>();
+        Cursor cursor = database.rawQuery(getRankQuery(terms), getRankArgs(terms));
+        try {
+            while (cursor.moveToNext()) {
+                String memberIds = cursor.getString(1);
+                ranked.add(new FamilySearchResult(cursor.getString(0),
+                        memberIds == null ? Collections.<String>emptyList() : Arrays.asList(memberIds.split(",")),
+                        cursor.getInt(2), cursor.getInt(3)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return ranked;
+    }
+
+    /**
+     * @return the query of the best families for the terms, with the arguments of {@link #getRankArgs(List)}
+     */
+    @VisibleForTesting
+    static String getRankQuery(List<String> terms) {
+        return "SELECT " + FAMILY_ID + ", GROUP_CONCAT(" + MEMBER_ID + "), MAX(score) AS best, COUNT(*) AS matches"
+                + " FROM (SELECT " + FAMILY_ID + ", " + MEMBER_ID + ", " + getScoreExpression(terms) + " AS score FROM " + TABLE
+                + " WHERE " + TABLE + " MATCH ?) WHERE " + FAMILY_ID + " IS NOT NULL GROUP BY " + FAMILY_ID
+                + " ORDER BY best DESC, matches DESC LIMIT " + MAX_FAMILIES;
+    }
+
+    @VisibleForTesting
+    static String[] getRankArgs(List<String> terms) {
+        StringBuilder match = new StringBuilder();
+        for (String term : terms) {
+            match.append(match.length() == 0 ? "" : " ").append(term).append('*');
+        }
+        return ArrayUtils.add(getScoreArgs(terms), match.toString());
+    }
+
+    /**
+     * Scores a matching row, a term equal to a word of the row scores higher than a term that is only its prefix
+     * and the names score higher than the other columns. The terms are bound, see {@link #getScoreArgs(List)}
+     */
+    @VisibleForTesting
+    static String getScoreExpression(List<String> terms) {
+        List<String> scores = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) {
+            scores.add("MAX(6 * (" + NAME_WORDS + " LIKE ?), 3 * (" + NAME_WORDS + " LIKE ?), 2 * (" + OTHER_WORDS + " LIKE ?), "
+                    + "(" + OTHER_WORDS + " LIKE ?))");
+        }
+        return "(" + StringUtils.join(scores, " + ") + ")";
+    }
+
+    /**
+     * @return the word and prefix patterns of each term, in the order of {@link #getScoreExpression(List)}
+     */
+    @VisibleForTesting
+    static String[] getScoreArgs(List<String> terms) {
+        List<String> args = new ArrayList<>();
+        for (String term : terms) {
+            // the terms only have letters and digits, nothing to escape
+            args.add("% " + term + " %");
+            args.add("% " + term + "%");
+            args.add("% " + term + " %");
+            args.add("% " + term + "%");
+        }
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * @return the words of the unique id, village and phone of a row, as kept in the index
+     */
+    @VisibleForTesting
+    static String otherWords(String uniqueId, String villageTown, String phone) {
+        return words(uniqueId) + " || " + words(villageTown) + " || " + words(phone);
+    }
+
+    /**
+     * @return the column with the separators the tokenizer splits on as spaces, between spaces
+     */
+    @VisibleForTesting
+    static String words(String column) {
+        String words = "IFNULL(" + column + ", '')";
+        for (String separator : WORD_SEPARATORS) {
+            words = "REPLACE(" + words + ", '" + separator + "', ' ')";
+        }
+        return "(' ' || " + words + " || ' ')";
+    }
+
+    /**
+     * @return the lower cased words of the text, split as the index tokenizer splits them
+     */
+    @VisibleForTesting
+    static List<String> getTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (StringUtils.isBlank(text)) {
+            return terms;
+        }
+        for (String word : text.toLowerCase(Locale.ENGLISH).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private boolean isEmpty(SQLiteDatabase database) {
+        Cursor cursor = database.rawQuery("SELECT docid FROM " + TABLE + " LIMIT 1", null);
+        try {
+            return !cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private long getLastInteractedWith(SQLiteDatabase database) {
+        long last = 0;
+        for (IndexedTable indexedTable : getIndexedTables(database)) {
+            Cursor cursor = database.rawQuery("SELECT MAX(" + DBConstants.KEY.LAST_INTERACTED_WITH + ") FROM " + indexedTable.tableName, null);
+            try {
+                if (cursor.moveToFirst()) {
+                    last = Math.max(last, cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return last;
+    }
+
+    private synchronized List<IndexedTable> getIndexedTables(SQLiteDatabase database) {
+        if (indexedTables == null) {
+            List<IndexedTable> tables = new ArrayList<>();
+            FamilyMetadata metadata = FamilyLibrary.getInstance().metadata();
+            if (metadata.familyRegister != null) {
+                Set<String> columns = getColumns(database, metadata.familyRegister.tableName);
+                tables.add(new IndexedTable(metadata.familyRegister.tableName, MEMBER_ID + " IS NULL AND " + FAMILY_ID,
+                        DBConstants.KEY.BASE_ENTITY_ID, "NULL",
+                        concat(columns, DBConstants.KEY.FIRST_NAME, DBConstants.KEY.LAST_NAME), column(columns, DBConstants.KEY.UNIQUE_ID),
+                        column(columns, DBConstants.KEY.VILLAGE_TOWN), concat(columns, DBConstants.KEY.PHONE_NUMBER, DBConstants.KEY.OTHER_PHONE_NUMBER)));
+            }
+            if (metadata.familyMemberRegister != null) {
+                Set<String> columns = getColumns(database, metadata.familyMemberRegister.tableName);
+                tables.add(new IndexedTable(metadata.familyMemberRegister.tableName, MEMBER_ID,
+                        DBConstants.KEY.OBJECT_RELATIONAL_ID, DBConstants.KEY.BASE_ENTITY_ID,
+                        concat(columns, DBConstants.KEY.FIRST_NAME, DBConstants.KEY.MIDDLE_NAME, DBConstants.KEY.LAST_NAME), column(columns, DBConstants.KEY.UNIQUE_ID),
+                        "NULL", concat(columns, DBConstants.KEY.PHONE_NUMBER, DBConstants.KEY.OTHER_PHONE_NUMBER)));
+            }
+            indexedTables = tables;
+        }
+        return indexedTables;
+    }
+
+    private static Set<String> getColumns(SQLiteDatabase database, String tableName) {
+        Set<String> columns = new HashSet<>();
+        Cursor cursor = database.rawQuery("PRAGMA table_info(" + tableName + ")", null);
+        try {
+            int nameIndex = cursor.getColumnIndex("name");
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(nameIndex));
+            }
+        } finally {
+            cursor.close();
+        }
+        return columns;
+    }
+
+    /**
+     * @return the column if it is in the table, or NULL
+     */
+    private static String column(Set<String> columns, String column) {
+        return columns.contains(column) ? column : "NULL";
+    }
+
+    /**
+     * @return the columns that are in the table joined with spaces
+     */
+    private static String concat(Set<String> columns, String... names) {
+        List<String> present = new ArrayList<>();
+        for (String name : names) {
+            if (columns.contains(name)) {
+                present.add("IFNULL(" + name + ", '')");
+            }
+        }
+        return present.isEmpty() ? "NULL" : StringUtils.join(present, " || ' ' || ");
+    }
+
+    private static class IndexedTable {
+        private final String tableName;
+        // selects the index rows of the table, followed by the IN list of their base entity ids
+        private final String indexedRows;
+        private final String select;
+
+        private IndexedTable(String tableName, String indexedRows, String familyId, String memberId, String name, String uniqueId,
+                             String villageTown, String phone) {
+            this.tableName = tableName;
+            this.indexedRows = indexedRows;
+            this.select = "SELECT " + familyId + ", " + memberId + ", " + name + ", " + uniqueId + ", " + villageTown + ", " + phone + ", "
+                    + words(name) + ", " + otherWords(uniqueId, villageTown, phone)
+                    + " FROM " + tableName + " WHERE " + DBConstants.KEY.DATE_REMOVED + " IS NULL";
+        }
+
+        /**
+         * @return the statement indexing the rows of the table matching the condition, all of them if null
+         */
+        private String insert(String condition) {
+            return "INSERT INTO " + TABLE + "(" + FAMILY_ID + ", " + MEMBER_ID + ", " + NAME + ", " + UNIQUE_ID + ", "
+                    + VILLAGE_TOWN + ", " + PHONE + ", " + NAME_WORDS + ", " + OTHER_WORDS + ") " + select + (condition == null ? "" : " AND " + condition);
+        }
+    }
+
+    @VisibleForTesting
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    protected AllSharedPreferences getAllSharedPreferences() {
+        return Utils.context().allSharedPreferences();
+    }
+
+    protected SQLiteDatabase getWritableDatabase() {
+        return DrishtiApplication.getInstance().getRepository().getWritableDatabase();
+    }
+}
@@ -0,0 +1,134 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches a key -> field index for the fields array of a form step so repeated lookups
+ * on the same step do not scan every field.
+ * <p>
+ * Entries are held weakly against the array instance, compared by identity since {@link JSONArray} hashes its
+ * content. The index keeps the position of each key and reads the field from the array, so fields replaced in place
+ * are found. It is rebuilt when the array length changes
+ * (e.g. after {@link JsonFormUtils#lastInteractedWith(JSONArray)} appends a field), when the field at the position
+ * no longer carries the key or when the key is not found.
+ */
+public class FormFieldIndex {
+
+    private static final Map<ArrayKey, FormFieldIndex> INDEXES = new HashMap<>();
+    private static final ReferenceQueue<JSONArray> CLEARED_KEYS = new ReferenceQueue<>();
+
+    /**
+     * A weak reference to a fields array, equal only to the references to the same array
+     */
+    private static class ArrayKey extends WeakReference<JSONArray> {
+        private final int hashCode;
+
+        private ArrayKey(JSONArray fields, @Nullable ReferenceQueue<JSONArray> queue) {
+            super(fields, queue);
+            this.hashCode = System.identityHashCode(fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            JSONArray fields = get();
+            return o instanceof ArrayKey && fields != null && fields == ((ArrayKey) o).get();
+        }
+    }
+
+    private final Map<String, Integer> positionsByKey;
+    private final int length;
+
+    private FormFieldIndex(JSONArray fields) {
+        this.length = fields.length();
+        this.positionsByKey = new HashMap<>(length * 2);
+        for (int i = 0; i < length; i++) {
+            JSONObject field = fields.optJSONObject(i);
+            if (field == null) {
+                continue;
+            }
+            String key = field.optString(JsonFormUtils.KEY, null);
+            // keep the first occurrence to match a linear scan
+            if (key != null && !positionsByKey.containsKey(key)) {
+                positionsByKey.put(key, i);
+            }
+        }
+    }
+
+    /**
+     * @return the field at the indexed position of the key, if it still carries the key
+     */
+    @Nullable
+    private JSONObject find(JSONArray fields, String key) {
+        Integer position = positionsByKey.get(key);
+        JSONObject field = position == null ? null : fields.optJSONObject(position);
+        return field != null && key.equals(field.optString(JsonFormUtils.KEY, null)) ? field : null;
+    }
+
+    /**
+     * @return the first field in fields whose key matches or null if there is none
+     */
+    @Nullable
+    public static JSONObject getField(@Nullable JSONArray fields, @Nullable String key) {
+        if (fields == null || fields.length() == 0 || key == null) {
+            return null;
+        }
+
+        synchronized (INDEXES) {
+            removeClearedKeys();
+            FormFieldIndex index = INDEXES.get(new ArrayKey(fields, null));
+            JSONObject field = index == null || index.length != fields.length() ? null : index.find(fields, key);
+            if (field == null) {
+                // a miss is scanned again, a field may have been renamed to the key or replaced in place
+                index = new FormFieldIndex(fields);
+                INDEXES.put(new ArrayKey(fields, CLEARED_KEYS), index);
+                field = index.find(fields, key);
+            }
+            return field;
+        }
+    }
+
+    /**
+     * @return the value of the first field in fields whose key matches or null if there is none
+     */
+    @Nullable
+    public static String getFieldValue(@Nullable JSONArray fields, @Nullable String key) {
+        JSONObject field = getField(fields, key);
+        return field == null ? null : JsonFormUtils.getString(field, JsonFormUtils.VALUE);
+    }
+
+    /**
+     * Drops the cached index of fields, for callers that replace fields in place
+     */
+    public static void invalidate(@Nullable JSONArray fields) {
+        if (fields == null) {
+            return;
+        }
+        synchronized (INDEXES) {
+            INDEXES.remove(new ArrayKey(fields, null));
+        }
+    }
+
+    private static void removeClearedKeys() {
+        Reference<? extends JSONArray> key;
+        while ((key = CLEARED_KEYS.poll()) != null) {
+            INDEXES.remove(key);
+        }
+    }
+}
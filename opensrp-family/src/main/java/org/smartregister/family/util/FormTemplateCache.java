@@ -0,0 +1,127 @@
+package org.smartregister.family.util;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.smartregister.util.FormUtils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Keeps the parsed json of each form, keyed by form name and locale, so a form asset is read and parsed once.
+ * <p>
+ * Every launch gets its own deep copy of the template to fill in. The templates are dropped when the locale
+ * changes and can be dropped explicitly with {@link #invalidate()} when the forms are replaced, e.g. after
+ * downloading new form versions.
+ */
+public class FormTemplateCache {
+
+    private final Context context;
+    private final Map<String, JSONObject> templates = new HashMap<>();
+    private Locale locale;
+
+    public FormTemplateCache(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * @return a copy of the form template, loading it with formUtils when not cached, or null if the form does not exist
+     */
+    @Nullable
+    public JSONObject getFormJson(FormUtils formUtils, String formName) {
+        if (formUtils == null || formName == null) {
+            return null;
+        }
+
+        JSONObject template;
+        synchronized (this) {
+            Locale currentLocale = getLocale();
+            if (locale == null || !locale.equals(currentLocale)) {
+                templates.clear();
+                locale = currentLocale;
+            }
+
+            String key = formName + "|" + currentLocale;
+            template = templates.get(key);
+            if (template == null) {
+                template = formUtils.getFormJson(formName);
+                if (template == null) {
+                    return null;
+                }
+                templates.put(key, template);
+            }
+        }
+        return copyOf(template);
+    }
+
+    public synchronized void invalidate() {
+        templates.clear();
+    }
+
+    public synchronized void invalidate(String formName) {
+        Iterator<String> keys = templates.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(formName + "|")) {
+                keys.remove();
+            }
+        }
+    }
+
+    protected Locale getLocale() {
+        if (context == null || context.getResources() == null) {
+            return Locale.getDefault();
+        }
+        return context.getResources().getConfiguration().locale;
+    }
+
+    /**
+     * Copies the json tree node by node, the leaf values are immutable and shared
+     */
+    public static JSONObject copyOf(JSONObject jsonObject) {
+        try {
+            return (JSONObject) copyValue(jsonObject);
+        } catch (JSONException e) {
+            Timber.e(e);
+            return null;
+        }
+    }
+
+    public static JSONArray copyOf(JSONArray jsonArray) {
+        try {
+            return (JSONArray) copyValue(jsonArray);
+        } catch (JSONException e) {
+            Timber.e(e);
+            return null;
+        }
+    }
+
+    private static Object copyValue(Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            JSONObject source = (JSONObject) value;
+            JSONObject copy = new JSONObject();
+            Iterator<String> keys = source.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                copy.put(key, copyValue(source.get(key)));
+            }
+            return copy;
+        } else if (value instanceof JSONArray) {
+            JSONArray source = (JSONArray) value;
+            JSONArray copy = new JSONArray();
+            for (int i = 0; i < source.length(); i++) {
+                copy.put(copyValue(source.get(i)));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
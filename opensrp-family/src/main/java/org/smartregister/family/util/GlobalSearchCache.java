@@ -0,0 +1,89 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps the clients found by the global searches, so that searching the same text again, or going back to it while
+ * typing, does not query the server again.
+ * <p>
+ * The clients of a search are kept for {@link #TTL_MILLIS}, the server is searched again after that for the clients
+ * registered or updated meanwhile.
+ */
+public class GlobalSearchCache {
+
+    public static final long TTL_MILLIS = 10 * 60 * 1000;
+
+    private static final int MAX_SEARCHES = 50;
+
+    private static class Search {
+        private final List<JSONObject> clients;
+        private final long searchedAt;
+
+        private Search(List<JSONObject> clients, long searchedAt) {
+            this.clients = clients;
+            this.searchedAt = searchedAt;
+        }
+    }
+
+    private final Map<String, Search> searches = new LinkedHashMap<String, Search>(MAX_SEARCHES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, Search> eldest) {
+            return size() > MAX_SEARCHES;
+        }
+    };
+
+    /**
+     * @return the text as searched, the same for the texts that only differ in case or spacing
+     */
+    public static String getKey(@Nullable String text) {
+        return StringUtils.normalizeSpace(StringUtils.defaultString(text)).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @return the clients found for the text, or null if it has not been searched or the clients have expired
+     */
+    @Nullable
+    public List<JSONObject> get(String text) {
+        String key = getKey(text);
+        synchronized (searches) {
+            Search search = searches.get(key);
+            if (search == null) {
+                return null;
+            }
+            if (now() - search.searchedAt >= TTL_MILLIS) {
+                searches.remove(key);
+                return null;
+            }
+            return search.clients;
+        }
+    }
+
+    public void put(String text, List<JSONObject> clients) {
+        Search search = new Search(Collections.unmodifiableList(new ArrayList<>(clients)), now());
+        synchronized (searches) {
+            searches.put(getKey(text), search);
+        }
+    }
+
+    public void clear() {
+        synchronized (searches) {
+            searches.clear();
+        }
+    }
+
+    @VisibleForTesting
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,64 @@
+package org.smartregister.family.util;
+
+import android.database.MatrixCursor;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The clients found by the global search as register rows, with the columns the register providers read.
+ * <p>
+ * The rows are marked with {@link #GLOBAL_SEARCH_RESULT}, they have no local rows until they are synced.
+ */
+public class GlobalSearchCursor extends MatrixCursor {
+
+    public static final String GLOBAL_SEARCH_RESULT = "global_search_result";
+
+    public static final String[] COLUMNS = {"_id", "relationalid", DBConstants.KEY.BASE_ENTITY_ID,
+            DBConstants.KEY.OBJECT_RELATIONAL_ID, DBConstants.KEY.FIRST_NAME, DBConstants.KEY.MIDDLE_NAME,
+            DBConstants.KEY.LAST_NAME, DBConstants.KEY.UNIQUE_ID, DBConstants.KEY.GENDER, DBConstants.KEY.DOB,
+            DBConstants.KEY.DOD, DBConstants.KEY.VILLAGE_TOWN, DBConstants.KEY.PHONE_NUMBER,
+            DBConstants.KEY.FAMILY_HEAD, DBConstants.KEY.PRIMARY_CAREGIVER, DBConstants.KEY.DATE_REMOVED, GLOBAL_SEARCH_RESULT};
+
+    public GlobalSearchCursor(List<JSONObject> clients) {
+        super(COLUMNS, clients.size());
+        for (JSONObject client : clients) {
+            String baseEntityId = client.optString("baseEntityId", null);
+            JSONObject identifiers = client.optJSONObject("identifiers");
+            JSONObject attributes = client.optJSONObject("attributes");
+            JSONArray addresses = client.optJSONArray("addresses");
+            JSONObject address = addresses == null ? null : addresses.optJSONObject(0);
+
+            addRow(new Object[]{baseEntityId, baseEntityId, baseEntityId,
+                    getRelationship(client, Utils.metadata().familyMemberRegister.familyRelationKey),
+                    client.optString("firstName", null), client.optString("middleName", null),
+                    client.optString("lastName", null),
+                    identifiers == null ? null : identifiers.optString(Utils.metadata().uniqueIdentifierKey, null),
+                    client.optString("gender", null), client.optString("birthdate", null),
+                    client.optString("deathdate", null),
+                    address == null ? null : address.optString("cityVillage", null),
+                    attributes == null ? null : attributes.optString(DBConstants.KEY.PHONE_NUMBER, null),
+                    getRelationship(client, Utils.metadata().familyRegister.familyHeadRelationKey),
+                    getRelationship(client, Utils.metadata().familyRegister.familyCareGiverRelationKey), null, "true"});
+        }
+    }
+
+    /**
+     * @return whether the row was found by the global search and has not been synced to the device
+     */
+    public static boolean isGlobalSearchResult(@Nullable Map<String, String> columnMaps) {
+        return columnMaps != null && "true".equals(columnMaps.get(GLOBAL_SEARCH_RESULT));
+    }
+
+    @Nullable
+    private static String getRelationship(JSONObject client, String relationKey) {
+        JSONObject relationships = client.optJSONObject("relationships");
+        JSONArray ids = relationships == null || relationKey == null ? null : relationships.optJSONArray(relationKey);
+        return ids == null ? null : ids.optString(0, null);
+    }
+}
@@ -0,0 +1,256 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.repository.AllSharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import timber.log.Timber;
+
+/**
+ * Saves profile images (compress, write to the app dir and add to the image repository) off the registration path.
+ * <p>
+ * Images are enqueued once the registration they belong to has been committed and are saved by a fixed number
+ * of worker threads. A failed save is retried with a growing delay up to {@link #MAX_ATTEMPTS} times. The pending
+ * images are kept in the shared preferences until saved so that images not saved when the app is closed are
+ * picked up again the next time the queue is created.
+ */
+public class ImagePersistenceQueue {
+
+    public static final int DEFAULT_CONCURRENCY = 2;
+    public static final int MAX_ATTEMPTS = 3;
+
+    private static final long RETRY_DELAY_MILLIS = 2000;
+    private static final String PENDING_IMAGES = "family_pending_images";
+
+    private final ScheduledExecutorService executor;
+    private final long retryDelayMillis;
+    private final AllSharedPreferences allSharedPreferences;
+    private final Map<String, PendingImage> pendingImages = new LinkedHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private long savedCount;
+    private long failedCount;
+    private long totalSaveMillis;
+    private long maxSaveMillis;
+
+    public ImagePersistenceQueue(AllSharedPreferences allSharedPreferences, int concurrency) {
+        this(allSharedPreferences, new ScheduledThreadPoolExecutor(Math.max(1, concurrency)), RETRY_DELAY_MILLIS);
+    }
+
+    @VisibleForTesting
+    ImagePersistenceQueue(AllSharedPreferences allSharedPreferences, ScheduledExecutorService executor, long retryDelayMillis) {
+        this.allSharedPreferences = allSharedPreferences;
+        this.executor = executor;
+        this.retryDelayMillis = retryDelayMillis;
+        restorePendingImages();
+    }
+
+    public void enqueue(String providerId, String entityId, String imageLocation) {
+        if (StringUtils.isBlank(providerId) || StringUtils.isBlank(entityId) || StringUtils.isBlank(imageLocation)) {
+            return;
+        }
+        List<PendingImage> images = new ArrayList<>();
+        images.add(new PendingImage(providerId, entityId, imageLocation));
+        enqueue(images);
+    }
+
+    /**
+     * Adds the images to the pending list and schedules them for saving.
+     * An image pending for the same entity is replaced by the newer one, and is neither saved nor retried after that.
+     */
+    public void enqueue(Collection<PendingImage> images) {
+        if (images == null || images.isEmpty()) {
+            return;
+        }
+        synchronized (pendingImages) {
+            for (PendingImage image : images) {
+                pendingImages.put(image.entityId, image);
+            }
+            savePendingImages();
+        }
+        for (PendingImage image : images) {
+            schedule(image, 0);
+        }
+    }
+
+    /**
+     * @return the number of images waiting to be saved, including the ones being retried
+     */
+    public int getQueueDepth() {
+        synchronized (pendingImages) {
+            return pendingImages.size();
+        }
+    }
+
+    public synchronized long getSavedCount() {
+        return savedCount;
+    }
+
+    public synchronized long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the mean time taken by a save attempt in milliseconds
+     */
+    public synchronized long getAverageSaveMillis() {
+        long attempts = savedCount + failedCount;
+        return attempts == 0 ? 0 : totalSaveMillis / attempts;
+    }
+
+    public synchronized long getMaxSaveMillis() {
+        return maxSaveMillis;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void schedule(final PendingImage image, long delayMillis) {
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                process(image);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @VisibleForTesting
+    void process(PendingImage image) {
+        if (isReplaced(image)) {
+            // a newer image of the entity was enqueued, saving this one would overwrite it
+            return;
+        }
+        long start = System.nanoTime();
+        boolean saved;
+        try {
+            saved = saveImage(image);
+        } catch (Exception e) {
+            Timber.e(e);
+            saved = false;
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        image.attempts++;
+        recordAttempt(saved, durationMillis);
+
+        boolean done = saved || image.attempts >= MAX_ATTEMPTS;
+        if (done) {
+            synchronized (pendingImages) {
+                if (pendingImages.get(image.entityId) == image) {
+                    pendingImages.remove(image.entityId);
+                }
+                savePendingImages();
+            }
+            if (!saved) {
+                Timber.e("Giving up saving image %s for %s after %d attempts", image.imageLocation, image.entityId, image.attempts);
+            }
+        } else if (!isReplaced(image)) {
+            schedule(image, retryDelayMillis * image.attempts);
+        }
+
+        for (Listener listener : listeners) {
+            listener.onImageProcessed(image, saved, durationMillis);
+        }
+    }
+
+    private boolean isReplaced(PendingImage image) {
+        synchronized (pendingImages) {
+            return pendingImages.get(image.entityId) != image;
+        }
+    }
+
+    protected boolean saveImage(PendingImage image) {
+        return JsonFormUtils.saveImageToDisk(image.providerId, image.entityId, image.imageLocation);
+    }
+
+    private synchronized void recordAttempt(boolean saved, long durationMillis) {
+        if (saved) {
+            savedCount++;
+        } else {
+            failedCount++;
+        }
+        totalSaveMillis += durationMillis;
+        maxSaveMillis = Math.max(maxSaveMillis, durationMillis);
+    }
+
+    private void savePendingImages() {
+        if (allSharedPreferences == null) {
+            return;
+        }
+        allSharedPreferences.savePreference(PENDING_IMAGES, JsonFormUtils.gson.toJson(new ArrayList<>(pendingImages.values())));
+    }
+
+    private void restorePendingImages() {
+        if (allSharedPreferences == null) {
+            return;
+        }
+        try {
+            String json = allSharedPreferences.getPreference(PENDING_IMAGES);
+            if (StringUtils.isBlank(json)) {
+                return;
+            }
+            List<PendingImage> images = JsonFormUtils.gson.fromJson(json, new TypeToken<List<PendingImage>>() {
+            }.getType());
+            if (images != null && !images.isEmpty()) {
+                Timber.i("Resuming %d pending images", images.size());
+                enqueue(images);
+            }
+        } catch (Exception e) {
+            Timber.e(e);
+        }
+    }
+
+    public static class PendingImage {
+
+        private final String providerId;
+        private final String entityId;
+        private final String imageLocation;
+        private transient int attempts;
+
+        public PendingImage(@NonNull String providerId, @NonNull String entityId, @NonNull String imageLocation) {
+            this.providerId = providerId;
+            this.entityId = entityId;
+            this.imageLocation = imageLocation;
+        }
+
+        public String getProviderId() {
+            return providerId;
+        }
+
+        public String getEntityId() {
+            return entityId;
+        }
+
+        public String getImageLocation() {
+            return imageLocation;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+
+    public interface Listener {
+
+        void onImageProcessed(PendingImage image, boolean saved, long durationMillis);
+
+    }
+}
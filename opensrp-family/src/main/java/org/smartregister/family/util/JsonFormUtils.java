@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.util.Pair;
 
-import com.google.common.reflect.TypeToken;
 import com.vijay.jsonwizard.constants.JsonFormConstants;
 
 import org.apache.commons.lang3.StringUtils;
@@ -19,16 +18,15 @@ import org.smartregister.clientandeventmodel.FormEntityConstants;
 import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.domain.Photo;
 import org.smartregister.domain.ProfileImage;
-import org.smartregister.domain.form.FormLocation;
 import org.smartregister.domain.tag.FormTag;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.location.helper.LocationHelper;
 import org.smartregister.repository.AllSharedPreferences;
 import org.smartregister.repository.ImageRepository;
 import org.smartregister.sync.helper.ECSyncHelper;
-import org.smartregister.util.AssetHandler;
 import org.smartregister.util.FormUtils;
 import org.smartregister.util.ImageUtils;
 import org.smartregister.view.LocationPickerView;
@@ -125,12 +123,16 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
 
 
     public static FamilyEventClient processFamilyUpdateForm(AllSharedPreferences allSharedPreferences, String jsonString) {
+        return processFamilyUpdateForm(allSharedPreferences, ParsedForm.parse(jsonString));
+    }
+
+    public static FamilyEventClient processFamilyUpdateForm(AllSharedPreferences allSharedPreferences, ParsedForm parsedForm) {
 
         try {
 
             String familyStep = Utils.getCustomConfigs(Constants.CustomConfig.FAMILY_FORM_IMAGE_STEP);
             Triple<Boolean, JSONObject, JSONArray> registrationFormParams = (StringUtils.isBlank(familyStep)) ?
-                    validateParameters(jsonString, STEP1) : validateParameters(jsonString, familyStep);
+                    validateParameters(parsedForm, STEP1) : validateParameters(parsedForm, familyStep);
 
             if (!registrationFormParams.getLeft()) {
                 return null;
@@ -178,12 +180,16 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
     }
 
     public static FamilyEventClient processFamilyHeadRegistrationForm(AllSharedPreferences allSharedPreferences, String jsonString, String familyBaseEntityId) {
+        return processFamilyHeadRegistrationForm(allSharedPreferences, ParsedForm.parse(jsonString), familyBaseEntityId);
+    }
+
+    public static FamilyEventClient processFamilyHeadRegistrationForm(AllSharedPreferences allSharedPreferences, ParsedForm parsedForm, String familyBaseEntityId) {
 
         try {
 
             String familyStep = Utils.getCustomConfigs(Constants.CustomConfig.FAMILY_MEMBER_FORM_IMAGE_STEP);
             Triple<Boolean, JSONObject, JSONArray> registrationFormParams = (StringUtils.isBlank(familyStep)) ?
-                    validateParameters(jsonString, STEP2) : validateParameters(jsonString, familyStep);
+                    validateParameters(parsedForm, STEP2) : validateParameters(parsedForm, familyStep);
 
             if (!registrationFormParams.getLeft()) {
                 return null;
@@ -216,20 +222,32 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
     }
 
     public static FamilyEventClient processFamilyUpdateForm(AllSharedPreferences allSharedPreferences, String jsonString, String familyBaseEntityId) {
-        return processFamilyForm(allSharedPreferences, jsonString, familyBaseEntityId, Utils.metadata().familyRegister.updateEventType);
+        return processFamilyUpdateForm(allSharedPreferences, ParsedForm.parse(jsonString), familyBaseEntityId);
+    }
+
+    public static FamilyEventClient processFamilyUpdateForm(AllSharedPreferences allSharedPreferences, ParsedForm parsedForm, String familyBaseEntityId) {
+        return processFamilyForm(allSharedPreferences, parsedForm, familyBaseEntityId, Utils.metadata().familyRegister.updateEventType);
     }
 
     public static FamilyEventClient processFamilyMemberUpdateRegistrationForm(AllSharedPreferences allSharedPreferences, String jsonString, String familyBaseEntityId) {
-        return processFamilyForm(allSharedPreferences, jsonString, familyBaseEntityId, Utils.metadata().familyMemberRegister.updateEventType);
+        return processFamilyMemberUpdateRegistrationForm(allSharedPreferences, ParsedForm.parse(jsonString), familyBaseEntityId);
+    }
+
+    public static FamilyEventClient processFamilyMemberUpdateRegistrationForm(AllSharedPreferences allSharedPreferences, ParsedForm parsedForm, String familyBaseEntityId) {
+        return processFamilyForm(allSharedPreferences, parsedForm, familyBaseEntityId, Utils.metadata().familyMemberRegister.updateEventType);
     }
 
     public static FamilyEventClient processFamilyMemberRegistrationForm(AllSharedPreferences allSharedPreferences, String jsonString, String familyBaseEntityId) {
-        return processFamilyForm(allSharedPreferences, jsonString, familyBaseEntityId, Utils.metadata().familyMemberRegister.registerEventType);
+        return processFamilyMemberRegistrationForm(allSharedPreferences, ParsedForm.parse(jsonString), familyBaseEntityId);
     }
 
-    private static FamilyEventClient processFamilyForm(AllSharedPreferences allSharedPreferences, String jsonString, String familyBaseEntityId, String encounterType) {
+    public static FamilyEventClient processFamilyMemberRegistrationForm(AllSharedPreferences allSharedPreferences, ParsedForm parsedForm, String familyBaseEntityId) {
+        return processFamilyForm(allSharedPreferences, parsedForm, familyBaseEntityId, Utils.metadata().familyMemberRegister.registerEventType);
+    }
+
+    private static FamilyEventClient processFamilyForm(AllSharedPreferences allSharedPreferences, ParsedForm parsedForm, String familyBaseEntityId, String encounterType) {
         try {
-            Triple<Boolean, JSONObject, JSONArray> registrationFormParams = validateParameters(jsonString);
+            Triple<Boolean, JSONObject, JSONArray> registrationFormParams = validateParameters(parsedForm);
 
             if (!registrationFormParams.getLeft()) {
                 return null;
@@ -265,7 +283,15 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
 
     public static void mergeAndSaveClient(ECSyncHelper ecUpdater, Client baseClient) throws Exception {
         JSONObject updatedClientJson = new JSONObject(org.smartregister.util.JsonFormUtils.gson.toJson(baseClient));
+        mergeAndSaveClient(ecUpdater, baseClient, updatedClientJson);
+    }
 
+    /**
+     * Same as {@link #mergeAndSaveClient(ECSyncHelper, Client)} but reuses an already serialized copy of the client
+     *
+     * @param updatedClientJson the json representation of baseClient
+     */
+    public static void mergeAndSaveClient(ECSyncHelper ecUpdater, Client baseClient, JSONObject updatedClientJson) throws Exception {
         JSONObject originalClientJsonObject = ecUpdater.getClient(baseClient.getBaseEntityId());
 
         JSONObject mergedJson = org.smartregister.util.JsonFormUtils.merge(originalClientJsonObject, updatedClientJson);
@@ -280,14 +306,21 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
     }
 
     public static void saveImage(String providerId, String entityId, String imageLocation) {
+        saveImageToDisk(providerId, entityId, imageLocation);
+    }
+
+    /**
+     * @return false if the image exists but could not be compressed or saved, true otherwise
+     */
+    public static boolean saveImageToDisk(String providerId, String entityId, String imageLocation) {
         if (StringUtils.isBlank(imageLocation)) {
-            return;
+            return true;
         }
 
         File file = new File(imageLocation);
 
         if (!file.exists()) {
-            return;
+            return true;
         }
 
         Bitmap compressedImageFile = null;
@@ -296,7 +329,7 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
         } catch (IOException e) {
             Timber.e(e, "Error compressing image");
         }
-        saveStaticImageToDisk(compressedImageFile, providerId, entityId);
+        return saveStaticImageToDisk(compressedImageFile, providerId, entityId);
 
     }
 
@@ -305,7 +338,8 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
 
             LocationPickerView lpv = new LocationPickerView(context);
             lpv.init();
-            return getAutoPopulatedJsonEditFormString(client, FormUtils.getInstance(context).getFormJson(Utils.metadata().familyRegister.formName), lpv);
+            JSONObject form = FamilyLibrary.getInstance().getFormTemplateCache().getFormJson(FormUtils.getInstance(context), Utils.metadata().familyRegister.formName);
+            return getAutoPopulatedJsonEditFormString(client, form, lpv);
         } catch (Exception e) {
             Timber.e(e);
         }
@@ -394,9 +428,9 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
         }
     }
 
-    private static void saveStaticImageToDisk(Bitmap image, String providerId, String entityId) {
+    private static boolean saveStaticImageToDisk(Bitmap image, String providerId, String entityId) {
         if (image == null || StringUtils.isBlank(providerId) || StringUtils.isBlank(entityId)) {
-            return;
+            return false;
         }
         OutputStream os = null;
         try {
@@ -423,6 +457,9 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
                 profileImage.setSyncStatus(ImageRepository.TYPE_Unsynced);
                 ImageRepository imageRepo = Utils.context().imageRepository();
                 imageRepo.add(profileImage);
+                FamilyLibrary.getInstance().getPhotoPathCache().invalidate(entityId);
+                FamilyLibrary.getInstance().getProfileImageLoader().invalidate(entityId);
+                return true;
             }
 
         } catch (FileNotFoundException e) {
@@ -436,7 +473,7 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
                 }
             }
         }
-
+        return false;
     }
 
     protected static Triple<Boolean, JSONObject, JSONArray> validateParameters(String jsonString) {
@@ -457,6 +494,27 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
         return registrationFormParams;
     }
 
+    /**
+     * Validates an already parsed form. The fields of all the steps are collected in a new array.
+     */
+    protected static Triple<Boolean, JSONObject, JSONArray> validateParameters(ParsedForm parsedForm) {
+        JSONObject jsonForm = parsedForm != null ? parsedForm.getForm() : null;
+        JSONArray fields = parsedForm != null ? parsedForm.fields() : null;
+
+        return Triple.of(jsonForm != null && fields != null, jsonForm, fields);
+    }
+
+    /**
+     * Validates a step of an already parsed form. The fields are the array of the step, so the fields appended while
+     * processing are added to the parsed form as they are to the form string parsed by {@link #validateParameters(String, String)}
+     */
+    protected static Triple<Boolean, JSONObject, JSONArray> validateParameters(ParsedForm parsedForm, String step) {
+        JSONObject jsonForm = parsedForm != null ? parsedForm.getForm() : null;
+        JSONArray fields = parsedForm != null ? parsedForm.fields(step) : null;
+
+        return Triple.of(jsonForm != null && fields != null, jsonForm, fields);
+    }
+
     protected static Event tagSyncMetadata(AllSharedPreferences allSharedPreferences, Event event) {
         String providerId = allSharedPreferences.fetchRegisteredANM();
         event.setProviderId(providerId);
@@ -543,6 +601,17 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
         return null;
     }
 
+    /**
+     * Looks up a field by key through a cached {@link FormFieldIndex} of the fields array instead of scanning it
+     */
+    public static JSONObject getFieldJSONObject(JSONArray fields, String key) {
+        return FormFieldIndex.getField(fields, key);
+    }
+
+    public static String getFieldValue(JSONArray fields, String key) {
+        return FormFieldIndex.getFieldValue(fields, key);
+    }
+
     public static String getFieldValue(String jsonString, String step, String key) {
         JSONObject jsonForm = toJSONObject(jsonString);
         if (jsonForm == null) {
@@ -569,26 +638,14 @@ public class JsonFormUtils extends org.smartregister.util.JsonFormUtils {
             List<Pair<String, String>> locationFields = FamilyLibrary.getInstance().metadata().getLocationFields();
             ArrayList<String> allowedLevels = FamilyLibrary.getInstance().metadata().getLocationHierarchy();
             if (locationFields != null && locationFields.size() > 0) {
+                LocationTreeCache.LocationTree locationTree = FamilyLibrary.getInstance().getLocationTreeCache().get(allowedLevels);
                 for (Pair<String, String> locationPair : locationFields) {
-                    List<String> defaultFacility = LocationHelper.getInstance().generateDefaultLocationHierarchy(allowedLevels);
-                    List<FormLocation> upToFacilities = LocationHelper.getInstance().generateLocationHierarchyTree(false, allowedLevels);
-
-                    String defaultFacilityString = AssetHandler.javaToJsonString(defaultFacility, new TypeToken<List<String>>() {
-                    }.getType());
-                    String upToFacilitiesString = AssetHandler.javaToJsonString(upToFacilities, new TypeToken<List<FormLocation>>() {
-                    }.getType());
-
-
                     JSONArray questions = form.getJSONObject(locationPair.first).getJSONArray(JsonFormConstants.FIELDS);
 
                     for (int i = 0; i < questions.length(); i++) {
-                        if (questions.getJSONObject(i).getString(JsonFormConstants.KEY).equals(locationPair.second)) {
-                            if (StringUtils.isNotBlank(upToFacilitiesString)) {
-                                questions.getJSONObject(i).put(JsonFormConstants.TREE, new JSONArray(upToFacilitiesString));
-                            }
-                            if (StringUtils.isNotBlank(defaultFacilityString)) {
-                                questions.getJSONObject(i).put(JsonFormConstants.DEFAULT, defaultFacilityString);
-                            }
+                        JSONObject question = questions.getJSONObject(i);
+                        if (question.getString(JsonFormConstants.KEY).equals(locationPair.second)) {
+                            locationTree.injectInto(question);
                         }
                     }
                 }
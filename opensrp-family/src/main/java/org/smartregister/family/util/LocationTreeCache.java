@@ -0,0 +1,103 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.common.reflect.TypeToken;
+import com.vijay.jsonwizard.constants.JsonFormConstants;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.smartregister.domain.form.FormLocation;
+import org.smartregister.location.helper.LocationHelper;
+import org.smartregister.util.AssetHandler;
+
+import java.util.List;
+
+import timber.log.Timber;
+
+/**
+ * Keeps the default location hierarchy and the location tree injected into the location questions of the forms.
+ * <p>
+ * The tree is built, serialized and parsed once per allowed levels, logged in user and assigned locations, and
+ * reused for every form opened after that. A location sync that changes the assigned locations or a user switch
+ * changes the key, so the next form rebuilds the tree. {@link #invalidate()} drops it explicitly.
+ */
+public class LocationTreeCache {
+
+    private String key;
+    private LocationTree locationTree;
+
+    @NonNull
+    public synchronized LocationTree get(List<String> allowedLevels) {
+        String currentKey = StringUtils.join(allowedLevels, ",") + "|" + getUserName() + "|" + getLocationsHash();
+        if (locationTree == null || !currentKey.equals(key)) {
+            locationTree = buildLocationTree(allowedLevels);
+            key = currentKey;
+        }
+        return locationTree;
+    }
+
+    public synchronized void invalidate() {
+        key = null;
+        locationTree = null;
+    }
+
+    protected LocationTree buildLocationTree(List<String> allowedLevels) {
+        List<String> defaultFacility = LocationHelper.getInstance().generateDefaultLocationHierarchy(allowedLevels);
+        List<FormLocation> upToFacilities = LocationHelper.getInstance().generateLocationHierarchyTree(false, allowedLevels);
+
+        String defaultFacilityString = AssetHandler.javaToJsonString(defaultFacility, new TypeToken<List<String>>() {
+        }.getType());
+        String upToFacilitiesString = AssetHandler.javaToJsonString(upToFacilities, new TypeToken<List<FormLocation>>() {
+        }.getType());
+
+        JSONArray tree = null;
+        if (StringUtils.isNotBlank(upToFacilitiesString)) {
+            try {
+                tree = new JSONArray(upToFacilitiesString);
+            } catch (JSONException e) {
+                Timber.e(e);
+            }
+        }
+        return new LocationTree(defaultFacilityString, tree);
+    }
+
+    protected String getUserName() {
+        return Utils.context().allSharedPreferences().fetchRegisteredANM();
+    }
+
+    protected int getLocationsHash() {
+        String anmLocation = Utils.context().allSettings().fetchANMLocation();
+        return anmLocation == null ? 0 : anmLocation.hashCode();
+    }
+
+    public static class LocationTree {
+
+        private final String defaultFacility;
+        private final JSONArray tree;
+
+        public LocationTree(@Nullable String defaultFacility, @Nullable JSONArray tree) {
+            this.defaultFacility = defaultFacility;
+            this.tree = tree;
+        }
+
+        public String getDefaultFacility() {
+            return defaultFacility;
+        }
+
+        /**
+         * Sets the tree and default of a location question, the question gets its own copy of the tree
+         */
+        public void injectInto(JSONObject question) throws JSONException {
+            if (tree != null) {
+                question.put(JsonFormConstants.TREE, FormTemplateCache.copyOf(tree));
+            }
+            if (StringUtils.isNotBlank(defaultFacility)) {
+                question.put(JsonFormConstants.DEFAULT, defaultFacility);
+            }
+        }
+    }
+}
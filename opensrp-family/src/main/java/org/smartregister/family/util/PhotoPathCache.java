@@ -0,0 +1,135 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+
+import net.sqlcipher.Cursor;
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.view.activity.DrishtiApplication;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Keeps the profile photo paths of recently shown entities, looked up for a whole page with one query.
+ * <p>
+ * An entity without a photo is kept with an empty path so that its rows do not query again. The path of an
+ * entity is dropped when a new profile photo is saved for it.
+ */
+public class PhotoPathCache {
+
+    private static final String IMAGE_TABLE = "ImageList";
+    private static final String ENTITY_ID_COLUMN = "entityID";
+    private static final String FILE_PATH_COLUMN = "filepath";
+
+    private static final int MAX_ENTRIES = 500;
+    // stays below the default limit of bound variables in a statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final Map<String, String> paths = new LinkedHashMap<String, String>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Looks up the photo paths of the entities of a page, replacing the ones cached for them
+     */
+    public void resolve(Collection<String> entityIds) {
+        List<String> ids = new ArrayList<>();
+        for (String entityId : entityIds) {
+            if (StringUtils.isNotBlank(entityId)) {
+                ids.add(entityId.toLowerCase());
+            }
+        }
+
+        try {
+            Map<String, String> resolved = new HashMap<>();
+            for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+                resolved.putAll(queryPhotoPaths(ids.subList(start, Math.min(start + MAX_IDS_PER_QUERY, ids.size()))));
+            }
+            synchronized (paths) {
+                for (String id : ids) {
+                    String path = resolved.get(id);
+                    paths.put(id, path == null ? "" : path);
+                }
+            }
+        } catch (Exception e) {
+            Timber.e(e);
+        }
+    }
+
+    /**
+     * @return the cached photo path, empty when the entity has no photo, or null when it is not cached
+     */
+    @Nullable
+    public String peek(String entityId) {
+        if (entityId == null) {
+            return null;
+        }
+        synchronized (paths) {
+            return paths.get(entityId.toLowerCase());
+        }
+    }
+
+    /**
+     * @return the photo path of the entity, looking it up when not cached, or an empty string when there is none.
+     * Must not be called on the main thread.
+     */
+    public String getPhotoPath(String entityId) {
+        if (StringUtils.isBlank(entityId)) {
+            return "";
+        }
+        String path = peek(entityId);
+        if (path == null) {
+            resolve(Collections.singletonList(entityId));
+            path = peek(entityId);
+        }
+        return path == null ? "" : path;
+    }
+
+    public void invalidate(String entityId) {
+        if (entityId != null) {
+            synchronized (paths) {
+                paths.remove(entityId.toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * @return the first photo path of each of the entities that has one, keyed by lower case entity id
+     */
+    protected Map<String, String> queryPhotoPaths(List<String> entityIds) {
+        Map<String, String> photoPaths = new HashMap<>();
+        String query = "SELECT " + ENTITY_ID_COLUMN + ", " + FILE_PATH_COLUMN + " FROM " + IMAGE_TABLE
+                + " WHERE " + ENTITY_ID_COLUMN + " COLLATE NOCASE IN (" + StringUtils.repeat("?", ",", entityIds.size()) + ")";
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().rawQuery(query, entityIds.toArray(new String[0]));
+            while (cursor.moveToNext()) {
+                String entityId = cursor.getString(0).toLowerCase();
+                if (!photoPaths.containsKey(entityId)) {
+                    photoPaths.put(entityId, cursor.getString(1));
+                }
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return photoPaths;
+    }
+
+    protected SQLiteDatabase getReadableDatabase() {
+        return DrishtiApplication.getInstance().getRepository().getReadableDatabase();
+    }
+}
@@ -0,0 +1,51 @@
+package org.smartregister.family.util;
+
+/**
+ * A register condition with a {@code ?} placeholder for each value and the values bound to them, so that SQLite
+ * compiles the register queries once for all households instead of once per household.
+ */
+public class QueryCondition {
+
+    private final String condition;
+    private final String[] args;
+
+    public QueryCondition(String condition, String... args) {
+        this.condition = condition;
+        this.args = args;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public String[] getArgs() {
+        return args;
+    }
+
+    /**
+     * @return the condition with the values inlined as quoted literals, for the queries that are run without bind
+     * arguments e.g. the filtered and full text searches of the framework
+     */
+    public String toLiteral() {
+        if (args.length == 0) {
+            return condition;
+        }
+
+        StringBuilder literal = new StringBuilder(condition.length() + 16 * args.length);
+        int arg = 0;
+        boolean quoted = false;
+        for (int i = 0; i < condition.length(); i++) {
+            char c = condition.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted && arg < args.length) {
+                String value = args[arg++];
+                literal.append(value == null ? "NULL" : "'" + value.replace("'", "''") + "'");
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the row counts of the registers, so that refreshing a register or a profile tab does not count its table
+ * again.
+ * <p>
+ * A count is kept per register query and bound arguments i.e. per family for the profile registers. The family save
+ * and removal paths mark the counts of the family and the register wide counts as changed, and a changed count is
+ * counted again the next time it is read. The rows written elsewhere, by the sync or by the app, mark all the counts
+ * as changed through {@link #onRegistersChanged()}, which the registers do when a sync completes or the member list
+ * is refreshed. Counts older than {@link #RECONCILE_AFTER_MILLIS} are counted again as well, for writes that are
+ * never reported.
+ * <p>
+ * Only the family and member registers are kept. The profile tabs of the app's visits, due tasks and activities are
+ * written by the app's own event processing and are counted every time, see {@link BoundRegisterQueries}.
+ */
+public class RegisterCounters {
+
+    public static final long RECONCILE_AFTER_MILLIS = 5 * 60 * 1000;
+
+    private static final int MAX_COUNTERS = 100;
+
+    public interface Counting {
+        /**
+         * @return the number of rows, or a negative number if they could not be counted
+         */
+        long count();
+    }
+
+    private static class Counter {
+        private final String tableName;
+        private final String[] selectionArgs;
+        private int count;
+        private long countedAt;
+        private long changedAt = Long.MIN_VALUE;
+
+        private Counter(String tableName, String[] selectionArgs) {
+            this.tableName = tableName;
+            this.selectionArgs = selectionArgs;
+        }
+    }
+
+    private final Map<String, Counter> counters = new LinkedHashMap<String, Counter>(MAX_COUNTERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, Counter> eldest) {
+            return size() > MAX_COUNTERS;
+        }
+    };
+
+    private int hits;
+    private int misses;
+
+    /**
+     * @return the count kept for the register query, counted first if it is not known or has changed, or -1 if
+     * it could not be counted
+     */
+    public int getCount(String tableName, @Nullable String[] selectionArgs, String countQuery, Counting counting) {
+        String[] args = selectionArgs == null ? ArrayUtils.EMPTY_STRING_ARRAY : selectionArgs;
+        String key = tableName + "|" + countQuery + "|" + StringUtils.join(args, ',');
+        synchronized (counters) {
+            Counter counter = counters.get(key);
+            if (counter != null && counter.changedAt < counter.countedAt && now() - counter.countedAt < RECONCILE_AFTER_MILLIS) {
+                hits++;
+                return counter.count;
+            }
+            misses++;
+        }
+
+        long countedAt = now();
+        long count = counting.count();
+        if (count < 0) {
+            return -1;
+        }
+
+        synchronized (counters) {
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                counter = new Counter(tableName, args.clone());
+                counters.put(key, counter);
+            } else if (counter.countedAt > countedAt) {
+                // counted again meanwhile
+                return counter.count;
+            }
+            counter.count = (int) count;
+            // still changed if the family changed while counting
+            counter.countedAt = countedAt;
+            return counter.count;
+        }
+    }
+
+    /**
+     * @return the last count of the register of the family, or null if it has not been counted
+     */
+    @Nullable
+    public Integer getCount(String tableName, @Nullable String familyId) {
+        String[] args = familyId == null ? ArrayUtils.EMPTY_STRING_ARRAY : new String[]{familyId};
+        synchronized (counters) {
+            Counter last = null;
+            for (Counter counter : counters.values()) {
+                if (counter.tableName.equals(tableName) && Arrays.equals(counter.selectionArgs, args)
+                        && (last == null || counter.countedAt >= last.countedAt)) {
+                    last = counter;
+                }
+            }
+            return last == null ? null : last.count;
+        }
+    }
+
+    /**
+     * Marks the counts of the registers of the family and the register wide counts as changed, to be called once
+     * the rows of a family are saved or removed
+     */
+    public void onFamilyChanged(@Nullable String familyId) {
+        long changedAt = now();
+        synchronized (counters) {
+            for (Counter counter : counters.values()) {
+                if (counter.selectionArgs.length == 0 || familyId == null || ArrayUtils.contains(counter.selectionArgs, familyId)) {
+                    counter.changedAt = changedAt;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks all the counts as changed, to be called once rows are written outside the save paths of the library,
+     * e.g. when a sync completes
+     */
+    public void onRegistersChanged() {
+        onFamilyChanged(null);
+    }
+
+    public void clear() {
+        synchronized (counters) {
+            counters.clear();
+        }
+    }
+
+    public int getHits() {
+        synchronized (counters) {
+            return hits;
+        }
+    }
+
+    public int getMisses() {
+        synchronized (counters) {
+            return misses;
+        }
+    }
+
+    @VisibleForTesting
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+}
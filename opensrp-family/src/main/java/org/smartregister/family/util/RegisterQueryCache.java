@@ -0,0 +1,184 @@
+package org.smartregister.family.util;
+
+import net.sqlcipher.database.SQLiteDatabase;
+import net.sqlcipher.database.SQLiteStatement;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Keeps the register selects generated for a table, condition, sort and projection, and the statements compiled
+ * for the register counts, so that refreshing a register neither rebuilds nor recompiles its queries.
+ * <p>
+ * The hits and misses are counted to check the cache on a busy register.
+ */
+public class RegisterQueryCache {
+
+    private static final int MAX_QUERIES = 100;
+    private static final int MAX_STATEMENTS = 20;
+
+    private final Map<String, String> queries = new LinkedHashMap<String, String>(MAX_QUERIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, String> eldest) {
+            return size() > MAX_QUERIES;
+        }
+    };
+
+    private final Map<String, SQLiteStatement> statements = new LinkedHashMap<String, SQLiteStatement>(MAX_STATEMENTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, SQLiteStatement> eldest) {
+            if (size() > MAX_STATEMENTS) {
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private SQLiteDatabase statementsDatabase;
+
+    private int queryHits;
+    private int queryMisses;
+    private int statementHits;
+    private int statementMisses;
+
+    public interface QueryBuilder {
+        String build();
+    }
+
+    public static String countKey(String tableName, String condition) {
+        return "count|" + tableName + "|" + condition;
+    }
+
+    public static String mainKey(String tableName, String condition, String[] columns) {
+        return "main|" + tableName + "|" + condition + "|" + StringUtils.join(columns, ',');
+    }
+
+    public static String pageKey(String mainSelect, String sortQuery) {
+        return "page|" + mainSelect + "|" + sortQuery;
+    }
+
+    /**
+     * @return the query cached for the key, built and cached if there is none
+     */
+    public String getQuery(String key, QueryBuilder builder) {
+        synchronized (queries) {
+            String query = queries.get(key);
+            if (query != null) {
+                queryHits++;
+                return query;
+            }
+            queryMisses++;
+        }
+
+        String query = builder.build();
+        synchronized (queries) {
+            queries.put(key, query);
+        }
+        return query;
+    }
+
+    /**
+     * Runs a query returning a single number with a statement compiled once per query and database
+     *
+     * @return the number, or -1 if the query failed
+     */
+    public long simpleQueryForLong(SQLiteDatabase database, String query, String[] args) {
+        synchronized (statements) {
+            try {
+                SQLiteStatement statement = getStatement(database, query);
+                statement.clearBindings();
+                for (int i = 0; args != null && i < args.length; i++) {
+                    if (args[i] == null) {
+                        statement.bindNull(i + 1);
+                    } else {
+                        statement.bindString(i + 1, args[i]);
+                    }
+                }
+                return statement.simpleQueryForLong();
+            } catch (Exception e) {
+                Timber.e(e);
+                // compiled again on the next run
+                close(statements.remove(query));
+                return -1;
+            }
+        }
+    }
+
+    private SQLiteStatement getStatement(SQLiteDatabase database, String query) {
+        if (database != statementsDatabase || !database.isOpen()) {
+            clearStatements();
+            statementsDatabase = database;
+        }
+
+        SQLiteStatement statement = statements.get(query);
+        if (statement != null) {
+            statementHits++;
+            return statement;
+        }
+
+        statementMisses++;
+        statement = database.compileStatement(query);
+        statements.put(query, statement);
+        return statement;
+    }
+
+    /**
+     * Drops the cached queries and closes the compiled statements e.g. when the database is closed on logout
+     */
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+        synchronized (statements) {
+            clearStatements();
+            statementsDatabase = null;
+        }
+    }
+
+    private void clearStatements() {
+        for (SQLiteStatement statement : statements.values()) {
+            close(statement);
+        }
+        statements.clear();
+    }
+
+    private static void close(SQLiteStatement statement) {
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.close();
+        } catch (Exception e) {
+            Timber.e(e);
+        }
+    }
+
+    public int getQueryHits() {
+        synchronized (queries) {
+            return queryHits;
+        }
+    }
+
+    public int getQueryMisses() {
+        synchronized (queries) {
+            return queryMisses;
+        }
+    }
+
+    public int getStatementHits() {
+        synchronized (statements) {
+            return statementHits;
+        }
+    }
+
+    public int getStatementMisses() {
+        synchronized (statements) {
+            return statementMisses;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.smartregister.family.util;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.apache.commons.lang3.StringUtils;
+import org.smartregister.domain.UniqueId;
+import org.smartregister.repository.AllSharedPreferences;
+import org.smartregister.repository.UniqueIdRepository;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import timber.log.Timber;
+
+/**
+ * Keeps a batch of unique ids reserved in memory so a registration form can open without waiting on the database.
+ * <p>
+ * Ids are reserved by closing them in the {@link UniqueIdRepository} so no other caller of
+ * {@link UniqueIdRepository#getNextUniqueId()} gets them, and the pool is topped up in the background when it
+ * drops to the low watermark. A leased id is either completed when the registration is saved or released back to
+ * the pool when the form is cancelled. The reserved ids are also kept in the shared preferences so that the ones
+ * still held when the app stops are opened again the next time the pool is created.
+ */
+public class UniqueIdLeasePool {
+
+    public static final int DEFAULT_BATCH_SIZE = 10;
+    public static final int DEFAULT_LOW_WATERMARK = 3;
+
+    private static final String RESERVED_IDS = "family_reserved_unique_ids";
+    private static final String SEPARATOR = ",";
+
+    private final UniqueIdRepository uniqueIdRepository;
+    private final AllSharedPreferences allSharedPreferences;
+    private final Executor executor;
+    private final int batchSize;
+    private final int lowWatermark;
+
+    private final Deque<String> available = new ArrayDeque<>();
+    // leased ids keyed without dashes, the form saves the id without them
+    private final Map<String, String> leased = new HashMap<>();
+    // held from getting the next open id until it is closed, so two refills never reserve the same id
+    private final Object reserveLock = new Object();
+    private boolean refilling;
+
+    public UniqueIdLeasePool(UniqueIdRepository uniqueIdRepository, AllSharedPreferences allSharedPreferences) {
+        this(uniqueIdRepository, allSharedPreferences, Executors.newSingleThreadExecutor(), DEFAULT_BATCH_SIZE, DEFAULT_LOW_WATERMARK);
+    }
+
+    @VisibleForTesting
+    UniqueIdLeasePool(UniqueIdRepository uniqueIdRepository, AllSharedPreferences allSharedPreferences, Executor executor,
+                      int batchSize, int lowWatermark) {
+        this.uniqueIdRepository = uniqueIdRepository;
+        this.allSharedPreferences = allSharedPreferences;
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.lowWatermark = Math.max(0, Math.min(lowWatermark, this.batchSize - 1));
+
+        refilling = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                openAbandonedIds();
+                refill();
+                onRefilled();
+            }
+        });
+    }
+
+    /**
+     * @return a reserved id right away or null when the pool is empty, in which case a refill is started
+     */
+    @Nullable
+    public synchronized String lease() {
+        String uniqueId = available.poll();
+        if (uniqueId != null) {
+            leased.put(normalize(uniqueId), uniqueId);
+        }
+        scheduleRefillIfLow();
+        return uniqueId;
+    }
+
+    /**
+     * Like {@link #lease()} but reserves a batch on the calling thread when the pool is empty.
+     * Must not be called on the main thread.
+     */
+    @Nullable
+    public String leaseOrReserve() {
+        String uniqueId = lease();
+        if (uniqueId == null) {
+            refill();
+            uniqueId = lease();
+        }
+        return uniqueId;
+    }
+
+    /**
+     * Puts a leased id back at the head of the pool, e.g. when its form was cancelled
+     */
+    public synchronized void release(String uniqueId) {
+        String leasedId = uniqueId == null ? null : leased.remove(normalize(uniqueId));
+        if (leasedId != null) {
+            available.addFirst(leasedId);
+        }
+    }
+
+    /**
+     * Drops a leased id from the pool once the registration using it has been saved
+     */
+    public synchronized void complete(String uniqueId) {
+        if (uniqueId != null && leased.remove(normalize(uniqueId)) != null) {
+            saveReservedIds();
+        }
+    }
+
+    public synchronized int getAvailableCount() {
+        return available.size();
+    }
+
+    public synchronized int getLeasedCount() {
+        return leased.size();
+    }
+
+    private void scheduleRefillIfLow() {
+        if (refilling || available.size() > lowWatermark) {
+            return;
+        }
+        refilling = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                refill();
+                onRefilled();
+            }
+        });
+    }
+
+    private synchronized void onRefilled() {
+        refilling = false;
+    }
+
+    /**
+     * Reserves ids until the pool holds a full batch, one refill at a time whichever thread it runs on
+     */
+    @VisibleForTesting
+    void refill() {
+        synchronized (reserveLock) {
+            try {
+                while (true) {
+                    synchronized (this) {
+                        if (available.size() >= batchSize) {
+                            break;
+                        }
+                    }
+                    UniqueId uniqueId = uniqueIdRepository.getNextUniqueId();
+                    if (uniqueId == null || StringUtils.isBlank(uniqueId.getOpenmrsId())) {
+                        break;
+                    }
+                    uniqueIdRepository.close(uniqueId.getOpenmrsId());
+                    synchronized (this) {
+                        available.add(uniqueId.getOpenmrsId());
+                        saveReservedIds();
+                    }
+                }
+            } catch (Exception e) {
+                Timber.e(e);
+            }
+        }
+    }
+
+    /**
+     * Opens the ids that were reserved by a previous run and never used
+     */
+    private void openAbandonedIds() {
+        if (allSharedPreferences == null) {
+            return;
+        }
+        try {
+            String reservedIds = allSharedPreferences.getPreference(RESERVED_IDS);
+            if (StringUtils.isBlank(reservedIds)) {
+                return;
+            }
+            for (String uniqueId : reservedIds.split(SEPARATOR)) {
+                if (StringUtils.isNotBlank(uniqueId)) {
+                    uniqueIdRepository.open(uniqueId);
+                }
+            }
+            allSharedPreferences.savePreference(RESERVED_IDS, "");
+        } catch (Exception e) {
+            Timber.e(e);
+        }
+    }
+
+    private void saveReservedIds() {
+        if (allSharedPreferences == null) {
+            return;
+        }
+        Set<String> reservedIds = new LinkedHashSet<>(available);
+        reservedIds.addAll(leased.values());
+        allSharedPreferences.savePreference(RESERVED_IDS, StringUtils.join(reservedIds, SEPARATOR));
+    }
+
+    private static String normalize(String uniqueId) {
+        return uniqueId.replace("-", "");
+    }
+}
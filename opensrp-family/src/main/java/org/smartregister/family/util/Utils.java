@@ -5,11 +5,10 @@ import org.joda.time.DateTime;
 import org.smartregister.Context;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
+import org.smartregister.family.domain.AgeDuration;
 import org.smartregister.family.domain.FamilyMetadata;
-import org.smartregister.util.DateUtil;
 
 import java.util.ArrayList;
-import java.util.Calendar;
 
 import timber.log.Timber;
 
@@ -19,6 +18,8 @@ public class Utils extends org.smartregister.util.Utils {
     public static final String DEFAULT_LOCATION_LEVEL = "Health Facility";
     public static final String FACILITY = "Dispensary";
 
+    private static final AgeCalculator AGE_CALCULATOR = new AgeCalculator();
+
     static {
         ALLOWED_LEVELS = new ArrayList<>();
         ALLOWED_LEVELS.add(DEFAULT_LOCATION_LEVEL);
@@ -61,37 +62,28 @@ public class Utils extends org.smartregister.util.Utils {
         return R.mipmap.ic_child;
     }
 
-    public static String getDuration(String date1, String date2) {
-        try {
-            DateTime dateTime1 = toDateTime(date1);
-            DateTime dateTime2 = toDateTime(date2);
-
-            if (dateTime1 == null || dateTime2 == null) {
-                return "";
-            }
-
-            Calendar calendar1 = Calendar.getInstance();
-            calendar1.setTime(dateTime1.toDate());
-            calendar1.set(Calendar.HOUR_OF_DAY, 0);
-            calendar1.set(Calendar.MINUTE, 0);
-            calendar1.set(Calendar.SECOND, 0);
-            calendar1.set(Calendar.MILLISECOND, 0);
-
-            Calendar calendar2 = Calendar.getInstance();
-            calendar2.setTime(dateTime2.toDate());
-            calendar2.set(Calendar.HOUR_OF_DAY, 0);
-            calendar2.set(Calendar.MINUTE, 0);
-            calendar2.set(Calendar.SECOND, 0);
-            calendar2.set(Calendar.MILLISECOND, 0);
-
-
-            long timeDiff = Math.abs(calendar1.getTimeInMillis() - calendar2.getTimeInMillis());
-            return DateUtil.getDuration(timeDiff);
+    /**
+     * @return the duration from the date to today, e.g. "41y 2m", computed once per date and day
+     */
+    public static String getDuration(String date) {
+        AgeDuration duration = AGE_CALCULATOR.getAge(date);
+        return duration == null ? org.smartregister.util.Utils.getDuration(date) : duration.toString();
+    }
 
-        } catch (Exception e) {
-            Timber.e(e);
+    /**
+     * @return the duration between the dates, or "" when a date is missing or not a valid ISO date
+     */
+    public static String getDuration(String date1, String date2) {
+        if (date2 == null) {
+            // the calculator counts to today without a second date, the age is given by getDuration(String)
+            return "";
         }
-        return "";
+        AgeDuration duration = AGE_CALCULATOR.getDuration(date1, date2);
+        return duration == null ? "" : duration.toString();
+    }
+
+    public static AgeCalculator getAgeCalculator() {
+        return AGE_CALCULATOR;
     }
 
     public static DateTime toDateTime(String date) {
@@ -2,6 +2,8 @@ package org.smartregister.family;
 
 import com.vijay.jsonwizard.activities.JsonWizardFormActivity;
 
+import net.sqlcipher.database.SQLiteDatabase;
+
 import org.robolectric.Robolectric;
 import org.smartregister.Context;
 import org.smartregister.CoreLibrary;
@@ -58,6 +60,7 @@ public class TestApplication extends DrishtiApplication {
     @Override
     public Repository getRepository() {
         repository = mock(Repository.class);
+        when(repository.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
         return repository;
     }
 
@@ -19,9 +19,9 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.contract.FamilyOtherMemberContract;
+import org.smartregister.family.helper.ImageRenderHelper;
 import org.smartregister.family.shadow.ShadowFamilyOtherMemberProfileActivity;
 import org.smartregister.family.util.Utils;
-import org.smartregister.helper.ImageRenderHelper;
 import org.smartregister.service.UserService;
 
 import java.util.ArrayList;
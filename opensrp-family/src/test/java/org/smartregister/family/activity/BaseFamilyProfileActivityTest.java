@@ -29,12 +29,12 @@ import org.smartregister.family.TestDataUtils;
 import org.smartregister.family.adapter.ViewPagerAdapter;
 import org.smartregister.family.contract.FamilyProfileContract;
 import org.smartregister.family.fragment.BaseFamilyProfileMemberFragment;
+import org.smartregister.family.helper.ImageRenderHelper;
 import org.smartregister.family.shadow.FamilyProfileActivityShadow;
 import org.smartregister.family.util.AppExecutors;
 import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.JsonFormUtils;
 import org.smartregister.family.util.Utils;
-import org.smartregister.helper.ImageRenderHelper;
 import org.smartregister.service.UserService;
 
 import java.util.ArrayList;
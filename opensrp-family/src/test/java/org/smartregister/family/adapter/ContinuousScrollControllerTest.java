@@ -0,0 +1,180 @@
+package org.smartregister.family.adapter;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContinuousScrollControllerTest extends BaseUnitTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+    private final List<Cursor> loadedPages = new ArrayList<>();
+    private int lastPageSize = PAGE_SIZE;
+
+    private FamilyRecyclerViewCustomAdapter adapter;
+    private ContinuousScrollController controller;
+    private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
+
+    @Before
+    public void setUp() {
+        adapter = new FamilyRecyclerViewCustomAdapter(null, null, null, true);
+        adapter.setCurrentlimit(PAGE_SIZE);
+        adapter.enableContinuousScroll(3);
+
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        Executor background = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                backgroundTasks.add(command);
+            }
+        };
+        controller = new ContinuousScrollController(adapter, new ContinuousScrollController.PageSource() {
+            @Override
+            public Cursor loadPage(int page, int pageSize) {
+                Cursor cursor = page(page, page == 3 ? lastPageSize : pageSize);
+                loadedPages.add(cursor);
+                return cursor;
+            }
+        }, PAGE_SIZE, 5, new AppExecutors(background, direct, direct));
+
+        recyclerView = mock(RecyclerView.class);
+        layoutManager = mock(LinearLayoutManager.class);
+        when(recyclerView.getLayoutManager()).thenReturn(layoutManager);
+        when(layoutManager.findViewByPosition(anyInt())).thenReturn(mock(View.class));
+    }
+
+    private static Cursor page(int page, int rows) {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"_id", "base_entity_id"});
+        for (int i = 0; i < rows; i++) {
+            cursor.addRow(new Object[]{page * PAGE_SIZE + i, "member-" + (page * PAGE_SIZE + i)});
+        }
+        return cursor;
+    }
+
+    private void scrollDownTo(int lastVisible) {
+        when(layoutManager.findFirstVisibleItemPosition()).thenReturn(lastVisible - 8);
+        when(layoutManager.findLastVisibleItemPosition()).thenReturn(lastVisible);
+        controller.onScrolled(recyclerView, 0, 10);
+        runBackgroundTasks();
+    }
+
+    private void runBackgroundTasks() {
+        while (!backgroundTasks.isEmpty()) {
+            backgroundTasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void testNextPageIsPrefetchedNearTheEndOfTheWindow() {
+        adapter.swapCursor(page(0, PAGE_SIZE));
+        assertEquals(PAGE_SIZE, adapter.getItemCount());
+
+        scrollDownTo(10);
+        assertTrue(loadedPages.isEmpty());
+
+        scrollDownTo(15);
+        assertEquals(2 * PAGE_SIZE, adapter.getItemCount());
+        assertFalse(adapter.isFooter(2 * PAGE_SIZE - 1));
+        assertFalse(controller.isLoading());
+    }
+
+    @Test
+    public void testFarPagesAreDroppedFromTheWindow() {
+        Cursor loaderPage = page(0, PAGE_SIZE);
+        adapter.swapCursor(loaderPage);
+
+        scrollDownTo(15);
+        scrollDownTo(35);
+        scrollDownTo(55);
+
+        PageWindow pageWindow = adapter.getPageWindow();
+        assertEquals(1, pageWindow.getFirstPage());
+        assertEquals(3, pageWindow.getLastPage());
+        assertEquals(3 * PAGE_SIZE, adapter.getItemCount());
+        assertFalse(loaderPage.isClosed());
+        // the first visible row stays in place
+        verify(layoutManager).scrollToPositionWithOffset(55 - 8 - PAGE_SIZE, 0);
+
+        when(layoutManager.findFirstVisibleItemPosition()).thenReturn(3);
+        controller.onScrolled(recyclerView, 0, -10);
+        runBackgroundTasks();
+
+        assertEquals(0, pageWindow.getFirstPage());
+        assertEquals(2, pageWindow.getLastPage());
+        assertTrue(loadedPages.get(2).isClosed());
+    }
+
+    @Test
+    public void testNoPageIsLoadedAfterAShortPage() {
+        lastPageSize = 7;
+        adapter.swapCursor(page(0, PAGE_SIZE));
+        scrollDownTo(15);
+        scrollDownTo(35);
+        scrollDownTo(55);
+        int loads = loadedPages.size();
+
+        scrollDownTo(3 * PAGE_SIZE + 7 - 2);
+
+        assertEquals(loads, loadedPages.size());
+    }
+
+    @Test
+    public void testNoPageIsLoadedAfterAnEmptyPageUntilTheWindowIsReset() {
+        lastPageSize = 0;
+        adapter.swapCursor(page(0, PAGE_SIZE));
+        scrollDownTo(15);
+        scrollDownTo(35);
+        scrollDownTo(55);
+        assertEquals(3, loadedPages.size());
+        assertTrue(loadedPages.get(2).isClosed());
+
+        scrollDownTo(3 * PAGE_SIZE - 1);
+        scrollDownTo(3 * PAGE_SIZE - 1);
+        assertEquals(3, loadedPages.size());
+        assertTrue(adapter.getPageWindow().isEndReached());
+
+        adapter.swapCursor(page(0, PAGE_SIZE));
+        scrollDownTo(15);
+        assertEquals(4, loadedPages.size());
+    }
+
+    @Test
+    public void testPageLoadedBeforeASearchIsDropped() {
+        adapter.swapCursor(page(0, PAGE_SIZE));
+        when(layoutManager.findLastVisibleItemPosition()).thenReturn(15);
+        controller.onScrolled(recyclerView, 0, 10);
+
+        adapter.swapCursor(page(0, 4));
+        runBackgroundTasks();
+
+        assertEquals(4, adapter.getItemCount());
+        assertTrue(loadedPages.get(0).isClosed());
+    }
+}
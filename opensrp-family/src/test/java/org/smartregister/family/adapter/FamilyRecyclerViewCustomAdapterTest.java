@@ -5,15 +5,25 @@ import net.sqlcipher.Cursor;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.powermock.reflect.Whitebox;
 import org.smartregister.family.BaseUnitTest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -54,9 +64,57 @@ public class FamilyRecyclerViewCustomAdapterTest extends BaseUnitTest {
         assertEquals(3, adapter.getItemCount());
     }
 
+    @Test
+    public void testSwapCursorResolvesThePage() {
+        PageDataResolver pageDataResolver = mock(PageDataResolver.class);
+        adapter.addPageDataResolver(pageDataResolver);
+        Cursor page = mock(Cursor.class);
+        when(page.getColumnIndex("base_entity_id")).thenReturn(0);
+        when(page.getPosition()).thenReturn(-1);
+        when(page.moveToNext()).thenReturn(true, true, false);
+        when(page.getString(0)).thenReturn("family-1", "family-2");
+
+        adapter.swapCursor(page);
+
+        verify(pageDataResolver).resolve(Arrays.asList("family-1", "family-2"));
+    }
+
+    @Test
+    public void testPreparedPageIsNotProcessedAgainWhenSwappedIn() {
+        PageDataResolver pageDataResolver = mock(PageDataResolver.class);
+        PageRowsProcessor pageRowsProcessor = mock(PageRowsProcessor.class);
+        adapter.addPageDataResolver(pageDataResolver);
+        adapter.addPageRowsProcessor(pageRowsProcessor);
+        Cursor page = mock(Cursor.class);
+        when(page.getColumnIndex("base_entity_id")).thenReturn(0);
+        when(page.getPosition()).thenReturn(-1);
+        when(page.moveToNext()).thenReturn(true, true, false, true, true, false);
+        when(page.getString(0)).thenReturn("family-1", "family-2");
+
+        adapter.preparePage(page);
+        adapter.swapCursor(page);
+
+        verify(pageDataResolver).resolve(Arrays.asList("family-1", "family-2"));
+        verify(pageRowsProcessor).onPageLoaded(ArgumentMatchers.<Map<String, String>>anyList());
+    }
+
     @Test
     public void testGetItemCountWithPaginationDisabled() {
         Whitebox.setInternalState(adapter, "showPagination", false);
         assertEquals(2, adapter.getItemCount());
     }
+
+    @Test
+    public void testKeysetPageQueryIsOnlyUsedForUnfilteredPages() {
+        adapter.setCurrentlimit(20);
+        String mainSelect = "SELECT * FROM ec_family WHERE date_removed IS NULL";
+
+        List<String> args = new ArrayList<>();
+
+        assertNull(adapter.getKeysetPageQuery(mainSelect, null, "last_interacted_with DESC", "charity", args));
+        assertNull(adapter.getKeysetPageQuery(mainSelect, null, "CASE WHEN dod IS NULL THEN 0 ELSE 1 END", "", args));
+        assertEquals("SELECT * FROM (" + mainSelect + ") ORDER BY last_interacted_with DESC, base_entity_id DESC LIMIT 20",
+                adapter.getKeysetPageQuery(mainSelect, new String[]{"0"}, "last_interacted_with DESC", "", args));
+        assertEquals(Collections.singletonList("0"), args);
+    }
 }
@@ -0,0 +1,207 @@
+package org.smartregister.family.adapter;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class KeysetPaginationTest extends BaseUnitTest {
+
+    private static final String MAIN_SELECT = "SELECT base_entity_id, dob, dod, last_interacted_with FROM ec_family_member WHERE date_removed IS NULL";
+
+    private SQLiteDatabase database;
+
+    @Before
+    public void setUp() {
+        database = SQLiteDatabase.create(null);
+        database.execSQL("CREATE TABLE ec_family_member (base_entity_id VARCHAR, dob VARCHAR, dod VARCHAR, last_interacted_with INTEGER, date_removed VARCHAR)");
+        for (int i = 0; i < 95; i++) {
+            database.execSQL("INSERT INTO ec_family_member VALUES (?, ?, ?, ?, ?)", new Object[]{
+                    "member-" + (i * 37 % 95),
+                    "19" + (50 + i % 7) + "-01-01T03:00:00.000+03:00",
+                    i % 5 == 0 ? "2019-0" + (1 + i % 3) + "-01T03:00:00.000+03:00" : null,
+                    i % 4 == 0 ? null : (long) (i % 9),
+                    i % 19 == 0 ? "2019-01-01" : null});
+        }
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    private List<String> queryIds(String query, List<String> args) {
+        List<String> ids = new ArrayList<>();
+        Cursor cursor = database.rawQuery(query, args.toArray(new String[0]));
+        while (cursor.moveToNext()) {
+            ids.add(cursor.getString(cursor.getColumnIndex("base_entity_id")));
+        }
+        cursor.close();
+        return ids;
+    }
+
+    private List<String> queryIds(String query) {
+        return queryIds(query, new ArrayList<String>());
+    }
+
+    private List<String> pageThrough(KeysetPagination pagination, String mainSelect, String[] selectionArgs, int limit, List<String> queries) {
+        List<String> ids = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<String> args = new ArrayList<>();
+            String query = pagination.getPageQuery(mainSelect, selectionArgs, page, limit, args);
+            queries.add(query);
+            Cursor cursor = database.rawQuery(query, args.toArray(new String[0]));
+            pagination.onPageLoaded(page, cursor);
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(cursor.getColumnIndex("base_entity_id")));
+            }
+            int count = cursor.getCount();
+            cursor.close();
+            if (count < limit) {
+                return ids;
+            }
+        }
+    }
+
+    private static int countSeeked(List<String> queries) {
+        int seeked = 0;
+        for (String query : queries) {
+            if (!query.contains("OFFSET")) {
+                seeked++;
+            }
+        }
+        return seeked;
+    }
+
+    private String explain(String query, List<String> args) {
+        Cursor plan = database.rawQuery("EXPLAIN QUERY PLAN " + query, args.toArray(new String[0]));
+        StringBuilder details = new StringBuilder();
+        while (plan.moveToNext()) {
+            details.append(plan.getString(plan.getColumnCount() - 1)).append('\n');
+        }
+        plan.close();
+        return details.toString();
+    }
+
+    /**
+     * Row values are parsed from SQLite 3.15, as bundled by SQLCipher, the SQLite of the test runtime may be older
+     */
+    private void assumeRowValues() {
+        Cursor cursor = database.rawQuery("SELECT sqlite_version()", null);
+        cursor.moveToFirst();
+        String[] version = cursor.getString(0).split("\\.");
+        cursor.close();
+        int major = Integer.parseInt(version[0]);
+        assumeTrue(major > 3 || (major == 3 && Integer.parseInt(version[1]) >= 15));
+    }
+
+    @Test
+    public void testPagesSeekedOnNullableColumnsFollowTheSortOrder() {
+        assumeRowValues();
+        KeysetPagination pagination = KeysetPagination.forSortQuery("dod, dob ASC ");
+        List<String> queries = new ArrayList<>();
+
+        assertEquals(queryIds(MAIN_SELECT + " ORDER BY dod, dob ASC, base_entity_id"), pageThrough(pagination, MAIN_SELECT, null, 20, queries));
+        // the pages after a row with no date of death are loaded with an offset
+        assertTrue(countSeeked(queries) > 1);
+        assertTrue(countSeeked(queries) < queries.size());
+    }
+
+    @Test
+    public void testPagesSeekedOnDescendingColumnFollowTheSortOrder() {
+        assumeRowValues();
+        KeysetPagination pagination = KeysetPagination.forSortQuery("ec_family_member.last_interacted_with DESC");
+        List<String> queries = new ArrayList<>();
+
+        assertEquals(queryIds(MAIN_SELECT + " ORDER BY last_interacted_with DESC, base_entity_id DESC"), pageThrough(pagination, MAIN_SELECT, null, 7, queries));
+        assertEquals(queries.size(), countSeeked(queries));
+    }
+
+    @Test
+    public void testPagesOfBoundSelectAreSeekedWithItsArguments() {
+        assumeRowValues();
+        String mainSelect = MAIN_SELECT + " AND dob > ?";
+        KeysetPagination pagination = KeysetPagination.forSortQuery("last_interacted_with DESC");
+        List<String> queries = new ArrayList<>();
+
+        List<String> expected = queryIds(mainSelect + " ORDER BY last_interacted_with DESC, base_entity_id DESC", Collections.singletonList("1952"));
+        assertEquals(expected, pageThrough(pagination, mainSelect, new String[]{"1952"}, 7, queries));
+        assertEquals(queries.size(), countSeeked(queries));
+    }
+
+    @Test
+    public void testPagesOfMixedSortAreLoadedWithOffset() {
+        KeysetPagination pagination = KeysetPagination.forSortQuery("dod DESC, dob");
+        List<String> queries = new ArrayList<>();
+
+        assertEquals(queryIds(MAIN_SELECT + " ORDER BY dod DESC, dob, base_entity_id"), pageThrough(pagination, MAIN_SELECT, null, 20, queries));
+        assertEquals(1, countSeeked(queries));
+    }
+
+    @Test
+    public void testPageWithUnknownStartIsLoadedWithOffset() {
+        KeysetPagination pagination = KeysetPagination.forSortQuery("dob");
+        List<String> args = new ArrayList<>();
+
+        String query = pagination.getPageQuery(MAIN_SELECT, null, 3, 20, args);
+
+        assertTrue(query.endsWith("ORDER BY dob ASC, base_entity_id ASC LIMIT 20 OFFSET 60"));
+        assertEquals(queryIds(MAIN_SELECT + " ORDER BY dob, base_entity_id LIMIT 20 OFFSET 60"), queryIds(query, args));
+    }
+
+    @Test
+    public void testSortsOnExpressionsAreNotSeeked() {
+        assertNull(KeysetPagination.forSortQuery("CASE WHEN dod IS NULL THEN 0 ELSE 1 END"));
+        assertNull(KeysetPagination.forSortQuery("first_name COLLATE NOCASE"));
+        assertNull(KeysetPagination.forSortQuery(""));
+        assertNotNull(KeysetPagination.forSortQuery("first_name desc, last_name"));
+    }
+
+    @Test
+    public void testIndexCoversTheSortColumns() {
+        KeysetPagination pagination = KeysetPagination.forSortQuery("dod, dob ASC");
+        database.execSQL(pagination.getIndexStatement("ec_family_member"));
+
+        String plan = explain(pagination.getPageQuery(MAIN_SELECT, null, 0, 20, new ArrayList<String>()), new ArrayList<String>());
+
+        assertTrue(plan, plan.contains("ec_family_member_dod_dob_base_entity_id_index"));
+    }
+
+    @Test
+    public void testSeekedPagesAreSearchedInTheIndex() {
+        assumeRowValues();
+        for (String sortQuery : new String[]{"dob", "last_interacted_with DESC"}) {
+            KeysetPagination pagination = KeysetPagination.forSortQuery(sortQuery);
+            database.execSQL(pagination.getIndexStatement("ec_family_member"));
+            Cursor cursor = database.rawQuery(pagination.getPageQuery(MAIN_SELECT, null, 0, 20, new ArrayList<String>()), null);
+            pagination.onPageLoaded(0, cursor);
+            cursor.close();
+
+            List<String> args = new ArrayList<>();
+            String query = pagination.getPageQuery(MAIN_SELECT, null, 1, 20, args);
+            String plan = explain(query, args);
+
+            assertFalse(query, query.contains("OFFSET"));
+            assertTrue(plan, plan.contains("SEARCH"));
+            assertFalse(plan, plan.contains("SCAN TABLE") || plan.contains("SCAN ec_family_member"));
+            if (!sortQuery.contains("DESC")) {
+                // a descending page merges the seeked rows with those with no value, sorting at most twice the limit
+                assertFalse(plan, plan.contains("TEMP B-TREE"));
+            }
+        }
+    }
+}
@@ -13,8 +13,12 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.powermock.reflect.Whitebox;
 import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.util.RegisterCounters;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -75,4 +79,25 @@ public class ViewPagerAdapterTest extends BaseUnitTest {
         verify(dataSetObserver).onChanged();
     }
 
+    @Test
+    public void testUpdateCountFromRegisterCounters() {
+        RegisterCounters registerCounters = new RegisterCounters();
+        registerCounters.getCount("ec_family_member", new String[]{"family-1"}, "SELECT COUNT(*)", new RegisterCounters.Counting() {
+            @Override
+            public long count() {
+                return 4;
+            }
+        });
+        viewPagerAdapter = spy(viewPagerAdapter);
+        doReturn(registerCounters).when(viewPagerAdapter).getRegisterCounters();
+        viewPagerAdapter.registerDataSetObserver(dataSetObserver);
+
+        viewPagerAdapter.updateCount(0, "ec_family_member", "family-2");
+        verify(dataSetObserver, never()).onChanged();
+
+        viewPagerAdapter.updateCount(0, "ec_family_member", "family-1");
+        assertEquals("fragment0 (4)", viewPagerAdapter.getPageTitle(0));
+        verify(dataSetObserver).onChanged();
+    }
+
 }
@@ -0,0 +1,47 @@
+package org.smartregister.family.domain;
+
+import org.json.JSONObject;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.util.JsonFormUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParsedFormTest extends BaseUnitTest {
+
+    private static final String FORM = "{\"encounter_type\":\"Family Registration\",\"current_opensrp_id\":\"123-4\"," +
+            "\"step1\":{\"fields\":[{\"key\":\"fam_name\",\"value\":\"Doe\"},{\"key\":\"photo\",\"value\":\"/a.png\"}]}," +
+            "\"step2\":{\"fields\":[{\"key\":\"first_name\",\"value\":\"John\"},{\"key\":\"photo\",\"value\":\"/b.png\"}]}}";
+
+    @Test
+    public void testParseInvalidJsonReturnsNull() {
+        assertNull(ParsedForm.parse(null));
+        assertNull(ParsedForm.parse("not json"));
+        assertNull(ParsedForm.of(null));
+    }
+
+    @Test
+    public void testLookupsMatchJsonFormUtils() {
+        ParsedForm parsedForm = ParsedForm.parse(FORM);
+
+        assertEquals(JsonFormUtils.getString(FORM, JsonFormUtils.CURRENT_OPENSRP_ID), parsedForm.getString(JsonFormUtils.CURRENT_OPENSRP_ID));
+        assertEquals(JsonFormUtils.getFieldValue(FORM, JsonFormUtils.STEP2, "photo"), parsedForm.getFieldValue(JsonFormUtils.STEP2, "photo"));
+        assertEquals(JsonFormUtils.getFieldValue(FORM, "photo"), parsedForm.getFieldValue("photo"));
+        assertEquals("Doe", parsedForm.getFieldValue(JsonFormUtils.STEP1, "fam_name"));
+        assertNull(parsedForm.getFieldValue(JsonFormUtils.STEP1, "first_name"));
+        assertNull(parsedForm.getFieldValue("step3", "photo"));
+        assertSame(FORM, parsedForm.getJsonString());
+    }
+
+    @Test
+    public void testStepIndexSeesAppendedFields() throws Exception {
+        ParsedForm parsedForm = ParsedForm.parse(FORM);
+        assertNull(parsedForm.getField(JsonFormUtils.STEP1, "village_town"));
+
+        parsedForm.fields(JsonFormUtils.STEP1).put(new JSONObject("{\"key\":\"village_town\",\"value\":\"Lusaka\"}"));
+
+        assertEquals("Lusaka", parsedForm.getFieldValue(JsonFormUtils.STEP1, "village_town"));
+    }
+}
@@ -13,6 +13,7 @@ import org.powermock.reflect.Whitebox;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.smartregister.commonregistry.CommonPersonObjectClient;
 import org.smartregister.family.R;
 import org.smartregister.family.TestApplication;
 import org.smartregister.family.contract.FamilyProfileMemberContract;
@@ -20,6 +21,9 @@ import org.smartregister.family.presenter.BaseFamilyProfileMemberPresenter;
 import org.smartregister.family.shadow.BaseFamilyProfileMemberFragmentShadow;
 import org.smartregister.family.shadow.CustomFontTextViewShadow;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.GlobalSearchCursor;
+
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -78,6 +82,19 @@ public class BaseFamilyProfileMemberFragmentTest {
         assertEquals(primaryCareGiver, familyProfileMemberPresenter.getPrimaryCaregiver());
     }
 
+    @Test
+    public void onViewClickedSyncsAMemberFoundByTheGlobalSearch() {
+        doNothing().when(familyProfileMemberPresenter).startSync();
+        CommonPersonObjectClient member = new CommonPersonObjectClient("member-1", null, "");
+        member.setColumnmaps(Collections.singletonMap(GlobalSearchCursor.GLOBAL_SEARCH_RESULT, "true"));
+        android.view.View view = Mockito.mock(android.view.View.class);
+        Mockito.when(view.getTag()).thenReturn(member);
+
+        familyProfileMemberFragment.onViewClicked(view);
+
+        Mockito.verify(familyProfileMemberPresenter).startSync();
+    }
+
     @Test
     public void presenter() {
         assertNotNull(familyProfileMemberFragment.presenter());
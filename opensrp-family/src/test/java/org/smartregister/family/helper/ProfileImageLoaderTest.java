@@ -0,0 +1,109 @@
+package org.smartregister.family.helper;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.widget.ImageView;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.R;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ProfileImageLoaderTest extends BaseUnitTest {
+
+    private final List<Runnable> mainThreadTasks = new ArrayList<>();
+    private final List<String> lookups = new ArrayList<>();
+
+    private ProfileImageLoader loader;
+
+    private ImageView imageView;
+
+    @Before
+    public void setUp() {
+        imageView = new ImageView(RuntimeEnvironment.application);
+        loader = new ProfileImageLoader(MoreExecutors.newDirectExecutorService(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mainThreadTasks.add(command);
+            }
+        }, 1024) {
+            @Override
+            protected String getPhotoFilePath(String entityId) {
+                lookups.add(entityId);
+                return "/photos/" + entityId + ".JPEG";
+            }
+
+            @Override
+            protected Bitmap decode(String filePath, int targetWidth, int targetHeight) {
+                return Bitmap.createBitmap(targetWidth / 8, targetHeight / 8, Bitmap.Config.ARGB_8888);
+            }
+        };
+    }
+
+    private Bitmap shownBitmap() {
+        return ((BitmapDrawable) imageView.getDrawable()).getBitmap();
+    }
+
+    private void runMainThreadTasks() {
+        while (!mainThreadTasks.isEmpty()) {
+            mainThreadTasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void testLoadedPhotoIsCached() {
+        loader.load("member-1", imageView, R.mipmap.ic_member);
+        runMainThreadTasks();
+        Bitmap first = shownBitmap();
+
+        loader.load("member-1", imageView, R.mipmap.ic_member);
+
+        assertSame(first, shownBitmap());
+        assertEquals(1, lookups.size());
+    }
+
+    @Test
+    public void testPhotoIsNotShownOnViewReusedForAnotherEntity() {
+        loader.load("member-1", imageView, R.mipmap.ic_member);
+        Runnable staleResult = mainThreadTasks.remove(0);
+        loader.load("member-2", imageView, R.mipmap.ic_member);
+        runMainThreadTasks();
+        Bitmap second = shownBitmap();
+
+        staleResult.run();
+
+        assertSame(second, shownBitmap());
+        assertEquals("member-2", imageView.getTag(org.smartregister.R.id.entity_id));
+    }
+
+    @Test
+    public void testInvalidateReloadsThePhoto() {
+        loader.load("member-1", imageView, R.mipmap.ic_member);
+        runMainThreadTasks();
+        Bitmap first = shownBitmap();
+
+        loader.invalidate("member-1");
+        loader.load("member-1", imageView, R.mipmap.ic_member);
+        runMainThreadTasks();
+
+        assertNotSame(first, shownBitmap());
+        assertEquals(2, lookups.size());
+    }
+
+    @Test
+    public void testSampleSizeKeepsImageAtLeastTargetSize() {
+        assertEquals(1, ProfileImageLoader.getSampleSize(100, 100, 96, 96));
+        assertEquals(4, ProfileImageLoader.getSampleSize(3000, 4000, 512, 512));
+    }
+}
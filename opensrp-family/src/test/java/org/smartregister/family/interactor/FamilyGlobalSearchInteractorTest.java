@@ -0,0 +1,189 @@
+package org.smartregister.family.interactor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.util.AppExecutors;
+import org.smartregister.family.util.GlobalSearchCache;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Searches a local stand-in of the search endpoint of the server
+ */
+public class FamilyGlobalSearchInteractorTest extends BaseUnitTest {
+
+    private static final int ASYNC_TIMEOUT = 5;
+
+    private HttpServer server;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<String>());
+
+    private final CountDownLatch respond = new CountDownLatch(1);
+
+    private FamilyGlobalSearchInteractor interactor;
+
+    private final GlobalSearchCache globalSearchCache = new GlobalSearchCache();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(FamilyGlobalSearchInteractor.SEARCH_URL, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                queries.add(exchange.getRequestURI().getQuery());
+                try {
+                    respond.await(ASYNC_TIMEOUT, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = getClients(45).getBytes(Charset.forName("UTF-8"));
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(body);
+                outputStream.close();
+            }
+        });
+        server.start();
+
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        final String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        interactor = new FamilyGlobalSearchInteractor(new AppExecutors(direct, Executors.newSingleThreadExecutor(), direct)) {
+            @Override
+            protected String getBaseUrl() {
+                return baseUrl;
+            }
+
+            @Override
+            protected Reader openReader(String url) throws IOException {
+                HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+                return new InputStreamReader(connection.getInputStream(), "UTF-8");
+            }
+
+            @Override
+            protected GlobalSearchCache getGlobalSearchCache() {
+                return globalSearchCache;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testClientsAreHandedOverInBatchesAndKept() throws Exception {
+        respond.countDown();
+        CollectingCallback callback = new CollectingCallback(45);
+
+        interactor.search("100-4", callback);
+
+        assertTrue(callback.done.await(ASYNC_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(20, 40, 45), callback.sizes);
+        assertEquals("identifier=100-4", queries.get(0));
+        assertEquals("client-44", callback.clients.get(44).getString("baseEntityId"));
+
+        CollectingCallback cachedCallback = new CollectingCallback(45);
+        interactor.search(" 100-4", cachedCallback);
+
+        assertTrue(cachedCallback.done.await(ASYNC_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testSameTextIsSearchedOnce() throws InterruptedException {
+        CollectingCallback first = new CollectingCallback(45);
+        CollectingCallback second = new CollectingCallback(45);
+
+        interactor.search("Ochieng", first);
+        interactor.search("ochieng ", second);
+        respond.countDown();
+
+        assertTrue(second.done.await(ASYNC_TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+        assertEquals("name=Ochieng", queries.get(0));
+        assertTrue(first.sizes.isEmpty());
+    }
+
+    @Test
+    public void testAnotherTextCancelsTheSearchInFlight() throws InterruptedException {
+        CollectingCallback first = new CollectingCallback(45);
+        CollectingCallback second = new CollectingCallback(45);
+
+        interactor.search("Achieng", first);
+        interactor.search("Achieng Otieno", second);
+        respond.countDown();
+
+        assertTrue(second.done.await(ASYNC_TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(first.sizes.isEmpty());
+        assertEquals(Arrays.asList(20, 40, 45), second.sizes);
+        assertNull(globalSearchCache.get("Achieng"));
+    }
+
+    private static String getClients(int count) {
+        StringBuilder clients = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                clients.append(',');
+            }
+            clients.append("{\"baseEntityId\":\"client-").append(i).append("\",\"firstName\":\"Achieng\",\"identifiers\":{\"opensrp_id\":\"100-").append(i).append("\"}}");
+        }
+        return clients.append(']').toString();
+    }
+
+    private static class CollectingCallback implements FamilyGlobalSearchInteractor.Callback {
+        private final int expected;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final List<Integer> sizes = Collections.synchronizedList(new ArrayList<Integer>());
+        private volatile List<JSONObject> clients;
+
+        private CollectingCallback(int expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public void onClientsFound(String query, List<JSONObject> clients) {
+            sizes.add(clients.size());
+            this.clients = clients;
+            if (clients.size() == expected) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.smartregister.family.interactor;
+
+import net.sqlcipher.Cursor;
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.smartregister.family.TestApplication;
+import org.smartregister.family.contract.FamilyImportContract;
+import org.smartregister.family.contract.FamilyRegisterContract;
+import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.FamilyImportReport;
+import org.smartregister.family.domain.ParsedForm;
+import org.smartregister.family.util.AppExecutors;
+import org.smartregister.repository.AllSharedPreferences;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class)
+public class FamilyImportInteractorTest {
+
+    private final int ASYNC_TIMEOUT = 2000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private FamilyRegisterContract.Model model;
+
+    @Mock
+    private AllSharedPreferences allSharedPreferences;
+
+    @Mock
+    private SQLiteDatabase database;
+
+    @Mock
+    private FamilyImportContract.InteractorCallBack callBack;
+
+    private FamilyRegisterInteractor registerInteractor;
+
+    private FamilyImportInteractor importInteractor;
+
+    private final Map<String, String> preferences = new HashMap<>();
+
+    private final Map<String, Long> checkpoints = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        AppExecutors appExecutors = new AppExecutors(Executors.newSingleThreadExecutor(),
+                Executors.newSingleThreadExecutor(), Executors.newSingleThreadExecutor());
+
+        registerInteractor = Mockito.spy(new FamilyRegisterInteractor(appExecutors));
+        doReturn(database).when(registerInteractor).getWritableDatabase();
+        doReturn(allSharedPreferences).when(registerInteractor).getAllSharedPreferences();
+        doReturn(new ArrayList<>()).when(registerInteractor).saveEventClients(anyList(), any(ParsedForm.class), anyBoolean(), anyList(), anyList());
+        doNothing().when(registerInteractor).processClient(anyList());
+        doAnswer(invocation -> preferences.get(invocation.getArgument(0))).when(allSharedPreferences).getPreference(anyString());
+        doAnswer(invocation -> preferences.put(invocation.getArgument(0), invocation.getArgument(1))).when(allSharedPreferences).savePreference(anyString(), anyString());
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArgument(1);
+            return checkpoints.put((String) args[0], (Long) args[1]);
+        }).when(database).execSQL(eq(FamilyImportInteractor.SAVE_CHECKPOINT), any(Object[].class));
+        doAnswer(invocation -> checkpointCursor(checkpoints.get(((String[]) invocation.getArgument(1))[0])))
+                .when(database).rawQuery(anyString(), any(String[].class));
+
+        List<FamilyEventClient> household = Collections.singletonList(Mockito.mock(FamilyEventClient.class));
+        doReturn(household).when(model).processRegistration(any(ParsedForm.class));
+
+        importInteractor = new FamilyImportInteractor(appExecutors, model, registerInteractor);
+    }
+
+    private Cursor checkpointCursor(Long lineNumber) {
+        Cursor cursor = Mockito.mock(Cursor.class);
+        doReturn(lineNumber != null).when(cursor).moveToFirst();
+        doReturn(lineNumber == null ? 0L : lineNumber).when(cursor).getLong(0);
+        return cursor;
+    }
+
+    private String checkpointKey(File file) {
+        return "family_import_checkpoint:" + file.getName() + ":" + file.length();
+    }
+
+    private File writeFile(String... lines) throws Exception {
+        File file = temporaryFolder.newFile("households.ndjson");
+        FileWriter writer = new FileWriter(file);
+        for (String line : lines) {
+            writer.write(line);
+            writer.write("\n");
+        }
+        writer.close();
+        return file;
+    }
+
+    @Test
+    public void testImportHouseholdsCommitsInBatchesAndSkipsInvalidLines() throws Exception {
+        File file = writeFile("{\"step1\":{}}", "not json", "", "{\"step1\":{}}", "{\"step1\":{}}");
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        ArgumentCaptor<FamilyImportReport> reportCaptor = ArgumentCaptor.forClass(FamilyImportReport.class);
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(reportCaptor.capture());
+        FamilyImportReport report = reportCaptor.getValue();
+
+        assertTrue(report.isCompleted());
+        assertEquals(3, report.getHouseholdsImported());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals(Long.valueOf(2), report.getSkippedLines().get(0));
+        assertEquals(2, report.getBatchesCommitted());
+        assertEquals(5, report.getLinesRead());
+
+        verify(database, times(2)).beginTransaction();
+        verify(database, times(2)).setTransactionSuccessful();
+        verify(database, times(2)).endTransaction();
+        verify(callBack, timeout(ASYNC_TIMEOUT).times(2)).onImportProgress(any(FamilyImportReport.class));
+    }
+
+    @Test
+    public void testImportHouseholdsResumesFromCheckpoint() throws Exception {
+        File file = writeFile("{\"step1\":{}}", "{\"step1\":{}}", "{\"step1\":{}}");
+        importInteractor.importHouseholds(file, 2, callBack);
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(any(FamilyImportReport.class));
+
+        Mockito.reset(callBack);
+        FileWriter writer = new FileWriter(file, true);
+        writer.write("{\"step1\":{}}\n");
+        writer.close();
+        checkpoints.put(checkpointKey(file), 3L);
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        ArgumentCaptor<FamilyImportReport> reportCaptor = ArgumentCaptor.forClass(FamilyImportReport.class);
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(reportCaptor.capture());
+        assertEquals(3, reportCaptor.getValue().getResumedFromLine());
+        assertEquals(1, reportCaptor.getValue().getHouseholdsImported());
+    }
+
+    @Test
+    public void testFailedBatchIsRolledBackAndNotCheckpointed() throws Exception {
+        File file = writeFile("{\"step1\":{}}", "{\"step1\":{}}");
+        doThrow(new IllegalStateException("disk full")).when(registerInteractor).saveEventClients(anyList(), any(ParsedForm.class), anyBoolean(), anyList(), anyList());
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        ArgumentCaptor<FamilyImportReport> reportCaptor = ArgumentCaptor.forClass(FamilyImportReport.class);
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(reportCaptor.capture());
+        assertFalse(reportCaptor.getValue().isCompleted());
+        assertEquals("disk full", reportCaptor.getValue().getError());
+        assertEquals(0, reportCaptor.getValue().getHouseholdsImported());
+        verify(database).endTransaction();
+        verify(database, times(0)).setTransactionSuccessful();
+        assertTrue(checkpoints.isEmpty());
+    }
+
+    @Test
+    public void testFailedProcessingFailsTheBatchAndIsRetriedOnResume() throws Exception {
+        File file = writeFile("{\"step1\":{}}", "{\"step1\":{}}");
+        doThrow(new IllegalStateException("processing failed")).when(registerInteractor).processClient(anyList());
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        ArgumentCaptor<FamilyImportReport> reportCaptor = ArgumentCaptor.forClass(FamilyImportReport.class);
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(reportCaptor.capture());
+        assertFalse(reportCaptor.getValue().isCompleted());
+        assertEquals(0, reportCaptor.getValue().getHouseholdsImported());
+        verify(database, times(0)).setTransactionSuccessful();
+        assertTrue(checkpoints.isEmpty());
+
+        Mockito.reset(callBack);
+        doNothing().when(registerInteractor).processClient(anyList());
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(reportCaptor.capture());
+        assertEquals(0, reportCaptor.getValue().getResumedFromLine());
+        assertEquals(2, reportCaptor.getValue().getHouseholdsImported());
+    }
+
+    @Test
+    public void testCheckpointIsSavedInTheTransactionOfTheBatch() throws Exception {
+        File file = writeFile("{\"step1\":{}}", "{\"step1\":{}}", "{\"step1\":{}}");
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(any(FamilyImportReport.class));
+        InOrder inOrder = Mockito.inOrder(database);
+        for (Object[] checkpoint : new Object[][]{{checkpointKey(file), 2L}, {checkpointKey(file), 3L}}) {
+            inOrder.verify(database).beginTransaction();
+            inOrder.verify(database).execSQL(FamilyImportInteractor.SAVE_CHECKPOINT, checkpoint);
+            inOrder.verify(database).setTransactionSuccessful();
+            inOrder.verify(database).endTransaction();
+        }
+        assertEquals(Long.valueOf(3), checkpoints.get(checkpointKey(file)));
+    }
+
+    @Test
+    public void testCheckpointOfAnEarlierVersionIsResumed() throws Exception {
+        File file = writeFile("{\"step1\":{}}", "{\"step1\":{}}", "{\"step1\":{}}");
+        preferences.put(checkpointKey(file), "2");
+
+        importInteractor.importHouseholds(file, 2, callBack);
+
+        ArgumentCaptor<FamilyImportReport> reportCaptor = ArgumentCaptor.forClass(FamilyImportReport.class);
+        verify(callBack, timeout(ASYNC_TIMEOUT)).onImportComplete(reportCaptor.capture());
+        assertEquals(2, reportCaptor.getValue().getResumedFromLine());
+        assertEquals(1, reportCaptor.getValue().getHouseholdsImported());
+    }
+
+    @Test
+    public void testResetCheckpointImportsTheFileAgain() throws Exception {
+        File file = writeFile("{\"step1\":{}}");
+        checkpoints.put(checkpointKey(file), 1L);
+
+        importInteractor.resetCheckpoint(file);
+
+        assertEquals(Long.valueOf(0), checkpoints.get(checkpointKey(file)));
+    }
+}
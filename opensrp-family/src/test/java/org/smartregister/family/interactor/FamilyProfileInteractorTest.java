@@ -1,5 +1,7 @@
 package org.smartregister.family.interactor;
 
+import net.sqlcipher.database.SQLiteDatabase;
+
 import org.apache.commons.lang3.tuple.Triple;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -8,6 +10,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -37,6 +40,9 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -134,6 +140,22 @@ public class FamilyProfileInteractorTest extends BaseUnitTest {
         verify(familyProfileCallback, timeout(ASYNC_TIMEOUT)).onRegistrationSaved(false, true, familyEventClient);
     }
 
+    @Test
+    public void testSaveRegistrationRunsInSingleTransaction() {
+        SQLiteDatabase database = mock(SQLiteDatabase.class);
+        FamilyProfileInteractor interactor = spy(new FamilyProfileInteractor(appExecutors));
+        doReturn(database).when(interactor).getWritableDatabase();
+        FamilyEventClient familyEventClient = new FamilyEventClient(client, event);
+
+        interactor.saveRegistration(familyEventClient, TestDataUtils.FILLED_FAMILY_FORM, false, familyProfileCallback);
+
+        verify(familyProfileCallback, timeout(ASYNC_TIMEOUT)).onRegistrationSaved(false, true, familyEventClient);
+        InOrder inOrder = inOrder(database);
+        inOrder.verify(database).beginTransaction();
+        inOrder.verify(database).setTransactionSuccessful();
+        inOrder.verify(database).endTransaction();
+    }
+
     @Test
     public void testSaveRegistrationEditMode() throws JSONException {
         Whitebox.setInternalState(FamilyLibrary.getInstance(), "syncHelper", ecSyncHelper);
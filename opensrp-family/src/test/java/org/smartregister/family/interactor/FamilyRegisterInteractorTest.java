@@ -1,22 +1,32 @@
 package org.smartregister.family.interactor;
 
+import net.sqlcipher.database.SQLiteDatabase;
+
 import org.apache.commons.lang3.tuple.Triple;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.smartregister.domain.db.EventClient;
 import org.smartregister.family.TestApplication;
 import org.smartregister.family.contract.FamilyRegisterContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.family.util.AppExecutors;
+import org.smartregister.family.util.ImagePersistenceQueue;
+import org.smartregister.repository.AllSharedPreferences;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.timeout;
 
@@ -117,4 +127,44 @@ public class FamilyRegisterInteractorTest {
         Mockito.verify(callBack, timeout(ASYNC_TIMEOUT)).onRegistrationSaved(eq(false), eq(true), eq(familyEventClients));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSaveRegistrationRollsBackWhenProcessingFails() throws Exception {
+        AppExecutors appExecutors = new AppExecutors(Executors.newSingleThreadExecutor(),
+                Executors.newSingleThreadExecutor(), Executors.newSingleThreadExecutor());
+        FamilyRegisterInteractor interactor = Mockito.spy(new FamilyRegisterInteractor(appExecutors));
+        SQLiteDatabase database = Mockito.mock(SQLiteDatabase.class);
+        Mockito.doReturn(database).when(interactor).getWritableDatabase();
+        Mockito.doReturn(Mockito.mock(AllSharedPreferences.class)).when(interactor).getAllSharedPreferences();
+        Mockito.doThrow(new IllegalStateException("processing failed")).when(interactor).processClient(ArgumentMatchers.<EventClient>anyList());
+        ArrayList<FamilyEventClient> familyEventClients = new ArrayList<>();
+
+        interactor.saveRegistration(familyEventClients, ParsedForm.parse("{}"), false, callBack);
+
+        Mockito.verify(callBack, timeout(ASYNC_TIMEOUT)).onRegistrationSaved(eq(false), eq(false), eq(familyEventClients));
+        Mockito.verify(database).endTransaction();
+        Mockito.verify(database, Mockito.never()).setTransactionSuccessful();
+    }
+
+    @Test
+    public void testUniqueIdIsOnlyCompletedOnceTheSaveIsCommitted() throws Exception {
+        AppExecutors appExecutors = new AppExecutors(Executors.newSingleThreadExecutor(),
+                Executors.newSingleThreadExecutor(), Executors.newSingleThreadExecutor());
+        FamilyRegisterInteractor interactor = Mockito.spy(new FamilyRegisterInteractor(appExecutors));
+        SQLiteDatabase database = Mockito.mock(SQLiteDatabase.class);
+        Mockito.doReturn(database).when(interactor).getWritableDatabase();
+        Mockito.doReturn(Mockito.mock(AllSharedPreferences.class)).when(interactor).getAllSharedPreferences();
+        Mockito.doAnswer(invocation -> {
+            invocation.<List<String>>getArgument(4).add("1001");
+            return new ArrayList<EventClient>();
+        }).when(interactor).saveEventClients(ArgumentMatchers.<FamilyEventClient>anyList(), any(ParsedForm.class), anyBoolean(),
+                ArgumentMatchers.<ImagePersistenceQueue.PendingImage>anyList(), ArgumentMatchers.<String>anyList());
+        Mockito.doThrow(new IllegalStateException("processing failed")).when(interactor).processClient(ArgumentMatchers.<EventClient>anyList());
+        ArrayList<FamilyEventClient> familyEventClients = new ArrayList<>();
+
+        interactor.saveRegistration(familyEventClients, ParsedForm.parse("{}"), false, callBack);
+
+        Mockito.verify(callBack, timeout(ASYNC_TIMEOUT)).onRegistrationSaved(eq(false), eq(false), eq(familyEventClients));
+        Mockito.verify(interactor, Mockito.never()).completeUniqueIds(ArgumentMatchers.<String>anyList());
+    }
+}
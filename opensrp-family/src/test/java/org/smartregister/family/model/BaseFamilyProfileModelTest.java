@@ -13,6 +13,7 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.TestDataUtils;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.util.JsonFormUtils;
 import org.smartregister.family.util.Utils;
 import org.smartregister.util.FormUtils;
 
@@ -21,9 +22,12 @@ import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -54,7 +58,25 @@ public class BaseFamilyProfileModelTest extends BaseUnitTest {
         when(formUtils.getFormJson(anyString())).thenReturn(form);
         JSONObject results = model.getFormAsJson(Utils.metadata().familyMemberRegister.formName, familyName, "");
         assertNotNull(results);
-        assertEquals(form, results);
+        assertEquals(form.getString(JsonFormUtils.ENCOUNTER_TYPE), results.getString(JsonFormUtils.ENCOUNTER_TYPE));
+    }
+
+    @Test
+    public void testGetFormAsJsonParsesTemplateOnceAndReturnsCopies() throws Exception {
+        String formName = Utils.metadata().familyMemberRegister.formName;
+        JSONObject form = new JSONObject(TestDataUtils.FAMILY_MEMBER_FORM);
+        String template = form.toString();
+        when(formUtils.getFormJson(formName)).thenReturn(form);
+
+        JSONObject first = model.getFormAsJson(formName, "1234", "location-1");
+        JSONObject second = model.getFormAsJson(formName, "5678", "location-2");
+
+        verify(formUtils, times(1)).getFormJson(formName);
+        assertNotSame(first, second);
+        assertNotSame(form, first);
+        assertEquals(template, form.toString());
+        assertEquals("location-2", second.getJSONObject(JsonFormUtils.METADATA).getString(JsonFormUtils.ENCOUNTER_LOCATION));
+        assertEquals("location-1", first.getJSONObject(JsonFormUtils.METADATA).getString(JsonFormUtils.ENCOUNTER_LOCATION));
     }
 
     @Test
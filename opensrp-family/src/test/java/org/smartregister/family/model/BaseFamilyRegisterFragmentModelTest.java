@@ -16,12 +16,14 @@ import org.smartregister.cursoradapter.SmartRegisterQueryBuilder;
 import org.smartregister.domain.Response;
 import org.smartregister.domain.ResponseStatus;
 import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.FamilyLibrary;
 
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -94,6 +96,24 @@ public class BaseFamilyRegisterFragmentModelTest extends BaseUnitTest {
         assertEquals(queryBuilder.mainCondition(filter), model.mainSelect(tableName, filter));
     }
 
+    @Test
+    public void testMainSelectJoinsFamilyHeadNameWhenEnabled() {
+        FamilyLibrary.getInstance().setMetadata(getMetadata());
+        model = new BaseFamilyRegisterFramentModel() {
+            @Override
+            protected boolean isFamilyHeadFirstNameEnabled() {
+                return true;
+            }
+        };
+
+        String query = model.mainSelect("ec_family", "date_removed is null");
+
+        assertTrue(query.contains("family_head_member.family_head_name"));
+        assertTrue(query.contains("LEFT JOIN (SELECT base_entity_id AS family_head_base_entity_id, first_name AS family_head_name FROM FAMILY_MEMBER) family_head_member"
+                + " ON family_head_member.family_head_base_entity_id = ec_family.family_head"));
+        assertTrue(query.indexOf("LEFT JOIN") < query.indexOf("date_removed is null"));
+    }
+
     @Test
     public void testGetFilterText() {
         assertEquals("<font color=#727272></font> <font color=#f0ab41>(0)</font>", model.getFilterText(null, null));
@@ -16,6 +16,7 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyProfileDueContract;
 import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.family.util.QueryCondition;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -80,6 +81,16 @@ public class BaseFamilyProfileDuePresenterTest extends BaseUnitTest {
         Assert.assertEquals(presenter.getMainCondition().trim(), "object_relational_id = 'familyBaseEntityId' and date_removed is null");
     }
 
+    @Test
+    public void testQueryConditionWithoutAFamilyBindsNothing() {
+        presenter = new BaseFamilyProfileDuePresenter(view, model, viewConfigurationIdentifier, null);
+
+        QueryCondition queryCondition = presenter.getQueryCondition();
+
+        Assert.assertEquals(0, queryCondition.getArgs().length);
+        Assert.assertEquals("object_relational_id = 'null' and date_removed is null", queryCondition.getCondition().trim());
+    }
+
     @Test
     public void testGetDefaultSortQuery() {
         Assert.assertEquals(presenter.getDefaultSortQuery().trim(), "dod, dob ASC");
@@ -1,5 +1,6 @@
 package org.smartregister.family.presenter;
 
+import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -15,6 +16,12 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyProfileMemberContract;
 import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.family.interactor.FamilyGlobalSearchInteractor;
+import org.smartregister.family.util.Utils;
+import org.smartregister.job.SyncServiceJob;
+
+import java.util.Arrays;
+import java.util.Collections;
 
 public class BaseFamilyProfileMemberPresenterTest extends BaseUnitTest {
 
@@ -74,6 +81,62 @@ public class BaseFamilyProfileMemberPresenterTest extends BaseUnitTest {
         Mockito.verify(view).filterandSortInInitializeQueries();
     }
 
+    @Test
+    public void testInitializeQueriesPassesTheBoundCondition() {
+        presenter = Mockito.spy(presenter);
+        Mockito.doReturn("ec_family_member").when(presenter).getQueryTable();
+        String boundCondition = " object_relational_id = ? and date_removed is null ";
+        Mockito.doReturn("count select").when(model).countSelect("ec_family_member", boundCondition);
+        Mockito.doReturn("main select").when(model).mainSelect("ec_family_member", boundCondition);
+
+        presenter.initializeQueries(presenter.getMainCondition());
+
+        Mockito.verify(view).initializeBoundQueryParams("count select", "main select", new String[]{familyBaseEntityId});
+    }
+
+    @Test
+    public void testInitializeQueriesWithAnotherConditionIsNotBound() {
+        presenter = Mockito.spy(presenter);
+        Mockito.doReturn("ec_family_member").when(presenter).getQueryTable();
+
+        presenter.initializeQueries(" date_removed is null ");
+
+        Mockito.verify(view).initializeBoundQueryParams(null, null, null);
+    }
+
+    @Test
+    public void testOnClientsFoundShowsTheMembersOfTheFamily() throws Exception {
+        Whitebox.setInternalState(Utils.metadata(), "familyMemberRegister", getMetadata().familyMemberRegister);
+        JSONObject member = new JSONObject("{\"baseEntityId\":\"member-1\",\"relationships\":{\"FAMILY\":[\"familyBaseEntityId\"]}}");
+        JSONObject otherMember = new JSONObject("{\"baseEntityId\":\"member-2\",\"relationships\":{\"FAMILY\":[\"otherFamily\"]}}");
+        JSONObject family = new JSONObject("{\"baseEntityId\":\"familyBaseEntityId\"}");
+
+        presenter.onClientsFound("Achieng", Arrays.asList(member, otherMember, family));
+
+        Mockito.verify(view).showGlobalSearchResults("Achieng", Collections.singletonList(member));
+    }
+
+    @Test
+    public void testSearchGloballyUsesTheGlobalSearch() {
+        FamilyGlobalSearchInteractor interactor = Mockito.mock(FamilyGlobalSearchInteractor.class);
+        presenter.setGlobalSearchInteractor(interactor);
+
+        presenter.searchGlobally("100-4");
+
+        Mockito.verify(interactor).search("100-4", presenter);
+    }
+
+    @Test
+    public void testStartSyncRunsTheSyncJobOfTheApp() {
+        Assert.assertEquals(SyncServiceJob.TAG, presenter.getSyncJobTag());
+        Utils.metadata().setSyncJobTag("app_sync");
+        try {
+            Assert.assertEquals("app_sync", presenter.getSyncJobTag());
+        } finally {
+            Utils.metadata().setSyncJobTag(SyncServiceJob.TAG);
+        }
+    }
+
     @Test
     public void testGetMainCondition() {
         String values = presenter.getMainCondition();
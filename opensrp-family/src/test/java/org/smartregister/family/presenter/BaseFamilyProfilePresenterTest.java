@@ -20,6 +20,7 @@ import org.smartregister.family.R;
 import org.smartregister.family.activity.BaseFamilyProfileActivity;
 import org.smartregister.family.contract.FamilyProfileContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 
 public class BaseFamilyProfilePresenterTest extends BaseUnitTest {
 
@@ -128,22 +129,22 @@ public class BaseFamilyProfilePresenterTest extends BaseUnitTest {
 
         String jsonString = "{}";
         FamilyEventClient familyEventClient = Mockito.mock(FamilyEventClient.class);
-        Mockito.doReturn(familyEventClient).when(model).processMemberRegistration(jsonString, familyBaseEntityId);
+        Mockito.doReturn(familyEventClient).when(model).processMemberRegistration(Mockito.any(ParsedForm.class), Mockito.eq(familyBaseEntityId));
 
 
         presenter.saveFamilyMember(jsonString);
-        Mockito.verify(interactor).saveRegistration(familyEventClient, jsonString, false, presenter);
+        Mockito.verify(interactor).saveRegistration(Mockito.eq(familyEventClient), Mockito.any(ParsedForm.class), Mockito.eq(false), Mockito.eq(presenter));
     }
 
     @Test
     public void testUpdateFamilyRegister() {
         String jsonString = "{}";
         FamilyEventClient familyEventClient = Mockito.mock(FamilyEventClient.class);
-        Mockito.doReturn(familyEventClient).when(model).processFamilyRegistrationForm(jsonString, familyBaseEntityId);
+        Mockito.doReturn(familyEventClient).when(model).processFamilyRegistrationForm(Mockito.any(ParsedForm.class), Mockito.eq(familyBaseEntityId));
 
 
         presenter.updateFamilyRegister(jsonString);
-        Mockito.verify(interactor).saveRegistration(familyEventClient, jsonString, true, presenter);
+        Mockito.verify(interactor).saveRegistration(Mockito.eq(familyEventClient), Mockito.any(ParsedForm.class), Mockito.eq(true), Mockito.eq(presenter));
     }
 
     @Test
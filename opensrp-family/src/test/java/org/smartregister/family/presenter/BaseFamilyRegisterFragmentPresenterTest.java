@@ -1,5 +1,6 @@
 package org.smartregister.family.presenter;
 
+import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -16,7 +17,10 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.contract.FamilyRegisterFragmentContract;
 import org.smartregister.family.domain.FamilyMetadata;
+import org.smartregister.family.util.Utils;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -101,4 +105,15 @@ public class BaseFamilyRegisterFragmentPresenterTest extends BaseUnitTest {
         presenter.setModel(model);
         Assert.assertEquals(Whitebox.getInternalState(presenter, "model"), model);
     }
+
+    @Test
+    public void testOnClientsFoundShowsOnlyTheFamilies() throws Exception {
+        Whitebox.setInternalState(Utils.metadata(), "familyRegister", getMetadata().familyRegister);
+        JSONObject family = new JSONObject("{\"baseEntityId\":\"family-1\",\"relationships\":{\"FAMILY_HEAD\":[\"member-1\"]}}");
+        JSONObject member = new JSONObject("{\"baseEntityId\":\"member-1\",\"relationships\":{\"FAMILY\":[\"family-1\"]}}");
+
+        presenter.onClientsFound("Achieng", Arrays.asList(member, family));
+
+        Mockito.verify(view).showGlobalSearchResults("Achieng", Collections.singletonList(family));
+    }
 }
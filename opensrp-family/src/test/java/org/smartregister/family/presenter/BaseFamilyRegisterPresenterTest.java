@@ -17,6 +17,7 @@ import org.smartregister.domain.FetchStatus;
 import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.contract.FamilyRegisterContract;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -119,12 +120,24 @@ public class BaseFamilyRegisterPresenterTest extends BaseUnitTest {
         List<FamilyEventClient> familyEventClientList = new ArrayList<>();
         familyEventClientList.add(Mockito.mock(FamilyEventClient.class));
 
-        Mockito.doReturn(familyEventClientList).when(model).processRegistration(Mockito.anyString());
-        String jsonString = "{}";
+        Mockito.doReturn(familyEventClientList).when(model).processRegistration(Mockito.any(ParsedForm.class));
 
         presenter.saveForm("{}", false);
 
-        Mockito.verify(interactor).saveRegistration(familyEventClientList, jsonString, false, presenter);
+        Mockito.verify(model).processRegistration(Mockito.any(ParsedForm.class));
+        Mockito.verify(interactor).saveRegistration(Mockito.eq(familyEventClientList), Mockito.any(ParsedForm.class), Mockito.eq(false), Mockito.eq(presenter));
+    }
+
+    @Test
+    public void testOnFormCancelledReleasesLeasedUniqueId() throws Exception {
+        presenter = Mockito.spy(presenter);
+        Mockito.doNothing().when(presenter).startForm(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        presenter.onUniqueIdFetched(Triple.of("family_register", "", "location"), "123-4");
+
+        presenter.onFormCancelled();
+        presenter.onFormCancelled();
+
+        Mockito.verify(interactor, Mockito.times(1)).releaseUniqueId("123-4");
     }
 
     @Test
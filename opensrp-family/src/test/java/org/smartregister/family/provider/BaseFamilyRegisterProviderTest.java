@@ -0,0 +1,149 @@
+package org.smartregister.family.provider;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RuntimeEnvironment;
+import org.smartregister.commonregistry.CommonPersonObjectClient;
+import org.smartregister.commonregistry.CommonRepository;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.R;
+import org.smartregister.family.TestDataUtils;
+import org.smartregister.family.util.DBConstants;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+public class BaseFamilyRegisterProviderTest extends BaseUnitTest {
+
+    private static final int BINDS = 1000;
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    private Context context = RuntimeEnvironment.application;
+
+    @Mock
+    private CommonRepository commonRepository;
+
+    @Mock
+    private View.OnClickListener onClickListener;
+
+    @Mock
+    private View.OnClickListener paginationClickListener;
+
+    @Mock
+    private Cursor cursor;
+
+    private Set<String> visibleColumns = new HashSet<>();
+
+    private FamilyOtherMemberRegisterProvider provider;
+
+    private FamilyOtherMemberRegisterProvider.RegisterViewHolder viewHolder;
+
+    @Before
+    public void setUp() {
+        provider = new FamilyOtherMemberRegisterProvider(context, commonRepository, visibleColumns, onClickListener, paginationClickListener);
+        View rootView = provider.inflater().inflate(R.layout.family_member_register_list_row, null);
+        viewHolder = new FamilyOtherMemberRegisterProvider.RegisterViewHolder(rootView);
+    }
+
+    @Test
+    public void testRebindKeepsTheListenersAndTagsTheBoundClient() {
+        CommonPersonObjectClient client = TestDataUtils.getCommonPersonObjectClient();
+        CommonPersonObjectClient otherClient = TestDataUtils.getCommonPersonObjectClient();
+        otherClient.getColumnmaps().put(DBConstants.KEY.BASE_ENTITY_ID, "other-member");
+
+        provider.getView(cursor, client, viewHolder);
+        View.OnClickListener registerColumnsListener = shadowOf(viewHolder.registerColumns).getOnClickListener();
+        View.OnClickListener nextArrowColumnListener = shadowOf(viewHolder.nextArrowColumn).getOnClickListener();
+        View.OnClickListener profileListener = shadowOf(viewHolder.profile).getOnClickListener();
+
+        provider.getView(cursor, otherClient, viewHolder);
+
+        assertSame(registerColumnsListener, shadowOf(viewHolder.registerColumns).getOnClickListener());
+        assertSame(nextArrowColumnListener, shadowOf(viewHolder.nextArrowColumn).getOnClickListener());
+        assertSame(profileListener, shadowOf(viewHolder.profile).getOnClickListener());
+        assertSame(otherClient, viewHolder.getClient());
+
+        viewHolder.registerColumns.performClick();
+        verify(onClickListener).onClick(viewHolder.patientColumn);
+        assertSame(otherClient, viewHolder.patientColumn.getTag());
+    }
+
+    @Test
+    public void testFooterTextIsFormattedOncePerPage() {
+        BaseFamilyRegisterProvider.FooterViewHolder footer = (BaseFamilyRegisterProvider.FooterViewHolder) provider.createFooterHolder(null);
+
+        provider.getFooterView(footer, 2, 12, true, true);
+        CharSequence pageInfo = footer.pageInfoView.getText();
+        provider.getFooterView(footer, 2, 12, true, false);
+
+        assertEquals("Page 2 of 12", pageInfo.toString());
+        assertSame(pageInfo, footer.pageInfoView.getText());
+        assertEquals(View.INVISIBLE, footer.previousPageView.getVisibility());
+
+        provider.getFooterView(footer, 3, 12, true, true);
+        assertNotSame(pageInfo, footer.pageInfoView.getText());
+        assertEquals("Page 3 of 12", footer.pageInfoView.getText().toString());
+    }
+
+    /**
+     * Covers the holder bind and the footer page info only, getView still formats the row text on every bind
+     */
+    @Test
+    public void testRebindingTheHolderAndTheFooterPageInfoAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+
+        final CommonPersonObjectClient client = TestDataUtils.getCommonPersonObjectClient();
+        Runnable bind = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < BINDS; i++) {
+                    viewHolder.bind(client);
+                    provider.getPageInfo(2, 12);
+                }
+            }
+        };
+        Runnable nothing = new Runnable() {
+            @Override
+            public void run() {
+                // measures the cost of measuring
+            }
+        };
+
+        // warm up, the first bind formats the page info
+        bind.run();
+        nothing.run();
+        long measuringBytes = allocatedBytes(threadMXBean, nothing);
+        long bindBytes = allocatedBytes(threadMXBean, bind);
+
+        // a single object allocated per bind would take at least 16 bytes per bind
+        assertTrue("allocated " + (bindBytes - measuringBytes) + " bytes in " + BINDS + " holder binds", bindBytes - measuringBytes < BINDS);
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threadMXBean, Runnable runnable) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        runnable.run();
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
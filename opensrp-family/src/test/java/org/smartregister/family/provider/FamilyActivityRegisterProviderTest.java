@@ -23,7 +23,7 @@ import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.TestDataUtils;
 import org.smartregister.family.fragment.BaseFamilyProfileMemberFragment;
-import org.smartregister.family.provider.FamilyActivityRegisterProvider.FooterViewHolder;
+import org.smartregister.family.provider.BaseFamilyRegisterProvider.FooterViewHolder;
 import org.smartregister.family.util.DBConstants;
 import org.smartregister.family.util.Utils;
 
@@ -20,9 +20,9 @@ import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.TestDataUtils;
 import org.smartregister.family.fragment.BaseFamilyProfileMemberFragment;
+import org.smartregister.family.helper.ImageRenderHelper;
 import org.smartregister.family.util.DBConstants;
 import org.smartregister.family.util.Utils;
-import org.smartregister.helper.ImageRenderHelper;
 
 import java.util.HashSet;
 import java.util.Set;
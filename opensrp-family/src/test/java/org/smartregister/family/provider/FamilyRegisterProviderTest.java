@@ -20,12 +20,17 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.R;
 import org.smartregister.family.TestDataUtils;
+import org.smartregister.family.util.Constants;
 import org.smartregister.family.util.DBConstants;
+import org.smartregister.family.util.ExistingRowsResolver;
 import org.smartregister.family.util.Utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static junit.framework.TestCase.assertFalse;
@@ -34,6 +39,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -104,6 +111,42 @@ public class FamilyRegisterProviderTest extends BaseUnitTest {
         assertEquals("Home Visit", viewHolder.dueButton.getText());
     }
 
+    @Test
+    public void testGetViewWithJoinedFamilyHeadNameMakesNoQueries() {
+        CommonRepository familyMemberRepository = mock(CommonRepository.class);
+        provider.familyHeadFirstNameEnabled = true;
+        provider.familyMemberRegisterRepository = familyMemberRepository;
+
+        for (int i = 0; i < 5000; i++) {
+            CommonPersonObjectClient family = new CommonPersonObjectClient("family-" + i, null, null);
+            family.setColumnmaps(new HashMap<String, String>());
+            family.getColumnmaps().put(DBConstants.KEY.FIRST_NAME, "Family " + i);
+            family.getColumnmaps().put(DBConstants.KEY.FAMILY_HEAD, "head-" + i);
+            family.getColumnmaps().put(Constants.KEY.FAMILY_HEAD_NAME, "Head " + i);
+            provider.getView(cursor, family, viewHolder);
+        }
+
+        assertEquals("Head 4999 Family 4999 Family", viewHolder.patientName.getText());
+        verifyZeroInteractions(familyMemberRepository);
+    }
+
+    @Test
+    public void testGetViewReadsHomeVisitFromResolvedPage() {
+        provider.homeVisitResolver = new ExistingRowsResolver("ec_family") {
+            @Override
+            protected Set<String> queryExistingIds(List<String> baseEntityIds) {
+                return Collections.singleton(client.entityId());
+            }
+        };
+        CommonPersonObjectClient removedFamily = TestDataUtils.getCommonPersonObjectClient();
+        provider.resolve(Arrays.asList(client.entityId(), removedFamily.entityId()));
+
+        provider.getView(cursor, client, viewHolder);
+        assertEquals(View.VISIBLE, viewHolder.dueButton.getVisibility());
+        provider.getView(cursor, removedFamily, viewHolder);
+        assertEquals(View.GONE, viewHolder.dueButton.getVisibility());
+        verify(commonRepository, never()).findByBaseEntityId(anyString());
+    }
 
     @Test
     public void testDueButtonOnClick() {
@@ -0,0 +1,66 @@
+package org.smartregister.family.provider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+import org.robolectric.RuntimeEnvironment;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.family.util.DBConstants;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RowViewModelCacheTest extends BaseUnitTest {
+
+    private RowViewModelCache cache;
+
+    @Before
+    public void setUp() {
+        FamilyLibrary.getInstance().setMetadata(getMetadata());
+        cache = new RowViewModelCache(RuntimeEnvironment.application);
+    }
+
+    private Map<String, String> row(String dod) {
+        Map<String, String> row = new HashMap<>();
+        row.put(DBConstants.KEY.BASE_ENTITY_ID, "member-1");
+        row.put(DBConstants.KEY.FIRST_NAME, "charity");
+        row.put(DBConstants.KEY.LAST_NAME, "otala");
+        row.put(DBConstants.KEY.DOB, "1982-01-01T03:00:00.000+03:00");
+        row.put(DBConstants.KEY.DOD, dod);
+        row.put(DBConstants.KEY.GENDER, "female");
+        return row;
+    }
+
+    @Test
+    public void testPageRowsAreFormattedWhenThePageIsLoaded() {
+        cache.onPageLoaded(Collections.singletonList(row(null)));
+        Map<String, MemberRowViewModel> viewModels = Whitebox.getInternalState(cache, "viewModels");
+        MemberRowViewModel formatted = viewModels.get("member-1");
+
+        MemberRowViewModel viewModel = cache.get(row(null));
+
+        assertSame(formatted, viewModel);
+        assertTrue(viewModel.getNameAge().startsWith("Charity Otala, "));
+        assertEquals("Female", viewModel.getGender());
+        assertEquals("Female", viewModel.getTranslatedGender());
+        assertFalse(viewModel.isDeceased());
+    }
+
+    @Test
+    public void testChangedRowIsFormattedAgain() {
+        MemberRowViewModel viewModel = cache.get(row(null));
+        MemberRowViewModel deceased = cache.get(row("2019-01-01T03:00:00.000+03:00"));
+
+        assertNotSame(viewModel, deceased);
+        assertTrue(deceased.isDeceased());
+        assertTrue(deceased.getNameAge().endsWith(RuntimeEnvironment.application.getString(org.smartregister.family.R.string.deceased_brackets)));
+    }
+}
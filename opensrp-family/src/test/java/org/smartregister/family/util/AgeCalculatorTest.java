@@ -0,0 +1,96 @@
+package org.smartregister.family.util;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.domain.AgeDuration;
+import org.smartregister.util.DateUtil;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AgeCalculatorTest extends BaseUnitTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private long now = new DateTime("2020-06-15T10:00:00.000+03:00").getMillis();
+
+    private AgeCalculator calculator;
+
+    @Before
+    public void setUp() {
+        calculator = new AgeCalculator() {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    private static String calendarDuration(String date1, String date2) {
+        Calendar calendar1 = Calendar.getInstance();
+        calendar1.setTime(new DateTime(date1).toDate());
+        Calendar calendar2 = Calendar.getInstance();
+        calendar2.setTime(new DateTime(date2).toDate());
+        for (Calendar calendar : new Calendar[]{calendar1, calendar2}) {
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+        }
+        return DateUtil.getDuration(Math.abs(calendar1.getTimeInMillis() - calendar2.getTimeInMillis()));
+    }
+
+    @Test
+    public void testDurationsAreSplitLikeDateUtil() {
+        for (long days = 0; days < 40000; days++) {
+            for (long shift : new long[]{0, -TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1)}) {
+                long timeDiff = days * DAY + shift;
+                if (timeDiff >= 0) {
+                    assertEquals(DateUtil.getDuration(timeDiff), AgeDuration.fromMillis(timeDiff).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDurationsMatchTheCalendarComputation() {
+        String[] dods = {"2020-06-15T03:00:00.000+03:00", "2019-03-31T23:30:00.000-05:00", "2020-01-01"};
+        String[] formats = {"%sT03:00:00.000+03:00", "%sT23:59:59.999Z", "%sT00:00:00.000-05:30", "%sT12:00+01", "%s"};
+        DateTime dob = new DateTime("1920-01-01T00:00:00.000Z");
+        while (dob.getYear() < 2020) {
+            for (String format : formats) {
+                String date = String.format(format, dob.toString("yyyy-MM-dd"));
+                for (String dod : dods) {
+                    assertEquals(date + " to " + dod, calendarDuration(date, dod), calculator.getDuration(date, dod).toString());
+                }
+            }
+            dob = dob.plusDays(29);
+        }
+    }
+
+    @Test
+    public void testDurationsAreMemoizedForTheDay() {
+        AgeDuration age = calculator.getAge("1982-01-01T03:00:00.000+03:00");
+
+        assertSame(age, calculator.getAge("1982-01-01T03:00:00.000+03:00"));
+        assertEquals("38y 5m", age.toString());
+
+        now += DAY;
+
+        assertNotSame(age, calculator.getAge("1982-01-01T03:00:00.000+03:00"));
+    }
+
+    @Test
+    public void testInvalidDatesHaveNoDuration() {
+        assertNull(calculator.getAge(""));
+        assertNull(calculator.getAge("not a date"));
+        assertNull(calculator.getDuration("1982-01-01T03:00:00.000+03:00", "2019-02-30T03:00:00.000+03:00"));
+    }
+}
@@ -0,0 +1,59 @@
+package org.smartregister.family.util;
+
+import android.content.Context;
+import android.content.res.Configuration;
+
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.domain.AgeDuration;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AgeFormatterTest extends BaseUnitTest {
+
+    private static Context localized(Locale locale) {
+        Configuration configuration = new Configuration(RuntimeEnvironment.application.getResources().getConfiguration());
+        configuration.setLocale(locale);
+        return RuntimeEnvironment.application.createConfigurationContext(configuration);
+    }
+
+    @Test
+    public void testLabelsMatchTranslatedDurations() {
+        for (Locale locale : new Locale[]{Locale.ENGLISH, Locale.FRENCH, new Locale("sw")}) {
+            Context context = localized(locale);
+            AgeFormatter formatter = AgeFormatter.getInstance(context);
+
+            for (long days = 0; days < 2000; days++) {
+                AgeDuration duration = AgeDuration.fromMillis(TimeUnit.DAYS.toMillis(days));
+                String dobString = duration.toString();
+
+                assertEquals(Utils.getTranslatedDate(dobString, context), formatter.format(duration));
+
+                dobString = dobString.contains("y") ? dobString.substring(0, dobString.indexOf("y")) : dobString;
+                assertEquals(Utils.getTranslatedDate(dobString, context), formatter.formatAge(duration));
+            }
+        }
+    }
+
+    @Test
+    public void testFormatterIsBuiltAgainWhenLocaleChanges() {
+        AgeFormatter english = AgeFormatter.getInstance(localized(Locale.ENGLISH));
+        assertSame(english, AgeFormatter.getInstance(localized(Locale.ENGLISH)));
+
+        AgeFormatter french = AgeFormatter.getInstance(localized(Locale.FRENCH));
+
+        assertNotSame(english, french);
+        assertEquals("3s 2j", french.format(new AgeDuration(AgeDuration.Unit.WEEKS, 3, 2)));
+    }
+
+    @Test
+    public void testNoDurationHasAnEmptyLabel() {
+        assertEquals("", AgeFormatter.getInstance(RuntimeEnvironment.application).formatAge(null));
+    }
+}
@@ -0,0 +1,63 @@
+package org.smartregister.family.util;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.smartregister.family.BaseUnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+public class BoundRegisterQueriesTest extends BaseUnitTest {
+
+    private static final String VISIT_COUNT = "SELECT COUNT(*) FROM ec_family_member_visit WHERE family_id = ?";
+
+    @Mock
+    private RegisterQueryCache registerQueryCache;
+
+    @Mock
+    private SQLiteDatabase database;
+
+    private RegisterCounters registerCounters = new RegisterCounters();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(registerQueryCache.simpleQueryForLong(any(SQLiteDatabase.class), anyString(), any(String[].class))).thenReturn(4L, 5L);
+    }
+
+    private BoundRegisterQueries newBoundRegisterQueries(boolean countKept) {
+        BoundRegisterQueries boundRegisterQueries = Mockito.spy(new BoundRegisterQueries(countKept));
+        doReturn(registerCounters).when(boundRegisterQueries).getRegisterCounters();
+        doReturn(registerQueryCache).when(boundRegisterQueries).getRegisterQueryCache();
+        doReturn(database).when(boundRegisterQueries).getDatabase();
+        boundRegisterQueries.set("ec_family_member_visit", VISIT_COUNT, "SELECT * FROM ec_family_member_visit WHERE family_id = ?", new String[]{"family-1"});
+        return boundRegisterQueries;
+    }
+
+    @Test
+    public void testCountIsKeptUntilTheFamilyChanges() {
+        BoundRegisterQueries boundRegisterQueries = newBoundRegisterQueries(true);
+
+        assertEquals(4, boundRegisterQueries.count());
+        assertEquals(4, boundRegisterQueries.count());
+        assertEquals(Integer.valueOf(4), registerCounters.getCount("ec_family_member_visit", "family-1"));
+    }
+
+    @Test
+    public void testCountNotKeptIsCountedEveryTime() {
+        BoundRegisterQueries boundRegisterQueries = newBoundRegisterQueries(false);
+
+        assertEquals(4, boundRegisterQueries.count());
+        assertEquals(5, boundRegisterQueries.count());
+        assertNull(registerCounters.getCount("ec_family_member_visit", "family-1"));
+    }
+}
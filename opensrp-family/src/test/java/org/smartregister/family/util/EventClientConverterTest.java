@@ -0,0 +1,90 @@
+package org.smartregister.family.util;
+
+import com.google.gson.JsonObject;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.smartregister.clientandeventmodel.Client;
+import org.smartregister.clientandeventmodel.Event;
+import org.smartregister.domain.db.EventClient;
+import org.smartregister.family.BaseUnitTest;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventClientConverterTest extends BaseUnitTest {
+
+    @Test
+    public void testToJsonTreeWithNullModelReturnsNull() throws Exception {
+        assertNull(EventClientConverter.toJsonTree(null));
+        assertNull(EventClientConverter.toJSONObject(null));
+        assertNull(EventClientConverter.toDomainClient(null));
+        assertNull(EventClientConverter.toDomainEvent(null));
+    }
+
+    @Test
+    public void testToJSONObjectMatchesGsonSerialization() throws Exception {
+        Client client = new Client("12345");
+        client.setFirstName("John");
+        client.setBirthdate(new Date(0));
+        client.addIdentifier("opensrp_id", "1234");
+
+        JSONObject expected = new JSONObject(JsonFormUtils.gson.toJson(client));
+        JSONObject actual = EventClientConverter.toJSONObject(EventClientConverter.toJsonTree(client));
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testToJSONObjectCopiesEveryKindOfNode() throws Exception {
+        String json = "{\"formSubmissionId\":\"abc\",\"version\":1590000000000,\"duration\":2.5,\"voided\":false,"
+                + "\"locationId\":null,\"details\":{\"task\":\"visit\"},"
+                + "\"obs\":[{\"values\":[\"yes\",3]},[],null]}";
+        JsonObject tree = JsonFormUtils.gson.fromJson(json, JsonObject.class);
+
+        JSONObject jsonObject = EventClientConverter.toJSONObject(tree);
+
+        assertEquals(new JSONObject(json).toString(), jsonObject.toString());
+        assertEquals(1590000000000L, jsonObject.getLong("version"));
+        assertEquals(2.5, jsonObject.getDouble("duration"), 0);
+        assertFalse(jsonObject.getBoolean("voided"));
+        assertTrue(jsonObject.isNull("locationId"));
+        assertEquals("visit", jsonObject.getJSONObject("details").getString("task"));
+        JSONArray obs = jsonObject.getJSONArray("obs");
+        assertEquals(3, obs.getJSONObject(0).getJSONArray("values").getInt(1));
+        assertEquals(0, obs.getJSONArray(1).length());
+        assertTrue(obs.isNull(2));
+    }
+
+    @Test
+    public void testToEventClientConvertsToDomainTypes() {
+        Client client = new Client("12345");
+        client.setFirstName("John");
+        client.addIdentifier("opensrp_id", "1234");
+
+        Event event = new Event();
+        event.setBaseEntityId("12345");
+        event.setEventType("Family Registration");
+        event.setProviderId("demo");
+
+        JsonObject clientTree = EventClientConverter.toJsonTree(client);
+        JsonObject eventTree = EventClientConverter.toJsonTree(event);
+        EventClient eventClient = EventClientConverter.toEventClient(eventTree, clientTree);
+
+        assertNotNull(eventClient.getClient());
+        assertEquals("12345", eventClient.getClient().getBaseEntityId());
+        assertEquals("John", eventClient.getClient().getFirstName());
+        assertEquals("1234", eventClient.getClient().getIdentifier("opensrp_id"));
+
+        assertNotNull(eventClient.getEvent());
+        assertEquals("12345", eventClient.getEvent().getBaseEntityId());
+        assertEquals("Family Registration", eventClient.getEvent().getEventType());
+        assertEquals("demo", eventClient.getEvent().getProviderId());
+    }
+}
@@ -0,0 +1,105 @@
+package org.smartregister.family.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.smartregister.domain.db.Client;
+import org.smartregister.domain.db.Event;
+import org.smartregister.domain.db.EventClient;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.FamilyLibrary;
+import org.smartregister.sync.ClientProcessorForJava;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class FamilyClientProcessorTest extends BaseUnitTest {
+
+    @Mock
+    private ClientProcessorForJava clientProcessorForJava;
+
+    @Mock
+    private FamilyClientProcessor.Listener listener;
+
+    private FamilyClientProcessor familyClientProcessor;
+
+    private boolean fastProcessing = true;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        FamilyLibrary.getInstance().setMetadata(getMetadata());
+        familyClientProcessor = new FamilyClientProcessor() {
+            @Override
+            protected ClientProcessorForJava getClientProcessorForJava() {
+                return clientProcessorForJava;
+            }
+
+            @Override
+            protected boolean isFastProcessingEnabled() {
+                return fastProcessing;
+            }
+        };
+        familyClientProcessor.addListener(listener);
+    }
+
+    private EventClient eventClient(String eventType, String baseEntityId) {
+        Event event = new Event();
+        event.setEventType(eventType);
+        Client client = new Client(baseEntityId);
+        return new EventClient(event, client);
+    }
+
+    @Test
+    public void testFamilyEventsAreWrittenToTheirRegisterTables() throws Exception {
+        EventClient family = eventClient("FAMILY_REGISTRATION", "family-1");
+        EventClient head = eventClient("FAMILY_MEMBER_REGISTRATION", "member-1");
+        EventClient update = eventClient("UPDATE_FAMILY_MEMBER_REGISTRATION", "member-2");
+
+        Map<String, Set<String>> processedRows = familyClientProcessor.processClient(Arrays.asList(family, head, update));
+
+        assertEquals(Collections.singleton("family-1"), processedRows.get("FAMILY"));
+        assertEquals(2, processedRows.get("FAMILY_MEMBER").size());
+        assertTrue(processedRows.get("FAMILY_MEMBER").contains("member-2"));
+        verify(clientProcessorForJava).processCaseModel(family.getEvent(), family.getClient(), Collections.singletonList("FAMILY"));
+        verify(clientProcessorForJava).processCaseModel(head.getEvent(), head.getClient(), Collections.singletonList("FAMILY_MEMBER"));
+        verify(clientProcessorForJava, never()).processClient(anyList());
+        verify(listener).onRowsProcessed(processedRows);
+    }
+
+    @Test
+    public void testOtherEventsUseTheGenericProcessing() throws Exception {
+        EventClient other = eventClient("Child Registration", "child-1");
+        EventClient noClient = new EventClient(new Event(), null);
+
+        Map<String, Set<String>> processedRows = familyClientProcessor.processClient(Arrays.asList(other, noClient));
+
+        assertTrue(processedRows.isEmpty());
+        verify(clientProcessorForJava).processClient(Arrays.asList(other, noClient));
+        verify(listener, never()).onRowsProcessed(anyMap());
+    }
+
+    @Test
+    public void testFamilyEventsUseTheAppProcessingUnlessFastProcessingIsEnabled() throws Exception {
+        fastProcessing = false;
+        EventClient family = eventClient("FAMILY_REGISTRATION", "family-1");
+        EventClient other = eventClient("Child Registration", "child-1");
+
+        Map<String, Set<String>> processedRows = familyClientProcessor.processClient(Arrays.asList(family, other));
+
+        assertEquals(Collections.singleton("family-1"), processedRows.get("FAMILY"));
+        verify(clientProcessorForJava).processClient(Arrays.asList(family, other));
+        verify(clientProcessorForJava, never()).processCaseModel(family.getEvent(), family.getClient(), Collections.singletonList("FAMILY"));
+        verify(listener).onRowsProcessed(processedRows);
+    }
+}
@@ -0,0 +1,158 @@
+package org.smartregister.family.util;
+
+import android.database.Cursor;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.family.domain.FamilySearchResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+public class FamilySearchIndexTest extends BaseUnitTest {
+
+    @Test
+    public void testGetTermsSplitsAsTheTokenizer() {
+        assertEquals(Arrays.asList("ochieng", "100", "4"), FamilySearchIndex.getTerms("  Ochieng 100-4 "));
+        assertEquals(Arrays.asList("jos\u00e9", "o", "neill"), FamilySearchIndex.getTerms("Jos\u00e9 O'Neill"));
+        assertTrue(FamilySearchIndex.getTerms(" - ").isEmpty());
+        assertTrue(FamilySearchIndex.getTerms(null).isEmpty());
+    }
+
+    @Test
+    public void testScoreRanksWholeWordsAndNamesFirst() {
+        List<String> terms = Collections.singletonList("ochi");
+        int namePrefix = score(terms, "Achieng Ochieng", "200-1", "", "");
+        int nameWord = score(Collections.singletonList("ochieng"), "Achieng Ochieng", "200-1", "", "");
+        int villagePrefix = score(terms, "Otieno", "200-2", "Ochilo", "");
+
+        assertTrue(nameWord > namePrefix);
+        assertTrue(namePrefix > villagePrefix);
+        assertEquals(2, score(Collections.singletonList("200"), "Otieno", "200-2", "Kisumu", ""));
+        assertEquals(0, score(terms, "Otieno", "200-2", "Kisumu", ""));
+    }
+
+    private static int score(List<String> terms, String name, String uniqueId, String villageTown, String phone) {
+        // the score is plain SQL, run on the SQLite of the test runtime
+        android.database.sqlite.SQLiteDatabase database = android.database.sqlite.SQLiteDatabase.create(null);
+        Cursor cursor = database.rawQuery("SELECT " + FamilySearchIndex.getScoreExpression(terms) + " FROM (SELECT "
+                        + FamilySearchIndex.words("name") + " AS name_words, " + FamilySearchIndex.otherWords("unique_id", "village_town", "phone")
+                        + " AS other_words FROM (SELECT ? AS name, ? AS unique_id, ? AS village_town, ? AS phone))",
+                ArrayUtils.addAll(FamilySearchIndex.getScoreArgs(terms), name, uniqueId, villageTown, phone));
+        try {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+            database.close();
+        }
+    }
+
+    @Test
+    public void testSearchWithoutTermsDoesNotQuery() {
+        FamilySearchIndex familySearchIndex = new FamilySearchIndex() {
+            @Override
+            protected SQLiteDatabase getWritableDatabase() {
+                throw new AssertionError("queried");
+            }
+        };
+
+        List<FamilySearchResult> results = familySearchIndex.search(" ,. ");
+
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testSingleCharacterIsNotSearched() {
+        FamilySearchIndex familySearchIndex = new FamilySearchIndex() {
+            @Override
+            protected SQLiteDatabase getWritableDatabase() {
+                throw new AssertionError("queried");
+            }
+        };
+
+        assertTrue(familySearchIndex.search("a").isEmpty());
+        assertTrue(familySearchIndex.search("a b").isEmpty());
+        assertFalse(FamilySearchIndex.isSearchable("a"));
+        assertTrue(FamilySearchIndex.isSearchable("a ba"));
+    }
+
+    @Test
+    public void testRankOfTwoCharactersOnFiftyThousandMembersIsFast() {
+        android.database.sqlite.SQLiteDatabase database = android.database.sqlite.SQLiteDatabase.create(null);
+        try {
+            try {
+                database.execSQL(FamilySearchIndex.CREATE_TABLE);
+            } catch (Exception e) {
+                // the SQLite of the test runtime is built without FTS4 or its tokenizer
+                assumeNoException(e);
+            }
+            database.execSQL("CREATE TABLE member (family_id TEXT, member_id TEXT, name TEXT, unique_id TEXT, village_town TEXT, phone TEXT)");
+            Random random = new Random(7);
+            database.beginTransaction();
+            for (int family = 0; family < 12500; family++) {
+                String lastName = randomName(random);
+                database.execSQL("INSERT INTO member VALUES (?, NULL, ?, ?, ?, ?)", new Object[]{"family-" + family,
+                        lastName, family + "-" + random.nextInt(10), "Village " + randomName(random), "07" + (10000000 + random.nextInt(89999999))});
+                for (int member = 0; member < 4; member++) {
+                    database.execSQL("INSERT INTO member VALUES (?, ?, ?, ?, NULL, NULL)", new Object[]{"family-" + family,
+                            "member-" + family + "-" + member, randomName(random) + " " + lastName, family * 10 + member + "-" + random.nextInt(10)});
+                }
+            }
+            database.execSQL("INSERT INTO " + FamilySearchIndex.TABLE + " SELECT family_id, member_id, name, unique_id, village_town, phone, "
+                    + FamilySearchIndex.words("name") + ", " + FamilySearchIndex.otherWords("unique_id", "village_town", "phone") + " FROM member");
+            database.setTransactionSuccessful();
+            database.endTransaction();
+
+            List<String> terms = Collections.singletonList("ba");
+            long slowest = 0;
+            int families = 0;
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                Cursor cursor = database.rawQuery(FamilySearchIndex.getRankQuery(terms), FamilySearchIndex.getRankArgs(terms));
+                families = cursor.getCount();
+                cursor.close();
+                if (run > 0) {
+                    // the first run compiles the statement and reads the pages of the index
+                    slowest = Math.max(slowest, (System.nanoTime() - start) / 1000000);
+                }
+            }
+
+            assertEquals(FamilySearchIndex.MAX_FAMILIES, families);
+            assertTrue(slowest + " ms", slowest < 50);
+        } finally {
+            database.close();
+        }
+    }
+
+    private static String randomName(Random random) {
+        String consonants = "bcdfghjklmnprstvwyz";
+        String vowels = "aeiou";
+        StringBuilder name = new StringBuilder();
+        for (int i = 2 + random.nextInt(3); i > 0; i--) {
+            name.append(consonants.charAt(random.nextInt(consonants.length()))).append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    @Test
+    public void testFamilyScoreIsItsBestMatch() {
+        FamilySearchResult result = new FamilySearchResult("family-1");
+        result.addMatch(null, 3);
+        result.addMatch("member-1", 6);
+
+        assertEquals(6, result.getScore());
+        assertEquals(2, result.getMatchCount());
+        assertEquals(Collections.singletonList("member-1"), result.getMemberIds());
+    }
+}
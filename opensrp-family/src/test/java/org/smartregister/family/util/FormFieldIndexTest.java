@@ -0,0 +1,84 @@
+package org.smartregister.family.util;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FormFieldIndexTest extends BaseUnitTest {
+
+    private JSONArray fields() throws Exception {
+        return new JSONArray("[{\"key\":\"fam_name\",\"value\":\"Doe\"},{\"key\":\"village_town\",\"value\":\"Lusaka\"}," +
+                "{\"key\":\"fam_name\",\"value\":\"Second\"},{\"value\":\"no key\"}]");
+    }
+
+    @Test
+    public void testGetFieldMatchesLinearScan() throws Exception {
+        JSONArray fields = fields();
+
+        assertSame(org.smartregister.util.JsonFormUtils.getFieldJSONObject(fields, "fam_name"), FormFieldIndex.getField(fields, "fam_name"));
+        assertEquals("Doe", FormFieldIndex.getFieldValue(fields, "fam_name"));
+        assertEquals("Lusaka", JsonFormUtils.getFieldValue(fields, "village_town"));
+        assertNull(FormFieldIndex.getField(fields, "unknown"));
+        assertNull(FormFieldIndex.getField(null, "fam_name"));
+        assertNull(FormFieldIndex.getField(fields, null));
+    }
+
+    @Test
+    public void testIndexSeesAppendedFields() throws Exception {
+        JSONArray fields = fields();
+        assertNull(JsonFormUtils.getFieldJSONObject(fields, Constants.JSON_FORM_KEY.LAST_INTERACTED_WITH));
+
+        JsonFormUtils.lastInteractedWith(fields);
+
+        assertEquals(fields.getJSONObject(fields.length() - 1), JsonFormUtils.getFieldJSONObject(fields, Constants.JSON_FORM_KEY.LAST_INTERACTED_WITH));
+    }
+
+    @Test
+    public void testIndexSeesReplacedFields() throws Exception {
+        JSONArray fields = fields();
+        assertEquals("Lusaka", FormFieldIndex.getFieldValue(fields, "village_town"));
+
+        fields.put(1, new JSONObject("{\"key\":\"village_town\",\"value\":\"Ndola\"}"));
+        FormFieldIndex.invalidate(fields);
+        assertEquals("Ndola", FormFieldIndex.getFieldValue(fields, "village_town"));
+
+        fields.getJSONObject(1).put(JsonFormUtils.KEY, "sub_county");
+        assertNull(FormFieldIndex.getField(fields, "village_town"));
+    }
+
+    @Test
+    public void testIndexSeesFieldsReplacedWithoutInvalidating() throws Exception {
+        JSONArray fields = fields();
+        assertEquals("Lusaka", FormFieldIndex.getFieldValue(fields, "village_town"));
+
+        fields.put(1, new JSONObject("{\"key\":\"village_town\",\"value\":\"Ndola\"}"));
+
+        assertSame(fields.getJSONObject(1), FormFieldIndex.getField(fields, "village_town"));
+    }
+
+    @Test
+    public void testIndexSeesFieldsRenamedToTheKey() throws Exception {
+        JSONArray fields = fields();
+        assertNull(FormFieldIndex.getField(fields, "sub_county"));
+
+        fields.getJSONObject(1).put(JsonFormUtils.KEY, "sub_county");
+
+        assertSame(fields.getJSONObject(1), FormFieldIndex.getField(fields, "sub_county"));
+        assertNull(FormFieldIndex.getField(fields, "village_town"));
+    }
+
+    @Test
+    public void testEqualArraysAreIndexedSeparately() throws Exception {
+        JSONArray fields = fields();
+        JSONArray copy = fields();
+
+        assertSame(fields.getJSONObject(0), FormFieldIndex.getField(fields, "fam_name"));
+        assertSame(copy.getJSONObject(0), FormFieldIndex.getField(copy, "fam_name"));
+        assertSame(fields.getJSONObject(1), FormFieldIndex.getField(fields, "village_town"));
+    }
+}
@@ -0,0 +1,70 @@
+package org.smartregister.family.util;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.util.FormUtils;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FormTemplateCacheTest extends BaseUnitTest {
+
+    private static final String FORM = "{\"encounter_type\":\"Family Registration\",\"step1\":{\"fields\":[{\"key\":\"fam_name\",\"value\":\"\"}]}}";
+
+    @Mock
+    private FormUtils formUtils;
+
+    private Locale locale = Locale.ENGLISH;
+
+    private FormTemplateCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(formUtils.getFormJson("family_register")).thenReturn(new JSONObject(FORM));
+        cache = new FormTemplateCache(null) {
+            @Override
+            protected Locale getLocale() {
+                return locale;
+            }
+        };
+    }
+
+    @Test
+    public void testCopiesAreIndependentOfTheTemplate() throws Exception {
+        JSONObject first = cache.getFormJson(formUtils, "family_register");
+        first.getJSONObject("step1").getJSONArray("fields").getJSONObject(0).put("value", "Doe");
+
+        JSONObject second = cache.getFormJson(formUtils, "family_register");
+
+        assertEquals("", second.getJSONObject("step1").getJSONArray("fields").getJSONObject(0).getString("value"));
+        verify(formUtils, times(1)).getFormJson("family_register");
+    }
+
+    @Test
+    public void testLocaleChangeAndInvalidateReloadTheTemplate() {
+        cache.getFormJson(formUtils, "family_register");
+        locale = Locale.FRENCH;
+        cache.getFormJson(formUtils, "family_register");
+        cache.invalidate("family_register");
+        cache.getFormJson(formUtils, "family_register");
+
+        verify(formUtils, times(3)).getFormJson("family_register");
+    }
+
+    @Test
+    public void testMissingFormIsNotCached() {
+        assertNull(cache.getFormJson(formUtils, "unknown"));
+        assertNull(cache.getFormJson(formUtils, "unknown"));
+        verify(formUtils, times(2)).getFormJson("unknown");
+    }
+}
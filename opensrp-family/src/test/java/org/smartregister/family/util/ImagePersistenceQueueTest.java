@@ -0,0 +1,114 @@
+package org.smartregister.family.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.repository.AllSharedPreferences;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class ImagePersistenceQueueTest extends BaseUnitTest {
+
+    @Mock
+    private AllSharedPreferences allSharedPreferences;
+
+    @Mock
+    private ImagePersistenceQueue.Listener listener;
+
+    private final Map<String, String> preferences = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> preferences.get(invocation.getArgument(0))).when(allSharedPreferences).getPreference(anyString());
+        doAnswer(invocation -> preferences.put(invocation.getArgument(0), invocation.getArgument(1))).when(allSharedPreferences).savePreference(anyString(), anyString());
+    }
+
+    private ImagePersistenceQueue newQueue() {
+        return Mockito.spy(new ImagePersistenceQueue(allSharedPreferences, Executors.newSingleThreadScheduledExecutor(), 10));
+    }
+
+    @Test
+    public void testEnqueueSavesImageAndRecordsTiming() {
+        ImagePersistenceQueue queue = newQueue();
+        doReturn(true).when(queue).saveImage(any(ImagePersistenceQueue.PendingImage.class));
+        queue.addListener(listener);
+
+        queue.enqueue("demo", "entity-1", "/tmp/photo.jpg");
+
+        verify(listener, timeout(ASYNC_TIMEOUT)).onImageProcessed(any(ImagePersistenceQueue.PendingImage.class), eq(true), anyLong());
+        assertEquals(0, queue.getQueueDepth());
+        assertEquals(1, queue.getSavedCount());
+        assertEquals("[]", preferences.get("family_pending_images"));
+    }
+
+    @Test
+    public void testFailedSaveIsRetriedUntilMaxAttempts() {
+        ImagePersistenceQueue queue = newQueue();
+        doReturn(false).when(queue).saveImage(any(ImagePersistenceQueue.PendingImage.class));
+        queue.addListener(listener);
+
+        queue.enqueue("demo", "entity-1", "/tmp/photo.jpg");
+
+        ArgumentCaptor<ImagePersistenceQueue.PendingImage> imageCaptor = ArgumentCaptor.forClass(ImagePersistenceQueue.PendingImage.class);
+        verify(listener, timeout(ASYNC_TIMEOUT).times(ImagePersistenceQueue.MAX_ATTEMPTS)).onImageProcessed(imageCaptor.capture(), eq(false), anyLong());
+        assertEquals(ImagePersistenceQueue.MAX_ATTEMPTS, imageCaptor.getValue().getAttempts());
+        assertEquals(ImagePersistenceQueue.MAX_ATTEMPTS, queue.getFailedCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testPendingImagesAreRestored() throws Exception {
+        preferences.put("family_pending_images", "[{\"providerId\":\"demo\",\"entityId\":\"entity-2\",\"imageLocation\":\"/tmp/photo.jpg\"}]");
+        ImagePersistenceQueue queue = new ImagePersistenceQueue(allSharedPreferences, Executors.newSingleThreadScheduledExecutor(), 10) {
+            @Override
+            protected boolean saveImage(PendingImage image) {
+                return "entity-2".equals(image.getEntityId());
+            }
+        };
+
+        for (int i = 0; i < ASYNC_TIMEOUT / 20 && (queue.getSavedCount() == 0 || queue.getQueueDepth() > 0); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, queue.getSavedCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testOnlyTheNewerImageOfAnEntityIsSaved() {
+        ScheduledExecutorService executor = Mockito.mock(ScheduledExecutorService.class);
+        ImagePersistenceQueue queue = Mockito.spy(new ImagePersistenceQueue(allSharedPreferences, executor, 10));
+        doReturn(true).when(queue).saveImage(any(ImagePersistenceQueue.PendingImage.class));
+        ImagePersistenceQueue.PendingImage older = new ImagePersistenceQueue.PendingImage("demo", "entity-1", "/tmp/older.jpg");
+        ImagePersistenceQueue.PendingImage newer = new ImagePersistenceQueue.PendingImage("demo", "entity-1", "/tmp/newer.jpg");
+
+        queue.enqueue(Collections.singletonList(older));
+        queue.enqueue(Collections.singletonList(newer));
+        queue.process(newer);
+        queue.process(older);
+
+        verify(queue).saveImage(newer);
+        verify(queue, never()).saveImage(older);
+        assertEquals(1, queue.getSavedCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+}
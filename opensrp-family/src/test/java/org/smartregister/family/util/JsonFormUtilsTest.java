@@ -1,5 +1,9 @@
 package org.smartregister.family.util;
 
+import android.util.Pair;
+
+import com.vijay.jsonwizard.constants.JsonFormConstants;
+
 import org.joda.time.DateTime;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -8,8 +12,10 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.powermock.reflect.Whitebox;
@@ -21,6 +27,7 @@ import org.smartregister.family.BaseUnitTest;
 import org.smartregister.family.FamilyLibrary;
 import org.smartregister.family.TestDataUtils;
 import org.smartregister.family.domain.FamilyEventClient;
+import org.smartregister.family.domain.ParsedForm;
 import org.smartregister.location.helper.LocationHelper;
 import org.smartregister.repository.AllSharedPreferences;
 import org.smartregister.repository.ImageRepository;
@@ -29,6 +36,7 @@ import org.smartregister.view.LocationPickerView;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.UUID;
 
@@ -39,6 +47,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -269,6 +278,34 @@ public class JsonFormUtilsTest extends BaseUnitTest {
         assertEquals("John",  fieldValue);
     }
 
+    @Test
+    public void testValidateParametersOfStepReturnsTheFieldsOfTheParsedForm() {
+        ParsedForm parsedForm = ParsedForm.parse(TestDataUtils.FILLED_FAMILY_FORM);
+
+        JSONArray fields = JsonFormUtils.validateParameters(parsedForm, STEP1).getRight();
+
+        assertSame(parsedForm.fields(STEP1), fields);
+        assertSame(parsedForm.getField(STEP1, "fam_name"), JsonFormUtils.getFieldJSONObject(fields, "fam_name"));
+    }
+
+    @Test
+    public void testAddLocHierarchyQuestionsInjectsEveryLocationQuestion() throws JSONException {
+        LocationTreeCache locationTreeCache = Mockito.mock(LocationTreeCache.class);
+        when(locationTreeCache.get(ArgumentMatchers.<String>anyList()))
+                .thenReturn(new LocationTreeCache.LocationTree("[\"Zambia\"]", new JSONArray("[{\"key\":\"Zambia\",\"nodes\":[]}]")));
+        Whitebox.setInternalState(FamilyLibrary.getInstance(), "locationTreeCache", locationTreeCache);
+        FamilyLibrary.getInstance().metadata().setLocationFields(Collections.singletonList(Pair.create(STEP1, "village")));
+        JSONObject form = new JSONObject("{\"step1\":{\"fields\":[{\"key\":\"village\"},{\"key\":\"fam_name\"},{\"key\":\"village\"}]}}");
+
+        JsonFormUtils.addLocHierarchyQuestions(form);
+
+        JSONArray fields = form.getJSONObject(STEP1).getJSONArray(JsonFormConstants.FIELDS);
+        assertEquals("[\"Zambia\"]", fields.getJSONObject(0).getString(JsonFormConstants.DEFAULT));
+        assertFalse(fields.getJSONObject(1).has(JsonFormConstants.DEFAULT));
+        assertEquals("[\"Zambia\"]", fields.getJSONObject(2).getString(JsonFormConstants.DEFAULT));
+        assertEquals(1, fields.getJSONObject(2).getJSONArray(JsonFormConstants.TREE).length());
+    }
+
     @Test
     public void testGetAutoPopulatedJsonEditFormString() throws JSONException {
         Whitebox.setInternalState(Utils.context(), "imageRepository", imageRepository);
@@ -0,0 +1,82 @@
+package org.smartregister.family.util;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class LocationTreeCacheTest extends BaseUnitTest {
+
+    private final List<String> allowedLevels = Arrays.asList("Country", "Province");
+
+    private String userName = "demo";
+    private int locationsHash = 1;
+    private int builds;
+
+    private LocationTreeCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new LocationTreeCache() {
+            @Override
+            protected LocationTree buildLocationTree(List<String> allowedLevels) {
+                builds++;
+                try {
+                    return new LocationTree("[\"Zambia\"]", new JSONArray("[{\"key\":\"Zambia\",\"nodes\":[]}]"));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            protected String getUserName() {
+                return userName;
+            }
+
+            @Override
+            protected int getLocationsHash() {
+                return locationsHash;
+            }
+        };
+    }
+
+    @Test
+    public void testTreeIsBuiltOncePerUserAndLocations() {
+        LocationTreeCache.LocationTree first = cache.get(allowedLevels);
+        assertSame(first, cache.get(allowedLevels));
+        assertEquals(1, builds);
+
+        userName = "other";
+        cache.get(allowedLevels);
+        locationsHash = 2;
+        cache.get(allowedLevels);
+        cache.get(Collections.singletonList("Country"));
+        cache.invalidate();
+        cache.get(Collections.singletonList("Country"));
+
+        assertEquals(5, builds);
+    }
+
+    @Test
+    public void testEachQuestionGetsItsOwnTree() throws Exception {
+        JSONObject first = new JSONObject();
+        JSONObject second = new JSONObject();
+        LocationTreeCache.LocationTree locationTree = cache.get(allowedLevels);
+
+        locationTree.injectInto(first);
+        locationTree.injectInto(second);
+
+        assertEquals("[\"Zambia\"]", first.getString("default"));
+        assertEquals("Zambia", second.getJSONArray("tree").getJSONObject(0).getString("key"));
+        assertNotSame(first.getJSONArray("tree"), second.getJSONArray("tree"));
+    }
+}
@@ -0,0 +1,54 @@
+package org.smartregister.family.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PhotoPathCacheTest extends BaseUnitTest {
+
+    private final List<List<String>> queries = new ArrayList<>();
+
+    private PhotoPathCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new PhotoPathCache() {
+            @Override
+            protected Map<String, String> queryPhotoPaths(List<String> entityIds) {
+                queries.add(new ArrayList<>(entityIds));
+                return Collections.singletonMap("member-1", "/photos/member-1.JPEG");
+            }
+        };
+    }
+
+    @Test
+    public void testPageIsResolvedWithOneQuery() {
+        cache.resolve(Arrays.asList("member-1", "member-2", "member-3"));
+
+        assertEquals("/photos/member-1.JPEG", cache.getPhotoPath("MEMBER-1"));
+        assertEquals("", cache.getPhotoPath("member-2"));
+        assertEquals("", cache.peek("member-3"));
+        assertNull(cache.peek("member-4"));
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    public void testInvalidatedEntityIsQueriedAgain() {
+        cache.resolve(Arrays.asList("member-1", "member-2"));
+
+        cache.invalidate("member-1");
+
+        assertNull(cache.peek("member-1"));
+        assertEquals("/photos/member-1.JPEG", cache.getPhotoPath("member-1"));
+        assertEquals(Collections.singletonList("member-1"), queries.get(1));
+    }
+}
@@ -0,0 +1,32 @@
+package org.smartregister.family.util;
+
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class QueryConditionTest extends BaseUnitTest {
+
+    @Test
+    public void testToLiteralInlinesTheQuotedArguments() {
+        QueryCondition condition = new QueryCondition(" object_relational_id = ? and date_removed is null ", "family-1");
+
+        assertEquals(" object_relational_id = 'family-1' and date_removed is null ", condition.toLiteral());
+        assertArrayEquals(new String[]{"family-1"}, condition.getArgs());
+    }
+
+    @Test
+    public void testToLiteralEscapesQuotesAndSkipsQuotedQuestionMarks() {
+        QueryCondition condition = new QueryCondition("first_name != '?' and last_name = ? and village = ?", "O'Neil", null);
+
+        assertEquals("first_name != '?' and last_name = 'O''Neil' and village = NULL", condition.toLiteral());
+    }
+
+    @Test
+    public void testConditionWithoutArgumentsIsUnchanged() {
+        QueryCondition condition = new QueryCondition(" date_removed is null ");
+
+        assertEquals(" date_removed is null ", condition.toLiteral());
+    }
+}
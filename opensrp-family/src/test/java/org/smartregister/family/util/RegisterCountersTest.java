@@ -0,0 +1,125 @@
+package org.smartregister.family.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RegisterCountersTest extends BaseUnitTest {
+
+    private static final String MEMBER_TABLE = "ec_family_member";
+    private static final String MEMBER_COUNT = "SELECT COUNT(*) FROM ec_family_member WHERE object_relational_id = ? and date_removed is null";
+    private static final String FAMILY_TABLE = "ec_family";
+    private static final String FAMILY_COUNT = "SELECT COUNT(*) FROM ec_family WHERE date_removed is null";
+
+    private long now = 1000;
+
+    private RegisterCounters registerCounters;
+
+    private CountingRows memberRows = new CountingRows(3);
+
+    private CountingRows familyRows = new CountingRows(10);
+
+    @Before
+    public void setUp() {
+        registerCounters = new RegisterCounters() {
+            @Override
+            protected long now() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testCountIsKeptUntilTheFamilyChanges() {
+        assertEquals(3, registerCounters.getCount(MEMBER_TABLE, new String[]{"family-1"}, MEMBER_COUNT, memberRows));
+        assertEquals(10, registerCounters.getCount(FAMILY_TABLE, null, FAMILY_COUNT, familyRows));
+        now++;
+        assertEquals(3, registerCounters.getCount(MEMBER_TABLE, new String[]{"family-1"}, MEMBER_COUNT, memberRows));
+        assertEquals(1, memberRows.counts);
+
+        memberRows.rows = 4;
+        familyRows.rows = 11;
+        now++;
+        registerCounters.onFamilyChanged("family-1");
+        now++;
+
+        assertEquals(4, registerCounters.getCount(MEMBER_TABLE, new String[]{"family-1"}, MEMBER_COUNT, memberRows));
+        assertEquals(11, registerCounters.getCount(FAMILY_TABLE, null, FAMILY_COUNT, familyRows));
+        assertEquals(2, memberRows.counts);
+        assertEquals(2, familyRows.counts);
+        assertEquals(1, registerCounters.getHits());
+        assertEquals(4, registerCounters.getMisses());
+    }
+
+    @Test
+    public void testOtherFamiliesKeepTheirCounts() {
+        registerCounters.getCount(MEMBER_TABLE, new String[]{"family-2"}, MEMBER_COUNT, memberRows);
+        now++;
+        registerCounters.onFamilyChanged("family-1");
+        now++;
+
+        registerCounters.getCount(MEMBER_TABLE, new String[]{"family-2"}, MEMBER_COUNT, memberRows);
+
+        assertEquals(1, memberRows.counts);
+    }
+
+    @Test
+    public void testAllCountsAreCountedAgainWhenTheRegistersChanged() {
+        registerCounters.getCount(MEMBER_TABLE, new String[]{"family-2"}, MEMBER_COUNT, memberRows);
+        registerCounters.getCount(FAMILY_TABLE, null, FAMILY_COUNT, familyRows);
+        familyRows.rows = 11;
+        now++;
+        registerCounters.onRegistersChanged();
+        now++;
+
+        assertEquals(11, registerCounters.getCount(FAMILY_TABLE, null, FAMILY_COUNT, familyRows));
+        registerCounters.getCount(MEMBER_TABLE, new String[]{"family-2"}, MEMBER_COUNT, memberRows);
+        assertEquals(2, familyRows.counts);
+        assertEquals(2, memberRows.counts);
+    }
+
+    @Test
+    public void testCountIsReconciledWhenOld() {
+        registerCounters.getCount(FAMILY_TABLE, null, FAMILY_COUNT, familyRows);
+        familyRows.rows = 12;
+        now += RegisterCounters.RECONCILE_AFTER_MILLIS;
+
+        assertEquals(12, registerCounters.getCount(FAMILY_TABLE, null, FAMILY_COUNT, familyRows));
+        assertEquals(2, familyRows.counts);
+    }
+
+    @Test
+    public void testFailedCountIsNotKept() {
+        memberRows.rows = -1;
+
+        assertEquals(-1, registerCounters.getCount(MEMBER_TABLE, new String[]{"family-1"}, MEMBER_COUNT, memberRows));
+        assertNull(registerCounters.getCount(MEMBER_TABLE, "family-1"));
+    }
+
+    @Test
+    public void testGetCountOfFamily() {
+        registerCounters.getCount(MEMBER_TABLE, new String[]{"family-1"}, MEMBER_COUNT, memberRows);
+
+        assertEquals(Integer.valueOf(3), registerCounters.getCount(MEMBER_TABLE, "family-1"));
+        assertNull(registerCounters.getCount(MEMBER_TABLE, "family-2"));
+        assertNull(registerCounters.getCount(FAMILY_TABLE, null));
+    }
+
+    private static class CountingRows implements RegisterCounters.Counting {
+        private long rows;
+        private int counts;
+
+        private CountingRows(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public long count() {
+            counts++;
+            return rows;
+        }
+    }
+}
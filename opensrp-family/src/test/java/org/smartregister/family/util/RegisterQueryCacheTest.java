@@ -0,0 +1,110 @@
+package org.smartregister.family.util;
+
+import net.sqlcipher.database.SQLiteDatabase;
+import net.sqlcipher.database.SQLiteStatement;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.smartregister.family.BaseUnitTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RegisterQueryCacheTest extends BaseUnitTest {
+
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM ec_family_member WHERE object_relational_id = ?";
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private SQLiteDatabase database;
+
+    @Mock
+    private SQLiteStatement statement;
+
+    private RegisterQueryCache registerQueryCache;
+
+    private int builds;
+
+    private RegisterQueryCache.QueryBuilder builder = new RegisterQueryCache.QueryBuilder() {
+        @Override
+        public String build() {
+            builds++;
+            return COUNT_QUERY;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        registerQueryCache = new RegisterQueryCache();
+        when(database.isOpen()).thenReturn(true);
+        when(database.compileStatement(COUNT_QUERY)).thenReturn(statement);
+    }
+
+    @Test
+    public void testGetQueryBuildsOncePerKey() {
+        String key = RegisterQueryCache.countKey("ec_family_member", "object_relational_id = ?");
+
+        assertSame(COUNT_QUERY, registerQueryCache.getQuery(key, builder));
+        assertSame(COUNT_QUERY, registerQueryCache.getQuery(key, builder));
+        registerQueryCache.getQuery(RegisterQueryCache.countKey("ec_family", "date_removed is null"), builder);
+
+        assertEquals(2, builds);
+        assertEquals(1, registerQueryCache.getQueryHits());
+        assertEquals(2, registerQueryCache.getQueryMisses());
+    }
+
+    @Test
+    public void testMainKeyDependsOnTheProjection() {
+        String key = RegisterQueryCache.mainKey("ec_family", "date_removed is null", new String[]{"ec_family.first_name"});
+
+        assertEquals(key, RegisterQueryCache.mainKey("ec_family", "date_removed is null", new String[]{"ec_family.first_name"}));
+        assertNotEquals(key, RegisterQueryCache.mainKey("ec_family", "date_removed is null", new String[]{"ec_family.last_name"}));
+    }
+
+    @Test
+    public void testSimpleQueryForLongCompilesTheStatementOnce() {
+        when(statement.simpleQueryForLong()).thenReturn(3L, 5L);
+
+        assertEquals(3L, registerQueryCache.simpleQueryForLong(database, COUNT_QUERY, new String[]{"family-1"}));
+        assertEquals(5L, registerQueryCache.simpleQueryForLong(database, COUNT_QUERY, new String[]{"family-2"}));
+
+        verify(database, times(1)).compileStatement(COUNT_QUERY);
+        verify(statement, times(2)).clearBindings();
+        verify(statement).bindString(1, "family-1");
+        verify(statement).bindString(1, "family-2");
+        assertEquals(1, registerQueryCache.getStatementHits());
+        assertEquals(1, registerQueryCache.getStatementMisses());
+    }
+
+    @Test
+    public void testFailedStatementIsClosedAndCompiledAgain() {
+        when(statement.simpleQueryForLong()).thenThrow(new IllegalStateException("closed")).thenReturn(4L);
+
+        assertEquals(-1L, registerQueryCache.simpleQueryForLong(database, COUNT_QUERY, new String[]{"family-1"}));
+        assertEquals(4L, registerQueryCache.simpleQueryForLong(database, COUNT_QUERY, new String[]{"family-1"}));
+
+        verify(statement).close();
+        verify(database, times(2)).compileStatement(COUNT_QUERY);
+    }
+
+    @Test
+    public void testClearClosesTheStatements() {
+        registerQueryCache.simpleQueryForLong(database, COUNT_QUERY, new String[]{"family-1"});
+
+        registerQueryCache.clear();
+        registerQueryCache.simpleQueryForLong(database, COUNT_QUERY, new String[]{"family-1"});
+
+        verify(statement).close();
+        verify(database, times(2)).compileStatement(COUNT_QUERY);
+    }
+}
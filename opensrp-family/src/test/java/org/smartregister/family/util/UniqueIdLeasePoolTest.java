@@ -0,0 +1,187 @@
+package org.smartregister.family.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.smartregister.domain.UniqueId;
+import org.smartregister.family.BaseUnitTest;
+import org.smartregister.repository.AllSharedPreferences;
+import org.smartregister.repository.UniqueIdRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UniqueIdLeasePoolTest extends BaseUnitTest {
+
+    @Mock
+    private UniqueIdRepository uniqueIdRepository;
+
+    @Mock
+    private AllSharedPreferences allSharedPreferences;
+
+    private final Map<String, String> preferences = new HashMap<>();
+    private final Map<String, UniqueId> uniqueIds = new HashMap<>();
+    private final List<String> unusedIds = new ArrayList<>();
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            pendingTasks.add(command);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> preferences.get(invocation.getArgument(0))).when(allSharedPreferences).getPreference(anyString());
+        doAnswer(invocation -> preferences.put(invocation.getArgument(0), invocation.getArgument(1))).when(allSharedPreferences).savePreference(anyString(), anyString());
+
+        for (int i = 1; i <= 9; i++) {
+            UniqueId uniqueId = mock(UniqueId.class);
+            when(uniqueId.getOpenmrsId()).thenReturn("100-" + i);
+            uniqueIds.put("100-" + i, uniqueId);
+            if (i <= 6) {
+                unusedIds.add("100-" + i);
+            }
+        }
+        when(uniqueIdRepository.getNextUniqueId()).thenAnswer(invocation -> unusedIds.isEmpty() ? null : uniqueIds.get(unusedIds.get(0)));
+        doAnswer(invocation -> unusedIds.remove(invocation.getArgument(0)) ? 1 : 0).when(uniqueIdRepository).close(anyString());
+        doAnswer(invocation -> {
+            unusedIds.add(0, invocation.getArgument(0));
+            return 1;
+        }).when(uniqueIdRepository).open(anyString());
+    }
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.remove(0).run();
+        }
+    }
+
+    private UniqueIdLeasePool newPool() {
+        UniqueIdLeasePool pool = new UniqueIdLeasePool(uniqueIdRepository, allSharedPreferences, executor, 4, 1);
+        runPendingTasks();
+        return pool;
+    }
+
+    @Test
+    public void testLeaseHandsOutDistinctReservedIds() {
+        UniqueIdLeasePool pool = newPool();
+        assertEquals(4, pool.getAvailableCount());
+
+        String first = pool.lease();
+        String second = pool.lease();
+
+        assertNotEquals(first, second);
+        assertEquals(2, pool.getLeasedCount());
+        verify(uniqueIdRepository).close(first);
+        verify(uniqueIdRepository).close(second);
+    }
+
+    @Test
+    public void testPoolRefillsAtLowWatermark() {
+        UniqueIdLeasePool pool = newPool();
+        pool.lease();
+        pool.lease();
+        assertEquals(0, pendingTasks.size());
+
+        pool.lease();
+        assertEquals(1, pendingTasks.size());
+        runPendingTasks();
+
+        assertEquals(3, pool.getAvailableCount());
+        assertEquals(0, unusedIds.size());
+    }
+
+    @Test
+    public void testReleasedIdIsLeasedAgainAndCompletedIdIsDropped() {
+        UniqueIdLeasePool pool = newPool();
+        String released = pool.lease();
+        String completed = pool.lease();
+
+        pool.release(released);
+        pool.complete(completed.replace("-", ""));
+
+        assertEquals(0, pool.getLeasedCount());
+        assertEquals(released, pool.lease());
+        Set<String> reserved = new HashSet<>();
+        Collections.addAll(reserved, preferences.get("family_reserved_unique_ids").split(","));
+        assertFalse(reserved.contains(completed));
+    }
+
+    @Test
+    public void testAbandonedReservationsAreOpenedOnStart() {
+        preferences.put("family_reserved_unique_ids", "100-9,100-8");
+
+        newPool();
+
+        verify(uniqueIdRepository).open("100-9");
+        verify(uniqueIdRepository).open("100-8");
+    }
+
+    @Test
+    public void testLeaseOrReserveReturnsNullWhenNoIdsLeft() {
+        unusedIds.clear();
+        UniqueIdLeasePool pool = newPool();
+
+        assertNull(pool.leaseOrReserve());
+    }
+
+    @Test
+    public void testConcurrentRefillsNeverReserveTheSameId() throws Exception {
+        final List<String> openIds = Collections.synchronizedList(new ArrayList<>(unusedIds));
+        // the same open id is handed out until it is closed, slowly enough for the refills to overlap
+        when(uniqueIdRepository.getNextUniqueId()).thenAnswer(invocation -> {
+            UniqueId uniqueId = openIds.isEmpty() ? null : uniqueIds.get(openIds.get(0));
+            Thread.sleep(5);
+            return uniqueId;
+        });
+        doAnswer(invocation -> openIds.remove(invocation.getArgument(0)) ? 1 : 0).when(uniqueIdRepository).close(anyString());
+        final UniqueIdLeasePool pool = new UniqueIdLeasePool(uniqueIdRepository, null, executor, 4, 1);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pool.refill();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        Set<String> leasedIds = new HashSet<>();
+        for (String uniqueId = pool.lease(); uniqueId != null; uniqueId = pool.lease()) {
+            assertTrue(leasedIds.add(uniqueId));
+        }
+        assertEquals(4, leasedIds.size());
+    }
+}
@@ -0,0 +1,21 @@
+package org.smartregister.family.util;
+
+import org.junit.Test;
+import org.smartregister.family.BaseUnitTest;
+
+import static org.junit.Assert.assertEquals;
+
+public class UtilsTest extends BaseUnitTest {
+
+    @Test
+    public void testDurationWithoutSecondDateIsEmpty() {
+        assertEquals("", Utils.getDuration("1982-01-01T03:00:00.000+03:00", null));
+        assertEquals("", Utils.getDuration("1982-01-01T03:00:00.000+03:00", ""));
+        assertEquals("", Utils.getDuration(null, "2019-01-01T03:00:00.000+03:00"));
+    }
+
+    @Test
+    public void testDurationBetweenDates() {
+        assertEquals("37y", Utils.getDuration("1982-01-01T03:00:00.000+03:00", "2019-01-01T03:00:00.000+03:00"));
+    }
+}